@@ -0,0 +1,41 @@
+package com.onseju.matchingservice.benchmark;
+
+import com.onseju.matchingservice.domain.OrderStatus;
+import com.onseju.matchingservice.domain.TradeOrder;
+import com.onseju.matchingservice.domain.Type;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 벤치마크용 주문 생성
+ */
+final class BenchmarkOrders {
+
+    static final String COMPANY_CODE = "005930";
+    static final long BASE_PRICE = 10_000;
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 3, 1, 0, 0, 0);
+
+    private BenchmarkOrders() {
+    }
+
+    static TradeOrder order(long id, String companyCode, Type type, long price, long quantity, long accountId) {
+        final BigDecimal totalQuantity = BigDecimal.valueOf(quantity);
+        return TradeOrder.builder()
+                .id(id)
+                .companyCode(companyCode)
+                .type(type)
+                .status(OrderStatus.ACTIVE)
+                .price(BigDecimal.valueOf(price))
+                .totalQuantity(totalQuantity)
+                .remainingQuantity(totalQuantity)
+                .accountId(accountId)
+                .createdDateTime(CREATED_AT)
+                .build();
+    }
+
+    static TradeOrder order(long id, Type type, long price, long quantity, long accountId) {
+        return order(id, COMPANY_CODE, type, price, quantity, accountId);
+    }
+}
@@ -0,0 +1,81 @@
+package com.onseju.matchingservice.benchmark;
+
+import com.onseju.matchingservice.config.OrderBookProperties;
+import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.engine.FillBuffer;
+import com.onseju.matchingservice.engine.OrderBook;
+import com.onseju.matchingservice.engine.OrderBookType;
+import com.onseju.matchingservice.engine.SelfTradePrevention;
+import com.onseju.matchingservice.factory.OrderBookFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+
+import static com.onseju.matchingservice.benchmark.BenchmarkOrders.BASE_PRICE;
+import static com.onseju.matchingservice.benchmark.BenchmarkOrders.order;
+
+/**
+ * 주문장 깊이별 CompanyOrderBook.received 처리량
+ * 매도 호가를 depth개 가격대에 깔아 두고, 매 호출마다 최우선 호가와 1주씩 체결한다.
+ * 대기 수량이 충분히 커서 측정 중 호가가 소진되지 않는다.
+ */
+@State(Scope.Thread)
+public class CompanyOrderBookBenchmark {
+
+    private static final long RESTING_QUANTITY = 1_000_000_000L;
+
+    @Param({"1", "100", "1000"})
+    public int depth;
+
+    @Param({"SKIP_LIST", "PRICE_LADDER", "OFF_HEAP"})
+    public OrderBookType type;
+
+    private OrderBook orderBook;
+    private long orderId;
+
+    // 체결 버퍼를 재사용하는 처리에서 매 호출 비우는 버퍼
+    private final FillBuffer fills = new FillBuffer();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        final OrderBookFactory factory = new OrderBookFactory(
+                new OrderBookProperties(type, BigDecimal.ONE, new BigDecimal("0.30"), 10, 0, BigDecimal.ZERO, 1024, SelfTradePrevention.SKIP)
+        );
+        orderBook = factory.createOrderBook();
+        orderId = 0;
+        for (int i = 0; i < depth; i++) {
+            orderBook.received(order(++orderId, Type.LIMIT_SELL, BASE_PRICE + i, RESTING_QUANTITY, 1L));
+        }
+    }
+
+    @Benchmark
+    public void crossingLimitOrder(final Blackhole blackhole) {
+        blackhole.consume(orderBook.received(order(++orderId, Type.LIMIT_BUY, BASE_PRICE, 1, 2L)));
+    }
+
+    // 체결 이벤트 목록을 만들지 않고 재사용 버퍼에 기록한다. -prof gc로 목록 반환 방식과 할당량을 비교한다.
+    @Benchmark
+    public void crossingLimitOrderIntoBuffer(final Blackhole blackhole) {
+        fills.clear();
+        blackhole.consume(orderBook.received(order(++orderId, Type.LIMIT_BUY, BASE_PRICE, 1, 2L), fills));
+    }
+
+    @Benchmark
+    public void marketOrder(final Blackhole blackhole) {
+        blackhole.consume(orderBook.received(order(++orderId, Type.MARKET_BUY, 0, 1, 2L)));
+    }
+
+    // 체결되지 않는 지정가 주문을 접수한 뒤 취소해 주문장 크기를 유지한다.
+    @Benchmark
+    public void restingLimitOrderAndCancel(final Blackhole blackhole) {
+        final long id = ++orderId;
+        blackhole.consume(orderBook.received(order(id, Type.LIMIT_BUY, BASE_PRICE - 1, 1, 2L)));
+        blackhole.consume(orderBook.cancel(id));
+    }
+}
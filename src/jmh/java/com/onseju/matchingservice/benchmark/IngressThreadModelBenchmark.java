@@ -0,0 +1,174 @@
+package com.onseju.matchingservice.benchmark;
+
+import com.onseju.matchingservice.OrderAdmission;
+import com.onseju.matchingservice.config.IngressProperties;
+import com.onseju.matchingservice.config.MatchingEngineProperties;
+import com.onseju.matchingservice.config.OrderBookProperties;
+import com.onseju.matchingservice.config.TradeAuditProperties;
+import com.onseju.matchingservice.config.TradeEventPublisherProperties;
+import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.engine.ExecutionMode;
+import com.onseju.matchingservice.engine.MatchingEngine;
+import com.onseju.matchingservice.engine.TradeAuditLog;
+import com.onseju.matchingservice.engine.TradeEventPublisher;
+import com.onseju.matchingservice.factory.OrderBookFactory;
+import com.onseju.matchingservice.journal.OrderJournal;
+import com.onseju.matchingservice.journal.SnapshotStore;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.onseju.matchingservice.benchmark.BenchmarkOrders.BASE_PRICE;
+import static com.onseju.matchingservice.benchmark.BenchmarkOrders.order;
+
+/**
+ * 동시 클라이언트가 한꺼번에 주문을 넣을 때 요청 처리 스레드 방식별 지연 시간
+ * PLATFORM은 Tomcat 기본 최대 스레드 수와 같은 고정 스레드 풀, VIRTUAL은 요청마다 가상 스레드를 만든다.
+ * 각 요청은 ioMicros 만큼 요청 I/O를 흉내 내어 대기한 뒤, OrderAdmission 허가를 얻어 LOCKING 모드 엔진에 주문을 제출한다.
+ * 한 번의 호출이 clients 개의 요청을 한꺼번에 보내고 모두 끝날 때까지 기다리며,
+ * 요청별 지연 시간(작업을 넘긴 시점부터 체결 결과를 받을 때까지)을 측정 구간에서만 모아 trial 종료 시 백분위를 출력한다.
+ * ./gradlew jmh -PjmhIncludes=IngressThreadModelBenchmark
+ */
+@State(Scope.Benchmark)
+public class IngressThreadModelBenchmark {
+
+    public enum ThreadModel {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ThreadModel threadModel;
+
+    @Param({"10000"})
+    public int clients;
+
+    @Param({"200"})
+    public int platformThreads;
+
+    @Param({"1000"})
+    public int maxConcurrentOrders;
+
+    @Param({"0", "1000"})
+    public long ioMicros;
+
+    @Param({"16"})
+    public int symbols;
+
+    private final AtomicLong orderIds = new AtomicLong();
+
+    private String[] companyCodes;
+    private TradeEventPublisher eventPublisher;
+    private MatchingEngine matchingEngine;
+    private OrderAdmission admission;
+    private ExecutorService executor;
+
+    private Recorder latency;
+    private Histogram interval;
+    private Histogram measured;
+
+    @Setup
+    public void setUp() {
+        companyCodes = new String[symbols];
+        for (int i = 0; i < symbols; i++) {
+            companyCodes[i] = String.format("%06d", i);
+        }
+        eventPublisher = new TradeEventPublisher(
+                event -> {
+                },
+                new TradeAuditLog(TradeAuditProperties.disabled()),
+                TradeEventPublisherProperties.defaults()
+        );
+        matchingEngine = new MatchingEngine(
+                new OrderBookFactory(OrderBookProperties.defaults()),
+                eventPublisher,
+                OrderJournal.disabled(),
+                SnapshotStore.disabled(),
+                new MatchingEngineProperties(ExecutionMode.LOCKING, 1024, 0)
+        );
+        // 허가 대기로 거절되지 않도록 대기 시간을 넉넉히 둔다.
+        admission = new OrderAdmission(new IngressProperties(maxConcurrentOrders, TimeUnit.MINUTES.toMillis(1), 0, 1));
+        executor = threadModel == ThreadModel.VIRTUAL
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(platformThreads);
+
+        final long highest = TimeUnit.MINUTES.toNanos(1);
+        latency = new Recorder(1L, highest, 3);
+        interval = new Histogram(1L, highest, 3);
+        measured = new Histogram(1L, highest, 3);
+    }
+
+    @TearDown(Level.Iteration)
+    public void collect(final IterationParams params) {
+        latency.getIntervalHistogramInto(interval);
+        if (params.getType() == IterationType.MEASUREMENT) {
+            measured.add(interval);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        System.out.printf(
+                "%n[%s] clients=%d, ioMicros=%d, requests=%d, p50=%.1fus, p99=%.1fus, p99.9=%.1fus, max=%.1fus%n",
+                threadModel,
+                clients,
+                ioMicros,
+                measured.getTotalCount(),
+                measured.getValueAtPercentile(50) / 1_000.0,
+                measured.getValueAtPercentile(99) / 1_000.0,
+                measured.getValueAtPercentile(99.9) / 1_000.0,
+                measured.getMaxValue() / 1_000.0
+        );
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        matchingEngine.shutdown();
+        eventPublisher.close();
+    }
+
+    @Benchmark
+    public void burst() throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            final long submittedAt = System.nanoTime();
+            executor.execute(() -> {
+                try {
+                    request(submittedAt);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private void request(final long submittedAt) {
+        try {
+            if (ioMicros > 0) {
+                TimeUnit.MICROSECONDS.sleep(ioMicros);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        final long id = orderIds.incrementAndGet();
+        final String companyCode = companyCodes[ThreadLocalRandom.current().nextInt(companyCodes.length)];
+        final Type type = (id & 1) == 0 ? Type.LIMIT_BUY : Type.LIMIT_SELL;
+        admission.submit(() -> matchingEngine.processOrder(order(id, companyCode, type, BASE_PRICE, 1, id))).join();
+        latency.recordValue(System.nanoTime() - submittedAt);
+    }
+}
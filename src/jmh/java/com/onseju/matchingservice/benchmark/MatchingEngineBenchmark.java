@@ -0,0 +1,83 @@
+package com.onseju.matchingservice.benchmark;
+
+import com.onseju.matchingservice.config.MatchingEngineProperties;
+import com.onseju.matchingservice.config.OrderBookProperties;
+import com.onseju.matchingservice.config.TradeAuditProperties;
+import com.onseju.matchingservice.config.TradeEventPublisherProperties;
+import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.engine.ExecutionMode;
+import com.onseju.matchingservice.engine.MatchingEngine;
+import com.onseju.matchingservice.engine.TradeAuditLog;
+import com.onseju.matchingservice.engine.TradeEventPublisher;
+import com.onseju.matchingservice.factory.OrderBookFactory;
+import com.onseju.matchingservice.journal.OrderJournal;
+import com.onseju.matchingservice.journal.SnapshotStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.onseju.matchingservice.benchmark.BenchmarkOrders.BASE_PRICE;
+import static com.onseju.matchingservice.benchmark.BenchmarkOrders.order;
+
+/**
+ * 여러 종목에 대한 MatchingEngine.processOrder 처리량
+ * 스레드 수는 jmh 설정(-PjmhThreads)으로 조절하며, 각 스레드는 임의의 종목에 매수/매도 주문을 번갈아 넣는다.
+ */
+@State(Scope.Benchmark)
+public class MatchingEngineBenchmark {
+
+    @Param({"LOCKING", "SINGLE_WRITER"})
+    public ExecutionMode mode;
+
+    @Param({"16"})
+    public int symbols;
+
+    private final AtomicLong orderIds = new AtomicLong();
+
+    private String[] companyCodes;
+    private TradeEventPublisher eventPublisher;
+    private MatchingEngine matchingEngine;
+
+    @Setup
+    public void setUp() {
+        companyCodes = new String[symbols];
+        for (int i = 0; i < symbols; i++) {
+            companyCodes[i] = String.format("%06d", i);
+        }
+        eventPublisher = new TradeEventPublisher(
+                event -> {
+                },
+                new TradeAuditLog(TradeAuditProperties.disabled()),
+                TradeEventPublisherProperties.defaults()
+        );
+        matchingEngine = new MatchingEngine(
+                new OrderBookFactory(OrderBookProperties.defaults()),
+                eventPublisher,
+                OrderJournal.disabled(),
+                SnapshotStore.disabled(),
+                new MatchingEngineProperties(mode, 1024, 0)
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        matchingEngine.shutdown();
+        eventPublisher.close();
+    }
+
+    @Benchmark
+    public void processOrder(final Blackhole blackhole) {
+        final long id = orderIds.incrementAndGet();
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final String companyCode = companyCodes[random.nextInt(companyCodes.length)];
+        final Type type = (id & 1) == 0 ? Type.LIMIT_BUY : Type.LIMIT_SELL;
+        blackhole.consume(matchingEngine.processOrder(order(id, companyCode, type, BASE_PRICE, 1, id)).join());
+    }
+}
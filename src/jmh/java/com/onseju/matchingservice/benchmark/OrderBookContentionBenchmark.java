@@ -0,0 +1,77 @@
+package com.onseju.matchingservice.benchmark;
+
+import com.onseju.matchingservice.config.OrderBookProperties;
+import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.engine.OrderBook;
+import com.onseju.matchingservice.engine.OrderBookType;
+import com.onseju.matchingservice.engine.SelfTradePrevention;
+import com.onseju.matchingservice.factory.OrderBookFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.onseju.matchingservice.benchmark.BenchmarkOrders.BASE_PRICE;
+import static com.onseju.matchingservice.benchmark.BenchmarkOrders.order;
+
+/**
+ * 두 스레드가 한 주문장에 체결되지 않는 지정가 주문을 접수하고 취소한다.
+ * oppositeSides는 매도, 매수 방향에 나누어 접수하므로 방향별 락을 따로 잡고, sameSide는 같은 매수 방향 락을 두고 경합한다.
+ * 취소는 매도 방향부터 찾으므로 매수 주문의 취소는 매도 락을 잠깐 잡는다.
+ */
+@State(Scope.Group)
+public class OrderBookContentionBenchmark {
+
+    @Param({"SKIP_LIST", "PRICE_LADDER", "OFF_HEAP"})
+    public OrderBookType type;
+
+    private OrderBook orderBook;
+    private final AtomicLong orderId = new AtomicLong();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        final OrderBookFactory factory = new OrderBookFactory(
+                new OrderBookProperties(type, BigDecimal.ONE, new BigDecimal("0.30"), 10, 0, BigDecimal.ZERO, 1024, SelfTradePrevention.SKIP)
+        );
+        orderBook = factory.createOrderBook();
+        orderId.set(0);
+        // 기준가를 정하고, 접수할 주문이 상대 최우선 호가에 닿지 않도록 양쪽에 호가를 깔아 둔다.
+        orderBook.received(order(orderId.incrementAndGet(), Type.LIMIT_SELL, BASE_PRICE + 100, 1, 1L));
+        orderBook.received(order(orderId.incrementAndGet(), Type.LIMIT_BUY, BASE_PRICE - 100, 1, 2L));
+    }
+
+    @Benchmark
+    @Group("oppositeSides")
+    @GroupThreads(1)
+    public void sellSide(final Blackhole blackhole) {
+        restAndCancel(Type.LIMIT_SELL, BASE_PRICE + 1, blackhole);
+    }
+
+    @Benchmark
+    @Group("oppositeSides")
+    @GroupThreads(1)
+    public void buySide(final Blackhole blackhole) {
+        restAndCancel(Type.LIMIT_BUY, BASE_PRICE - 1, blackhole);
+    }
+
+    @Benchmark
+    @Group("sameSide")
+    @GroupThreads(2)
+    public void buySideOnly(final Blackhole blackhole) {
+        restAndCancel(Type.LIMIT_BUY, BASE_PRICE - 1, blackhole);
+    }
+
+    private void restAndCancel(final Type type, final long price, final Blackhole blackhole) {
+        final long id = orderId.incrementAndGet();
+        blackhole.consume(orderBook.received(order(id, type, price, 1, 3L)));
+        blackhole.consume(orderBook.cancel(id));
+    }
+}
@@ -0,0 +1,49 @@
+package com.onseju.matchingservice.benchmark;
+
+import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.engine.OrderStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static com.onseju.matchingservice.benchmark.BenchmarkOrders.BASE_PRICE;
+import static com.onseju.matchingservice.benchmark.BenchmarkOrders.order;
+
+/**
+ * 한 가격대에 대기 주문이 많을 때 OrderStorage.match 처리량
+ * 매 호출마다 대기 주문 SWEEP개를 체결하고 같은 수만큼 다시 채워 대기 주문 수를 유지한다.
+ */
+@State(Scope.Thread)
+public class OrderStorageBenchmark {
+
+    private static final int SWEEP = 10;
+
+    @Param({"100", "10000", "100000"})
+    public int restingOrders;
+
+    private OrderStorage orderStorage;
+    private long orderId;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        orderStorage = new OrderStorage();
+        orderId = 0;
+        for (int i = 0; i < restingOrders; i++) {
+            orderStorage.add(order(++orderId, Type.LIMIT_SELL, BASE_PRICE, 1, 1L));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SWEEP)
+    public void matchAcrossOrders(final Blackhole blackhole) {
+        blackhole.consume(orderStorage.match(order(++orderId, Type.LIMIT_BUY, BASE_PRICE, SWEEP, 2L)));
+        for (int i = 0; i < SWEEP; i++) {
+            orderStorage.add(order(++orderId, Type.LIMIT_SELL, BASE_PRICE, 1, 1L));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.onseju.matchingservice;
+
+import com.onseju.matchingservice.config.OrderBookProperties;
+import com.onseju.matchingservice.dto.CandleResponse;
+import com.onseju.matchingservice.dto.OrderBookDepthResponse;
+import com.onseju.matchingservice.dto.TickerResponse;
+import com.onseju.matchingservice.dto.TopOfBookResponse;
+import com.onseju.matchingservice.engine.CandleInterval;
+import com.onseju.matchingservice.engine.MatchingEngine;
+import com.onseju.matchingservice.feed.FeedSink;
+import com.onseju.matchingservice.feed.MarketDataFeed;
+import com.onseju.matchingservice.feed.SseFeedSink;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 호가, 시세 조회 API, 주문장이 교체해 둔 스냅샷과 순번 락으로 보호되는 값을 읽기만 하므로 매칭을 막지 않는다.
+ */
+@RestController
+@RequestMapping("/api/market")
+@RequiredArgsConstructor
+public class MarketDataController {
+
+    private final MatchingEngine matchingEngine;
+    private final MarketDataFeed marketDataFeed;
+    private final OrderBookProperties orderBookProperties;
+
+    @GetMapping("/{companyCode}/top")
+    public ResponseEntity<TopOfBookResponse> topOfBook(
+            @PathVariable final String companyCode
+    ) {
+        return matchingEngine.getDepth(companyCode)
+                .map(depth -> ResponseEntity.ok(TopOfBookResponse.of(companyCode, depth)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // 조회용 스냅샷에는 설정한 가격대 수까지만 담기므로, 생략하면 설정값을 쓰고 범위를 벗어난 요청은 400으로 응답한다.
+    @GetMapping("/{companyCode}/depth")
+    public ResponseEntity<OrderBookDepthResponse> depth(
+            @PathVariable final String companyCode,
+            @RequestParam(required = false) final Integer levels
+    ) {
+        final int maxLevels = orderBookProperties.depthLevels();
+        if (levels != null && (levels < 1 || levels > maxLevels)) {
+            return ResponseEntity.badRequest().build();
+        }
+        final int requested = levels == null ? maxLevels : levels;
+        return matchingEngine.getDepth(companyCode)
+                .map(depth -> ResponseEntity.ok(OrderBookDepthResponse.of(companyCode, depth, requested)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{companyCode}/ticker")
+    public ResponseEntity<TickerResponse> ticker(
+            @PathVariable final String companyCode
+    ) {
+        return matchingEngine.getTicker(companyCode)
+                .map(ticker -> ResponseEntity.ok(TickerResponse.of(companyCode, ticker)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{companyCode}/candles")
+    public ResponseEntity<List<CandleResponse>> candles(
+            @PathVariable final String companyCode,
+            @RequestParam(defaultValue = "SECOND") final CandleInterval interval
+    ) {
+        return matchingEngine.getCandles(companyCode, interval)
+                .map(candles -> ResponseEntity.ok(candles.stream().map(CandleResponse::of).toList()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 호가 변경 스트림, 첫 이벤트로 스냅샷을 보내고 이후에는 변경된 가격대와 체결만 보낸다.
+     */
+    @GetMapping(value = "/{companyCode}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @PathVariable final String companyCode
+    ) throws IOException {
+        final SseEmitter emitter = new SseEmitter(0L);
+        final FeedSink sink = new SseFeedSink(emitter);
+        final Runnable unsubscribe = () -> marketDataFeed.unsubscribe(companyCode, sink);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        marketDataFeed.subscribe(companyCode, sink, levels -> matchingEngine.captureDepth(companyCode, levels));
+        return emitter;
+    }
+}
@@ -2,8 +2,10 @@ package com.onseju.matchingservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class MatchingServiceApplication {
 
     public static void main(String[] args) {
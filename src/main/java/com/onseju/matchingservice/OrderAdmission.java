@@ -0,0 +1,110 @@
+package com.onseju.matchingservice;
+
+import com.onseju.matchingservice.config.IngressProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * REST 주문 요청이 엔진에 동시에 들어가는 수를 세마포어 허가 수로 제한한다.
+ * 가상 스레드 모드에서는 요청 스레드 수가 스레드 풀 크기로 묶이지 않으므로, 동시 처리 수를 풀 크기 대신 허가 수로 정한다.
+ * 정해진 시간 안에 허가를 얻지 못한 요청은 503으로 거절한다.
+ * 종목별로도 처리를 기다리는 요청 수를 세어, 한 종목에 요청이 몰려 주문장 락이나 링 버퍼 앞에 스레드가 쌓이기 전에
+ * 기다리지 않고 429와 Retry-After로 거절한다. 처리 중인 요청이 없는 종목은 맵에서 지우므로 맵 크기는 처리 중인 종목 수로 묶인다.
+ */
+@Component
+public class OrderAdmission {
+
+    // 제한하지 않는 경우 null
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    // 종목 코드별 처리 중인 요청 수, 0이 되면 지운다.
+    private final ConcurrentHashMap<String, Integer> pending = new ConcurrentHashMap<>();
+    private final int maxPendingPerSymbol;
+    private final long retryAfterSeconds;
+
+    public OrderAdmission(final IngressProperties properties) {
+        this.permits = properties.isLimited() ? new Semaphore(properties.maxConcurrentOrders()) : null;
+        this.acquireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(properties.acquireTimeoutMs());
+        this.maxPendingPerSymbol = properties.isSymbolLimited() ? properties.maxPendingPerSymbol() : 0;
+        this.retryAfterSeconds = properties.retryAfterSeconds();
+    }
+
+    /**
+     * 허가를 얻은 뒤 작업을 제출하고, 작업이 끝나면 허가를 돌려준다.
+     */
+    public <T> CompletableFuture<T> submit(final Supplier<CompletableFuture<T>> task) {
+        if (permits == null) {
+            return task.get();
+        }
+        acquire();
+        return run(task, permits::release);
+    }
+
+    /**
+     * 종목별 대기 한도 안에서 허가를 얻은 뒤 작업을 제출한다. 한도를 넘으면 허가를 기다리지 않고 거절한다.
+     * 종목 코드가 없으면 수를 세기 전에 400으로 거절한다.
+     */
+    public <T> CompletableFuture<T> submit(final String companyCode, final Supplier<CompletableFuture<T>> task) {
+        if (companyCode == null || companyCode.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "종목 코드가 필요합니다.");
+        }
+        if (maxPendingPerSymbol == 0) {
+            return submit(task);
+        }
+        if (pending.merge(companyCode, 1, Integer::sum) > maxPendingPerSymbol) {
+            leave(companyCode);
+            throw new RetryLaterException(companyCode, retryAfterSeconds);
+        }
+        return run(() -> submit(task), () -> leave(companyCode));
+    }
+
+    // 처리 중인 요청 수를 줄이고, 0이 되면 종목을 맵에서 지운다. 증가와 감소 모두 맵 안에서 원자적으로 한다.
+    private void leave(final String companyCode) {
+        pending.computeIfPresent(companyCode, (key, count) -> count == 1 ? null : count - 1);
+    }
+
+    // 제출 중 예외가 발생하거나 작업이 끝나면 release를 실행한다.
+    private <T> CompletableFuture<T> run(final Supplier<CompletableFuture<T>> task, final Runnable release) {
+        final CompletableFuture<T> future;
+        try {
+            future = task.get();
+        } catch (RuntimeException | Error e) {
+            release.run();
+            throw e;
+        }
+        return future.whenComplete((result, failure) -> release.run());
+    }
+
+    private void acquire() {
+        try {
+            if (permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "처리 중인 주문 요청이 너무 많습니다.");
+    }
+
+    // 제한하지 않는 경우 -1
+    public int availablePermits() {
+        return permits == null ? -1 : permits.availablePermits();
+    }
+
+    public int pendingCount(final String companyCode) {
+        return pending.getOrDefault(companyCode, 0);
+    }
+
+    // 처리 중인 요청이 있는 종목 수
+    public int pendingSymbolCount() {
+        return pending.size();
+    }
+}
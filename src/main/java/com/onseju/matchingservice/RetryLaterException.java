@@ -0,0 +1,29 @@
+package com.onseju.matchingservice;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 종목별 대기 한도를 넘은 요청을 429로 거절하고, Retry-After 헤더로 재시도 시점을 알려 준다.
+ */
+public class RetryLaterException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public RetryLaterException(final String companyCode, final long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "처리를 기다리는 주문이 너무 많은 종목입니다: " + companyCode);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return headers;
+    }
+}
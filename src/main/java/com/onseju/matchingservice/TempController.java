@@ -1,26 +1,74 @@
 package com.onseju.matchingservice;
 
 import com.onseju.matchingservice.domain.TradeOrder;
+import com.onseju.matchingservice.dto.AmendOrderRequest;
+import com.onseju.matchingservice.dto.CancelOrderRequest;
+import com.onseju.matchingservice.dto.OrderResult;
 import com.onseju.matchingservice.engine.MatchingEngine;
+import com.onseju.matchingservice.engine.TradeEventBacklogException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 public class TempController {
 
     private final MatchingEngine matchingEngine;
+    private final OrderAdmission admission;
 
     @PostMapping("/matching")
-    public ResponseEntity<Void> received(
+    public CompletableFuture<ResponseEntity<OrderResult>> received(
             @RequestBody final TradeOrder order
     ) {
-        matchingEngine.processOrder(order);
-        return ResponseEntity.ok().build();
+        return admission.submit(order.getCompanyCode(), () -> matchingEngine.processOrder(order))
+                .thenApply(trades -> ResponseEntity.ok(new OrderResult(order.getId(), trades)));
+    }
+
+    @PostMapping("/matching/batch")
+    public CompletableFuture<ResponseEntity<List<OrderResult>>> receivedAll(
+            @RequestBody final List<TradeOrder> orders
+    ) {
+        return admission.submit(() -> matchingEngine.processOrders(orders))
+                .thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/matching/cancel")
+    public CompletableFuture<ResponseEntity<Void>> cancel(
+            @RequestBody final CancelOrderRequest request
+    ) {
+        return admission.submit(request.companyCode(), () -> matchingEngine.cancelOrder(request))
+                .thenApply(canceled -> canceled ? ResponseEntity.ok().build() : ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/matching/amend")
+    public CompletableFuture<ResponseEntity<OrderResult>> amend(
+            @RequestBody final AmendOrderRequest request
+    ) {
+        return admission.submit(request.companyCode(), () -> matchingEngine.amendOrder(request))
+                .thenApply(results -> results
+                        .map(trades -> ResponseEntity.ok(new OrderResult(request.orderId(), trades)))
+                        .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+
+    // 가격 형식, 호가 범위처럼 주문 내용이 잘못된 요청은 서버 오류가 아닌 400으로 응답한다.
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> rejectInvalidOrder(final IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    // 체결 이벤트 발행이 밀려 매칭 전에 거절된 주문은 적용되지 않았으므로 다시 보낼 수 있다.
+    @ExceptionHandler(TradeEventBacklogException.class)
+    public ResponseEntity<String> rejectBackloggedOrder(final TradeEventBacklogException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
     }
 }
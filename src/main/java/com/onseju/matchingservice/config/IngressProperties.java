@@ -0,0 +1,33 @@
+package com.onseju.matchingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * REST 주문 요청의 동시 처리 제한 설정
+ *
+ * @param maxConcurrentOrders 엔진에 동시에 제출할 수 있는 요청 수 (0 이하이면 제한하지 않음)
+ * @param acquireTimeoutMs    허가를 기다리는 최대 시간, 넘으면 요청을 거절한다
+ * @param maxPendingPerSymbol 종목별로 처리를 기다리는 요청 수 한도, 넘으면 기다리지 않고 바로 거절한다 (0 이하이면 제한하지 않음)
+ * @param retryAfterSeconds   종목별 한도로 거절할 때 Retry-After로 알려 줄 재시도 대기 시간
+ */
+@ConfigurationProperties(prefix = "matching.ingress")
+public record IngressProperties(
+        @DefaultValue("1000") int maxConcurrentOrders,
+        @DefaultValue("100") long acquireTimeoutMs,
+        @DefaultValue("256") int maxPendingPerSymbol,
+        @DefaultValue("1") long retryAfterSeconds
+) {
+
+    public static IngressProperties unlimited() {
+        return new IngressProperties(0, 100, 0, 1);
+    }
+
+    public boolean isLimited() {
+        return maxConcurrentOrders > 0;
+    }
+
+    public boolean isSymbolLimited() {
+        return maxPendingPerSymbol > 0;
+    }
+}
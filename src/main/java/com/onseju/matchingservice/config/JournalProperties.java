@@ -0,0 +1,25 @@
+package com.onseju.matchingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 주문 저널 설정
+ *
+ * @param enabled         저널 기록 및 시작 시 복구 여부
+ * @param directory       저널 세그먼트 파일을 저장할 디렉터리
+ * @param segmentSize     세그먼트 파일 하나의 크기 (바이트)
+ * @param flushIntervalMs 디스크 동기화(fsync) 주기, 0 이하이면 기록할 때마다 동기화한다
+ */
+@ConfigurationProperties(prefix = "matching.journal")
+public record JournalProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("journal") String directory,
+        @DefaultValue("268435456") long segmentSize,
+        @DefaultValue("5") long flushIntervalMs
+) {
+
+    public static JournalProperties disabled() {
+        return new JournalProperties(false, "journal", 268435456L, 5L);
+    }
+}
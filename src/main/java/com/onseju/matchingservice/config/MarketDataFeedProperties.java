@@ -0,0 +1,25 @@
+package com.onseju.matchingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 호가 변경 스트림 설정
+ *
+ * @param publishIntervalMs 종목별 변경 사항을 모아 구독자에게 전달하는 주기
+ * @param snapshotLevels    구독 시작 시 보내는 방향별 가격대 수
+ * @param senderThreads     구독자에게 메시지를 보내는 스레드 수
+ * @param tradeBacklog      느린 구독자에게 보관하는 최근 체결 수, 넘으면 오래된 체결부터 버린다
+ */
+@ConfigurationProperties(prefix = "matching.feed")
+public record MarketDataFeedProperties(
+        @DefaultValue("50") long publishIntervalMs,
+        @DefaultValue("50") int snapshotLevels,
+        @DefaultValue("4") int senderThreads,
+        @DefaultValue("100") int tradeBacklog
+) {
+
+    public static MarketDataFeedProperties defaults() {
+        return new MarketDataFeedProperties(50L, 50, 4, 100);
+    }
+}
@@ -0,0 +1,31 @@
+package com.onseju.matchingservice.config;
+
+import com.onseju.matchingservice.engine.ExecutionMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 매칭 엔진 실행 방식 설정
+ *
+ * @param mode           매칭 실행 방식
+ * @param ringBufferSize 단일 스레드 모드에서 파티션별 링 버퍼 크기 (2 이상의 2의 거듭제곱)
+ * @param partitions     단일 스레드 모드에서 종목을 나눌 파티션 수 (0 이하이면 CPU 코어 수)
+ */
+@ConfigurationProperties(prefix = "matching.engine")
+public record MatchingEngineProperties(
+        @DefaultValue("LOCKING") ExecutionMode mode,
+        @DefaultValue("1024") int ringBufferSize,
+        @DefaultValue("0") int partitions
+) {
+
+    public static MatchingEngineProperties defaults() {
+        return new MatchingEngineProperties(ExecutionMode.LOCKING, 1024, 0);
+    }
+
+    public int partitionCount() {
+        if (partitions > 0) {
+            return partitions;
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+}
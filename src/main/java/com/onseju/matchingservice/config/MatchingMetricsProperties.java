@@ -0,0 +1,25 @@
+package com.onseju.matchingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 매칭 계측 설정
+ *
+ * @param enabled               계측 여부, 끄면 매칭 경로에서 시각을 측정하지 않는다
+ * @param harvestIntervalMs     스레드별 히스토그램을 모아 백분위 값을 갱신하는 주기
+ * @param highestTrackableMs    기록할 수 있는 최대 지연 시간, 넘는 값은 최대값으로 기록한다
+ * @param significantDigits     히스토그램의 유효 자릿수
+ */
+@ConfigurationProperties(prefix = "matching.metrics")
+public record MatchingMetricsProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") long harvestIntervalMs,
+        @DefaultValue("10000") long highestTrackableMs,
+        @DefaultValue("3") int significantDigits
+) {
+
+    public static MatchingMetricsProperties defaults() {
+        return new MatchingMetricsProperties(true, 10_000L, 10_000L, 3);
+    }
+}
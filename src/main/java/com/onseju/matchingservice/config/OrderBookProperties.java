@@ -0,0 +1,47 @@
+package com.onseju.matchingservice.config;
+
+import com.onseju.matchingservice.engine.MarketOrderProtection;
+import com.onseju.matchingservice.engine.OrderBookType;
+import com.onseju.matchingservice.engine.SelfTradePrevention;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.math.BigDecimal;
+
+/**
+ * 주문장 구성 설정
+ *
+ * @param type        가격대 저장 방식 (OFF_HEAP은 대기 주문까지 힙 밖 레코드로 보관)
+ * @param tickSize    배열 기반 가격대의 호가 단위
+ * @param limitRate   배열 기반 가격대의 기준가 대비 가격 제한폭 (0.30 = 30%)
+ * @param depthLevels 호가 조회용 스냅샷에 담을 방향별 가격대 수
+ * @param marketMaxLevels 시장가 주문이 체결할 수 있는 최대 가격대 수 (0 = 제한 없음)
+ * @param marketMaxDeviationRate 시장가 주문의 기준가 대비 최대 체결 괴리율 (0.05 = 5%, 0 = 제한 없음)
+ * @param restingOrderPoolSize 방향별로 다시 쓰기 위해 보관하는 대기 주문 핸들 수 (0 = 보관하지 않음)
+ * @param selfTradePrevention 같은 계정의 주문끼리 체결될 때의 처리 방식
+ */
+@ConfigurationProperties(prefix = "matching.order-book")
+public record OrderBookProperties(
+        @DefaultValue("SKIP_LIST") OrderBookType type,
+        @DefaultValue("1") BigDecimal tickSize,
+        @DefaultValue("0.30") BigDecimal limitRate,
+        @DefaultValue("10") int depthLevels,
+        @DefaultValue("0") int marketMaxLevels,
+        @DefaultValue("0") BigDecimal marketMaxDeviationRate,
+        @DefaultValue("1024") int restingOrderPoolSize,
+        @DefaultValue("SKIP") SelfTradePrevention selfTradePrevention
+) {
+
+    public static OrderBookProperties defaults() {
+        return new OrderBookProperties(
+                OrderBookType.SKIP_LIST, BigDecimal.ONE, new BigDecimal("0.30"), 10, 0, BigDecimal.ZERO, 1024, SelfTradePrevention.SKIP
+        );
+    }
+
+    public MarketOrderProtection marketOrderProtection() {
+        return new MarketOrderProtection(
+                marketMaxLevels,
+                marketMaxDeviationRate.movePointRight(4).longValueExact()
+        );
+    }
+}
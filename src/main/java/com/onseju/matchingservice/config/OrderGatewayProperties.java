@@ -0,0 +1,25 @@
+package com.onseju.matchingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 바이너리 주문 게이트웨이 설정
+ *
+ * @param enabled           TCP 게이트웨이 사용 여부, 사용하지 않으면 REST로만 주문을 받는다
+ * @param port              수신 포트 (0이면 임의의 빈 포트)
+ * @param receiveBufferSize 연결별 수신 버퍼 크기, 한 프레임은 이 크기를 넘을 수 없다
+ * @param sendBufferSize    연결별 송신 버퍼 크기, 보내지 못한 응답이 이 크기를 넘으면 연결을 끊는다
+ */
+@ConfigurationProperties(prefix = "matching.gateway")
+public record OrderGatewayProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("9092") int port,
+        @DefaultValue("65536") int receiveBufferSize,
+        @DefaultValue("262144") int sendBufferSize
+) {
+
+    public static OrderGatewayProperties disabled() {
+        return new OrderGatewayProperties(false, 9092, 65536, 262144);
+    }
+}
@@ -0,0 +1,25 @@
+package com.onseju.matchingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 주문장 스냅샷 설정, 저널이 활성화된 경우에만 동작한다.
+ *
+ * @param enabled         스냅샷 저장 및 시작 시 스냅샷 로드 여부
+ * @param directory       스냅샷 파일을 저장할 디렉터리
+ * @param intervalSeconds 스냅샷 저장 주기 (초)
+ * @param journalRecords  마지막 스냅샷 이후 저널 레코드가 이 수를 넘으면 주기와 관계없이 저장한다
+ */
+@ConfigurationProperties(prefix = "matching.snapshot")
+public record SnapshotProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("snapshot") String directory,
+        @DefaultValue("300") long intervalSeconds,
+        @DefaultValue("1000000") long journalRecords
+) {
+
+    public static SnapshotProperties disabled() {
+        return new SnapshotProperties(false, "snapshot", 300L, 1_000_000L);
+    }
+}
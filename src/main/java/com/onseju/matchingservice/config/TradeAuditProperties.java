@@ -0,0 +1,25 @@
+package com.onseju.matchingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 체결 감사 로그 설정, 로그 레벨은 trade-audit 로거의 레벨로 조절한다.
+ *
+ * @param enabled    체결 감사 로그 기록 여부
+ * @param sampleRate 체결 N건 중 1건만 기록 (1이면 모두 기록)
+ */
+@ConfigurationProperties(prefix = "matching.audit")
+public record TradeAuditProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1") int sampleRate
+) {
+
+    public static TradeAuditProperties defaults() {
+        return new TradeAuditProperties(true, 1);
+    }
+
+    public static TradeAuditProperties disabled() {
+        return new TradeAuditProperties(false, 1);
+    }
+}
@@ -0,0 +1,23 @@
+package com.onseju.matchingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 체결 이벤트 발행 설정
+ *
+ * @param lanes         종목 코드의 해시로 나눌 발행 큐 수, 같은 종목의 이벤트는 같은 큐에서 순서대로 발행된다
+ * @param queueCapacity 큐별 대기 이벤트 한도, 이만큼 쌓이면 해당 큐의 종목 주문을 매칭하기 전에 거절한다
+ * @param batchSize     소비 스레드가 한 번에 꺼내 발행할 최대 이벤트 수
+ */
+@ConfigurationProperties(prefix = "matching.publisher")
+public record TradeEventPublisherProperties(
+        @DefaultValue("2") int lanes,
+        @DefaultValue("8192") int queueCapacity,
+        @DefaultValue("256") int batchSize
+) {
+
+    public static TradeEventPublisherProperties defaults() {
+        return new TradeEventPublisherProperties(2, 8192, 256);
+    }
+}
@@ -1,22 +1,46 @@
 package com.onseju.matchingservice.domain;
 
 import java.math.BigDecimal;
-import java.util.Objects;
 
+/**
+ * 매칭에 사용하는 가격. 소수점 SCALE 자리까지를 정수로 환산한 고정 소수점 값으로 보관한다.
+ */
 public class Price {
 
-    private final BigDecimal value;
+    // 가격의 소수점 자릿수
+    public static final int SCALE = 2;
 
-    public Price(BigDecimal value) {
+    private final long value;
+
+    public Price(long value) {
         this.value = value;
     }
 
-    public BigDecimal getValue() {
+    public Price(BigDecimal value) {
+        this(toScaled(value));
+    }
+
+    public long getValue() {
         return value;
     }
 
-    public boolean isHigherThan(BigDecimal price) {
-        return value.compareTo(price) > 0;
+    public boolean isHigherThan(long price) {
+        return value > price;
+    }
+
+    // API 경계에서 입력된 가격을 고정 소수점 값으로 변환한다. 소수점 SCALE 자리를 넘거나 long 범위를 벗어나면 거절한다.
+    public static long toScaled(BigDecimal price) {
+        try {
+            return price.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("가격은 소수점 " + SCALE + "자리까지 입력할 수 있습니다: " + price.toPlainString(), e);
+        }
+    }
+
+    // 고정 소수점 값을 API 경계에서 사용하는 가격으로 변환한다. 10000.00은 1E+4가 아닌 10000으로 돌려준다.
+    public static BigDecimal toDecimal(long scaledPrice) {
+        final BigDecimal price = BigDecimal.valueOf(scaledPrice, SCALE).stripTrailingZeros();
+        return price.scale() < 0 ? price.setScale(0) : price;
     }
 
     @Override
@@ -25,11 +49,11 @@ public class Price {
             return false;
         }
         Price price = (Price) o;
-        return Objects.equals(value, price.value);
+        return value == price.value;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(value);
+        return Long.hashCode(value);
     }
 }
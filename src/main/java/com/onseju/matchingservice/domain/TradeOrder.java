@@ -1,17 +1,13 @@
 package com.onseju.matchingservice.domain;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicReference;
 
 @Getter
-@AllArgsConstructor
-@Builder
 public class TradeOrder {
 
     private final Long id;
@@ -24,14 +20,84 @@ public class TradeOrder {
 
     private final BigDecimal totalQuantity;
 
-    private AtomicReference<BigDecimal> remainingQuantity;
-
     private BigDecimal price;
 
     private LocalDateTime createdDateTime;
 
     private Long accountId;
 
+    // 매칭 시 사용하는 고정 소수점 가격 (Price.SCALE 자리)
+    private long scaledPrice;
+
+    // 매칭 시 사용하는 남은 수량
+    private long remaining;
+
+    // 주문장이 접수할 때 부여하는 도착 순번, 0이면 아직 접수되지 않은 주문이다.
+    private long arrivalSequence;
+
+    // 주문장이 접수한 시각 (System.nanoTime)
+    private long receivedNanos;
+
+    @Builder
+    public TradeOrder(
+            Long id,
+            String companyCode,
+            Type type,
+            OrderStatus status,
+            BigDecimal totalQuantity,
+            BigDecimal remainingQuantity,
+            BigDecimal price,
+            LocalDateTime createdDateTime,
+            Long accountId
+    ) {
+        this.id = id;
+        this.companyCode = companyCode;
+        this.type = type;
+        this.status = status;
+        this.totalQuantity = totalQuantity;
+        this.price = price;
+        this.createdDateTime = createdDateTime;
+        this.accountId = accountId;
+        this.scaledPrice = toScaledPrice(type, price);
+        this.remaining = toQuantity(remainingQuantity != null ? remainingQuantity : totalQuantity);
+    }
+
+    // API 경계에서 입력된 수량을 정수로 변환한다. 비어 있거나, 0 이하이거나, 소수이거나, long 범위를 벗어나면 거절한다.
+    public static long toQuantity(final BigDecimal quantity) {
+        if (quantity == null) {
+            throw new IllegalArgumentException("주문 수량이 필요합니다.");
+        }
+        final long value;
+        try {
+            value = quantity.longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("주문 수량은 정수여야 합니다: " + quantity.toPlainString(), e);
+        }
+        if (value <= 0) {
+            throw new IllegalArgumentException("주문 수량은 0보다 커야 합니다: " + quantity.toPlainString());
+        }
+        return value;
+    }
+
+    // 시장가 주문은 가격 없이 들어올 수 있으므로 0으로 둔다.
+    private static long toScaledPrice(final Type type, final BigDecimal price) {
+        if (price != null) {
+            return Price.toScaled(price);
+        }
+        if (type != null && type.isMarket()) {
+            return 0L;
+        }
+        throw new IllegalArgumentException("지정가 주문은 가격이 필요합니다.");
+    }
+
+    /**
+     * 주문장 접수 시 도착 순번과 접수 시각을 기록한다. 같은 가격대의 체결 우선순위는 클라이언트가 보낸 주문 시각이 아니라 이 순번으로 정한다.
+     */
+    public void arrive(final long sequence, final long nanos) {
+        this.arrivalSequence = sequence;
+        this.receivedNanos = nanos;
+    }
+
     // 입력 주문과 같은 계정으로부터의 주문인지 확인
     public boolean isSameAccount(Long otherAccountId) {
         if (otherAccountId == null) {
@@ -41,30 +107,48 @@ public class TradeOrder {
     }
 
     // 남은 양 감소
-    public void decreaseRemainingQuantity(final BigDecimal quantity) {
-        remainingQuantity.updateAndGet(before ->
-                before.subtract(quantity).max(BigDecimal.ZERO)
-        );
+    public void decreaseRemainingQuantity(final long quantity) {
+        remaining = Math.max(remaining - quantity, 0L);
     }
 
     public boolean isSellType() {
         return type.isSell();
     }
 
-    public BigDecimal calculateMatchQuantity(final TradeOrder other) {
-        long min = Math.min(remainingQuantity.get().longValue(), other.getRemainingQuantity().get().longValue());
-        return new BigDecimal(min);
+    public long calculateMatchQuantity(final TradeOrder other) {
+        return Math.min(remaining, other.remaining);
     }
 
     // 체결 완료 여부 확인
     public void checkAndChangeOrderStatus() {
-        if (this.remainingQuantity.get().equals(BigDecimal.ZERO)) {
+        if (remaining == 0L) {
             this.status = OrderStatus.COMPLETE;
         }
     }
 
     public boolean hasRemainingQuantity() {
-        return !remainingQuantity.get().equals(BigDecimal.ZERO);
+        return remaining != 0L;
+    }
+
+    // API 경계에서 사용하는 남은 수량
+    public BigDecimal getRemainingQuantity() {
+        return BigDecimal.valueOf(remaining);
+    }
+
+    // 주문 취소
+    public void cancel() {
+        this.status = OrderStatus.CANCEL;
+    }
+
+    // 정정 주문: 남은 수량 변경
+    public void changeRemainingQuantity(final long quantity) {
+        this.remaining = quantity;
+    }
+
+    // 정정 주문: 가격 변경
+    public void changePrice(final BigDecimal price) {
+        this.price = price;
+        this.scaledPrice = Price.toScaled(price);
     }
 
     public boolean isMarketOrder() {
@@ -75,10 +159,12 @@ public class TradeOrder {
         if (isSellType()) {
             this.type = Type.MARKET_SELL;
             price = BigDecimal.ZERO;
+            scaledPrice = 0L;
             return;
         }
         this.type = Type.MARKET_BUY;
         price = BigDecimal.ZERO;
+        scaledPrice = 0L;
     }
 
     @Override
@@ -94,4 +180,4 @@ public class TradeOrder {
     public int hashCode() {
         return Objects.hashCode(id);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,14 @@
+package com.onseju.matchingservice.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * 정정 주문 요청. 수량과 가격 중 변경하지 않는 값은 null로 전달한다.
+ */
+public record AmendOrderRequest(
+        String companyCode,
+        Long orderId,
+        BigDecimal quantity,
+        BigDecimal price
+) {
+}
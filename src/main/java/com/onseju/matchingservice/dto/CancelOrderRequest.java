@@ -0,0 +1,7 @@
+package com.onseju.matchingservice.dto;
+
+public record CancelOrderRequest(
+        String companyCode,
+        Long orderId
+) {
+}
@@ -0,0 +1,33 @@
+package com.onseju.matchingservice.dto;
+
+import com.onseju.matchingservice.domain.Price;
+import com.onseju.matchingservice.engine.Candle;
+
+import java.math.BigDecimal;
+
+public record CandleResponse(
+        Long startTime,
+        BigDecimal open,
+        BigDecimal high,
+        BigDecimal low,
+        BigDecimal close,
+        BigDecimal volume,
+        BigDecimal turnover,
+        BigDecimal vwap,
+        Long tradeCount
+) {
+
+    public static CandleResponse of(final Candle candle) {
+        return new CandleResponse(
+                candle.startTime(),
+                Price.toDecimal(candle.open()),
+                Price.toDecimal(candle.high()),
+                Price.toDecimal(candle.low()),
+                Price.toDecimal(candle.close()),
+                BigDecimal.valueOf(candle.volume()),
+                Price.toDecimal(candle.turnover()),
+                TickerResponse.vwap(candle.turnover(), candle.volume()),
+                candle.tradeCount()
+        );
+    }
+}
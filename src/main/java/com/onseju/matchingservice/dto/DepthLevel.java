@@ -0,0 +1,10 @@
+package com.onseju.matchingservice.dto;
+
+import java.math.BigDecimal;
+
+public record DepthLevel(
+        BigDecimal price,
+        BigDecimal quantity,
+        int orderCount
+) {
+}
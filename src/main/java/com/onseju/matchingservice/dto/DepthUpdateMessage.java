@@ -0,0 +1,12 @@
+package com.onseju.matchingservice.dto;
+
+import java.util.List;
+
+// sequence: 메시지에 포함된 마지막 변경 순번
+public record DepthUpdateMessage(
+        String companyCode,
+        Long sequence,
+        List<LevelUpdate> levels,
+        List<TradeHistoryEvent> trades
+) {
+}
@@ -0,0 +1,13 @@
+package com.onseju.matchingservice.dto;
+
+import java.math.BigDecimal;
+
+// side: ASK 또는 BID, 가격대가 비면 quantity는 0
+public record LevelUpdate(
+        String side,
+        BigDecimal price,
+        BigDecimal quantity,
+        int orderCount,
+        Long sequence
+) {
+}
@@ -0,0 +1,39 @@
+package com.onseju.matchingservice.dto;
+
+import com.onseju.matchingservice.domain.Price;
+import com.onseju.matchingservice.engine.BookDepth;
+import com.onseju.matchingservice.engine.DepthSide;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public record OrderBookDepthResponse(
+        String companyCode,
+        Long version,
+        List<DepthLevel> asks,
+        List<DepthLevel> bids
+) {
+
+    public static OrderBookDepthResponse of(final String companyCode, final BookDepth depth, final int levels) {
+        return new OrderBookDepthResponse(
+                companyCode,
+                depth.version(),
+                toLevels(depth.asks(), levels),
+                toLevels(depth.bids(), levels)
+        );
+    }
+
+    private static List<DepthLevel> toLevels(final DepthSide side, final int levels) {
+        final int size = Math.min(side.size(), levels);
+        final List<DepthLevel> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            results.add(new DepthLevel(
+                    Price.toDecimal(side.priceAt(i)),
+                    BigDecimal.valueOf(side.quantityAt(i)),
+                    side.orderCountAt(i)
+            ));
+        }
+        return results;
+    }
+}
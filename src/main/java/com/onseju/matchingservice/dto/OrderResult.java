@@ -0,0 +1,25 @@
+package com.onseju.matchingservice.dto;
+
+import java.util.List;
+
+/**
+ * 주문 처리 결과. 주문이 거절되면 체결 없이 거절 사유를 담는다.
+ */
+public record OrderResult(
+        Long orderId,
+        List<TradeHistoryEvent> trades,
+        String error
+) {
+
+    public OrderResult(final Long orderId, final List<TradeHistoryEvent> trades) {
+        this(orderId, trades, null);
+    }
+
+    public static OrderResult rejected(final Long orderId, final String error) {
+        return new OrderResult(orderId, List.of(), error);
+    }
+
+    public boolean isRejected() {
+        return error != null;
+    }
+}
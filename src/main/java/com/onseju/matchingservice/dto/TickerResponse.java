@@ -0,0 +1,48 @@
+package com.onseju.matchingservice.dto;
+
+import com.onseju.matchingservice.domain.Price;
+import com.onseju.matchingservice.engine.TickerSnapshot;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// 체결이 없으면 가격과 vwap은 null
+public record TickerResponse(
+        String companyCode,
+        BigDecimal lastPrice,
+        BigDecimal open,
+        BigDecimal high,
+        BigDecimal low,
+        BigDecimal volume,
+        BigDecimal turnover,
+        BigDecimal vwap,
+        Long tradeCount,
+        Long lastTradeAt
+) {
+
+    public static TickerResponse of(final String companyCode, final TickerSnapshot ticker) {
+        if (!ticker.hasTraded()) {
+            return new TickerResponse(companyCode, null, null, null, null, BigDecimal.ZERO, BigDecimal.ZERO, null, 0L, null);
+        }
+        return new TickerResponse(
+                companyCode,
+                Price.toDecimal(ticker.lastPrice()),
+                Price.toDecimal(ticker.open()),
+                Price.toDecimal(ticker.high()),
+                Price.toDecimal(ticker.low()),
+                BigDecimal.valueOf(ticker.volume()),
+                Price.toDecimal(ticker.turnover()),
+                vwap(ticker.turnover(), ticker.volume()),
+                ticker.tradeCount(),
+                ticker.lastTradeAt()
+        );
+    }
+
+    // 거래대금 / 거래량, 가격과 같은 자릿수에서 반올림한 뒤 가격과 같은 방식으로 변환해 10000이 1E+4로 나가지 않게 한다.
+    static BigDecimal vwap(final long turnover, final long volume) {
+        final long scaledVwap = BigDecimal.valueOf(turnover)
+                .divide(BigDecimal.valueOf(volume), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+        return Price.toDecimal(scaledVwap);
+    }
+}
@@ -0,0 +1,31 @@
+package com.onseju.matchingservice.dto;
+
+import com.onseju.matchingservice.domain.Price;
+import com.onseju.matchingservice.engine.BookDepth;
+import com.onseju.matchingservice.engine.DepthSide;
+
+import java.math.BigDecimal;
+
+// 호가가 없는 방향은 null
+public record TopOfBookResponse(
+        String companyCode,
+        Long version,
+        DepthLevel bestAsk,
+        DepthLevel bestBid
+) {
+
+    public static TopOfBookResponse of(final String companyCode, final BookDepth depth) {
+        return new TopOfBookResponse(companyCode, depth.version(), best(depth.asks()), best(depth.bids()));
+    }
+
+    private static DepthLevel best(final DepthSide side) {
+        if (side.isEmpty()) {
+            return null;
+        }
+        return new DepthLevel(
+                Price.toDecimal(side.priceAt(0)),
+                BigDecimal.valueOf(side.quantityAt(0)),
+                side.orderCountAt(0)
+        );
+    }
+}
@@ -0,0 +1,17 @@
+package com.onseju.matchingservice.engine;
+
+/**
+ * 주문장의 상위 호가 스냅샷. 주문장이 변경될 때마다 새로 만들어 교체하므로, 읽는 쪽은 락 없이 사용한다.
+ *
+ * @param version 스냅샷에 반영된 마지막 가격대 변경 순번
+ * @param asks    매도 호가, 낮은 가격부터
+ * @param bids    매수 호가, 높은 가격부터
+ */
+public record BookDepth(
+        long version,
+        DepthSide asks,
+        DepthSide bids
+) {
+
+    public static final BookDepth EMPTY = new BookDepth(0L, DepthSide.EMPTY, DepthSide.EMPTY);
+}
@@ -0,0 +1,18 @@
+package com.onseju.matchingservice.engine;
+
+/**
+ * 한 구간의 시가, 고가, 저가, 종가와 거래량. 가격과 거래대금은 고정 소수점 값이다.
+ *
+ * @param startTime 구간 시작 시각 (epoch millis)
+ */
+public record Candle(
+        long startTime,
+        long open,
+        long high,
+        long low,
+        long close,
+        long volume,
+        long turnover,
+        long tradeCount
+) {
+}
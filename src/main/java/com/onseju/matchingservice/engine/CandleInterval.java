@@ -0,0 +1,26 @@
+package com.onseju.matchingservice.engine;
+
+/**
+ * 종목별로 보관하는 봉의 단위와 보관 개수
+ */
+public enum CandleInterval {
+
+    SECOND(1_000L, 60),
+    MINUTE(60_000L, 60);
+
+    private final long millis;
+    private final int capacity;
+
+    CandleInterval(final long millis, final int capacity) {
+        this.millis = millis;
+        this.capacity = capacity;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -3,139 +3,806 @@ package com.onseju.matchingservice.engine;
 import com.onseju.matchingservice.domain.Price;
 import com.onseju.matchingservice.domain.TradeOrder;
 import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.dto.AmendOrderRequest;
 import com.onseju.matchingservice.dto.TradeHistoryEvent;
 import lombok.extern.slf4j.Slf4j;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * 종복별로 주문을 관리한다.
+ * <p>
+ * 매도, 매수 방향마다 락을 두고, 두 락이 모두 필요하면 항상 매도 락을 먼저 잡는다.
+ * 매칭이 일어나는 처리(시장가, 상대 호가에 닿는 지정가, 정정)는 두 락을 모두 잡는다.
+ * 상대 최우선 호가에 닿지 않는 지정가 주문은 자기 방향의 락만 잡고 대기 주문으로 추가하므로, 반대 방향의 추가와 동시에 진행된다.
+ * <p>
+ * 방향마다 최우선 호가를 volatile 필드로 공개하고, 락 없이 읽어 매칭 가능성을 판단한다.
+ * 대기 주문을 추가한 쪽은 자기 최우선 호가를 공개한 뒤 상대 최우선 호가를 다시 읽는다.
+ * 반대 방향에서 같은 순간에 추가된 주문과 매칭될 수 있었다면 두 주문 중 적어도 한쪽은 이를 발견하고,
+ * 두 락을 잡은 뒤 자기 주문을 다시 접수해 매칭한다.
  */
 @Slf4j
 public class CompanyOrderBook implements OrderBook {
 
+    public static final int DEFAULT_DEPTH_LEVELS = 10;
+
+    public static final int DEFAULT_RESTING_ORDER_POOL_SIZE = 1024;
+
+    // 목록을 반환하는 처리를 호출한 스레드가 두 락을 놓기 전에 넘겨받을 체결, 처리가 끝나면 지운다.
+    private static final ThreadLocal<PendingTrades> PENDING_TRADES = new ThreadLocal<>();
+
+    // 최우선 호가가 없을 때의 값
+    private static final long NO_PRICE = -1L;
+
     // 매도 주문: 낮은 가격 우선
-    private final ConcurrentSkipListMap<Price, OrderStorage> sellOrders = new ConcurrentSkipListMap<>(
-            Comparator.comparing(Price::getValue)
-    );
+    private final BookSide sells;
 
     // 매수 주문: 높은 가격 우선
-    private final ConcurrentSkipListMap<Price, OrderStorage> buyOrders = new ConcurrentSkipListMap<>(
-            Comparator.comparing(Price::getValue).reversed()
-    );
+    private final BookSide buys;
+
+    // 상위 호가 스냅샷에 담을 가격대 수
+    private final int depthLevels;
+
+    // 변경될 때마다 교체하는 상위 호가 스냅샷, 읽을 때는 락을 잡지 않는다. 방향별로 갱신하므로 CAS로 합친다.
+    private final AtomicReference<BookDepth> depth = new AtomicReference<>(BookDepth.EMPTY);
+
+    private final OrderBookListener listener;
+
+    private final OrderBookMetrics metrics;
+
+    private final MarketOrderProtection protection;
+
+    private final SelfTradePrevention selfTradePrevention;
+
+    // 목록을 반환하는 처리에서 체결을 모으는 버퍼, 두 락을 모두 잡은 동안에만 사용하고 두 락을 놓기 전에 비운다.
+    private final FillBuffer fills = new FillBuffer();
+
+    // 체결 누적 값과 봉, 체결은 두 락을 모두 잡은 상태에서만 기록한다.
+    private final TickerState ticker = new TickerState();
+
+    // 가격대가 바뀔 때마다 증가하는 변경 순번, 두 방향에서 동시에 증가시킬 수 있다.
+    private final AtomicLong changeSequence = new AtomicLong();
+
+    // 접수한 주문에 부여하는 도착 순번, 같은 가격대의 체결 우선순위를 정한다.
+    private final AtomicLong arrivalSequence = new AtomicLong();
+
+    public CompanyOrderBook() {
+        this(SkipListOrderBookSide.asks(), SkipListOrderBookSide.bids());
+    }
+
+    public CompanyOrderBook(final OrderBookSide sellOrders, final OrderBookSide buyOrders) {
+        this(sellOrders, buyOrders, DEFAULT_DEPTH_LEVELS);
+    }
+
+    public CompanyOrderBook(final OrderBookSide sellOrders, final OrderBookSide buyOrders, final int depthLevels) {
+        this(sellOrders, buyOrders, depthLevels, OrderBookListener.NO_OP);
+    }
+
+    public CompanyOrderBook(
+            final OrderBookSide sellOrders,
+            final OrderBookSide buyOrders,
+            final int depthLevels,
+            final OrderBookListener listener
+    ) {
+        this(sellOrders, buyOrders, depthLevels, listener, OrderBookMetrics.NO_OP);
+    }
+
+    public CompanyOrderBook(
+            final OrderBookSide sellOrders,
+            final OrderBookSide buyOrders,
+            final int depthLevels,
+            final OrderBookListener listener,
+            final OrderBookMetrics metrics
+    ) {
+        this(sellOrders, buyOrders, depthLevels, listener, metrics, MarketOrderProtection.NONE);
+    }
+
+    public CompanyOrderBook(
+            final OrderBookSide sellOrders,
+            final OrderBookSide buyOrders,
+            final int depthLevels,
+            final OrderBookListener listener,
+            final OrderBookMetrics metrics,
+            final MarketOrderProtection protection
+    ) {
+        this(sellOrders, buyOrders, depthLevels, listener, metrics, protection, DEFAULT_RESTING_ORDER_POOL_SIZE);
+    }
 
-    private final ReentrantLock matchlock = new ReentrantLock();
+    public CompanyOrderBook(
+            final OrderBookSide sellOrders,
+            final OrderBookSide buyOrders,
+            final int depthLevels,
+            final OrderBookListener listener,
+            final OrderBookMetrics metrics,
+            final MarketOrderProtection protection,
+            final int restingOrderPoolSize
+    ) {
+        this(sellOrders, buyOrders, depthLevels, listener, metrics, protection, restingOrderPoolSize, SelfTradePrevention.SKIP);
+    }
+
+    public CompanyOrderBook(
+            final OrderBookSide sellOrders,
+            final OrderBookSide buyOrders,
+            final int depthLevels,
+            final OrderBookListener listener,
+            final OrderBookMetrics metrics,
+            final MarketOrderProtection protection,
+            final int restingOrderPoolSize,
+            final SelfTradePrevention selfTradePrevention
+    ) {
+        if (depthLevels < 1) {
+            throw new IllegalArgumentException("호가 스냅샷 가격대 수는 1 이상이어야 합니다: " + depthLevels);
+        }
+        this.sells = new BookSide(sellOrders, true, restingOrderPoolSize);
+        this.buys = new BookSide(buyOrders, false, restingOrderPoolSize);
+        this.depthLevels = depthLevels;
+        this.listener = listener;
+        this.metrics = metrics;
+        this.protection = protection;
+        this.selfTradePrevention = selfTradePrevention;
+    }
 
     /**
      * 주문을 시장가, 지정가로 나누어 처리한다.
      */
     @Override
     public List<TradeHistoryEvent> received(final TradeOrder order) {
+        return collectFills(fills -> received(order, fills));
+    }
+
+    @Override
+    public int received(final TradeOrder order, final FillBuffer fills) {
+        final int before = fills.size();
+        final long start = System.nanoTime();
+        order.arrive(arrivalSequence.incrementAndGet(), start);
+        if (!metrics.isEnabled()) {
+            process(order, fills);
+            return fills.size() - before;
+        }
+        try {
+            process(order, fills);
+        } finally {
+            metrics.orderReceived(System.nanoTime() - start);
+        }
+        return fills.size() - before;
+    }
+
+    /**
+     * 체결은 두 락을 모두 잡은 구간에서만 일어나므로, 가장 바깥의 두 락을 놓기 직전에 그 구간의 체결을 넘긴다.
+     * 체결이 없는 대기 주문 추가는 지금처럼 자기 방향의 락만 잡는다.
+     */
+    @Override
+    public List<TradeHistoryEvent> received(final TradeOrder order, final Consumer<List<TradeHistoryEvent>> onTrades) {
+        return collectFills(fills -> received(order, fills), onTrades);
+    }
+
+    private List<TradeHistoryEvent> collectFills(final Consumer<FillBuffer> task) {
+        return collectFills(task, null);
+    }
+
+    /**
+     * 주문장의 버퍼에 체결을 모으고, 가장 바깥의 두 락을 놓기 직전에 목록으로 변환해 넘겨받는다.
+     * 두 락을 잡지 않은 채 시작하면 다른 스레드가 버퍼를 쓰고 있을 수 있으므로 버퍼를 읽지 않고, 락을 잡았을 때 비어 있는 버퍼의 처음부터 모은다.
+     * 이미 두 락을 잡은 채 중첩해서 호출하면 호출 전의 크기부터 모으고 그 크기로 되돌린다.
+     */
+    private List<TradeHistoryEvent> collectFills(
+            final Consumer<FillBuffer> task,
+            final Consumer<List<TradeHistoryEvent>> onTrades
+    ) {
+        final PendingTrades outer = PENDING_TRADES.get();
+        final PendingTrades pending = new PendingTrades(isFullyLocked() ? fills.size() : 0, onTrades);
+        PENDING_TRADES.set(pending);
+        try {
+            task.accept(fills);
+            // 호출한 쪽이 이미 두 락을 잡고 있었으면 락을 놓지 않았으므로 아직 점유한 지금 넘긴다.
+            if (isFullyLocked()) {
+                flushPendingTrades();
+            }
+            return pending.delivered;
+        } finally {
+            if (isFullyLocked() && fills.size() > pending.from) {
+                fills.truncate(pending.from);
+            }
+            if (outer == null) {
+                PENDING_TRADES.remove();
+            } else {
+                PENDING_TRADES.set(outer);
+            }
+        }
+    }
+
+    private void process(final TradeOrder order, final FillBuffer fills) {
         if (order.isMarketOrder()) {
-            return processMarketOrder(order);
+            processMarketOrder(order, fills);
+            return;
+        }
+        if (!isFullyLocked() && restWithoutMatching(order, fills)) {
+            return;
         }
-        return processLimitOrder(order);
+        processLimitOrder(order, fills);
     }
 
     /**
-     * 시장가 주문: 주문을 매칭한 후, 남은 수량에 대한 매칭을 더 이상 진행하지 않는다.
+     * 시장가 주문: 최우선 호가부터 체결하고, 수량을 모두 채우거나 보호 범위를 벗어나면 멈춘다. 남은 수량은 대기시키지 않는다.
      */
-    private List<TradeHistoryEvent> processMarketOrder(final TradeOrder order) {
-        ConcurrentSkipListMap<Price, OrderStorage> orders = getCounterOrders(order.getType());
-        List<TradeHistoryEvent> results = new ArrayList<>();
-        for (Price now: orders.keySet()) {
-            Collection<TradeHistoryEvent> responses = match(now, order);
-            results.addAll(
-                    responses.stream()
-                            .filter(Objects::nonNull)
-                            .toList()
-            );
+    private void processMarketOrder(final TradeOrder order, final FillBuffer fills) {
+        lockBoth();
+        try {
+            final BookSide counter = getCounterSide(order.getType());
+            final boolean buy = !order.isSellType();
+            final long priceLimit = protection.priceLimit(referencePrice(counter), buy);
+            int sweptLevels = 0;
+            for (Price now : counter.orders.prices()) {
+                if (!order.hasRemainingQuantity() || !protection.allowsLevel(sweptLevels)) {
+                    break;
+                }
+                if (buy ? now.getValue() > priceLimit : now.getValue() < priceLimit) {
+                    break;
+                }
+                match(now, order, fills);
+                sweptLevels++;
+            }
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    // 시장가 보호 범위의 기준 가격: 마지막 체결가, 체결이 없으면 상대 최우선 호가
+    private long referencePrice(final BookSide counter) {
+        final long lastPrice = ticker.getLastPrice();
+        if (lastPrice > 0) {
+            return lastPrice;
         }
-        return results;
+        return counter.bestPrice;
     }
 
-    private ConcurrentSkipListMap<Price, OrderStorage> getCounterOrders(final Type type) {
+    private BookSide getCounterSide(final Type type) {
         if (type.isSell()) {
-            return buyOrders;
+            return buys;
         }
-        return sellOrders;
+        return sells;
     }
 
     /**
-     * 지정가 주문: 주문을 매칭한 후, 남은 수량을 OrderStorage에 추가한다.
+     * 상대 최우선 호가에 닿지 않는 지정가 주문을 자기 방향의 락만 잡고 대기 주문으로 추가한다.
+     * 상대 호가에 닿을 수 있으면 false를 반환하고, 호출한 쪽이 두 락을 잡고 처리한다.
      */
-    private List<TradeHistoryEvent> processLimitOrder(final TradeOrder order) {
-        matchlock.lock();
-        final Price now = new Price(order.getPrice());
-        List<TradeHistoryEvent> result = match(now, order);
-        if (order.hasRemainingQuantity()) {
-            addRemainingTradeOrder(order);
+    private boolean restWithoutMatching(final TradeOrder order, final FillBuffer fills) {
+        final BookSide side = getSameTypeSide(order.getType());
+        final BookSide counter = getCounterSide(order.getType());
+        final long price = order.getScaledPrice();
+        if (counter.reaches(price)) {
+            return false;
+        }
+        final RestingOrder restingOrder;
+        lock(side.lock);
+        try {
+            if (counter.reaches(price)) {
+                return false;
+            }
+            checkSupported(side, order.getPrice());
+            restingOrder = addRemainingTradeOrder(order);
+        } finally {
+            publishDepth(side);
+            side.lock.unlock();
         }
-        matchlock.unlock();
-        return result;
+        // 자기 최우선 호가를 공개한 뒤 상대 최우선 호가를 다시 읽는다. 그 사이 상대 방향에 닿는 주문이 추가되었으면 다시 접수한다.
+        if (!counter.reaches(price)) {
+            return true;
+        }
+        lockBoth();
+        try {
+            resubmit(order, restingOrder, fills);
+        } finally {
+            unlockBoth();
+        }
+        return true;
     }
 
     /**
-     * 입력한 가격대의 주문과 매칭한다.
+     * 대기 주문으로 추가한 주문이 아직 남아 있고 상대 최우선 호가가 주문 가격에 닿으면, 대기 주문에서 빼고 지정가 주문으로 다시 처리한다.
+     * 상대 주문이 같은 가격이 아니라 더 좋은 가격에 들어왔을 수도 있으므로 가격대가 아닌 최우선 호가와 비교한다.
+     * 락을 놓은 사이 주문이 체결되어 핸들이 다른 주문에 다시 쓰였을 수 있으므로 핸들이 같은 주문을 담고 있는지 확인한다.
      */
-    private List<TradeHistoryEvent> match(final Price price, final TradeOrder order) {
-        final OrderStorage orderStorage = getCounterOrderStorage(price, order.getType());
+    private void resubmit(final TradeOrder order, final RestingOrder restingOrder, final FillBuffer fills) {
+        if (!restingOrder.holds(order) || !getCounterSide(order.getType()).reaches(order.getScaledPrice())) {
+            return;
+        }
+        final BookSide side = getSameTypeSide(order.getType());
+        if (order.getId() != null) {
+            side.restingOrders.remove(order.getId());
+        }
+        removeRestingOrder(restingOrder);
+        side.pool.release(restingOrder);
+        processLimitOrder(order, fills);
+    }
+
+    /**
+     * 지정가 주문: 주문 가격에 닿는 상대 가격대와 최우선 호가부터 매칭한 후, 남은 수량을 OrderStorage에 추가한다.
+     * 남은 수량은 상대 최우선 호가에 닿지 않는 가격에만 대기하므로 주문장이 교차하지 않는다.
+     */
+    private void processLimitOrder(final TradeOrder order, final FillBuffer fills) {
+        lockBoth();
+        try {
+            checkSupported(getSameTypeSide(order.getType()), order.getPrice());
+            final boolean buy = !order.isSellType();
+            final long limit = order.getScaledPrice();
+            for (Price now : getCounterSide(order.getType()).orders.prices()) {
+                if (!order.hasRemainingQuantity() || (buy ? now.getValue() > limit : now.getValue() < limit)) {
+                    break;
+                }
+                match(now, order, fills);
+            }
+            if (order.hasRemainingQuantity()) {
+                addRemainingTradeOrder(order);
+            }
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    private void checkSupported(final BookSide side, final BigDecimal price) {
+        if (!side.orders.supports(new Price(price))) {
+            throw new IllegalArgumentException("호가 범위를 벗어나거나 호가 단위에 맞지 않는 가격입니다: " + price);
+        }
+    }
+
+    /**
+     * 입력한 가격대의 주문과 매칭하고 체결을 버퍼에 기록한다. 두 락을 모두 잡은 상태에서 호출한다.
+     */
+    private void match(final Price price, final TradeOrder order, final FillBuffer fills) {
+        final BookSide counter = getCounterSide(order.getType());
+        final OrderStorage orderStorage = counter.orders.get(price);
         if (orderStorage == null || orderStorage.isEmpty()) {
-            return List.of();
+            return;
+        }
+        final int from = fills.size();
+        final long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        final int trades = orderStorage.match(order, fills, selfTradePrevention, counter.selfTradeCanceled);
+        if (metrics.isEnabled()) {
+            metrics.levelMatched(System.nanoTime() - start, trades);
+        }
+        // 자기 매매 방지로 줄어든 수량은 체결량이 아니므로 남은 수량의 차이 대신 체결 수량을 더한다.
+        long filled = 0L;
+        for (int i = from; i < fills.size(); i++) {
+            filled += fills.quantityAt(i);
         }
-        return orderStorage.match(order);
+        if (filled > 0) {
+            ticker.record(price.getValue(), filled, trades, System.currentTimeMillis());
+        }
+        levelUpdated(counter, price);
+        removeCompletedOrders(counter, order, fills, from);
+        tradesExecuted(fills, from);
     }
 
     /**
-     * 같은 타입(매도, 매수)의 주문을 저장하는 OrderStorage 조회한다. 존재하지 않을 경우 새로 생성하여 반환한다.
+     * 체결로 모든 수량이 소진된 대기 주문을 인덱스에서 제거하고 핸들을 풀에 돌려준다.
      */
-    private OrderStorage getOrCreateSameTypeOrderStorage(final Price price, final Type type) {
-        if (type.isSell()) {
-            return sellOrders.computeIfAbsent(price, p -> new OrderStorage());
+    private void removeCompletedOrders(final BookSide counter, final TradeOrder order, final FillBuffer fills, final int from) {
+        for (int i = from; i < fills.size(); i++) {
+            final Long restingOrderId = order.isSellType() ? fills.buyOrderIdAt(i) : fills.sellOrderIdAt(i);
+            if (restingOrderId == null) {
+                continue;
+            }
+            final RestingOrder restingOrder = counter.restingOrders.get(restingOrderId);
+            if (restingOrder != null && !restingOrder.isLinked()) {
+                counter.restingOrders.remove(restingOrderId);
+                counter.pool.release(restingOrder);
+            }
         }
-        return buyOrders.computeIfAbsent(price, p -> new OrderStorage());
     }
 
     /**
-     * 다른 타입(매도, 매수)의 주문을 저장하는 OrderStorage 조회한다.
+     * 같은 타입(매도, 매수)의 주문을 저장하는 방향을 조회한다.
      */
-    private OrderStorage getCounterOrderStorage(final Price price, final Type type) {
+    private BookSide getSameTypeSide(final Type type) {
         if (type.isSell()) {
-            return buyOrders.get(price);
+            return sells;
+        }
+        return buys;
+    }
+
+    /**
+     * 남은 주문을 OrderStorage에 저장한다. 해당 방향의 락을 잡은 상태에서 호출한다.
+     */
+    private RestingOrder addRemainingTradeOrder(final TradeOrder order) {
+        Price price = new Price(order.getScaledPrice());
+        BookSide side = getSameTypeSide(order.getType());
+        RestingOrder restingOrder = side.orders.getOrCreate(price).add(order, side.pool);
+        levelUpdated(side, price);
+        if (order.getId() != null) {
+            side.restingOrders.put(order.getId(), restingOrder);
         }
-        return sellOrders.get(price);
+        return restingOrder;
+    }
+
+    /**
+     * 대기 주문을 가격대에서 제거한다.
+     */
+    private void removeRestingOrder(final RestingOrder restingOrder) {
+        final TradeOrder order = restingOrder.getOrder();
+        final Price price = new Price(order.getScaledPrice());
+        final BookSide side = getSameTypeSide(order.getType());
+        side.orders.get(price).remove(restingOrder);
+        levelUpdated(side, price);
     }
 
     /**
-     * 남은 주문을 OrderStorage에 저장한다.
+     * 주문 ID로 매도, 매수 방향을 차례로 찾는다. 한 번에 한 방향의 락만 잡는다.
      */
-    private void addRemainingTradeOrder(final TradeOrder order) {
-        Price price = new Price(order.getPrice());
-        OrderStorage orderStorage = getOrCreateSameTypeOrderStorage(price, order.getType());
-        orderStorage.add(order);
+    @Override
+    public boolean cancel(final long orderId) {
+        for (BookSide side : new BookSide[]{sells, buys}) {
+            lock(side.lock);
+            try {
+                final RestingOrder restingOrder = side.restingOrders.remove(orderId);
+                if (restingOrder != null) {
+                    if (!restingOrder.isLinked()) {
+                        return false;
+                    }
+                    removeRestingOrder(restingOrder);
+                    restingOrder.getOrder().cancel();
+                    side.pool.release(restingOrder);
+                    return true;
+                }
+            } finally {
+                publishDepth(side);
+                side.lock.unlock();
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Optional<List<TradeHistoryEvent>> amend(final AmendOrderRequest request) {
+        lockBoth();
+        try {
+            final RestingOrder restingOrder = findRestingOrder(request.orderId());
+            if (restingOrder == null || !restingOrder.isLinked()) {
+                return Optional.empty();
+            }
+            final TradeOrder order = restingOrder.getOrder();
+            final long quantity = request.quantity() == null ? order.getRemaining() : TradeOrder.toQuantity(request.quantity());
+            final boolean samePrice = request.price() == null || Price.toScaled(request.price()) == order.getScaledPrice();
+            if (samePrice && quantity <= order.getRemaining()) {
+                reduceRemainingQuantity(restingOrder, quantity);
+                return Optional.of(List.of());
+            }
+            final BigDecimal price = samePrice ? order.getPrice() : request.price();
+            return Optional.of(collectFills(fills -> replace(restingOrder, quantity, price, fills)));
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    private RestingOrder findRestingOrder(final long orderId) {
+        final RestingOrder restingOrder = sells.restingOrders.get(orderId);
+        if (restingOrder != null) {
+            return restingOrder;
+        }
+        return buys.restingOrders.get(orderId);
+    }
+
+    /**
+     * 수량 감소 정정: 대기 순서를 유지한 채 남은 수량만 줄인다.
+     */
+    private void reduceRemainingQuantity(final RestingOrder restingOrder, final long quantity) {
+        final TradeOrder order = restingOrder.getOrder();
+        final Price price = new Price(order.getScaledPrice());
+        final BookSide side = getSameTypeSide(order.getType());
+        side.orders.get(price).reduce(restingOrder, quantity);
+        levelUpdated(side, price);
+    }
+
+    /**
+     * 가격 변경 또는 수량 증가 정정: 기존 주문을 취소하고 새 가격과 수량으로 다시 접수한다.
+     */
+    private void replace(final RestingOrder restingOrder, final long quantity, final BigDecimal price, final FillBuffer fills) {
+        final TradeOrder order = restingOrder.getOrder();
+        final BookSide side = getSameTypeSide(order.getType());
+        checkSupported(side, price);
+        side.restingOrders.remove(order.getId());
+        removeRestingOrder(restingOrder);
+        side.pool.release(restingOrder);
+        order.changePrice(price);
+        order.changeRemainingQuantity(quantity);
+        order.arrive(arrivalSequence.incrementAndGet(), System.nanoTime());
+        processLimitOrder(order, fills);
+    }
+
+    /**
+     * 가격대 변경을 알리고 최우선 호가를 공개한다. 상위 호가 범위 안의 변경이면 스냅샷을 다시 만들도록 표시한다.
+     * 해당 방향의 락을 잡은 상태에서 호출한다.
+     */
+    private void levelUpdated(final BookSide side, final Price price) {
+        side.orders.levelUpdated(price);
+        side.publishBestPrice();
+        final OrderStorage storage = side.orders.get(price);
+        listener.onLevelUpdated(
+                changeSequence.incrementAndGet(),
+                side.sell,
+                price.getValue(),
+                storage == null ? 0L : storage.getTotalQuantity(),
+                storage == null ? 0 : storage.getOrderCount()
+        );
+        final BookDepth current = depth.get();
+        side.depthChanged |= (side.sell ? current.asks() : current.bids()).covers(price.getValue(), side.sell, depthLevels);
+    }
+
+    private void tradesExecuted(final FillBuffer fills, final int from) {
+        if (fills.size() > from) {
+            listener.onFills(changeSequence.get(), fills, from);
+        }
+    }
+
+    /**
+     * 변경된 방향의 상위 호가만 다시 복사해 스냅샷을 교체한다. 해당 방향의 락을 잡은 상태에서 호출한다.
+     * 반대 방향이 동시에 교체할 수 있으므로 자기 방향만 바꾸어 CAS로 합친다.
+     */
+    private void publishDepth(final BookSide side) {
+        if (!side.depthChanged) {
+            return;
+        }
+        final DepthSide captured = DepthSide.capture(side.orders, depthLevels);
+        final long version = changeSequence.get();
+        depth.updateAndGet(current -> new BookDepth(
+                Math.max(current.version(), version),
+                side.sell ? captured : current.asks(),
+                side.sell ? current.bids() : captured
+        ));
+        side.depthChanged = false;
+    }
+
+    @Override
+    public BookDepth getDepth() {
+        return depth.get();
+    }
+
+    @Override
+    public BookDepth captureDepth(final int levels) {
+        lockBoth();
+        try {
+            return new BookDepth(
+                    changeSequence.get(),
+                    DepthSide.capture(sells.orders, levels),
+                    DepthSide.capture(buys.orders, levels)
+            );
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    // 다른 스레드에서 락 없이 읽으므로 최근 값이 아닐 수 있다. 계측에만 사용한다.
+    @Override
+    public int getRestingOrderCount() {
+        return sells.restingOrders.size() + buys.restingOrders.size();
+    }
+
+    @Override
+    public TickerSnapshot getTicker() {
+        return ticker.read();
+    }
+
+    @Override
+    public List<Candle> getCandles(final CandleInterval interval) {
+        return ticker.readCandles(interval, System.currentTimeMillis());
+    }
+
+    /**
+     * 두 락을 한 번만 획득한 채 작업을 실행한다. 락이 재진입 가능하므로 작업 안의 주문 처리는 경합 없이 락을 다시 얻는다.
+     */
+    @Override
+    public <T> T batch(final Supplier<T> task) {
+        lockBoth();
+        try {
+            return task.get();
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    @Override
+    public void forEachRestingOrder(final Consumer<TradeOrder> action) {
+        lockBoth();
+        try {
+            for (Price price : sells.orders.prices()) {
+                sells.orders.get(price).forEach(action);
+            }
+            for (Price price : buys.orders.prices()) {
+                buys.orders.get(price).forEach(action);
+            }
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    // 스냅샷은 가격대별 도착 순서대로 읽히므로 새 순번을 부여해도 우선순위가 유지된다.
+    @Override
+    public void restore(final TradeOrder order) {
+        lockBoth();
+        try {
+            order.arrive(arrivalSequence.incrementAndGet(), System.nanoTime());
+            addRemainingTradeOrder(order);
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    @Override
+    public void restoreLastPrice(final long lastPrice) {
+        lockBoth();
+        try {
+            ticker.restoreLastPrice(lastPrice);
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    @Override
+    public PriceBand getPriceBand() {
+        return sells.orders.getPriceBand();
     }
 
     @Override
     public boolean isSellOrderBelowMarketPrice(TradeOrder order) {
-        if (!order.isSellType() || sellOrders.isEmpty()) {
+        final long lowestSellOrder = sells.bestPrice;
+        if (!order.isSellType() || lowestSellOrder == NO_PRICE) {
             return false;
         }
-        Price lowestSellOrder = sellOrders.firstKey();
-        return lowestSellOrder.isHigherThan(order.getPrice());
+        return lowestSellOrder > order.getScaledPrice();
     }
 
     @Override
     public boolean isBuyOrderAboveMarketPrice(TradeOrder order) {
-        if (order.isSellType() || buyOrders.isEmpty()) {
+        final long highestBuyOrder = buys.bestPrice;
+        if (order.isSellType() || highestBuyOrder == NO_PRICE) {
             return false;
         }
-        Price highestBuyOrder = buyOrders.firstKey();
-        return !highestBuyOrder.isHigherThan(order.getPrice());
+        return highestBuyOrder <= order.getScaledPrice();
+    }
+
+    /**
+     * 락을 획득한다. 다른 스레드가 락을 잡고 있을 때만 대기 시간을 측정한다.
+     */
+    private void lock(final ReentrantLock lock) {
+        if (lock.tryLock()) {
+            return;
+        }
+        if (!metrics.isEnabled()) {
+            lock.lock();
+            return;
+        }
+        final long start = System.nanoTime();
+        lock.lock();
+        metrics.lockWaited(System.nanoTime() - start);
+    }
+
+    // 교착을 막기 위해 항상 매도 락을 먼저 잡는다.
+    private void lockBoth() {
+        lock(sells.lock);
+        lock(buys.lock);
+    }
+
+    // 넘길 체결이 있으면 먼저 넘기고, 변경된 방향의 스냅샷을 교체한 뒤 잡은 순서의 역순으로 푼다.
+    private void unlockBoth() {
+        try {
+            if (sells.lock.getHoldCount() == 1) {
+                flushPendingTrades();
+            }
+            publishDepth(buys);
+            publishDepth(sells);
+        } finally {
+            buys.lock.unlock();
+            sells.lock.unlock();
+        }
+    }
+
+    // 두 락을 모두 잡은 상태에서 호출한다. 넘긴 체결은 버퍼에서 지운다.
+    private void flushPendingTrades() {
+        final PendingTrades pending = PENDING_TRADES.get();
+        if (pending == null || fills.size() <= pending.from) {
+            return;
+        }
+        final List<TradeHistoryEvent> trades = fills.toEvents(pending.from);
+        fills.truncate(pending.from);
+        pending.deliver(trades);
+    }
+
+    private boolean isFullyLocked() {
+        return sells.lock.isHeldByCurrentThread() && buys.lock.isHeldByCurrentThread();
+    }
+
+    private static final class PendingTrades {
+
+        // 주문장 버퍼에서 이 호출의 체결이 시작하는 위치
+        private final int from;
+
+        // 체결을 넘길 곳, 목록만 반환하면 null
+        private final Consumer<List<TradeHistoryEvent>> onTrades;
+
+        // 지금까지 넘긴 체결
+        private List<TradeHistoryEvent> delivered = List.of();
+
+        private PendingTrades(final int from, final Consumer<List<TradeHistoryEvent>> onTrades) {
+            this.from = from;
+            this.onTrades = onTrades;
+        }
+
+        private void deliver(final List<TradeHistoryEvent> trades) {
+            if (onTrades != null) {
+                onTrades.accept(trades);
+            }
+            if (delivered.isEmpty()) {
+                delivered = trades;
+                return;
+            }
+            final List<TradeHistoryEvent> merged = new ArrayList<>(delivered);
+            merged.addAll(trades);
+            delivered = merged;
+        }
+    }
+
+    /**
+     * 주문장의 한 방향. 가격대, 대기 주문 인덱스, 스냅샷 변경 여부는 이 방향의 락으로 보호하고,
+     * 최우선 호가는 다른 방향에서 락 없이 읽을 수 있도록 volatile로 공개한다.
+     */
+    private static final class BookSide {
+
+        private final OrderBookSide orders;
+        private final boolean sell;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        // 주문 ID로 대기 주문의 핸들을 찾는 인덱스
+        private final LongObjectHashMap<RestingOrder> restingOrders = new LongObjectHashMap<>();
+
+        // 인덱스에서 지운 핸들을 다시 쓰는 풀
+        private final RestingOrderPool pool;
+
+        // 자기 매매 방지로 취소되어 가격대에서 빠진 대기 주문을 인덱스에서 지우고 핸들을 풀에 돌려준다.
+        private final Consumer<RestingOrder> selfTradeCanceled = this::dropCanceled;
+
+        // 마지막 스냅샷 이후 상위 호가 범위 안의 가격대가 변경되었는지 여부
+        private boolean depthChanged;
+
+        private volatile long bestPrice = NO_PRICE;
+
+        private BookSide(final OrderBookSide orders, final boolean sell, final int poolSize) {
+            this.orders = orders;
+            this.sell = sell;
+            this.pool = new RestingOrderPool(poolSize);
+        }
+
+        private void dropCanceled(final RestingOrder restingOrder) {
+            final Long orderId = restingOrder.getOrder().getId();
+            if (orderId != null) {
+                restingOrders.remove(orderId);
+            }
+            pool.release(restingOrder);
+        }
+
+        private void publishBestPrice() {
+            final Price best = orders.bestPrice();
+            bestPrice = best == null ? NO_PRICE : best.getValue();
+        }
+
+        /**
+         * 반대 방향의 주문 가격이 이 방향의 최우선 호가에 닿는지 락 없이 확인한다.
+         * 최우선 호가는 추가가 끝난 뒤 공개되므로, 공개 직전의 추가는 주문을 추가한 쪽의 재확인으로 잡는다.
+         */
+        private boolean reaches(final long price) {
+            final long best = bestPrice;
+            if (best == NO_PRICE) {
+                return false;
+            }
+            return sell ? price >= best : price <= best;
+        }
     }
 }
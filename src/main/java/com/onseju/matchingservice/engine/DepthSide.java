@@ -0,0 +1,93 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.domain.Price;
+
+import java.util.Arrays;
+
+/**
+ * 한 방향(매도 또는 매수)의 상위 호가를 최우선 호가부터 담은 불변 스냅샷.
+ * 가격은 고정 소수점 값, 수량은 가격대의 잔량 합계다.
+ */
+public final class DepthSide {
+
+    public static final DepthSide EMPTY = new DepthSide(new long[0], new long[0], new int[0]);
+
+    private final long[] prices;
+    private final long[] quantities;
+    private final int[] orderCounts;
+
+    private DepthSide(final long[] prices, final long[] quantities, final int[] orderCounts) {
+        this.prices = prices;
+        this.quantities = quantities;
+        this.orderCounts = orderCounts;
+    }
+
+    /**
+     * 가격대를 최우선 호가부터 최대 levels개까지 복사한다. 비어 있는 가격대는 건너뛴다.
+     */
+    static DepthSide capture(final OrderBookSide side, final int levels) {
+        final long[] prices = new long[levels];
+        final long[] quantities = new long[levels];
+        final int[] orderCounts = new int[levels];
+        int size = 0;
+        for (Price price : side.prices()) {
+            if (size == levels) {
+                break;
+            }
+            final OrderStorage storage = side.get(price);
+            if (storage == null || storage.isEmpty()) {
+                continue;
+            }
+            prices[size] = price.getValue();
+            quantities[size] = storage.getTotalQuantity();
+            orderCounts[size] = storage.getOrderCount();
+            size++;
+        }
+        return of(prices, quantities, orderCounts, size);
+    }
+
+    /**
+     * 최우선 호가부터 채운 배열의 앞 size개를 복사해 스냅샷을 만든다.
+     */
+    static DepthSide of(final long[] prices, final long[] quantities, final int[] orderCounts, final int size) {
+        if (size == 0) {
+            return EMPTY;
+        }
+        return new DepthSide(
+                Arrays.copyOf(prices, size),
+                Arrays.copyOf(quantities, size),
+                Arrays.copyOf(orderCounts, size)
+        );
+    }
+
+    /**
+     * 변경된 가격이 이 스냅샷에 보이는 범위 안인지 확인한다. 상위 호가가 가득 차 있고 가장 나쁜 호가보다 나쁜 가격이면 false.
+     */
+    boolean covers(final long price, final boolean ascending, final int levels) {
+        if (prices.length < levels) {
+            return true;
+        }
+        final long worst = prices[prices.length - 1];
+        return ascending ? price <= worst : price >= worst;
+    }
+
+    public int size() {
+        return prices.length;
+    }
+
+    public long priceAt(final int level) {
+        return prices[level];
+    }
+
+    public long quantityAt(final int level) {
+        return quantities[level];
+    }
+
+    public int orderCountAt(final int level) {
+        return orderCounts[level];
+    }
+
+    public boolean isEmpty() {
+        return prices.length == 0;
+    }
+}
@@ -0,0 +1,91 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.factory.OrderBookFactory;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 종목 코드의 해시로 나뉜 엔진 파티션. 파티션마다 자신이 담당하는 종목의 주문장을 따로 관리한다.
+ * 시퀀서가 있는 경우 파티션의 모든 주문장은 시퀀서의 전용 스레드에서만 변경된다.
+ */
+public class EnginePartition implements AutoCloseable {
+
+    // 종목 코드를 키로 하는 주문들
+    private final ConcurrentHashMap<String, OrderBook> orderBooks = new ConcurrentHashMap<>();
+
+    private final OrderSequencer sequencer;
+
+    // 시퀀서 스레드만 사용하는 체결 버퍼, 시퀀서가 없으면 null
+    private final FillBuffer fills;
+
+    private EnginePartition(final OrderSequencer sequencer) {
+        this.sequencer = sequencer;
+        this.fills = sequencer == null ? null : new FillBuffer();
+    }
+
+    // 호출 스레드에서 바로 매칭하는 파티션
+    public static EnginePartition direct() {
+        return new EnginePartition(null);
+    }
+
+    // 전용 스레드 하나가 매칭하는 파티션
+    public static EnginePartition sequenced(final String name, final int ringBufferSize) {
+        return new EnginePartition(new OrderSequencer(name, ringBufferSize));
+    }
+
+    /**
+     * 파티션의 실행 방식에 따라 작업을 실행한다.
+     */
+    public <T> CompletableFuture<T> execute(final Supplier<T> task) {
+        if (sequencer == null) {
+            return CompletableFuture.completedFuture(task.get());
+        }
+        return sequencer.submit(task);
+    }
+
+    public boolean isSequenced() {
+        return sequencer != null;
+    }
+
+    /**
+     * 파티션의 체결 버퍼를 반환한다. 시퀀서 스레드에서 실행하는 작업에서만 사용하고, 읽은 뒤 작업 전의 크기로 되돌린다.
+     */
+    public FillBuffer getFills() {
+        if (fills == null) {
+            throw new IllegalStateException("시퀀서가 없는 파티션은 체결 버퍼를 갖지 않습니다.");
+        }
+        return fills;
+    }
+
+    // 종목별 주문장 생성, 이미 존재할 경우 반환
+    public OrderBook getOrCreateOrderBook(final String companyCode, final OrderBookFactory orderBookFactory) {
+        return orderBooks.computeIfAbsent(
+                companyCode,
+                orderBookFactory::createOrderBook
+        );
+    }
+
+    // 종목별 주문장 조회, 존재하지 않을 경우 null 반환
+    public OrderBook getOrderBook(final String companyCode) {
+        return orderBooks.get(companyCode);
+    }
+
+    public void forEachOrderBook(final BiConsumer<String, OrderBook> action) {
+        orderBooks.forEach(action);
+    }
+
+    public Collection<OrderBook> getOrderBooks() {
+        return orderBooks.values();
+    }
+
+    @Override
+    public void close() {
+        if (sequencer != null) {
+            sequencer.close();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.onseju.matchingservice.engine;
+
+/**
+ * 주문장에 대한 매칭을 어떤 스레드에서 수행할지 결정한다.
+ */
+public enum ExecutionMode {
+
+    // 요청 스레드에서 직접 매칭하며, 주문장 내부의 락으로 동시성을 제어한다.
+    LOCKING,
+
+    // 주문장마다 전용 스레드 하나가 링 버퍼로 전달된 주문을 순서대로 매칭한다.
+    SINGLE_WRITER;
+
+    public boolean isSingleWriter() {
+        return this == SINGLE_WRITER;
+    }
+}
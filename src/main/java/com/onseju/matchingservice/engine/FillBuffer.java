@@ -0,0 +1,182 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 체결 결과를 담는 재사용 버퍼. 체결마다 이벤트 객체를 만들지 않고 미리 잡아 둔 배열에 값을 기록하며,
+ * 호출한 쪽이 읽은 뒤 비우고 다시 사용한다. 용량이 부족하면 두 배로 늘린다.
+ * 가격, 주문 ID, 계정 ID는 주문이 이미 가진 객체를 그대로 참조하므로 기록할 때 새로 할당하지 않는다.
+ * 한 스레드에서만 사용한다.
+ */
+public final class FillBuffer {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private String[] companyCodes;
+    private Long[] buyOrderIds;
+    private Long[] buyAccountIds;
+    private Long[] sellOrderIds;
+    private Long[] sellAccountIds;
+    private long[] quantities;
+    private BigDecimal[] prices;
+    private long[] tradeAts;
+
+    private int size;
+
+    public FillBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public FillBuffer(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("체결 버퍼 용량은 1 이상이어야 합니다: " + capacity);
+        }
+        companyCodes = new String[capacity];
+        buyOrderIds = new Long[capacity];
+        buyAccountIds = new Long[capacity];
+        sellOrderIds = new Long[capacity];
+        sellAccountIds = new Long[capacity];
+        quantities = new long[capacity];
+        prices = new BigDecimal[capacity];
+        tradeAts = new long[capacity];
+    }
+
+    void add(
+            final String companyCode,
+            final Long buyOrderId,
+            final Long buyAccountId,
+            final Long sellOrderId,
+            final Long sellAccountId,
+            final long quantity,
+            final BigDecimal price,
+            final long tradeAt
+    ) {
+        if (size == quantities.length) {
+            grow();
+        }
+        companyCodes[size] = companyCode;
+        buyOrderIds[size] = buyOrderId;
+        buyAccountIds[size] = buyAccountId;
+        sellOrderIds[size] = sellOrderId;
+        sellAccountIds[size] = sellAccountId;
+        quantities[size] = quantity;
+        prices[size] = price;
+        tradeAts[size] = tradeAt;
+        size++;
+    }
+
+    private void grow() {
+        final int capacity = quantities.length * 2;
+        companyCodes = Arrays.copyOf(companyCodes, capacity);
+        buyOrderIds = Arrays.copyOf(buyOrderIds, capacity);
+        buyAccountIds = Arrays.copyOf(buyAccountIds, capacity);
+        sellOrderIds = Arrays.copyOf(sellOrderIds, capacity);
+        sellAccountIds = Arrays.copyOf(sellAccountIds, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        tradeAts = Arrays.copyOf(tradeAts, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int capacity() {
+        return quantities.length;
+    }
+
+    public String companyCodeAt(final int index) {
+        return companyCodes[checkIndex(index)];
+    }
+
+    public Long buyOrderIdAt(final int index) {
+        return buyOrderIds[checkIndex(index)];
+    }
+
+    public Long buyAccountIdAt(final int index) {
+        return buyAccountIds[checkIndex(index)];
+    }
+
+    public Long sellOrderIdAt(final int index) {
+        return sellOrderIds[checkIndex(index)];
+    }
+
+    public Long sellAccountIdAt(final int index) {
+        return sellAccountIds[checkIndex(index)];
+    }
+
+    public long quantityAt(final int index) {
+        return quantities[checkIndex(index)];
+    }
+
+    public BigDecimal priceAt(final int index) {
+        return prices[checkIndex(index)];
+    }
+
+    public long tradeAtAt(final int index) {
+        return tradeAts[checkIndex(index)];
+    }
+
+    private int checkIndex(final int index) {
+        return Objects.checkIndex(index, size);
+    }
+
+    // API 경계에서 사용하는 체결 이벤트로 변환한다.
+    public TradeHistoryEvent toEvent(final int index) {
+        checkIndex(index);
+        return new TradeHistoryEvent(
+                companyCodes[index],
+                buyOrderIds[index],
+                buyAccountIds[index],
+                sellOrderIds[index],
+                sellAccountIds[index],
+                BigDecimal.valueOf(quantities[index]),
+                prices[index],
+                tradeAts[index]
+        );
+    }
+
+    /**
+     * from 위치부터 끝까지의 체결을 이벤트 목록으로 변환한다. 체결이 없으면 빈 목록을 반환한다.
+     */
+    public List<TradeHistoryEvent> toEvents(final int from) {
+        if (from >= size) {
+            return List.of();
+        }
+        final List<TradeHistoryEvent> events = new ArrayList<>(size - from);
+        for (int i = from; i < size; i++) {
+            events.add(toEvent(i));
+        }
+        return events;
+    }
+
+    public void clear() {
+        truncate(0);
+    }
+
+    /**
+     * 크기를 줄이고 잘라낸 칸이 참조하던 객체를 놓아 준다.
+     */
+    public void truncate(final int newSize) {
+        if (newSize < 0 || newSize > size) {
+            throw new IndexOutOfBoundsException("잘못된 체결 버퍼 크기: " + newSize);
+        }
+        Arrays.fill(companyCodes, newSize, size, null);
+        Arrays.fill(buyOrderIds, newSize, size, null);
+        Arrays.fill(buyAccountIds, newSize, size, null);
+        Arrays.fill(sellOrderIds, newSize, size, null);
+        Arrays.fill(sellAccountIds, newSize, size, null);
+        Arrays.fill(prices, newSize, size, null);
+        size = newSize;
+    }
+}
@@ -0,0 +1,141 @@
+package com.onseju.matchingservice.engine;
+
+import java.util.Arrays;
+
+/**
+ * long 키와 int 값을 박싱하지 않고 보관하는 오픈 어드레싱 해시 맵. 항목마다 객체를 만들지 않으므로 항목 수가 늘어도 GC가 훑을 참조가 생기지 않는다.
+ * 선형 탐색을 사용하며, 삭제 시 뒤따르는 항목을 당겨 묘비를 남기지 않는다. 값이 없으면 missingValue를 반환한다.
+ * 동기화하지 않으므로 주문장의 락 또는 단일 스레드 안에서만 사용한다.
+ */
+public class LongIntHashMap {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final int missingValue;
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    public LongIntHashMap(final int missingValue) {
+        this(DEFAULT_CAPACITY, missingValue);
+    }
+
+    public LongIntHashMap(final int expectedSize, final int missingValue) {
+        this.missingValue = missingValue;
+        allocate(tableSizeFor(Math.max(expectedSize, 2) * 2));
+    }
+
+    private static int tableSizeFor(final int capacity) {
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    private void allocate(final int capacity) {
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+        this.resizeThreshold = capacity / 2;
+    }
+
+    private int indexOf(final long key) {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    public int get(final long key) {
+        int index = indexOf(key);
+        while (used[index]) {
+            if (keys[index] == key) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    public int put(final long key, final int value) {
+        int index = indexOf(key);
+        while (used[index]) {
+            if (keys[index] == key) {
+                final int previous = values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        used[index] = true;
+        if (++size > resizeThreshold) {
+            rehash(keys.length * 2);
+        }
+        return missingValue;
+    }
+
+    public int remove(final long key) {
+        int index = indexOf(key);
+        while (used[index]) {
+            if (keys[index] == key) {
+                final int previous = values[index];
+                used[index] = false;
+                size--;
+                shiftBack(index);
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    // 삭제된 위치 뒤의 항목 중 원래 자리로 더 가까워질 수 있는 항목을 당겨온다.
+    private void shiftBack(int hole) {
+        int index = (hole + 1) & mask;
+        while (used[index]) {
+            final int home = indexOf(keys[index]);
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                keys[hole] = keys[index];
+                values[hole] = values[index];
+                used[hole] = true;
+                used[index] = false;
+                hole = index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void rehash(final int capacity) {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+        final boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (!oldUsed[i]) {
+                continue;
+            }
+            int index = indexOf(oldKeys[i]);
+            while (used[index]) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = oldKeys[i];
+            values[index] = oldValues[i];
+            used[index] = true;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+}
@@ -0,0 +1,39 @@
+package com.onseju.matchingservice.engine;
+
+/**
+ * 시장가 주문이 체결할 수 있는 범위. 범위를 벗어난 가격대에서는 체결하지 않고, 남은 수량은 대기시키지 않는다.
+ *
+ * @param maxLevels               체결할 수 있는 최대 가격대 수, 0이면 제한하지 않는다
+ * @param maxDeviationBasisPoints 기준 가격 대비 최대 괴리 (1/10000 단위), 0이면 제한하지 않는다.
+ *                                기준 가격은 마지막 체결가이며, 체결이 없으면 주문 시점의 상대 최우선 호가이다.
+ */
+public record MarketOrderProtection(
+        int maxLevels,
+        long maxDeviationBasisPoints
+) {
+
+    public static final MarketOrderProtection NONE = new MarketOrderProtection(0, 0L);
+
+    private static final long BASIS_POINTS = 10_000L;
+
+    public MarketOrderProtection {
+        if (maxLevels < 0 || maxDeviationBasisPoints < 0) {
+            throw new IllegalArgumentException("시장가 주문 보호 범위는 0 이상이어야 합니다.");
+        }
+    }
+
+    boolean allowsLevel(final int sweptLevels) {
+        return maxLevels == 0 || sweptLevels < maxLevels;
+    }
+
+    /**
+     * 체결할 수 있는 가장 불리한 가격. 매수는 이 가격 이하, 매도는 이 가격 이상에서만 체결한다.
+     */
+    long priceLimit(final long referencePrice, final boolean buy) {
+        if (maxDeviationBasisPoints == 0) {
+            return buy ? Long.MAX_VALUE : Long.MIN_VALUE;
+        }
+        final long deviation = referencePrice * maxDeviationBasisPoints / BASIS_POINTS;
+        return buy ? referencePrice + deviation : referencePrice - deviation;
+    }
+}
@@ -1,64 +1,434 @@
 package com.onseju.matchingservice.engine;
 
+import com.onseju.matchingservice.config.MatchingEngineProperties;
+import com.onseju.matchingservice.domain.Price;
 import com.onseju.matchingservice.domain.TradeOrder;
+import com.onseju.matchingservice.dto.AmendOrderRequest;
+import com.onseju.matchingservice.dto.CancelOrderRequest;
+import com.onseju.matchingservice.dto.OrderResult;
 import com.onseju.matchingservice.dto.TradeHistoryEvent;
 import com.onseju.matchingservice.factory.OrderBookFactory;
-import lombok.RequiredArgsConstructor;
+import com.onseju.matchingservice.journal.EngineSnapshot;
+import com.onseju.matchingservice.journal.JournalHandler;
+import com.onseju.matchingservice.journal.OrderBookImage;
+import com.onseju.matchingservice.journal.OrderJournal;
+import com.onseju.matchingservice.journal.SnapshotStore;
+import com.onseju.matchingservice.metrics.MatchingMetrics;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class MatchingEngine {
 
-    // 종목 코드를 키로 하는 주문들
-    private final ConcurrentHashMap<String, OrderBook> orderBooks = new ConcurrentHashMap<>();
+    // 종목 코드의 해시로 나뉜 파티션, 잠금 모드에서는 하나의 파티션만 사용한다.
+    private final EnginePartition[] partitions;
     private final OrderBookFactory orderBookFactory;
-    private final ApplicationEventPublisher eventPublisher;
+    private final TradeEventPublisher eventPublisher;
+    private final OrderJournal journal;
+    private final MatchingMetrics metrics;
 
-    public void processOrder(final TradeOrder order) {
-        final OrderBook orderBook = getOrCreateOrderBook(order.getCompanyCode());
-        checkAndChangeLimitToMarket(order);
-        List<TradeHistoryEvent> results = orderBook.received(order);
-        results.forEach(i -> log.info("체결 완료: sell order - " + i.sellOrderId() + ", buyOrderId - " + i.buyOrderId()));
-        results.forEach(eventPublisher::publishEvent);
+    public MatchingEngine(
+            final OrderBookFactory orderBookFactory,
+            final TradeEventPublisher eventPublisher,
+            final OrderJournal journal,
+            final SnapshotStore snapshotStore,
+            final MatchingEngineProperties properties
+    ) {
+        this(orderBookFactory, eventPublisher, journal, snapshotStore, properties, MatchingMetrics.disabled());
     }
 
-    // 종목별 주문장 생성, 이미 존재할 경우 반환
-    private OrderBook getOrCreateOrderBook(final String companyCode) {
-        return orderBooks.computeIfAbsent(
-                companyCode,
-                key -> orderBookFactory.createOrderBook()
-        );
+    @Autowired
+    public MatchingEngine(
+            final OrderBookFactory orderBookFactory,
+            final TradeEventPublisher eventPublisher,
+            final OrderJournal journal,
+            final SnapshotStore snapshotStore,
+            final MatchingEngineProperties properties,
+            final MatchingMetrics metrics
+    ) {
+        this.orderBookFactory = orderBookFactory;
+        this.eventPublisher = eventPublisher;
+        this.journal = journal;
+        this.metrics = metrics;
+        this.partitions = createPartitions(properties);
+        recover(snapshotStore);
+    }
+
+    /**
+     * 최근 스냅샷으로 주문장을 복원한 뒤, 스냅샷 이후의 저널만 재생한다.
+     */
+    private void recover(final SnapshotStore snapshotStore) {
+        final Map<String, Long> bookSequences = new HashMap<>();
+        long coveredSequence = 0L;
+        long startSequence = 0L;
+        final Optional<EngineSnapshot> snapshot = snapshotStore.loadLatest();
+        if (snapshot.isPresent()) {
+            for (OrderBookImage image : snapshot.get().images()) {
+                final OrderBook orderBook = getPartition(image.companyCode())
+                        .getOrCreateOrderBook(image.companyCode(), orderBookFactory);
+                image.restorePriceBand(orderBook);
+                image.restoreLastPrice(orderBook);
+                image.decodeOrders().forEach(orderBook::restore);
+                bookSequences.put(image.companyCode(), image.sequence());
+            }
+            coveredSequence = snapshot.get().sequence();
+            startSequence = snapshot.get().lastSequence();
+            log.info("스냅샷 복원 완료: 주문장 {}개, 시퀀스 {}", bookSequences.size(), startSequence);
+        }
+        journal.recover(new RecoveryHandler(bookSequences), coveredSequence, startSequence);
+    }
+
+    private static EnginePartition[] createPartitions(final MatchingEngineProperties properties) {
+        if (!properties.mode().isSingleWriter()) {
+            return new EnginePartition[]{EnginePartition.direct()};
+        }
+        final EnginePartition[] partitions = new EnginePartition[properties.partitionCount()];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = EnginePartition.sequenced("matching-partition-" + i, properties.ringBufferSize());
+        }
+        return partitions;
+    }
+
+    /**
+     * 주문을 매칭한다. 단일 스레드 모드에서는 종목이 속한 파티션의 시퀀서에 주문을 전달하고, 매칭이 끝나면 완료되는 future를 반환한다.
+     */
+    public CompletableFuture<List<TradeHistoryEvent>> processOrder(final TradeOrder order) {
+        final EnginePartition partition = getPartition(order.getCompanyCode());
+        if (!metrics.isEnabled()) {
+            return partition.execute(() -> match(partition, order));
+        }
+        final long start = System.nanoTime();
+        return partition.execute(() -> match(partition, order))
+                .whenComplete((results, e) -> metrics.recordEngineLatency(System.nanoTime() - start));
+    }
+
+    private List<TradeHistoryEvent> match(final EnginePartition partition, final TradeOrder order) {
+        checkPublisherBacklog(order.getCompanyCode());
+        final OrderBook orderBook = partition.getOrCreateOrderBook(order.getCompanyCode(), orderBookFactory);
+        // 시퀀서 스레드만 주문장을 변경하므로 매칭을 마친 뒤 발행해도 같은 종목의 체결 순서가 유지된다.
+        if (partition.isSequenced()) {
+            final List<TradeHistoryEvent> results = journalAndExecute(orderBook, order, partition.getFills());
+            publish(results);
+            return results;
+        }
+        // 같은 종목의 체결이 체결 순서대로 발행 큐에 들어가도록 주문장을 점유한 동안 발행한다.
+        if (journal.isEnabled()) {
+            return orderBook.batch(() -> {
+                final List<TradeHistoryEvent> results = journalAndExecute(orderBook, order, null);
+                publish(results);
+                return results;
+            });
+        }
+        checkAndChangeLimitToMarket(orderBook, order);
+        return orderBook.received(order, this::publish);
+    }
+
+    // 주문장을 점유한 상태에서 저널에 먼저 기록한 뒤 매칭한다. 저널 순서가 적용 순서와 같아야 하므로 방향별 락으로 나누어 처리하지 않는다.
+    private List<TradeHistoryEvent> journalAndExecute(
+            final OrderBook orderBook,
+            final TradeOrder order,
+            final FillBuffer fills
+    ) {
+        journal.appendOrder(order);
+        final List<TradeHistoryEvent> results = execute(orderBook, order, fills);
+        journal.appendTrades(results);
+        return results;
+    }
+
+    /**
+     * 파티션의 체결 버퍼가 있으면 버퍼에 체결을 기록한 뒤 이벤트로 한 번만 변환하고 버퍼를 되돌린다.
+     * 이벤트는 발행 큐와 호출한 쪽에 그대로 넘기므로 체결마다 만드는 객체는 이 이벤트뿐이다. 버퍼가 없으면 주문장이 목록을 만든다.
+     */
+    private List<TradeHistoryEvent> execute(final OrderBook orderBook, final TradeOrder order, final FillBuffer fills) {
+        checkAndChangeLimitToMarket(orderBook, order);
+        if (fills == null) {
+            return orderBook.received(order);
+        }
+        final int from = fills.size();
+        try {
+            orderBook.received(order, fills);
+            return fills.toEvents(from);
+        } finally {
+            fills.truncate(from);
+        }
+    }
+
+    /**
+     * 여러 주문을 한 번에 매칭한다. 종목별로 묶어 파티션에 한 번씩 전달하고, 각 주문장은 한 번만 점유한 채 도착 순서대로 매칭한다.
+     * 결과는 입력한 주문 순서와 같은 순서로 반환한다. 거절된 주문은 해당 결과에 사유를 담고, 나머지 주문은 계속 처리한다.
+     */
+    public CompletableFuture<List<OrderResult>> processOrders(final List<TradeOrder> orders) {
+        final Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        final OrderResult[] results = new OrderResult[orders.size()];
+        for (int i = 0; i < orders.size(); i++) {
+            final TradeOrder order = orders.get(i);
+            // 종목 코드가 없는 주문은 파티션을 고를 수 없으므로 묶기 전에 거절한다.
+            if (order.getCompanyCode() == null || order.getCompanyCode().isBlank()) {
+                results[i] = OrderResult.rejected(order.getId(), "종목 코드가 필요합니다.");
+                continue;
+            }
+            groups.computeIfAbsent(order.getCompanyCode(), key -> new ArrayList<>()).add(i);
+        }
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[groups.size()];
+        int index = 0;
+        for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+            final EnginePartition partition = getPartition(group.getKey());
+            futures[index++] = partition.execute(
+                    () -> matchAll(partition, group.getKey(), orders, group.getValue(), results)
+            );
+        }
+        return CompletableFuture.allOf(futures)
+                .thenApply(ignored -> Arrays.asList(results));
+    }
+
+    private Void matchAll(
+            final EnginePartition partition,
+            final String companyCode,
+            final List<TradeOrder> orders,
+            final List<Integer> indexes,
+            final OrderResult[] results
+    ) {
+        final OrderBook orderBook = partition.getOrCreateOrderBook(companyCode, orderBookFactory);
+        final FillBuffer fills = partition.isSequenced() ? partition.getFills() : null;
+        return orderBook.batch(() -> {
+            for (int index : indexes) {
+                final TradeOrder order = orders.get(index);
+                try {
+                    checkPublisherBacklog(companyCode);
+                    final List<TradeHistoryEvent> trades = journalAndExecute(orderBook, order, fills);
+                    publish(trades);
+                    results[index] = new OrderResult(order.getId(), trades);
+                } catch (IllegalArgumentException | TradeEventBacklogException e) {
+                    // 앞선 주문은 이미 체결되고 발행되었으므로 묶음 전체를 실패시키지 않는다.
+                    results[index] = OrderResult.rejected(order.getId(), e.getMessage());
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 대기 중인 주문을 취소한다. 취소할 주문이 없으면 false로 완료된다.
+     */
+    public CompletableFuture<Boolean> cancelOrder(final CancelOrderRequest request) {
+        final EnginePartition partition = getPartition(request.companyCode());
+        return partition.execute(() -> {
+            final OrderBook orderBook = partition.getOrderBook(request.companyCode());
+            if (orderBook == null) {
+                return false;
+            }
+            return orderBook.batch(() -> {
+                journal.appendCancel(request);
+                return orderBook.cancel(request.orderId());
+            });
+        });
+    }
+
+    /**
+     * 대기 중인 주문을 정정한다. 정정할 주문이 없으면 빈 값으로 완료된다.
+     */
+    public CompletableFuture<Optional<List<TradeHistoryEvent>>> amendOrder(final AmendOrderRequest request) {
+        final EnginePartition partition = getPartition(request.companyCode());
+        return partition.execute(() -> {
+            final OrderBook orderBook = partition.getOrderBook(request.companyCode());
+            if (orderBook == null) {
+                return Optional.empty();
+            }
+            checkPublisherBacklog(request.companyCode());
+            validateAmend(request);
+            return orderBook.batch(() -> {
+                journal.appendAmend(request);
+                final Optional<List<TradeHistoryEvent>> trades = orderBook.amend(request);
+                trades.ifPresent(journal::appendTrades);
+                trades.ifPresent(this::publish);
+                return trades;
+            });
+        });
+    }
+
+    // 어차피 거절될 정정 요청이 저널에 남지 않도록 기록하기 전에 수량과 가격을 검증한다.
+    private static void validateAmend(final AmendOrderRequest request) {
+        if (request.quantity() != null) {
+            TradeOrder.toQuantity(request.quantity());
+        }
+        if (request.price() != null) {
+            Price.toScaled(request.price());
+        }
+    }
+
+    /**
+     * 종목의 최근 상위 호가 스냅샷을 반환한다. 시퀀서를 거치지 않고 주문장이 교체해 둔 스냅샷을 읽는다.
+     */
+    public Optional<BookDepth> getDepth(final String companyCode) {
+        return Optional.ofNullable(getPartition(companyCode).getOrderBook(companyCode))
+                .map(OrderBook::getDepth);
+    }
+
+    /**
+     * 종목의 체결 누적 값을 락 없이 읽는다.
+     */
+    public Optional<TickerSnapshot> getTicker(final String companyCode) {
+        return Optional.ofNullable(getPartition(companyCode).getOrderBook(companyCode))
+                .map(OrderBook::getTicker);
+    }
+
+    public Optional<List<Candle>> getCandles(final String companyCode, final CandleInterval interval) {
+        return Optional.ofNullable(getPartition(companyCode).getOrderBook(companyCode))
+                .map(orderBook -> orderBook.getCandles(interval));
+    }
+
+    /**
+     * 락을 잡고 종목의 호가를 지정한 가격대 수만큼 복사한다. 호가 스트림 구독을 시작할 때 사용한다.
+     */
+    public Optional<BookDepth> captureDepth(final String companyCode, final int levels) {
+        return Optional.ofNullable(getPartition(companyCode).getOrderBook(companyCode))
+                .map(orderBook -> orderBook.captureDepth(levels));
+    }
+
+    private void publish(final List<TradeHistoryEvent> results) {
+        eventPublisher.publish(results);
+    }
+
+    // 발행을 기다리는 체결 이벤트가 한도만큼 쌓인 종목은 체결을 만들기 전에 거절한다. 적용한 주문의 이벤트는 대기 없이 큐에 넣는다.
+    private void checkPublisherBacklog(final String companyCode) {
+        if (eventPublisher.isBacklogged(companyCode)) {
+            throw new TradeEventBacklogException(companyCode);
+        }
+    }
+
+    // 종목 코드의 해시로 파티션을 선택한다.
+    EnginePartition getPartition(final String companyCode) {
+        if (partitions.length == 1) {
+            return partitions[0];
+        }
+        final int hash = companyCode.hashCode();
+        return partitions[Math.floorMod(hash ^ (hash >>> 16), partitions.length)];
+    }
+
+    List<EnginePartition> getPartitions() {
+        return List.of(partitions);
     }
 
     // 지정가 주문 시, 시장가와 비교하여 시장가보다 불리할 경우 시장가로 상태 변경
-    private void checkAndChangeLimitToMarket(final TradeOrder order) {
+    private void checkAndChangeLimitToMarket(final OrderBook orderBook, final TradeOrder order) {
         if (order.isSellType()) {
-            updateSellOrderStatusIfBelowMarketPrice(order);
+            updateSellOrderStatusIfBelowMarketPrice(orderBook, order);
             return;
         }
-        updateBuyOrderStatusIfAboveMarketPrice(order);
+        updateBuyOrderStatusIfAboveMarketPrice(orderBook, order);
     }
 
     // 매도 주문의 가격이 시장가보다 낮은 경우 시장가로 상태 변경
-    private void updateSellOrderStatusIfBelowMarketPrice(final TradeOrder order) {
-        OrderBook orderBook = getOrCreateOrderBook(order.getCompanyCode());
+    private void updateSellOrderStatusIfBelowMarketPrice(final OrderBook orderBook, final TradeOrder order) {
         if (orderBook.isSellOrderBelowMarketPrice(order)) {
             order.changeTypeToMarket();
         }
     }
 
     // 매수 주문의 가격의 시장가보다 높은 경우 시장가로 상태 변경
-    private void updateBuyOrderStatusIfAboveMarketPrice(final TradeOrder order) {
-        OrderBook orderBook = getOrCreateOrderBook(order.getCompanyCode());
+    private void updateBuyOrderStatusIfAboveMarketPrice(final OrderBook orderBook, final TradeOrder order) {
         if (orderBook.isBuyOrderAboveMarketPrice(order)) {
             order.changeTypeToMarket();
         }
     }
+
+    /**
+     * 파티션마다 시퀀서에 작업을 넣어, 파티션이 다른 주문을 처리하지 않는 시점에 주문장을 복사한다.
+     * 잠금 모드에서는 주문장별 락을 잡은 동안 복사하므로 다른 종목의 매칭은 멈추지 않는다.
+     */
+    public CompletableFuture<EngineSnapshot> captureSnapshot() {
+        final List<CompletableFuture<EngineSnapshot>> captures = new ArrayList<>(partitions.length);
+        for (EnginePartition partition : partitions) {
+            captures.add(partition.execute(() -> capture(partition)));
+        }
+        return CompletableFuture.allOf(captures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> EngineSnapshot.merge(captures.stream().map(CompletableFuture::join).toList()));
+    }
+
+    private EngineSnapshot capture(final EnginePartition partition) {
+        // 복사를 시작한 뒤 생성된 주문장의 기록은 모두 이 시퀀스 이후에 있다.
+        final long sequence = journal.getSequence();
+        final List<OrderBookImage> images = new ArrayList<>();
+        partition.forEachOrderBook((companyCode, orderBook) -> images.add(
+                orderBook.batch(() -> OrderBookImage.capture(companyCode, journal.getSequence(), orderBook))
+        ));
+        return new EngineSnapshot(sequence, images);
+    }
+
+    /**
+     * 저널을 재생해 주문장을 복구한다. 엔진 생성 중 한 스레드에서만 호출되며, 체결 이벤트는 다시 발행하지 않는다.
+     * 스냅샷에 이미 반영된 레코드는 건너뛰고, 원래 처리할 때 거절된 요청은 재생할 때도 거절되므로 무시한다.
+     */
+    private class RecoveryHandler implements JournalHandler {
+
+        private final Map<String, Long> bookSequences;
+
+        private RecoveryHandler(final Map<String, Long> bookSequences) {
+            this.bookSequences = bookSequences;
+        }
+
+        private boolean isApplied(final long sequence, final String companyCode) {
+            return sequence <= bookSequences.getOrDefault(companyCode, 0L);
+        }
+
+        @Override
+        public void onOrder(final long sequence, final TradeOrder order) {
+            if (isApplied(sequence, order.getCompanyCode())) {
+                return;
+            }
+            final OrderBook orderBook = getPartition(order.getCompanyCode())
+                    .getOrCreateOrderBook(order.getCompanyCode(), orderBookFactory);
+            try {
+                execute(orderBook, order, null);
+            } catch (IllegalArgumentException e) {
+                log.debug("재생 중 거절된 주문: {}", order.getId());
+            }
+        }
+
+        @Override
+        public void onCancel(final long sequence, final CancelOrderRequest request) {
+            if (isApplied(sequence, request.companyCode())) {
+                return;
+            }
+            final OrderBook orderBook = getPartition(request.companyCode()).getOrderBook(request.companyCode());
+            if (orderBook != null) {
+                orderBook.cancel(request.orderId());
+            }
+        }
+
+        @Override
+        public void onAmend(final long sequence, final AmendOrderRequest request) {
+            if (isApplied(sequence, request.companyCode())) {
+                return;
+            }
+            final OrderBook orderBook = getPartition(request.companyCode()).getOrderBook(request.companyCode());
+            if (orderBook == null) {
+                return;
+            }
+            try {
+                orderBook.amend(request);
+            } catch (IllegalArgumentException e) {
+                log.debug("재생 중 거절된 정정: {}", request.orderId());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (EnginePartition partition : partitions) {
+            partition.close();
+        }
+    }
 }
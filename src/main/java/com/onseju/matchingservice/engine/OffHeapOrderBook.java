@@ -0,0 +1,732 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.domain.OrderStatus;
+import com.onseju.matchingservice.domain.Price;
+import com.onseju.matchingservice.domain.TradeOrder;
+import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.dto.AmendOrderRequest;
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 대기 주문을 힙 밖의 고정 크기 레코드로 보관하는 주문장. 대기 주문마다 TradeOrder, BigDecimal, LocalDateTime 객체를 힙에 남기지 않으므로,
+ * 대기 주문이 늘어도 주문마다 만드는 객체는 없고, 힙 사용량은 주문 ID 인덱스의 원시 타입 배열에 주문당 몇 바이트씩만 늘어난다.
+ * 가격대는 힙에 두고 가격대 큐의 처음과 끝을 레코드 번호로 가리키며, 주문 ID 인덱스도 박싱하지 않는 맵을 쓴다.
+ * 접수한 TradeOrder는 대기시킨 뒤 보관하지 않으므로, 대기 중에 체결되거나 취소된 주문의 상태는 원래 객체에 반영되지 않는다.
+ * 매칭 규칙은 CompanyOrderBook과 같고, 주문장 전체를 락 하나로 보호한다.
+ */
+public class OffHeapOrderBook implements OrderBook {
+
+    // 청크 하나에 담는 레코드 수, 1MB 단위로 힙 밖 메모리를 잡는다.
+    public static final int DEFAULT_CHUNK_RECORDS = 16_384;
+
+    // 최우선 호가가 없을 때의 값
+    private static final long NO_PRICE = -1L;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    // 대기 주문을 다시 TradeOrder로 만들 때 사용하는 종목 코드
+    private final String companyCode;
+
+    private final OrderSlab slab;
+
+    // 매도 주문: 낮은 가격 우선
+    private final Side sells = new Side(true);
+
+    // 매수 주문: 높은 가격 우선
+    private final Side buys = new Side(false);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // 목록을 반환하는 처리에서 체결을 모으는 버퍼, 락을 잡은 동안에만 사용하고 목록으로 변환한 뒤 비운다.
+    private final FillBuffer fills = new FillBuffer();
+
+    // 상위 호가 스냅샷에 담을 가격대 수
+    private final int depthLevels;
+
+    // 변경될 때마다 교체하는 상위 호가 스냅샷, 읽을 때는 락을 잡지 않는다.
+    private final AtomicReference<BookDepth> depth = new AtomicReference<>(BookDepth.EMPTY);
+
+    private final OrderBookListener listener;
+
+    private final OrderBookMetrics metrics;
+
+    private final MarketOrderProtection protection;
+
+    private final SelfTradePrevention selfTradePrevention;
+
+    // 체결 누적 값과 봉
+    private final TickerState ticker = new TickerState();
+
+    // 가격대가 바뀔 때마다 증가하는 변경 순번, 락 안에서만 변경한다.
+    private long changeSequence;
+
+    // 접수한 주문에 부여하는 도착 순번, 락 안에서만 변경한다.
+    private long arrivalSequence;
+
+    public OffHeapOrderBook(final String companyCode) {
+        this(
+                companyCode,
+                CompanyOrderBook.DEFAULT_DEPTH_LEVELS,
+                OrderBookListener.NO_OP,
+                OrderBookMetrics.NO_OP,
+                MarketOrderProtection.NONE,
+                SelfTradePrevention.SKIP,
+                DEFAULT_CHUNK_RECORDS
+        );
+    }
+
+    public OffHeapOrderBook(
+            final String companyCode,
+            final int depthLevels,
+            final OrderBookListener listener,
+            final OrderBookMetrics metrics,
+            final MarketOrderProtection protection,
+            final SelfTradePrevention selfTradePrevention,
+            final int chunkRecords
+    ) {
+        if (depthLevels < 1) {
+            throw new IllegalArgumentException("호가 스냅샷 가격대 수는 1 이상이어야 합니다: " + depthLevels);
+        }
+        this.companyCode = companyCode;
+        this.slab = new OrderSlab(chunkRecords);
+        this.depthLevels = depthLevels;
+        this.listener = listener;
+        this.metrics = metrics;
+        this.protection = protection;
+        this.selfTradePrevention = selfTradePrevention;
+    }
+
+    @Override
+    public List<TradeHistoryEvent> received(final TradeOrder order) {
+        return collectFills(fills -> received(order, fills));
+    }
+
+    @Override
+    public int received(final TradeOrder order, final FillBuffer fills) {
+        final int before = fills.size();
+        final long start = System.nanoTime();
+        lock();
+        try {
+            order.arrive(++arrivalSequence, start);
+            process(order, fills);
+        } finally {
+            unlock();
+            if (metrics.isEnabled()) {
+                metrics.orderReceived(System.nanoTime() - start);
+            }
+        }
+        return fills.size() - before;
+    }
+
+    // 락을 잡고 주문장의 버퍼에 체결을 모은 뒤 목록으로 변환한다. 버퍼는 작업 전의 크기로 되돌리므로 중첩해서 호출해도 된다.
+    private List<TradeHistoryEvent> collectFills(final Consumer<FillBuffer> task) {
+        lock();
+        final int from = fills.size();
+        try {
+            task.accept(fills);
+            return fills.toEvents(from);
+        } finally {
+            fills.truncate(from);
+            unlock();
+        }
+    }
+
+    private void process(final TradeOrder order, final FillBuffer fills) {
+        if (order.isMarketOrder()) {
+            processMarketOrder(order, fills);
+            return;
+        }
+        processLimitOrder(order, fills);
+    }
+
+    /**
+     * 시장가 주문: 최우선 호가부터 체결하고, 수량을 모두 채우거나 보호 범위를 벗어나면 멈춘다. 남은 수량은 대기시키지 않는다.
+     */
+    private void processMarketOrder(final TradeOrder order, final FillBuffer fills) {
+        final Side counter = getCounterSide(order.getType());
+        final boolean buy = !order.isSellType();
+        final long priceLimit = protection.priceLimit(referencePrice(counter), buy);
+        int sweptLevels = 0;
+        Level level = counter.first();
+        while (level != null && order.hasRemainingQuantity() && protection.allowsLevel(sweptLevels)) {
+            if (buy ? level.price > priceLimit : level.price < priceLimit) {
+                break;
+            }
+            // 체결로 가격대가 비면 제거되므로 다음 가격대를 먼저 찾아 둔다.
+            final Level next = counter.after(level);
+            match(counter, level, order, fills);
+            level = next;
+            sweptLevels++;
+        }
+    }
+
+    // 시장가 보호 범위의 기준 가격: 마지막 체결가, 체결이 없으면 상대 최우선 호가
+    private long referencePrice(final Side counter) {
+        final long lastPrice = ticker.getLastPrice();
+        if (lastPrice > 0) {
+            return lastPrice;
+        }
+        return counter.bestPrice;
+    }
+
+    /**
+     * 지정가 주문: 주문 가격에 닿는 상대 가격대와 최우선 호가부터 매칭한 후, 남은 수량을 대기 주문으로 추가한다.
+     */
+    private void processLimitOrder(final TradeOrder order, final FillBuffer fills) {
+        final Side counter = getCounterSide(order.getType());
+        final boolean buy = !order.isSellType();
+        final long limit = order.getScaledPrice();
+        Level level = counter.first();
+        while (level != null && order.hasRemainingQuantity()) {
+            if (buy ? level.price > limit : level.price < limit) {
+                break;
+            }
+            // 체결로 가격대가 비면 제거되므로 다음 가격대를 먼저 찾아 둔다.
+            final Level next = counter.after(level);
+            match(counter, level, order, fills);
+            level = next;
+        }
+        if (order.hasRemainingQuantity()) {
+            rest(order);
+        }
+    }
+
+    /**
+     * 가격대의 대기 주문과 도착 순서대로 매칭하고 체결을 버퍼에 기록한다.
+     */
+    private void match(final Side counter, final Level level, final TradeOrder order, final FillBuffer fills) {
+        final long accountId = order.getAccountId() == null ? OrderSlab.NULL_LONG : order.getAccountId();
+        final int ownOrders = level.getAccountOrderCount(accountId);
+        int otherOrders = level.orderCount - ownOrders;
+        // 가격대에 자기 주문만 있으면 레코드를 읽지 않고 건너뛴다.
+        if (otherOrders == 0 && selfTradePrevention == SelfTradePrevention.SKIP) {
+            return;
+        }
+        final int from = fills.size();
+        final long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        final BigDecimal price = order.isMarketOrder() || order.getScaledPrice() != level.price
+                ? Price.toDecimal(level.price)
+                : order.getPrice();
+        final long tradeAt = System.currentTimeMillis() / 1000L;
+        long filled = 0L;
+        int record = level.head;
+        while (record != OrderSlab.NULL && order.hasRemainingQuantity()) {
+            final int next = slab.next(record);
+            if (ownOrders > 0 && slab.accountId(record) == accountId) {
+                preventSelfTrade(counter, level, order, record);
+                record = next;
+                continue;
+            }
+            final long resting = slab.remaining(record);
+            final long quantity = Math.min(order.getRemaining(), resting);
+            order.decreaseRemainingQuantity(quantity);
+            order.checkAndChangeOrderStatus();
+            slab.setRemaining(record, resting - quantity);
+            level.totalQuantity -= quantity;
+            filled += quantity;
+            addFill(fills, order, record, quantity, price, tradeAt);
+            if (resting == quantity) {
+                removeRecord(counter, level, record);
+            }
+            // 남은 주문이 모두 자기 주문이면 더 읽지 않는다.
+            if (--otherOrders == 0 && selfTradePrevention == SelfTradePrevention.SKIP) {
+                break;
+            }
+            record = next;
+        }
+        final int trades = fills.size() - from;
+        if (metrics.isEnabled()) {
+            metrics.levelMatched(System.nanoTime() - start, trades);
+        }
+        if (filled > 0) {
+            ticker.record(level.price, filled, trades, System.currentTimeMillis());
+        }
+        levelUpdated(counter, level);
+        if (trades > 0) {
+            listener.onFills(changeSequence, fills, from);
+        }
+    }
+
+    private void preventSelfTrade(final Side counter, final Level level, final TradeOrder order, final int record) {
+        switch (selfTradePrevention) {
+            case SKIP -> {
+            }
+            case CANCEL_NEWEST -> {
+                order.changeRemainingQuantity(0L);
+                order.cancel();
+            }
+            case CANCEL_OLDEST -> removeRecord(counter, level, record);
+            case DECREMENT_BOTH -> {
+                final long resting = slab.remaining(record);
+                final long quantity = Math.min(order.getRemaining(), resting);
+                order.decreaseRemainingQuantity(quantity);
+                if (!order.hasRemainingQuantity()) {
+                    order.cancel();
+                }
+                slab.setRemaining(record, resting - quantity);
+                level.totalQuantity -= quantity;
+                if (resting == quantity) {
+                    removeRecord(counter, level, record);
+                }
+            }
+        }
+    }
+
+    private void addFill(
+            final FillBuffer fills,
+            final TradeOrder order,
+            final int record,
+            final long quantity,
+            final BigDecimal price,
+            final long tradeAt
+    ) {
+        final Long restingOrderId = nullable(slab.orderId(record));
+        final Long restingAccountId = nullable(slab.accountId(record));
+        if (order.isSellType()) {
+            fills.add(order.getCompanyCode(), restingOrderId, restingAccountId, order.getId(), order.getAccountId(), quantity, price, tradeAt);
+            return;
+        }
+        fills.add(order.getCompanyCode(), order.getId(), order.getAccountId(), restingOrderId, restingAccountId, quantity, price, tradeAt);
+    }
+
+    /**
+     * 남은 주문을 레코드에 기록해 가격대 큐의 끝에 잇는다. 도착 순번은 락 안에서 증가하므로 항상 끝에 추가하면 순서가 유지된다.
+     */
+    private void rest(final TradeOrder order) {
+        final Side side = getSameTypeSide(order.getType());
+        final long price = order.getScaledPrice();
+        final Level level = side.levels.computeIfAbsent(price, Level::new);
+        final int record = slab.allocate();
+        slab.setOrderId(record, order.getId() == null ? OrderSlab.NULL_LONG : order.getId());
+        slab.setAccountId(record, order.getAccountId() == null ? OrderSlab.NULL_LONG : order.getAccountId());
+        slab.setPrice(record, price);
+        slab.setRemaining(record, order.getRemaining());
+        slab.setTotalQuantity(record, order.getTotalQuantity() == null
+                ? order.getRemaining()
+                : order.getTotalQuantity().longValueExact());
+        slab.setSequence(record, order.getArrivalSequence());
+        slab.setCreatedAt(record, toEpochNanos(order.getCreatedDateTime()));
+        slab.setPrev(record, level.tail);
+        if (level.tail == OrderSlab.NULL) {
+            level.head = record;
+        } else {
+            slab.setNext(level.tail, record);
+        }
+        level.tail = record;
+        level.totalQuantity += order.getRemaining();
+        level.orderCount++;
+        level.countAccount(slab.accountId(record), 1);
+        if (order.getId() != null) {
+            side.restingOrders.put(order.getId(), record);
+        }
+        levelUpdated(side, level);
+    }
+
+    /**
+     * 레코드를 가격대 큐와 인덱스에서 제거하고 슬랩에 돌려준다. 남은 수량은 가격대 잔량 합계에서 뺀다.
+     */
+    private void removeRecord(final Side side, final Level level, final int record) {
+        final int prev = slab.prev(record);
+        final int next = slab.next(record);
+        if (prev == OrderSlab.NULL) {
+            level.head = next;
+        } else {
+            slab.setNext(prev, next);
+        }
+        if (next == OrderSlab.NULL) {
+            level.tail = prev;
+        } else {
+            slab.setPrev(next, prev);
+        }
+        level.totalQuantity -= slab.remaining(record);
+        level.orderCount--;
+        level.countAccount(slab.accountId(record), -1);
+        final long orderId = slab.orderId(record);
+        if (orderId != OrderSlab.NULL_LONG) {
+            side.restingOrders.remove(orderId);
+        }
+        slab.free(record);
+    }
+
+    @Override
+    public boolean cancel(final long orderId) {
+        lock();
+        try {
+            for (Side side : new Side[]{sells, buys}) {
+                final int record = side.restingOrders.get(orderId);
+                if (record != OrderSlab.NULL) {
+                    final Level level = side.levels.get(slab.price(record));
+                    removeRecord(side, level, record);
+                    levelUpdated(side, level);
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public Optional<List<TradeHistoryEvent>> amend(final AmendOrderRequest request) {
+        lock();
+        try {
+            Side side = sells;
+            int record = sells.restingOrders.get(request.orderId());
+            if (record == OrderSlab.NULL) {
+                side = buys;
+                record = buys.restingOrders.get(request.orderId());
+            }
+            if (record == OrderSlab.NULL) {
+                return Optional.empty();
+            }
+            final long remaining = slab.remaining(record);
+            final long quantity = request.quantity() == null ? remaining : TradeOrder.toQuantity(request.quantity());
+            final long currentPrice = slab.price(record);
+            final boolean samePrice = request.price() == null || Price.toScaled(request.price()) == currentPrice;
+            final Level level = side.levels.get(currentPrice);
+            if (samePrice && quantity <= remaining) {
+                // 수량 감소 정정: 대기 순서를 유지한 채 남은 수량만 줄인다.
+                slab.setRemaining(record, quantity);
+                level.totalQuantity -= remaining - quantity;
+                levelUpdated(side, level);
+                return Optional.of(List.of());
+            }
+            // 가격 변경 또는 수량 증가 정정: 기존 주문을 취소하고 새 가격과 수량으로 다시 접수한다.
+            final TradeOrder order = toOrder(side, record);
+            removeRecord(side, level, record);
+            levelUpdated(side, level);
+            if (!samePrice) {
+                order.changePrice(request.price());
+            }
+            order.changeRemainingQuantity(quantity);
+            order.arrive(++arrivalSequence, System.nanoTime());
+            return Optional.of(collectFills(fills -> processLimitOrder(order, fills)));
+        } finally {
+            unlock();
+        }
+    }
+
+    // 레코드로 대기 주문을 다시 만든다. 정정과 스냅샷에서만 사용한다.
+    private TradeOrder toOrder(final Side side, final int record) {
+        return TradeOrder.builder()
+                .id(nullable(slab.orderId(record)))
+                .companyCode(companyCode)
+                .type(side.sell ? Type.LIMIT_SELL : Type.LIMIT_BUY)
+                .status(OrderStatus.ACTIVE)
+                .totalQuantity(BigDecimal.valueOf(slab.totalQuantity(record)))
+                .remainingQuantity(BigDecimal.valueOf(slab.remaining(record)))
+                .price(Price.toDecimal(slab.price(record)))
+                .createdDateTime(toDateTime(slab.createdAt(record)))
+                .accountId(nullable(slab.accountId(record)))
+                .build();
+    }
+
+    private static Long nullable(final long value) {
+        return value == OrderSlab.NULL_LONG ? null : value;
+    }
+
+    private static long toEpochNanos(final LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return OrderSlab.NULL_LONG;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + dateTime.getNano();
+    }
+
+    private static LocalDateTime toDateTime(final long epochNanos) {
+        if (epochNanos == OrderSlab.NULL_LONG) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                (int) Math.floorMod(epochNanos, NANOS_PER_SECOND),
+                ZoneOffset.UTC
+        );
+    }
+
+    /**
+     * 가격대 변경을 알리고 최우선 호가를 공개한다. 비어 있는 가격대는 제거하고, 상위 호가 범위 안의 변경이면 스냅샷을 다시 만들도록 표시한다.
+     */
+    private void levelUpdated(final Side side, final Level level) {
+        if (level.orderCount == 0) {
+            side.levels.remove(level.price);
+        }
+        side.publishBestPrice();
+        listener.onLevelUpdated(++changeSequence, side.sell, level.price, level.totalQuantity, level.orderCount);
+        final BookDepth current = depth.get();
+        side.depthChanged |= (side.sell ? current.asks() : current.bids()).covers(level.price, side.sell, depthLevels);
+    }
+
+    // 변경된 방향의 상위 호가를 다시 복사해 스냅샷을 교체한다.
+    private void publishDepth() {
+        if (!sells.depthChanged && !buys.depthChanged) {
+            return;
+        }
+        final BookDepth current = depth.get();
+        depth.set(new BookDepth(
+                changeSequence,
+                sells.depthChanged ? sells.capture(depthLevels) : current.asks(),
+                buys.depthChanged ? buys.capture(depthLevels) : current.bids()
+        ));
+        sells.depthChanged = false;
+        buys.depthChanged = false;
+    }
+
+    @Override
+    public BookDepth getDepth() {
+        return depth.get();
+    }
+
+    @Override
+    public BookDepth captureDepth(final int levels) {
+        lock();
+        try {
+            return new BookDepth(changeSequence, sells.capture(levels), buys.capture(levels));
+        } finally {
+            unlock();
+        }
+    }
+
+    // 다른 스레드에서 락 없이 읽으므로 최근 값이 아닐 수 있다. 계측에만 사용한다.
+    @Override
+    public int getRestingOrderCount() {
+        return sells.restingOrders.size() + buys.restingOrders.size();
+    }
+
+    @Override
+    public TickerSnapshot getTicker() {
+        return ticker.read();
+    }
+
+    @Override
+    public List<Candle> getCandles(final CandleInterval interval) {
+        return ticker.readCandles(interval, System.currentTimeMillis());
+    }
+
+    @Override
+    public <T> T batch(final Supplier<T> task) {
+        lock();
+        try {
+            return task.get();
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public void forEachRestingOrder(final Consumer<TradeOrder> action) {
+        lock();
+        try {
+            for (Side side : new Side[]{sells, buys}) {
+                for (Level level : side.levels.values()) {
+                    for (int record = level.head; record != OrderSlab.NULL; record = slab.next(record)) {
+                        action.accept(toOrder(side, record));
+                    }
+                }
+            }
+        } finally {
+            unlock();
+        }
+    }
+
+    // 스냅샷은 가격대별 도착 순서대로 읽히므로 새 순번을 부여해도 우선순위가 유지된다.
+    @Override
+    public void restore(final TradeOrder order) {
+        lock();
+        try {
+            order.arrive(++arrivalSequence, System.nanoTime());
+            rest(order);
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public void restoreLastPrice(final long lastPrice) {
+        lock();
+        try {
+            ticker.restoreLastPrice(lastPrice);
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public boolean isSellOrderBelowMarketPrice(final TradeOrder order) {
+        final long lowestSellOrder = sells.bestPrice;
+        if (!order.isSellType() || lowestSellOrder == NO_PRICE) {
+            return false;
+        }
+        return lowestSellOrder > order.getScaledPrice();
+    }
+
+    @Override
+    public boolean isBuyOrderAboveMarketPrice(final TradeOrder order) {
+        final long highestBuyOrder = buys.bestPrice;
+        if (order.isSellType() || highestBuyOrder == NO_PRICE) {
+            return false;
+        }
+        return highestBuyOrder <= order.getScaledPrice();
+    }
+
+    // 사용 중인 힙 밖 레코드 수
+    public int getRecordCount() {
+        lock();
+        try {
+            return slab.size();
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * 락을 획득한다. 다른 스레드가 락을 잡고 있을 때만 대기 시간을 측정한다.
+     */
+    private void lock() {
+        if (lock.tryLock()) {
+            return;
+        }
+        if (!metrics.isEnabled()) {
+            lock.lock();
+            return;
+        }
+        final long start = System.nanoTime();
+        lock.lock();
+        metrics.lockWaited(System.nanoTime() - start);
+    }
+
+    // 가장 바깥의 락을 풀 때 변경된 스냅샷을 교체한다.
+    private void unlock() {
+        try {
+            if (lock.getHoldCount() == 1) {
+                publishDepth();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Side getCounterSide(final Type type) {
+        if (type.isSell()) {
+            return buys;
+        }
+        return sells;
+    }
+
+    private Side getSameTypeSide(final Type type) {
+        if (type.isSell()) {
+            return sells;
+        }
+        return buys;
+    }
+
+    /**
+     * 한 가격대의 대기 주문 큐. 처음과 끝은 슬랩의 레코드 번호다.
+     */
+    private static final class Level {
+
+        private final long price;
+        private int head = OrderSlab.NULL;
+        private int tail = OrderSlab.NULL;
+        private long totalQuantity;
+        private int orderCount;
+
+        // 계정별 대기 주문 수, 자기 매매 방지에서 매칭할 다른 계정의 주문이 남았는지 레코드를 읽지 않고 판단한다.
+        private LongIntHashMap accountOrders;
+
+        private Level(final long price) {
+            this.price = price;
+        }
+
+        private void countAccount(final long accountId, final int delta) {
+            if (accountId == OrderSlab.NULL_LONG) {
+                return;
+            }
+            if (accountOrders == null) {
+                accountOrders = new LongIntHashMap(4, 0);
+            }
+            final int count = accountOrders.get(accountId) + delta;
+            if (count == 0) {
+                accountOrders.remove(accountId);
+                return;
+            }
+            accountOrders.put(accountId, count);
+        }
+
+        private int getAccountOrderCount(final long accountId) {
+            if (accountId == OrderSlab.NULL_LONG || accountOrders == null) {
+                return 0;
+            }
+            return accountOrders.get(accountId);
+        }
+    }
+
+    /**
+     * 주문장의 한 방향. 가격대와 주문 ID 인덱스는 주문장 락으로 보호하고, 최우선 호가는 락 없이 읽을 수 있도록 volatile로 공개한다.
+     */
+    private static final class Side {
+
+        private final boolean sell;
+
+        // 최우선 호가부터 정렬한 가격대
+        private final TreeMap<Long, Level> levels;
+
+        // 주문 ID로 대기 주문의 레코드 번호를 찾는 인덱스
+        private final LongIntHashMap restingOrders = new LongIntHashMap(OrderSlab.NULL);
+
+        // 마지막 스냅샷 이후 상위 호가 범위 안의 가격대가 변경되었는지 여부
+        private boolean depthChanged;
+
+        private volatile long bestPrice = NO_PRICE;
+
+        private Side(final boolean sell) {
+            this.sell = sell;
+            this.levels = sell ? new TreeMap<>() : new TreeMap<>(Comparator.reverseOrder());
+        }
+
+        private Level first() {
+            final Map.Entry<Long, Level> entry = levels.firstEntry();
+            return entry == null ? null : entry.getValue();
+        }
+
+        private Level after(final Level level) {
+            final Map.Entry<Long, Level> entry = levels.higherEntry(level.price);
+            return entry == null ? null : entry.getValue();
+        }
+
+        private void publishBestPrice() {
+            final Level best = first();
+            bestPrice = best == null ? NO_PRICE : best.price;
+        }
+
+        private DepthSide capture(final int count) {
+            final long[] prices = new long[count];
+            final long[] quantities = new long[count];
+            final int[] orderCounts = new int[count];
+            int size = 0;
+            for (Level level : levels.values()) {
+                if (size == count) {
+                    break;
+                }
+                prices[size] = level.price;
+                quantities[size] = level.totalQuantity;
+                orderCounts[size] = level.orderCount;
+                size++;
+            }
+            return DepthSide.of(prices, quantities, orderCounts, size);
+        }
+    }
+}
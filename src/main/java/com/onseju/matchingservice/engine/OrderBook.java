@@ -1,9 +1,13 @@
 package com.onseju.matchingservice.engine;
 
 import com.onseju.matchingservice.domain.TradeOrder;
+import com.onseju.matchingservice.dto.AmendOrderRequest;
 import com.onseju.matchingservice.dto.TradeHistoryEvent;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * 시장에 존재하는 구매자와 판매자의 모든 주문에 대한 기록
@@ -12,6 +16,92 @@ public interface OrderBook {
 
     List<TradeHistoryEvent> received(TradeOrder order);
 
+    /**
+     * 주문을 처리하고 체결을 버퍼의 끝에 기록한다. 체결마다 이벤트를 만들지 않으므로, 호출한 쪽이 버퍼를 읽은 뒤 비우고 다시 사용한다.
+     * 기록한 체결 수를 반환한다.
+     */
+    int received(TradeOrder order, FillBuffer fills);
+
+    /**
+     * 주문을 처리하고, 체결이 있으면 주문장을 점유한 동안 체결 이벤트를 onTrades에 넘긴다.
+     * 락을 놓은 뒤 넘기면 같은 종목의 다른 주문 체결과 순서가 바뀔 수 있으므로, 체결 순서대로 발행해야 할 때 사용한다.
+     * 기본 구현은 주문장 전체를 점유한 채 처리한다.
+     */
+    default List<TradeHistoryEvent> received(TradeOrder order, Consumer<List<TradeHistoryEvent>> onTrades) {
+        return batch(() -> {
+            final List<TradeHistoryEvent> trades = received(order);
+            if (!trades.isEmpty()) {
+                onTrades.accept(trades);
+            }
+            return trades;
+        });
+    }
+
+    /**
+     * 대기 중인 주문을 취소한다. 주문이 존재하지 않거나 이미 체결된 경우 false를 반환한다.
+     */
+    boolean cancel(long orderId);
+
+    /**
+     * 대기 중인 주문을 정정한다. 수량 감소는 대기 순서를 유지하고, 가격 변경은 기존 주문을 취소한 뒤 새 가격으로 다시 접수한다.
+     * 주문이 존재하지 않을 경우 빈 값을 반환한다.
+     */
+    Optional<List<TradeHistoryEvent>> amend(AmendOrderRequest request);
+
+    /**
+     * 여러 주문을 한 번에 처리할 때, 주문장을 한 번만 점유한 채 작업을 실행한다.
+     */
+    default <T> T batch(Supplier<T> task) {
+        return task.get();
+    }
+
+    /**
+     * 대기 주문을 매도 최우선 호가부터, 이어서 매수 최우선 호가부터 가격대별 도착 순서대로 순회한다.
+     */
+    void forEachRestingOrder(Consumer<TradeOrder> action);
+
+    /**
+     * 스냅샷에서 읽은 대기 주문을 매칭하지 않고 해당 가격대의 끝에 추가한다.
+     */
+    void restore(TradeOrder order);
+
+    /**
+     * 스냅샷에서 읽은 마지막 체결 가격을 시장가 주문 보호의 기준 가격으로 설정한다. 거래량과 봉은 바꾸지 않는다.
+     */
+    void restoreLastPrice(long lastPrice);
+
+    /**
+     * 가격 제한폭이 있는 주문장의 호가 범위, 범위 제한이 없으면 null을 반환한다. 스냅샷에 기록해 복원할 때 같은 범위를 사용한다.
+     */
+    default PriceBand getPriceBand() {
+        return null;
+    }
+
+    /**
+     * 최근 상위 호가 스냅샷을 락 없이 반환한다.
+     */
+    BookDepth getDepth();
+
+    /**
+     * 락을 잡고 지정한 수의 가격대를 복사한다. 버전은 복사 시점의 변경 순번이다.
+     */
+    BookDepth captureDepth(int levels);
+
+    /**
+     * 인덱스에 등록된 대기 주문 수
+     */
+    int getRestingOrderCount();
+
+    /**
+     * 현재가, 시가, 고가, 저가, 누적 거래량과 거래대금을 락 없이 읽는다.
+     */
+    TickerSnapshot getTicker();
+
+    /**
+     * 보관 기간 안에 체결이 있었던 봉을 오래된 순서로 락 없이 읽는다.
+     */
+    List<Candle> getCandles(CandleInterval interval);
+
     boolean isSellOrderBelowMarketPrice(TradeOrder order);
 
     boolean isBuyOrderAboveMarketPrice(TradeOrder order);
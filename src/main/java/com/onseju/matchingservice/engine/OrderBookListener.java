@@ -0,0 +1,43 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+
+import java.util.List;
+
+/**
+ * 주문장 변경 알림. 주문장의 락을 잡은 매칭 스레드에서 호출되므로 구현은 짧게 끝나야 한다.
+ * 매도, 매수 방향의 대기 주문 추가는 동시에 진행될 수 있으므로 구현은 여러 스레드의 호출을 견뎌야 한다.
+ */
+public interface OrderBookListener {
+
+    OrderBookListener NO_OP = new OrderBookListener() {
+        @Override
+        public void onLevelUpdated(long sequence, boolean sell, long price, long quantity, int orderCount) {
+        }
+
+        @Override
+        public void onTrades(long sequence, List<TradeHistoryEvent> trades) {
+        }
+
+        @Override
+        public void onFills(long sequence, FillBuffer fills, int from) {
+        }
+    };
+
+    /**
+     * 가격대의 잔량 합계가 바뀌었을 때 호출된다. 가격대가 비면 수량은 0이다.
+     *
+     * @param sequence 주문장의 변경 순번
+     */
+    void onLevelUpdated(long sequence, boolean sell, long price, long quantity, int orderCount);
+
+    void onTrades(long sequence, List<TradeHistoryEvent> trades);
+
+    /**
+     * 체결 버퍼의 from 위치부터 기록된 체결을 알린다. 버퍼는 호출이 끝난 뒤 다시 쓰이므로 보관하지 않는다.
+     * 기본 구현은 체결 이벤트로 변환해 onTrades를 호출한다.
+     */
+    default void onFills(long sequence, FillBuffer fills, int from) {
+        onTrades(sequence, fills.toEvents(from));
+    }
+}
@@ -0,0 +1,12 @@
+package com.onseju.matchingservice.engine;
+
+/**
+ * 종목별 주문장에 연결할 변경 알림을 만든다.
+ */
+@FunctionalInterface
+public interface OrderBookListenerFactory {
+
+    OrderBookListenerFactory NO_OP = companyCode -> OrderBookListener.NO_OP;
+
+    OrderBookListener create(String companyCode);
+}
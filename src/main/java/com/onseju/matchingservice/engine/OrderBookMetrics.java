@@ -0,0 +1,44 @@
+package com.onseju.matchingservice.engine;
+
+/**
+ * 주문장 계측. 주문장의 락을 잡은 매칭 스레드에서 호출되므로 구현은 경합 없이 기록해야 한다.
+ * 비활성화된 경우 주문장은 시각을 측정하지 않는다.
+ */
+public interface OrderBookMetrics {
+
+    OrderBookMetrics NO_OP = new OrderBookMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void lockWaited(long nanos) {
+        }
+
+        @Override
+        public void orderReceived(long nanos) {
+        }
+
+        @Override
+        public void levelMatched(long nanos, int trades) {
+        }
+    };
+
+    boolean isEnabled();
+
+    /**
+     * 다른 스레드가 주문장 락을 잡고 있어 기다린 시간, 경합이 없으면 호출하지 않는다.
+     */
+    void lockWaited(long nanos);
+
+    /**
+     * 락 대기를 포함해 주문 하나를 처리한 시간
+     */
+    void orderReceived(long nanos);
+
+    /**
+     * 한 가격대의 대기 주문과 매칭한 시간과 체결 수
+     */
+    void levelMatched(long nanos, int trades);
+}
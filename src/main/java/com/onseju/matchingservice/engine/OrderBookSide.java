@@ -0,0 +1,48 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.domain.Price;
+
+/**
+ * 주문장의 한쪽(매도 또는 매수) 가격대를 관리한다. 가격 순회는 항상 최우선 호가부터 시작한다.
+ */
+public interface OrderBookSide {
+
+    /**
+     * 입력한 가격대의 OrderStorage를 조회한다. 존재하지 않을 경우 null을 반환한다.
+     */
+    OrderStorage get(Price price);
+
+    /**
+     * 입력한 가격대의 OrderStorage를 조회한다. 존재하지 않을 경우 새로 생성하여 반환한다.
+     */
+    OrderStorage getOrCreate(Price price);
+
+    /**
+     * 입력한 가격의 주문을 이 가격대 구조에 저장할 수 있는지 확인한다.
+     */
+    boolean supports(Price price);
+
+    /**
+     * 가격대의 주문이 변경된 후 호출되어 최우선 호가 정보를 갱신한다.
+     */
+    void levelUpdated(Price price);
+
+    /**
+     * 최우선 호가, 존재하지 않을 경우 null을 반환한다.
+     */
+    Price bestPrice();
+
+    boolean isEmpty();
+
+    /**
+     * 최우선 호가부터 순서대로 가격대를 순회한다.
+     */
+    Iterable<Price> prices();
+
+    /**
+     * 가격대를 배열로 관리하는 경우 매도, 매수가 공유하는 호가 범위, 범위 제한이 없으면 null을 반환한다.
+     */
+    default PriceBand getPriceBand() {
+        return null;
+    }
+}
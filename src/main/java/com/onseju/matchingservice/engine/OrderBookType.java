@@ -0,0 +1,16 @@
+package com.onseju.matchingservice.engine;
+
+/**
+ * 주문장의 가격대 저장 방식
+ */
+public enum OrderBookType {
+
+    // 가격 범위 제한이 없는 ConcurrentSkipListMap 기반 가격대
+    SKIP_LIST,
+
+    // 가격 제한폭 안의 호가를 배열로 관리하는 가격대
+    PRICE_LADDER,
+
+    // 대기 주문을 힙 밖의 고정 크기 레코드로 보관하는 주문장
+    OFF_HEAP
+}
@@ -0,0 +1,174 @@
+package com.onseju.matchingservice.engine;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * 고정 크기 링 버퍼에 시퀀스 번호로 작업을 기록하고, 전용 스레드 하나가 시퀀스 순서대로 실행한다.
+ * 주문장은 이 스레드만 변경하므로 락 없이 결정적인 순서로 매칭된다.
+ */
+@Slf4j
+public class OrderSequencer implements AutoCloseable {
+
+    private static final int SPIN_TRIES = 100;
+
+    // close 이후 claimSequence 값. 이 값을 본 생산자는 시퀀스를 점유하지 못한다.
+    private static final long CLOSED = -1L;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final Thread worker;
+
+    // 생산자가 다음에 점유할 시퀀스
+    private final AtomicLong claimSequence = new AtomicLong();
+
+    // 소비 스레드만 접근하는 다음 실행 시퀀스
+    private long consumeSequence;
+
+    // close 시점까지 점유된 시퀀스 수. 소비 스레드는 여기까지 실행한 뒤 종료한다.
+    private volatile long endSequence = Long.MAX_VALUE;
+
+    private volatile boolean sleeping;
+    private volatile boolean running = true;
+
+    public OrderSequencer(final String name, final int bufferSize) {
+        if (bufferSize < 2 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("링 버퍼 크기는 2 이상의 2의 거듭제곱이어야 합니다: " + bufferSize);
+        }
+        this.slots = new Slot[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            slots[i] = new Slot(i);
+        }
+        this.mask = bufferSize - 1;
+        this.worker = new Thread(this::runLoop, name);
+        this.worker.start();
+    }
+
+    /**
+     * 작업을 링 버퍼에 기록한다. 버퍼가 가득 찬 경우 빈 슬롯이 생길 때까지 대기한다.
+     */
+    public <T> CompletableFuture<T> submit(final Supplier<T> task) {
+        final long sequence = claim();
+        if (sequence == CLOSED) {
+            return CompletableFuture.failedFuture(new IllegalStateException("종료된 시퀀서입니다."));
+        }
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final Slot slot = slots[(int) (sequence & mask)];
+        int tries = 0;
+        while (slot.sequence != sequence) {
+            tries = idle(tries);
+        }
+        slot.task = task;
+        slot.future = future;
+        slot.sequence = sequence + 1;
+        if (sleeping) {
+            LockSupport.unpark(worker);
+        }
+        return future;
+    }
+
+    // 종료 확인과 시퀀스 점유를 하나의 CAS로 묶어, close 이전에 점유한 시퀀스는 반드시 실행되게 한다.
+    private long claim() {
+        long sequence;
+        do {
+            sequence = claimSequence.get();
+            if (sequence == CLOSED) {
+                return CLOSED;
+            }
+        } while (!claimSequence.compareAndSet(sequence, sequence + 1));
+        return sequence;
+    }
+
+    private void runLoop() {
+        int tries = 0;
+        while (running || hasPending()) {
+            final Slot slot = slots[(int) (consumeSequence & mask)];
+            if (slot.sequence != consumeSequence + 1) {
+                tries = await(tries);
+                continue;
+            }
+            tries = 0;
+            final Supplier<?> task = slot.task;
+            final CompletableFuture<?> future = slot.future;
+            slot.task = null;
+            slot.future = null;
+            slot.sequence = consumeSequence + slots.length;
+            consumeSequence++;
+            execute(task, future);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void execute(final Supplier<?> task, final CompletableFuture<?> future) {
+        try {
+            ((CompletableFuture<Object>) future).complete(task.get());
+        } catch (IllegalArgumentException | TradeEventBacklogException e) {
+            // 잘못된 주문이나 발행 적체는 future로 호출자에게 전달되므로 따로 기록하지 않는다.
+            future.completeExceptionally(e);
+        } catch (Throwable e) {
+            log.error("시퀀서 작업 실행 중 오류가 발생했습니다.", e);
+            future.completeExceptionally(e);
+        }
+    }
+
+    // close가 endSequence를 기록한 뒤에만 호출된다.
+    private boolean hasPending() {
+        return consumeSequence < endSequence;
+    }
+
+    // 소비 스레드: 일정 횟수 스핀 후, 생산자가 깨워줄 때까지 대기한다.
+    private int await(final int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+            return tries + 1;
+        }
+        sleeping = true;
+        if (slots[(int) (consumeSequence & mask)].sequence != consumeSequence + 1 && running) {
+            LockSupport.park(this);
+        }
+        sleeping = false;
+        return tries;
+    }
+
+    // 생산자: 버퍼가 가득 찬 경우 소비 스레드가 슬롯을 비울 때까지 양보한다.
+    private int idle(final int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+        return tries + 1;
+    }
+
+    @Override
+    public void close() {
+        final long claimed = claimSequence.getAndSet(CLOSED);
+        if (claimed == CLOSED) {
+            return;
+        }
+        endSequence = claimed;
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Slot {
+
+        // 생산자가 기록을 마치면 sequence + 1, 소비자가 비우면 sequence + bufferSize
+        private volatile long sequence;
+        private Supplier<?> task;
+        private CompletableFuture<?> future;
+
+        private Slot(final long sequence) {
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.onseju.matchingservice.engine;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * 대기 주문을 힙 밖의 고정 크기 레코드로 보관하는 슬랩 할당기.
+ * 다이렉트 버퍼를 청크 단위로 잡아 두고 레코드를 번호로 가리키며, 해제된 레코드는 다음 링크 칸으로 이은 자유 목록에서 다시 꺼내 쓴다.
+ * 가격대 큐는 레코드의 이전, 다음 링크 칸에 레코드 번호를 기록해 잇는다. 잡아 둔 청크는 돌려주지 않는다.
+ * 동기화하지 않으므로 주문장의 락 안에서만 사용한다.
+ */
+final class OrderSlab {
+
+    // 링크가 없음을 나타내는 레코드 번호
+    static final int NULL = -1;
+
+    // ID, 계정 ID가 없는 주문과 주문 시각이 없는 주문의 값
+    static final long NULL_LONG = Long.MIN_VALUE;
+
+    static final int RECORD_SIZE = 64;
+
+    private static final int ORDER_ID = 0;
+    private static final int ACCOUNT_ID = 8;
+    private static final int PRICE = 16;
+    private static final int REMAINING = 24;
+    private static final int TOTAL_QUANTITY = 32;
+    private static final int SEQUENCE = 40;
+    private static final int CREATED_AT = 48;
+    private static final int PREV = 56;
+    private static final int NEXT = 60;
+
+    private final int chunkShift;
+    private final int chunkMask;
+
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+
+    // 한 번이라도 할당한 레코드 수, 자유 목록이 비면 이 번호부터 새로 꺼낸다.
+    private int highWater;
+
+    private int freeHead = NULL;
+    private int size;
+
+    /**
+     * @param chunkRecords 청크 하나에 담는 레코드 수 (2의 거듭제곱)
+     */
+    OrderSlab(final int chunkRecords) {
+        if (chunkRecords < 1 || Integer.bitCount(chunkRecords) != 1) {
+            throw new IllegalArgumentException("청크 레코드 수는 2의 거듭제곱이어야 합니다: " + chunkRecords);
+        }
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkRecords);
+        this.chunkMask = chunkRecords - 1;
+    }
+
+    /**
+     * 레코드를 하나 꺼낸다. 링크 칸은 비워서 반환하고, 나머지 칸은 호출한 쪽이 채운다.
+     */
+    int allocate() {
+        final int record;
+        if (freeHead != NULL) {
+            record = freeHead;
+            freeHead = next(record);
+        } else {
+            record = highWater++;
+            if ((record >>> chunkShift) == chunks.length) {
+                addChunk();
+            }
+        }
+        setPrev(record, NULL);
+        setNext(record, NULL);
+        size++;
+        return record;
+    }
+
+    void free(final int record) {
+        setNext(record, freeHead);
+        freeHead = record;
+        size--;
+    }
+
+    private void addChunk() {
+        chunks = Arrays.copyOf(chunks, chunks.length + 1);
+        chunks[chunks.length - 1] = ByteBuffer.allocateDirect(RECORD_SIZE << chunkShift).order(ByteOrder.nativeOrder());
+    }
+
+    private ByteBuffer chunk(final int record) {
+        return chunks[record >>> chunkShift];
+    }
+
+    private int offset(final int record, final int field) {
+        return ((record & chunkMask) * RECORD_SIZE) + field;
+    }
+
+    long orderId(final int record) {
+        return chunk(record).getLong(offset(record, ORDER_ID));
+    }
+
+    void setOrderId(final int record, final long orderId) {
+        chunk(record).putLong(offset(record, ORDER_ID), orderId);
+    }
+
+    long accountId(final int record) {
+        return chunk(record).getLong(offset(record, ACCOUNT_ID));
+    }
+
+    void setAccountId(final int record, final long accountId) {
+        chunk(record).putLong(offset(record, ACCOUNT_ID), accountId);
+    }
+
+    long price(final int record) {
+        return chunk(record).getLong(offset(record, PRICE));
+    }
+
+    void setPrice(final int record, final long price) {
+        chunk(record).putLong(offset(record, PRICE), price);
+    }
+
+    long remaining(final int record) {
+        return chunk(record).getLong(offset(record, REMAINING));
+    }
+
+    void setRemaining(final int record, final long remaining) {
+        chunk(record).putLong(offset(record, REMAINING), remaining);
+    }
+
+    long totalQuantity(final int record) {
+        return chunk(record).getLong(offset(record, TOTAL_QUANTITY));
+    }
+
+    void setTotalQuantity(final int record, final long totalQuantity) {
+        chunk(record).putLong(offset(record, TOTAL_QUANTITY), totalQuantity);
+    }
+
+    long sequence(final int record) {
+        return chunk(record).getLong(offset(record, SEQUENCE));
+    }
+
+    void setSequence(final int record, final long sequence) {
+        chunk(record).putLong(offset(record, SEQUENCE), sequence);
+    }
+
+    // 주문 시각, 에포크 기준 나노초 (UTC)
+    long createdAt(final int record) {
+        return chunk(record).getLong(offset(record, CREATED_AT));
+    }
+
+    void setCreatedAt(final int record, final long createdAt) {
+        chunk(record).putLong(offset(record, CREATED_AT), createdAt);
+    }
+
+    int prev(final int record) {
+        return chunk(record).getInt(offset(record, PREV));
+    }
+
+    void setPrev(final int record, final int prev) {
+        chunk(record).putInt(offset(record, PREV), prev);
+    }
+
+    int next(final int record) {
+        return chunk(record).getInt(offset(record, NEXT));
+    }
+
+    void setNext(final int record, final int next) {
+        chunk(record).putInt(offset(record, NEXT), next);
+    }
+
+    // 사용 중인 레코드 수
+    int size() {
+        return size;
+    }
+
+    // 잡아 둔 힙 밖 메모리 크기
+    long reservedBytes() {
+        return (long) chunks.length * (RECORD_SIZE << chunkShift);
+    }
+}
@@ -4,50 +4,140 @@ import com.onseju.matchingservice.domain.TradeOrder;
 import com.onseju.matchingservice.dto.TradeHistoryEvent;
 
 import java.math.BigDecimal;
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
 
+/**
+ * 하나의 가격대에 대기 중인 주문을 주문장 도착 순번대로 보관하는 이중 연결 큐.
+ * 추가, 선두 소진, 핸들을 통한 취소가 모두 O(1)이며, 잔량 합계와 주문 수, 계정별 주문 수를 함께 유지한다.
+ * 순번이 앞선 주문이 늦게 추가되면 순번에 맞는 위치까지 뒤에서부터 거슬러 올라가 끼워 넣는다.
+ */
 public class OrderStorage {
 
-    private final ConcurrentSkipListSet<TradeOrder> elements = new ConcurrentSkipListSet<>(
-            Comparator.comparing(TradeOrder::getCreatedDateTime)
-                    .thenComparing(TradeOrder::getTotalQuantity, Comparator.reverseOrder())
-                    .thenComparing(TradeOrder::getId)
-    );
+    private RestingOrder head;
+    private RestingOrder tail;
 
-    // Set 내에 존재하는 주문과 입력된 주문을 매칭힌다.
+    // 가격대의 잔량 합계
+    private long totalQuantity;
+
+    private int orderCount;
+
+    // 계정 ID별 대기 주문 수, 계정이 있는 주문이 처음 추가될 때 만든다. 값을 박싱하지 않으므로 주문 수와 관계없이 할당하지 않는다.
+    private LongIntHashMap accountOrders;
+
+    // 큐에 존재하는 주문과 입력된 주문을 매칭힌다.
     public List<TradeHistoryEvent> match(final TradeOrder incomingOrder) {
-        Iterator<TradeOrder> iterator = elements.iterator();
-        List<TradeHistoryEvent> results = new ArrayList<>();
-        while (iterator.hasNext() && incomingOrder.hasRemainingQuantity()) {
-            final TradeOrder foundedOrder = iterator.next();
-            if (foundedOrder.isSameAccount(incomingOrder.getAccountId())) {
+        final FillBuffer fills = new FillBuffer();
+        match(incomingOrder, fills);
+        return fills.toEvents(0);
+    }
+
+    /**
+     * 큐에 존재하는 주문과 입력된 주문을 매칭하고, 체결 결과를 버퍼의 끝에 기록한다. 같은 계정의 대기 주문은 건너뛴다.
+     */
+    public int match(final TradeOrder incomingOrder, final FillBuffer fills) {
+        return match(incomingOrder, fills, SelfTradePrevention.SKIP, node -> {
+        });
+    }
+
+    /**
+     * 큐에 존재하는 주문과 입력된 주문을 매칭하고, 체결 결과를 버퍼의 끝에 기록한다. 기록한 체결 수를 반환한다.
+     * 같은 계정의 대기 주문은 mode에 따라 처리하며, 그 때문에 큐에서 빠진 대기 주문은 canceled로 알린다.
+     * 계정별 주문 수로 같은 계정의 주문이 없는 가격대는 계정을 비교하지 않고, 건너뛰는 경우 다른 계정의 주문을 모두 지나면 바로 멈춘다.
+     * 다만 다른 계정의 주문 사이에 끼어 있는 자기 주문은 하나씩 지나가므로, 건너뛰는 비용은 그 앞에 놓인 자기 주문 수에 비례한다.
+     * 핸들은 풀에서 재사용하는 침투형 노드라 계정별 다음 주문 링크를 더해도 할당은 없지만, 추가와 제거마다 링크를 관리해야 하므로 아직 두지 않았다.
+     */
+    public int match(
+            final TradeOrder incomingOrder,
+            final FillBuffer fills,
+            final SelfTradePrevention mode,
+            final Consumer<RestingOrder> canceled
+    ) {
+        final int before = fills.size();
+        final Long accountId = incomingOrder.getAccountId();
+        final int ownOrders = getAccountOrderCount(accountId);
+        int otherOrders = orderCount - ownOrders;
+        if (otherOrders == 0 && mode == SelfTradePrevention.SKIP) {
+            return 0;
+        }
+        final long tradeAt = System.currentTimeMillis() / 1000L;
+        RestingOrder node = head;
+        while (node != null && incomingOrder.hasRemainingQuantity()) {
+            final RestingOrder next = node.next;
+            final TradeOrder foundedOrder = node.order;
+            if (ownOrders > 0 && foundedOrder.isSameAccount(accountId)) {
+                preventSelfTrade(mode, incomingOrder, node, canceled);
+                node = next;
                 continue;
             }
 
-            BigDecimal matchedQuantity = incomingOrder.calculateMatchQuantity(foundedOrder);
+            final long matchedQuantity = incomingOrder.calculateMatchQuantity(foundedOrder);
             // 체결 완료 후 남은 수량 감소 및 완료 여부 확인
             incomingOrder.decreaseRemainingQuantity(matchedQuantity);
             foundedOrder.decreaseRemainingQuantity(matchedQuantity);
+            totalQuantity -= matchedQuantity;
             incomingOrder.checkAndChangeOrderStatus();
             foundedOrder.checkAndChangeOrderStatus();
-            results.add(createResponse(incomingOrder, foundedOrder, matchedQuantity));
+            addFill(fills, incomingOrder, foundedOrder, matchedQuantity, tradeAt);
 
             if (!foundedOrder.hasRemainingQuantity())
-                iterator.remove();
+                unlink(node);
+            if (--otherOrders == 0 && mode == SelfTradePrevention.SKIP) {
+                break;
+            }
+            node = next;
         }
-        return results;
+        return fills.size() - before;
     }
 
-    // 매칭 완료 후 응답 생성
-    private TradeHistoryEvent createResponse(final TradeOrder incomingOrder, final TradeOrder foundOrder, BigDecimal matchedQuantity) {
+    private void preventSelfTrade(
+            final SelfTradePrevention mode,
+            final TradeOrder incomingOrder,
+            final RestingOrder node,
+            final Consumer<RestingOrder> canceled
+    ) {
+        final TradeOrder restingOrder = node.order;
+        switch (mode) {
+            case SKIP -> {
+            }
+            case CANCEL_NEWEST -> {
+                incomingOrder.changeRemainingQuantity(0L);
+                incomingOrder.cancel();
+            }
+            case CANCEL_OLDEST -> {
+                totalQuantity -= restingOrder.getRemaining();
+                restingOrder.cancel();
+                unlink(node);
+                canceled.accept(node);
+            }
+            case DECREMENT_BOTH -> {
+                final long quantity = incomingOrder.calculateMatchQuantity(restingOrder);
+                incomingOrder.decreaseRemainingQuantity(quantity);
+                restingOrder.decreaseRemainingQuantity(quantity);
+                totalQuantity -= quantity;
+                if (!incomingOrder.hasRemainingQuantity()) {
+                    incomingOrder.cancel();
+                }
+                if (!restingOrder.hasRemainingQuantity()) {
+                    restingOrder.cancel();
+                    unlink(node);
+                    canceled.accept(node);
+                }
+            }
+        }
+    }
+
+    // 매칭 결과를 기록한다. 수량은 이벤트로 변환할 때에만 BigDecimal로 바꾼다.
+    private void addFill(
+            final FillBuffer fills,
+            final TradeOrder incomingOrder,
+            final TradeOrder foundOrder,
+            final long matchedQuantity,
+            final long tradeAt
+    ) {
         final BigDecimal price = getMatchingPrice(incomingOrder, foundOrder);
         if (incomingOrder.isSellType()) {
-            return new TradeHistoryEvent(
+            fills.add(
                     incomingOrder.getCompanyCode(),
                     foundOrder.getId(),
                     foundOrder.getAccountId(),
@@ -55,10 +145,11 @@ public class OrderStorage {
                     incomingOrder.getAccountId(),
                     matchedQuantity,
                     price,
-                    Instant.now().getEpochSecond()
+                    tradeAt
             );
+            return;
         }
-        return new TradeHistoryEvent(
+        fills.add(
                 incomingOrder.getCompanyCode(),
                 incomingOrder.getId(),
                 incomingOrder.getAccountId(),
@@ -66,23 +157,133 @@ public class OrderStorage {
                 foundOrder.getAccountId(),
                 matchedQuantity,
                 price,
-                Instant.now().getEpochSecond()
+                tradeAt
         );
     }
 
     // 매칭 가격을 계산한다.
+    // 시장가 주문이나 더 좋은 가격의 대기 주문과 체결하면 대기 주문의 가격으로 체결한다.
     private BigDecimal getMatchingPrice(final TradeOrder incomingOrder, final TradeOrder foundOrder) {
-        if (incomingOrder.isMarketOrder()) {
+        if (incomingOrder.isMarketOrder() || incomingOrder.getScaledPrice() != foundOrder.getScaledPrice()) {
             return foundOrder.getPrice();
         }
         return incomingOrder.getPrice();
     }
 
     public boolean isEmpty() {
-        return elements.isEmpty();
+        return head == null;
+    }
+
+    /**
+     * 주문을 도착 순번에 맞는 위치에 추가하고, 취소 시 사용할 핸들을 반환한다.
+     */
+    public RestingOrder add(final TradeOrder order) {
+        return add(order, null);
+    }
+
+    /**
+     * 풀에서 꺼낸 핸들로 주문을 도착 순번에 맞는 위치에 추가한다. 풀이 없으면 핸들을 새로 만든다.
+     */
+    public RestingOrder add(final TradeOrder order, final RestingOrderPool pool) {
+        final long sequence = order.getArrivalSequence();
+        final RestingOrder node = pool == null
+                ? new RestingOrder(order, sequence, this)
+                : pool.acquire(order, sequence, this);
+        RestingOrder before = tail;
+        while (before != null && before.sequence > sequence) {
+            before = before.prev;
+        }
+        node.prev = before;
+        node.next = before == null ? head : before.next;
+        if (before == null) {
+            head = node;
+        } else {
+            before.next = node;
+        }
+        if (node.next == null) {
+            tail = node;
+        } else {
+            node.next.prev = node;
+        }
+        totalQuantity += order.getRemaining();
+        orderCount++;
+        countAccount(order.getAccountId(), 1);
+        return node;
+    }
+
+    /**
+     * 핸들로 주문을 큐에서 제거한다. 이미 제거된 주문이면 false를 반환한다.
+     */
+    public boolean remove(final RestingOrder node) {
+        if (node.level != this) {
+            return false;
+        }
+        totalQuantity -= node.order.getRemaining();
+        unlink(node);
+        return true;
+    }
+
+    /**
+     * 대기 주문의 남은 수량을 줄인다. 도착 순서는 유지된다.
+     */
+    public void reduce(final RestingOrder node, final long quantity) {
+        totalQuantity -= node.order.getRemaining() - quantity;
+        node.order.changeRemainingQuantity(quantity);
+    }
+
+    private void unlink(final RestingOrder node) {
+        if (node.prev == null) {
+            head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+        node.level = null;
+        orderCount--;
+        countAccount(node.order.getAccountId(), -1);
+    }
+
+    private void countAccount(final Long accountId, final int delta) {
+        if (accountId == null) {
+            return;
+        }
+        if (accountOrders == null) {
+            accountOrders = new LongIntHashMap(4, 0);
+        }
+        final int count = getAccountOrderCount(accountId) + delta;
+        if (count == 0) {
+            accountOrders.remove(accountId);
+            return;
+        }
+        accountOrders.put(accountId, count);
+    }
+
+    // 가격대에 대기 중인 계정의 주문 수
+    public int getAccountOrderCount(final Long accountId) {
+        if (accountId == null || accountOrders == null) {
+            return 0;
+        }
+        return accountOrders.get(accountId);
+    }
+
+    // 대기 주문을 도착 순서대로 순회한다.
+    public void forEach(final Consumer<TradeOrder> action) {
+        for (RestingOrder node = head; node != null; node = node.next) {
+            action.accept(node.order);
+        }
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
     }
 
-    public void add(TradeOrder order) {
-        elements.add(order);
+    public int getOrderCount() {
+        return orderCount;
     }
 }
@@ -0,0 +1,121 @@
+package com.onseju.matchingservice.engine;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 가격 제한폭이 있는 종목의 호가 범위. 첫 지정가 주문의 가격을 기준가로 삼아 상하 제한폭 안의 호가를 배열 인덱스로 변환한다.
+ * 매도, 매수 양쪽 가격대가 같은 범위를 공유한다.
+ */
+public class PriceBand {
+
+    private static final long BASIS_POINTS = 10_000L;
+
+    // 호가 단위 (고정 소수점)
+    private final long tickSize;
+
+    // 기준가 대비 제한폭 (1/10000 단위)
+    private final long limitBasisPoints;
+
+    // 매도, 매수 방향이 각자의 락만 잡고 기준가를 설정할 수 있으므로, levelCount를 먼저 쓰고 lowestPrice를 공개한다.
+    private volatile long lowestPrice = -1L;
+    private int levelCount;
+
+    // 가상 스레드가 기준가를 설정하는 동안 캐리어 스레드에 고정되지 않도록 synchronized 대신 사용한다.
+    private final ReentrantLock anchorLock = new ReentrantLock();
+
+    public PriceBand(final long tickSize, final long limitBasisPoints) {
+        if (tickSize <= 0 || limitBasisPoints <= 0) {
+            throw new IllegalArgumentException("호가 단위와 가격 제한폭은 0보다 커야 합니다.");
+        }
+        this.tickSize = tickSize;
+        this.limitBasisPoints = limitBasisPoints;
+    }
+
+    public boolean isAnchored() {
+        return lowestPrice >= 0;
+    }
+
+    /**
+     * 기준가를 설정하고 상하 제한폭 안의 호가 개수를 계산한다. 이미 설정된 경우 무시한다.
+     */
+    public void anchor(final long referencePrice) {
+        anchorLock.lock();
+        try {
+            if (isAnchored()) {
+                return;
+            }
+            final long limit = referencePrice * limitBasisPoints / BASIS_POINTS;
+            final long lowest = Math.max(tickSize, ceilToTick(referencePrice - limit));
+            final long highest = (referencePrice + limit) / tickSize * tickSize;
+            this.levelCount = Math.toIntExact((highest - lowest) / tickSize + 1);
+            this.lowestPrice = lowest;
+        } finally {
+            anchorLock.unlock();
+        }
+    }
+
+    /**
+     * 스냅샷에 기록된 호가 범위를 그대로 설정한다. 복원한 첫 주문의 가격으로 기준가를 다시 정하면 원래 범위 밖의 대기 주문을 담을 수 없으므로,
+     * 대기 주문을 복원하기 전에 호출한다. 이미 설정된 경우 무시한다.
+     */
+    public void restore(final long lowestPrice, final int levelCount) {
+        if (lowestPrice < tickSize || lowestPrice % tickSize != 0 || levelCount < 1) {
+            throw new IllegalArgumentException("호가 단위에 맞지 않는 호가 범위입니다: " + lowestPrice + ", " + levelCount);
+        }
+        anchorLock.lock();
+        try {
+            if (isAnchored()) {
+                return;
+            }
+            this.levelCount = levelCount;
+            this.lowestPrice = lowestPrice;
+        } finally {
+            anchorLock.unlock();
+        }
+    }
+
+    private long ceilToTick(final long price) {
+        return Math.floorDiv(price + tickSize - 1, tickSize) * tickSize;
+    }
+
+    /**
+     * 가격에 해당하는 배열 인덱스, 범위를 벗어나거나 호가 단위에 맞지 않는 경우 -1을 반환한다.
+     */
+    public int indexOf(final long price) {
+        final long lowest = lowestPrice;
+        if (lowest < 0 || price < lowest) {
+            return -1;
+        }
+        final long offset = price - lowest;
+        if (offset % tickSize != 0) {
+            return -1;
+        }
+        final long index = offset / tickSize;
+        if (index >= levelCount) {
+            return -1;
+        }
+        return (int) index;
+    }
+
+    /**
+     * 가격이 호가 범위 안에 있고 호가 단위에 맞는지 확인한다. 기준가가 정해지기 전에는 호가 단위만 확인한다.
+     */
+    public boolean contains(final long price) {
+        if (!isAnchored()) {
+            return price > 0 && price % tickSize == 0;
+        }
+        return indexOf(price) != -1;
+    }
+
+    public long priceAt(final int index) {
+        return lowestPrice + index * tickSize;
+    }
+
+    public long getLowestPrice() {
+        return lowestPrice;
+    }
+
+    public int getLevelCount() {
+        return levelCount;
+    }
+}
@@ -0,0 +1,193 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.domain.Price;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 호가 범위 안의 가격대를 배열로 관리한다. 기준가 대비 호가 단위 오프셋을 인덱스로 사용하고,
+ * 주문이 있는 가격대를 비트맵으로 표시하여 최우선 호가를 O(1)로 조회한다.
+ * 동시 접근은 주문장의 락 또는 단일 스레드 모드가 보장해야 한다.
+ */
+public class PriceLadderOrderBookSide implements OrderBookSide {
+
+    private static final int NONE = -1;
+
+    private final PriceBand band;
+
+    // true: 낮은 가격 우선(매도), false: 높은 가격 우선(매수)
+    private final boolean ascending;
+
+    private OrderStorage[] levels;
+
+    // 주문이 남아있는 가격대 표시
+    private long[] occupied;
+
+    private int bestIndex = NONE;
+
+    private PriceLadderOrderBookSide(final PriceBand band, final boolean ascending) {
+        this.band = band;
+        this.ascending = ascending;
+    }
+
+    // 매도 주문: 낮은 가격 우선
+    public static PriceLadderOrderBookSide asks(final PriceBand band) {
+        return new PriceLadderOrderBookSide(band, true);
+    }
+
+    // 매수 주문: 높은 가격 우선
+    public static PriceLadderOrderBookSide bids(final PriceBand band) {
+        return new PriceLadderOrderBookSide(band, false);
+    }
+
+    @Override
+    public OrderStorage get(final Price price) {
+        final int index = band.indexOf(price.getValue());
+        if (index == NONE || levels == null) {
+            return null;
+        }
+        return levels[index];
+    }
+
+    @Override
+    public OrderStorage getOrCreate(final Price price) {
+        band.anchor(price.getValue());
+        final int index = band.indexOf(price.getValue());
+        if (index == NONE) {
+            throw new IllegalArgumentException("호가 범위를 벗어나거나 호가 단위에 맞지 않는 가격입니다: " + Price.toDecimal(price.getValue()));
+        }
+        ensureAllocated();
+        OrderStorage storage = levels[index];
+        if (storage == null) {
+            storage = new OrderStorage();
+            levels[index] = storage;
+        }
+        return storage;
+    }
+
+    @Override
+    public boolean supports(final Price price) {
+        return band.contains(price.getValue());
+    }
+
+    private void ensureAllocated() {
+        if (levels != null) {
+            return;
+        }
+        final int levelCount = band.getLevelCount();
+        levels = new OrderStorage[levelCount];
+        occupied = new long[(levelCount + Long.SIZE - 1) / Long.SIZE];
+    }
+
+    @Override
+    public void levelUpdated(final Price price) {
+        final int index = band.indexOf(price.getValue());
+        if (index == NONE || levels == null || levels[index] == null) {
+            return;
+        }
+        if (levels[index].isEmpty()) {
+            clear(index);
+            return;
+        }
+        mark(index);
+    }
+
+    private void mark(final int index) {
+        occupied[index >>> 6] |= 1L << index;
+        if (bestIndex == NONE || isBetter(index, bestIndex)) {
+            bestIndex = index;
+        }
+    }
+
+    private void clear(final int index) {
+        occupied[index >>> 6] &= ~(1L << index);
+        if (index == bestIndex) {
+            bestIndex = next(index);
+        }
+    }
+
+    private boolean isBetter(final int index, final int other) {
+        return ascending ? index < other : index > other;
+    }
+
+    // 입력한 인덱스 다음(제외)으로 주문이 있는 가격대의 인덱스
+    private int next(final int index) {
+        return ascending ? nextSetBit(index + 1) : previousSetBit(index - 1);
+    }
+
+    private int nextSetBit(final int from) {
+        if (from >= levels.length) {
+            return NONE;
+        }
+        int word = from >>> 6;
+        long bits = occupied[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == occupied.length) {
+                return NONE;
+            }
+            bits = occupied[word];
+        }
+    }
+
+    private int previousSetBit(final int from) {
+        if (from < 0) {
+            return NONE;
+        }
+        int word = from >>> 6;
+        long bits = occupied[word] & (-1L >>> (Long.SIZE - 1 - (from & 63)));
+        while (true) {
+            if (bits != 0) {
+                return word * Long.SIZE + Long.SIZE - 1 - Long.numberOfLeadingZeros(bits);
+            }
+            if (word-- == 0) {
+                return NONE;
+            }
+            bits = occupied[word];
+        }
+    }
+
+    @Override
+    public Price bestPrice() {
+        if (bestIndex == NONE) {
+            return null;
+        }
+        return new Price(band.priceAt(bestIndex));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bestIndex == NONE;
+    }
+
+    @Override
+    public PriceBand getPriceBand() {
+        return band;
+    }
+
+    @Override
+    public Iterable<Price> prices() {
+        return () -> new Iterator<>() {
+
+            private int cursor = bestIndex;
+
+            @Override
+            public boolean hasNext() {
+                return cursor != NONE;
+            }
+
+            @Override
+            public Price next() {
+                if (cursor == NONE) {
+                    throw new NoSuchElementException();
+                }
+                final Price price = new Price(band.priceAt(cursor));
+                cursor = PriceLadderOrderBookSide.this.next(cursor);
+                return price;
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.domain.TradeOrder;
+
+/**
+ * 가격대 큐에 연결된 대기 주문. 이전, 다음 주문의 링크를 직접 보관하므로 핸들만으로 O(1)에 큐에서 제거할 수 있다.
+ * 큐에서 빠진 핸들은 RestingOrderPool로 돌아가 다른 주문에 다시 쓰일 수 있으므로, 핸들을 보관하는 쪽은 주문이 같은지 확인해야 한다.
+ */
+public final class RestingOrder {
+
+    TradeOrder order;
+
+    // 주문장에 도착한 순번, 같은 가격대에서는 작을수록 먼저 체결된다.
+    long sequence;
+
+    OrderStorage level;
+    RestingOrder prev;
+    RestingOrder next;
+
+    RestingOrder(final TradeOrder order, final long sequence, final OrderStorage level) {
+        this.order = order;
+        this.sequence = sequence;
+        this.level = level;
+    }
+
+    public TradeOrder getOrder() {
+        return order;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    // 아직 가격대 큐에 연결되어 있는지 확인
+    public boolean isLinked() {
+        return level != null;
+    }
+
+    // 핸들이 아직 입력한 주문을 담고 큐에 연결되어 있는지 확인
+    public boolean holds(final TradeOrder order) {
+        return this.order == order && level != null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.domain.TradeOrder;
+
+/**
+ * 큐에서 빠진 대기 주문 핸들을 보관했다가 다시 쓰는 풀. 주문마다 핸들을 새로 만들지 않으므로 대기 주문이 많이 오가도 할당이 늘지 않는다.
+ * 최대 크기를 넘는 핸들은 버리며, 크기가 0이면 항상 새로 만든다. 주문장 방향의 락을 잡은 상태에서만 사용한다.
+ */
+public final class RestingOrderPool {
+
+    private final int maxSize;
+
+    // 다음 링크로 이은 빈 핸들 목록
+    private RestingOrder free;
+    private int size;
+
+    public RestingOrderPool(final int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("대기 주문 풀 크기는 0 이상이어야 합니다: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    RestingOrder acquire(final TradeOrder order, final long sequence, final OrderStorage level) {
+        final RestingOrder node = free;
+        if (node == null) {
+            return new RestingOrder(order, sequence, level);
+        }
+        free = node.next;
+        size--;
+        node.next = null;
+        node.order = order;
+        node.sequence = sequence;
+        node.level = level;
+        return node;
+    }
+
+    /**
+     * 큐에서 빠지고 인덱스에서도 지운 핸들을 돌려받는다. 주문 참조를 끊어 체결된 주문이 풀에 남지 않게 한다.
+     */
+    void release(final RestingOrder node) {
+        if (node.isLinked() || size >= maxSize) {
+            return;
+        }
+        node.order = null;
+        node.prev = null;
+        node.next = free;
+        free = node;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+}
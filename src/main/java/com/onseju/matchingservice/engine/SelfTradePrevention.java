@@ -0,0 +1,19 @@
+package com.onseju.matchingservice.engine;
+
+/**
+ * 입력 주문이 같은 계정의 대기 주문과 체결될 때의 처리 방식
+ */
+public enum SelfTradePrevention {
+
+    // 같은 계정의 대기 주문을 건너뛰고 다음 대기 주문과 매칭한다.
+    SKIP,
+
+    // 입력 주문의 남은 수량을 취소한다. 그 전까지의 체결은 유지된다.
+    CANCEL_NEWEST,
+
+    // 같은 계정의 대기 주문을 취소하고 계속 매칭한다.
+    CANCEL_OLDEST,
+
+    // 두 주문 중 작은 남은 수량만큼 양쪽을 체결 없이 줄이고, 수량이 모두 줄어든 주문은 취소한다.
+    DECREMENT_BOTH
+}
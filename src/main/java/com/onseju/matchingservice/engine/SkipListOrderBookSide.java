@@ -0,0 +1,74 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.domain.Price;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * ConcurrentSkipListMap으로 가격대를 관리한다. 가격 범위에 제한이 없는 종목에 사용한다.
+ */
+public class SkipListOrderBookSide implements OrderBookSide {
+
+    private final ConcurrentSkipListMap<Price, OrderStorage> orders;
+
+    private SkipListOrderBookSide(final Comparator<Price> comparator) {
+        this.orders = new ConcurrentSkipListMap<>(comparator);
+    }
+
+    // 매도 주문: 낮은 가격 우선
+    public static SkipListOrderBookSide asks() {
+        return new SkipListOrderBookSide(Comparator.comparingLong(Price::getValue));
+    }
+
+    // 매수 주문: 높은 가격 우선
+    public static SkipListOrderBookSide bids() {
+        return new SkipListOrderBookSide(Comparator.comparingLong(Price::getValue).reversed());
+    }
+
+    @Override
+    public OrderStorage get(final Price price) {
+        return orders.get(price);
+    }
+
+    @Override
+    public OrderStorage getOrCreate(final Price price) {
+        return orders.computeIfAbsent(price, p -> new OrderStorage());
+    }
+
+    @Override
+    public boolean supports(final Price price) {
+        return true;
+    }
+
+    /**
+     * 비어 있는 가격대를 제거한다. 주문장의 방향별 락을 잡은 상태에서 호출되므로 확인과 제거 사이에 주문이 추가되지 않는다.
+     */
+    @Override
+    public void levelUpdated(final Price price) {
+        final OrderStorage storage = orders.get(price);
+        if (storage != null && storage.isEmpty()) {
+            orders.remove(price, storage);
+        }
+    }
+
+    @Override
+    public Price bestPrice() {
+        final Map.Entry<Price, OrderStorage> best = orders.firstEntry();
+        if (best == null) {
+            return null;
+        }
+        return best.getKey();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return orders.isEmpty();
+    }
+
+    @Override
+    public Iterable<Price> prices() {
+        return orders.keySet();
+    }
+}
@@ -0,0 +1,103 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.config.SnapshotProperties;
+import com.onseju.matchingservice.journal.EngineSnapshot;
+import com.onseju.matchingservice.journal.OrderJournal;
+import com.onseju.matchingservice.journal.SnapshotStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 설정한 주기 또는 저널 레코드 수에 도달하면 주문장 스냅샷을 저장하고, 스냅샷 이전의 저널 세그먼트를 정리한다.
+ * 파일 기록은 전용 스레드에서 하므로 매칭 스레드는 주문장을 복사하는 동안만 멈춘다.
+ */
+@Slf4j
+@Component
+public class SnapshotScheduler {
+
+    private static final long CHECK_INTERVAL_SECONDS = 1L;
+
+    private final MatchingEngine matchingEngine;
+    private final OrderJournal journal;
+    private final SnapshotStore snapshotStore;
+    private final SnapshotProperties properties;
+    private final ScheduledExecutorService executor;
+
+    private long lastSnapshotSequence;
+    private long lastSnapshotNanos = System.nanoTime();
+
+    public SnapshotScheduler(
+            final MatchingEngine matchingEngine,
+            final OrderJournal journal,
+            final SnapshotStore snapshotStore,
+            final SnapshotProperties properties
+    ) {
+        this.matchingEngine = matchingEngine;
+        this.journal = journal;
+        this.snapshotStore = snapshotStore;
+        this.properties = properties;
+        this.lastSnapshotSequence = journal.getSequence();
+        this.executor = snapshotStore.isEnabled() ? startExecutor() : null;
+    }
+
+    private ScheduledExecutorService startExecutor() {
+        final ScheduledExecutorService scheduled = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "order-book-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduled.scheduleWithFixedDelay(this::snapshotIfDue, CHECK_INTERVAL_SECONDS, CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        return scheduled;
+    }
+
+    private void snapshotIfDue() {
+        final boolean intervalElapsed =
+                System.nanoTime() - lastSnapshotNanos >= TimeUnit.SECONDS.toNanos(properties.intervalSeconds());
+        final boolean journalGrown = journal.getSequence() - lastSnapshotSequence >= properties.journalRecords();
+        if (!intervalElapsed && !journalGrown) {
+            return;
+        }
+        try {
+            takeSnapshot();
+        } catch (RuntimeException e) {
+            log.error("스냅샷 저장 중 오류가 발생했습니다.", e);
+        }
+    }
+
+    /**
+     * 스냅샷을 저장하고, 보관 중인 모든 스냅샷에 반영된 저널 세그먼트를 삭제한다.
+     * 최신 스냅샷이 손상되어 이전 스냅샷으로 복구할 때도 그 사이의 저널이 남아 있어야 하므로, 가장 오래된 스냅샷 기준으로 정리한다.
+     */
+    public EngineSnapshot takeSnapshot() {
+        final EngineSnapshot snapshot = matchingEngine.captureSnapshot().join();
+        final long retainedSequence = snapshotStore.write(snapshot);
+        journal.flush();
+        journal.truncateBefore(retainedSequence);
+        lastSnapshotSequence = snapshot.lastSequence();
+        lastSnapshotNanos = System.nanoTime();
+        log.info("스냅샷 저장 완료: 주문장 {}개, 시퀀스 {}", snapshot.images().size(), snapshot.sequence());
+        return snapshot;
+    }
+
+    // 종료 전 마지막 스냅샷을 남겨 다음 시작 시 재생할 저널을 줄인다.
+    @PreDestroy
+    public void shutdown() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+            takeSnapshot();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("종료 전 스냅샷 저장 중 오류가 발생했습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.onseju.matchingservice.engine;
+
+/**
+ * 종목의 체결 누적 값. 가격과 거래대금은 고정 소수점 값이며, 체결이 없으면 가격은 0이다.
+ *
+ * @param lastTradeAt 마지막 체결 시각 (epoch millis)
+ */
+public record TickerSnapshot(
+        long lastPrice,
+        long open,
+        long high,
+        long low,
+        long volume,
+        long turnover,
+        long tradeCount,
+        long lastTradeAt
+) {
+
+    public static final TickerSnapshot EMPTY = new TickerSnapshot(0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L);
+
+    public boolean hasTraded() {
+        return tradeCount > 0;
+    }
+}
@@ -0,0 +1,205 @@
+package com.onseju.matchingservice.engine;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 종목의 현재가, 시가, 고가, 저가, 누적 거래량과 거래대금, 초봉과 분봉을 기본형 필드로 보관한다.
+ * 매칭 스레드 하나만 기록하고, 조회는 순번 락(seqlock)으로 락 없이 읽는다.
+ * 기록 중에는 순번이 홀수이고, 읽기 전후의 순번이 같은 짝수일 때만 읽은 값을 사용한다.
+ */
+public final class TickerState {
+
+    // 기록이 끝날 때마다 2씩 증가한다. 홀수이면 기록 중이다.
+    private volatile long version;
+
+    private long lastPrice;
+    private long open;
+    private long high;
+    private long low;
+    private long volume;
+    private long turnover;
+    private long tradeCount;
+    private long lastTradeAt;
+
+    private final CandleBuckets seconds = new CandleBuckets(CandleInterval.SECOND);
+    private final CandleBuckets minutes = new CandleBuckets(CandleInterval.MINUTE);
+
+    /**
+     * 한 가격대에서 발생한 체결을 반영한다. 주문장 락을 잡은 매칭 스레드에서만 호출한다.
+     */
+    void record(final long price, final long quantity, final int trades, final long now) {
+        final long current = version;
+        version = current + 1;
+        VarHandle.storeStoreFence();
+
+        if (tradeCount == 0) {
+            open = price;
+            high = price;
+            low = price;
+        } else {
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+        }
+        lastPrice = price;
+        volume += quantity;
+        turnover += price * quantity;
+        tradeCount += trades;
+        lastTradeAt = now;
+        seconds.record(price, quantity, trades, now);
+        minutes.record(price, quantity, trades, now);
+
+        version = current + 2;
+    }
+
+    /**
+     * 스냅샷에서 읽은 마지막 체결 가격을 설정한다. 체결 수와 거래량은 그대로 두므로 시가, 고가, 저가는 다음 체결부터 기록된다.
+     */
+    void restoreLastPrice(final long price) {
+        final long current = version;
+        version = current + 1;
+        VarHandle.storeStoreFence();
+        lastPrice = price;
+        version = current + 2;
+    }
+
+    /**
+     * 마지막 체결 가격, 체결이 없으면 0을 반환한다. 매칭 스레드에서 읽을 때 사용한다.
+     */
+    long getLastPrice() {
+        return lastPrice;
+    }
+
+    public TickerSnapshot read() {
+        while (true) {
+            final long before = version;
+            if ((before & 1L) == 0) {
+                final TickerSnapshot snapshot = new TickerSnapshot(
+                        lastPrice, open, high, low, volume, turnover, tradeCount, lastTradeAt
+                );
+                VarHandle.loadLoadFence();
+                if (version == before) {
+                    return snapshot;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * 보관 중인 봉 중 now 기준 보관 기간 안에 체결이 있었던 봉을 오래된 순서로 반환한다.
+     */
+    public List<Candle> readCandles(final CandleInterval interval, final long now) {
+        final CandleBuckets buckets = interval == CandleInterval.SECOND ? seconds : minutes;
+        final long[][] copy = new long[CandleBuckets.FIELDS][interval.getCapacity()];
+        while (true) {
+            final long before = version;
+            if ((before & 1L) == 0) {
+                buckets.copyTo(copy);
+                VarHandle.loadLoadFence();
+                if (version == before) {
+                    return CandleBuckets.toCandles(copy, interval, now);
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * 시각을 구간 단위로 나눈 값으로 슬롯을 정하는 원형 배열. 슬롯의 시작 시각이 다르면 지난 구간이므로 덮어쓴다.
+     */
+    private static final class CandleBuckets {
+
+        private static final int FIELDS = 8;
+        private static final int START = 0;
+        private static final int OPEN = 1;
+        private static final int HIGH = 2;
+        private static final int LOW = 3;
+        private static final int CLOSE = 4;
+        private static final int VOLUME = 5;
+        private static final int TURNOVER = 6;
+        private static final int TRADES = 7;
+
+        private final long intervalMillis;
+        private final long[] startTimes;
+        private final long[] opens;
+        private final long[] highs;
+        private final long[] lows;
+        private final long[] closes;
+        private final long[] volumes;
+        private final long[] turnovers;
+        private final long[] trades;
+
+        private CandleBuckets(final CandleInterval interval) {
+            final int capacity = interval.getCapacity();
+            this.intervalMillis = interval.getMillis();
+            this.startTimes = new long[capacity];
+            this.opens = new long[capacity];
+            this.highs = new long[capacity];
+            this.lows = new long[capacity];
+            this.closes = new long[capacity];
+            this.volumes = new long[capacity];
+            this.turnovers = new long[capacity];
+            this.trades = new long[capacity];
+            Arrays.fill(startTimes, -1L);
+        }
+
+        private void record(final long price, final long quantity, final int tradeCount, final long now) {
+            final long index = now / intervalMillis;
+            final int slot = (int) (index % startTimes.length);
+            final long start = index * intervalMillis;
+            if (startTimes[slot] != start) {
+                startTimes[slot] = start;
+                opens[slot] = price;
+                highs[slot] = price;
+                lows[slot] = price;
+                volumes[slot] = 0L;
+                turnovers[slot] = 0L;
+                trades[slot] = 0L;
+            } else {
+                highs[slot] = Math.max(highs[slot], price);
+                lows[slot] = Math.min(lows[slot], price);
+            }
+            closes[slot] = price;
+            volumes[slot] += quantity;
+            turnovers[slot] += price * quantity;
+            trades[slot] += tradeCount;
+        }
+
+        private void copyTo(final long[][] target) {
+            System.arraycopy(startTimes, 0, target[START], 0, startTimes.length);
+            System.arraycopy(opens, 0, target[OPEN], 0, opens.length);
+            System.arraycopy(highs, 0, target[HIGH], 0, highs.length);
+            System.arraycopy(lows, 0, target[LOW], 0, lows.length);
+            System.arraycopy(closes, 0, target[CLOSE], 0, closes.length);
+            System.arraycopy(volumes, 0, target[VOLUME], 0, volumes.length);
+            System.arraycopy(turnovers, 0, target[TURNOVER], 0, turnovers.length);
+            System.arraycopy(trades, 0, target[TRADES], 0, trades.length);
+        }
+
+        private static List<Candle> toCandles(final long[][] copy, final CandleInterval interval, final long now) {
+            final int capacity = interval.getCapacity();
+            final long oldest = (now / interval.getMillis() - capacity + 1) * interval.getMillis();
+            final List<Candle> candles = new ArrayList<>(capacity);
+            for (int slot = 0; slot < capacity; slot++) {
+                if (copy[START][slot] < 0 || copy[START][slot] < oldest) {
+                    continue;
+                }
+                candles.add(new Candle(
+                        copy[START][slot],
+                        copy[OPEN][slot],
+                        copy[HIGH][slot],
+                        copy[LOW][slot],
+                        copy[CLOSE][slot],
+                        copy[VOLUME][slot],
+                        copy[TURNOVER][slot],
+                        copy[TRADES][slot]
+                ));
+            }
+            candles.sort((left, right) -> Long.compare(left.startTime(), right.startTime()));
+            return candles;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.config.TradeAuditProperties;
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 체결 내역을 trade-audit 로거에 한 줄로 기록한다. 매칭 스레드가 아닌 체결 이벤트 발행 스레드에서 호출된다.
+ * 형식: 종목|매도 주문 ID|매도 계좌 ID|매수 주문 ID|매수 계좌 ID|수량|가격|체결 시각
+ */
+@Component
+public class TradeAuditLog {
+
+    private static final Logger AUDIT = LoggerFactory.getLogger("trade-audit");
+
+    private final boolean enabled;
+    private final int sampleRate;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public TradeAuditLog(final TradeAuditProperties properties) {
+        if (properties.sampleRate() < 1) {
+            throw new IllegalArgumentException("샘플링 비율은 1 이상이어야 합니다: " + properties.sampleRate());
+        }
+        this.enabled = properties.enabled();
+        this.sampleRate = properties.sampleRate();
+    }
+
+    public void record(final TradeHistoryEvent event) {
+        if (!enabled || !AUDIT.isInfoEnabled()) {
+            return;
+        }
+        if (sampleRate > 1 && sequence.getAndIncrement() % sampleRate != 0) {
+            return;
+        }
+        AUDIT.info("{}|{}|{}|{}|{}|{}|{}|{}",
+                event.companyCode(),
+                event.sellOrderId(),
+                event.sellAccountId(),
+                event.buyOrderId(),
+                event.buyAccountId(),
+                event.quantity(),
+                event.price(),
+                event.tradeAt());
+    }
+}
@@ -0,0 +1,11 @@
+package com.onseju.matchingservice.engine;
+
+/**
+ * 체결 이벤트 발행 큐가 밀려 있어 종목의 새 주문을 매칭하기 전에 거절할 때 발생한다. 거절된 주문은 주문장에 적용되지 않는다.
+ */
+public class TradeEventBacklogException extends IllegalStateException {
+
+    public TradeEventBacklogException(final String companyCode) {
+        super("체결 이벤트 발행이 밀려 있는 종목입니다: " + companyCode);
+    }
+}
@@ -0,0 +1,162 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.config.TradeEventPublisherProperties;
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 체결 이벤트를 매칭 스레드와 분리된 소비 스레드에서 발행한다.
+ * 매칭 스레드는 큐에 이벤트를 넣기만 하고 대기하지 않는다. 이미 적용된 체결의 이벤트는 버리거나 거절할 수 없으므로,
+ * 큐에 쌓인 이벤트가 한도에 이르면 isBacklogged로 알려 매칭 엔진이 해당 종목의 새 주문을 매칭 전에 거절하게 한다.
+ * 같은 종목의 이벤트는 같은 큐로 들어가므로 체결 순서대로 발행된다. 체결 감사 로그도 이 소비 스레드에서 기록한다.
+ */
+@Slf4j
+@Component
+public class TradeEventPublisher implements AutoCloseable {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final TradeAuditLog auditLog;
+    private final Lane[] lanes;
+
+    public TradeEventPublisher(
+            final ApplicationEventPublisher eventPublisher,
+            final TradeAuditLog auditLog,
+            final TradeEventPublisherProperties properties
+    ) {
+        if (properties.lanes() < 1 || properties.queueCapacity() < 1 || properties.batchSize() < 1) {
+            throw new IllegalArgumentException("발행 큐 수, 큐 크기, 배치 크기는 1 이상이어야 합니다.");
+        }
+        this.eventPublisher = eventPublisher;
+        this.auditLog = auditLog;
+        this.lanes = new Lane[properties.lanes()];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane("trade-event-publisher-" + i, properties.queueCapacity(), properties.batchSize());
+        }
+    }
+
+    /**
+     * 체결 이벤트를 종목별 큐에 넣는다. 큐에 한도가 있어도 대기하지 않고 넣는다.
+     */
+    public void publish(final List<TradeHistoryEvent> events) {
+        for (TradeHistoryEvent event : events) {
+            getLane(event.companyCode()).enqueue(event);
+        }
+    }
+
+    /**
+     * 종목이 속한 큐에 발행을 기다리는 이벤트가 한도만큼 쌓였는지 확인한다.
+     */
+    public boolean isBacklogged(final String companyCode) {
+        return getLane(companyCode).isBacklogged();
+    }
+
+    // 종목 코드의 해시로 큐를 선택한다.
+    private Lane getLane(final String companyCode) {
+        if (lanes.length == 1 || companyCode == null) {
+            return lanes[0];
+        }
+        final int hash = companyCode.hashCode();
+        return lanes[Math.floorMod(hash ^ (hash >>> 16), lanes.length)];
+    }
+
+    private void deliver(final TradeHistoryEvent event) {
+        try {
+            auditLog.record(event);
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.error("체결 이벤트 발행 중 오류가 발생했습니다: {}", event, e);
+        }
+    }
+
+    /**
+     * 남은 이벤트를 모두 발행한 뒤 소비 스레드를 종료한다.
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        for (Lane lane : lanes) {
+            lane.stop();
+        }
+        for (Lane lane : lanes) {
+            lane.join();
+        }
+    }
+
+    private final class Lane {
+
+        // 매칭 스레드가 대기하지 않도록 크기 제한 없이 만들고, 한도는 isBacklogged로 주문 접수 전에 확인한다.
+        private final BlockingQueue<TradeHistoryEvent> queue = new LinkedBlockingQueue<>();
+        private final int capacity;
+        private final int batchSize;
+        private final Thread worker;
+        private volatile boolean running = true;
+
+        private Lane(final String name, final int capacity, final int batchSize) {
+            this.capacity = capacity;
+            this.batchSize = batchSize;
+            this.worker = new Thread(this::runLoop, name);
+            this.worker.setDaemon(true);
+            this.worker.start();
+        }
+
+        private void enqueue(final TradeHistoryEvent event) {
+            queue.offer(event);
+            // 종료가 시작된 뒤 넣은 이벤트는 소비 스레드나 종료하는 스레드가 이미 큐를 비웠을 수 있으므로 직접 발행한다.
+            if (!running) {
+                join();
+            }
+        }
+
+        private boolean isBacklogged() {
+            return queue.size() >= capacity;
+        }
+
+        private void runLoop() {
+            final List<TradeHistoryEvent> batch = new ArrayList<>(batchSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    final TradeHistoryEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                queue.drainTo(batch, batchSize - 1);
+                batch.forEach(TradeEventPublisher.this::deliver);
+                batch.clear();
+            }
+        }
+
+        private void stop() {
+            running = false;
+        }
+
+        private void join() {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                // 소비 스레드가 아직 살아 있으면 큐가 빌 때까지 발행하므로 여기서 꺼내지 않는다.
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // 소비 스레드가 종료되는 사이 들어온 이벤트는 호출한 스레드에서 순서대로 발행한다.
+            synchronized (this) {
+                TradeHistoryEvent event;
+                while ((event = queue.poll()) != null) {
+                    deliver(event);
+                }
+            }
+        }
+    }
+}
@@ -1,13 +1,110 @@
 package com.onseju.matchingservice.factory;
 
+import com.onseju.matchingservice.config.OrderBookProperties;
+import com.onseju.matchingservice.domain.Price;
 import com.onseju.matchingservice.engine.CompanyOrderBook;
+import com.onseju.matchingservice.engine.OffHeapOrderBook;
 import com.onseju.matchingservice.engine.OrderBook;
+import com.onseju.matchingservice.engine.OrderBookListener;
+import com.onseju.matchingservice.engine.OrderBookListenerFactory;
+import com.onseju.matchingservice.engine.OrderBookMetrics;
+import com.onseju.matchingservice.engine.OrderBookType;
+import com.onseju.matchingservice.engine.PriceBand;
+import com.onseju.matchingservice.engine.PriceLadderOrderBookSide;
+import com.onseju.matchingservice.engine.SkipListOrderBookSide;
+import com.onseju.matchingservice.metrics.MatchingMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class OrderBookFactory {
 
+    private final OrderBookProperties properties;
+    private final OrderBookListenerFactory listenerFactory;
+    private final MatchingMetrics metrics;
+
+    public OrderBookFactory(final OrderBookProperties properties) {
+        this(properties, OrderBookListenerFactory.NO_OP, MatchingMetrics.disabled());
+    }
+
+    @Autowired
+    public OrderBookFactory(
+            final OrderBookProperties properties,
+            final OrderBookListenerFactory listenerFactory,
+            final MatchingMetrics metrics
+    ) {
+        this.properties = properties;
+        this.listenerFactory = listenerFactory;
+        this.metrics = metrics;
+    }
+
     public OrderBook createOrderBook() {
-        return new CompanyOrderBook();
+        return createOrderBook(null);
+    }
+
+    // 종목 코드가 있으면 해당 종목의 변경 알림과 계측을 연결한다.
+    public OrderBook createOrderBook(final String companyCode) {
+        if (companyCode == null) {
+            return createOrderBook(null, OrderBookListener.NO_OP, OrderBookMetrics.NO_OP);
+        }
+        final OrderBook orderBook = createOrderBook(
+                companyCode,
+                listenerFactory.create(companyCode),
+                metrics.forOrderBook(companyCode)
+        );
+        metrics.registerOrderBook(companyCode, orderBook);
+        return orderBook;
+    }
+
+    private OrderBook createOrderBook(
+            final String companyCode,
+            final OrderBookListener listener,
+            final OrderBookMetrics orderBookMetrics
+    ) {
+        if (properties.type() == OrderBookType.PRICE_LADDER) {
+            return createPriceLadderOrderBook(listener, orderBookMetrics);
+        }
+        if (properties.type() == OrderBookType.OFF_HEAP) {
+            return new OffHeapOrderBook(
+                    companyCode,
+                    properties.depthLevels(),
+                    listener,
+                    orderBookMetrics,
+                    properties.marketOrderProtection(),
+                    properties.selfTradePrevention(),
+                    OffHeapOrderBook.DEFAULT_CHUNK_RECORDS
+            );
+        }
+        return new CompanyOrderBook(
+                SkipListOrderBookSide.asks(),
+                SkipListOrderBookSide.bids(),
+                properties.depthLevels(),
+                listener,
+                orderBookMetrics,
+                properties.marketOrderProtection(),
+                properties.restingOrderPoolSize(),
+                properties.selfTradePrevention()
+        );
+    }
+
+    // 매도, 매수 가격대가 같은 호가 범위를 공유하는 배열 기반 주문장
+    private OrderBook createPriceLadderOrderBook(
+            final OrderBookListener listener,
+            final OrderBookMetrics orderBookMetrics
+    ) {
+        final PriceBand band = new PriceBand(
+                Price.toScaled(properties.tickSize()),
+                properties.limitRate().movePointRight(4).longValueExact()
+        );
+        return new CompanyOrderBook(
+                PriceLadderOrderBookSide.asks(band),
+                PriceLadderOrderBookSide.bids(band),
+                properties.depthLevels(),
+                listener,
+                orderBookMetrics,
+                properties.marketOrderProtection(),
+                properties.restingOrderPoolSize(),
+                properties.selfTradePrevention()
+        );
     }
 }
@@ -0,0 +1,13 @@
+package com.onseju.matchingservice.feed;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 한 주기 동안 종목에 쌓인 변경. 같은 가격대의 변경은 마지막 값만 남는다.
+ */
+record FeedBatch(
+        Collection<LevelChange> levels,
+        List<TradeChange> trades
+) {
+}
@@ -0,0 +1,13 @@
+package com.onseju.matchingservice.feed;
+
+import java.io.IOException;
+
+/**
+ * 구독자에게 메시지를 보내는 통로. 보내는 중 예외가 발생하면 구독을 종료한다.
+ */
+public interface FeedSink {
+
+    void send(String eventName, long sequence, Object data) throws IOException;
+
+    void close();
+}
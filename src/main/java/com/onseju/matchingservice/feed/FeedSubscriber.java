@@ -0,0 +1,139 @@
+package com.onseju.matchingservice.feed;
+
+import com.onseju.matchingservice.domain.Price;
+import com.onseju.matchingservice.dto.DepthUpdateMessage;
+import com.onseju.matchingservice.dto.LevelUpdate;
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 구독자별 대기 메시지. 보내지 못한 가격대 변경은 가격대별 마지막 값만 남기고,
+ * 체결은 최근 tradeBacklog건만 남기므로 느린 구독자도 메모리를 일정 이상 쓰지 않는다.
+ */
+final class FeedSubscriber {
+
+    private static final long NOT_STARTED = -1L;
+
+    private final String companyCode;
+    private final FeedSink sink;
+    private final int tradeBacklog;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, LevelChange> pendingLevels = new LinkedHashMap<>();
+    private final ArrayDeque<TradeChange> pendingTrades = new ArrayDeque<>();
+
+    // 전송 작업이 실행 중이거나 예약되었는지 여부
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    // 보낸 스냅샷의 변경 순번, 이 값 이하의 변경은 보내지 않는다.
+    private volatile long snapshotSequence = NOT_STARTED;
+    private volatile boolean closed;
+
+    FeedSubscriber(final String companyCode, final FeedSink sink, final int tradeBacklog) {
+        this.companyCode = companyCode;
+        this.sink = sink;
+        this.tradeBacklog = tradeBacklog;
+    }
+
+    void offer(final FeedBatch batch) {
+        lock.lock();
+        try {
+            for (LevelChange change : batch.levels()) {
+                pendingLevels.put(change.key(), change);
+            }
+            for (TradeChange trade : batch.trades()) {
+                if (pendingTrades.size() == tradeBacklog) {
+                    pendingTrades.pollFirst();
+                }
+                pendingTrades.addLast(trade);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void start(final long sequence) {
+        this.snapshotSequence = sequence;
+    }
+
+    boolean isStarted() {
+        return snapshotSequence != NOT_STARTED;
+    }
+
+    boolean tryAcquireSending() {
+        return sending.compareAndSet(false, true);
+    }
+
+    void releaseSending() {
+        sending.set(false);
+    }
+
+    boolean hasPending() {
+        lock.lock();
+        try {
+            return !pendingLevels.isEmpty() || !pendingTrades.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 대기 중인 변경을 꺼내 메시지로 만든다. 스냅샷에 이미 반영된 변경은 버리고, 보낼 것이 없으면 null을 반환한다.
+     */
+    DepthUpdateMessage drain() {
+        final List<LevelUpdate> levels = new ArrayList<>();
+        final List<TradeHistoryEvent> trades = new ArrayList<>();
+        long lastSequence = snapshotSequence;
+        lock.lock();
+        try {
+            for (LevelChange change : pendingLevels.values()) {
+                if (change.sequence() <= snapshotSequence) {
+                    continue;
+                }
+                levels.add(new LevelUpdate(
+                        change.sell() ? "ASK" : "BID",
+                        Price.toDecimal(change.price()),
+                        BigDecimal.valueOf(change.quantity()),
+                        change.orderCount(),
+                        change.sequence()
+                ));
+                lastSequence = Math.max(lastSequence, change.sequence());
+            }
+            for (TradeChange trade : pendingTrades) {
+                if (trade.sequence() <= snapshotSequence) {
+                    continue;
+                }
+                trades.add(trade.event());
+                lastSequence = Math.max(lastSequence, trade.sequence());
+            }
+            pendingLevels.clear();
+            pendingTrades.clear();
+        } finally {
+            lock.unlock();
+        }
+        if (levels.isEmpty() && trades.isEmpty()) {
+            return null;
+        }
+        return new DepthUpdateMessage(companyCode, lastSequence, levels, trades);
+    }
+
+    FeedSink getSink() {
+        return sink;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void close() {
+        closed = true;
+        sink.close();
+    }
+}
@@ -0,0 +1,18 @@
+package com.onseju.matchingservice.feed;
+
+/**
+ * 매칭 스레드에서 기록하는 가격대 변경, 전송할 때 API 형식으로 변환한다.
+ */
+record LevelChange(
+        long sequence,
+        boolean sell,
+        long price,
+        long quantity,
+        int orderCount
+) {
+
+    // 방향과 가격으로 같은 가격대의 변경을 덮어쓰기 위한 키
+    long key() {
+        return (price << 1) | (sell ? 1L : 0L);
+    }
+}
@@ -0,0 +1,174 @@
+package com.onseju.matchingservice.feed;
+
+import com.onseju.matchingservice.config.MarketDataFeedProperties;
+import com.onseju.matchingservice.dto.DepthUpdateMessage;
+import com.onseju.matchingservice.dto.OrderBookDepthResponse;
+import com.onseju.matchingservice.engine.BookDepth;
+import com.onseju.matchingservice.engine.OrderBookListener;
+import com.onseju.matchingservice.engine.OrderBookListenerFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * 호가 변경 스트림. 매칭 스레드는 종목 버퍼에 변경을 기록하기만 하고,
+ * 별도 스레드가 publishIntervalMs 주기로 버퍼를 비워 구독자별 대기열에 합친 뒤 전송 스레드에서 보낸다.
+ * 구독을 시작하면 먼저 상위 호가 스냅샷을 보내고, 이후에는 스냅샷 버전보다 큰 변경만 보낸다.
+ */
+@Slf4j
+@Component
+public class MarketDataFeed implements OrderBookListenerFactory, AutoCloseable {
+
+    public static final String SNAPSHOT_EVENT = "snapshot";
+    public static final String UPDATE_EVENT = "update";
+
+    private final MarketDataFeedProperties properties;
+    private final Map<String, SymbolFeed> feeds = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService fanOut;
+    private final ExecutorService senders;
+
+    public MarketDataFeed(final MarketDataFeedProperties properties) {
+        if (properties.publishIntervalMs() < 1 || properties.snapshotLevels() < 1
+                || properties.senderThreads() < 1 || properties.tradeBacklog() < 1) {
+            throw new IllegalArgumentException("호가 스트림 주기, 스냅샷 가격대 수, 전송 스레드 수, 체결 보관 수는 1 이상이어야 합니다.");
+        }
+        this.properties = properties;
+        this.fanOut = Executors.newSingleThreadScheduledExecutor(daemonThreads("market-data-fan-out"));
+        this.senders = Executors.newFixedThreadPool(properties.senderThreads(), daemonThreads("market-data-sender"));
+        fanOut.scheduleWithFixedDelay(
+                this::publishPending,
+                properties.publishIntervalMs(),
+                properties.publishIntervalMs(),
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    @Override
+    public OrderBookListener create(final String companyCode) {
+        return getFeed(companyCode);
+    }
+
+    /**
+     * 구독을 등록하고 스냅샷을 보낸다. 스냅샷을 뜨기 전에 구독을 먼저 등록하므로 그 사이의 변경도 놓치지 않는다.
+     *
+     * @param depthSupplier 가격대 수를 받아 락을 잡고 호가를 복사한다. 주문장이 아직 없으면 빈 값을 반환한다.
+     */
+    public void subscribe(
+            final String companyCode,
+            final FeedSink sink,
+            final IntFunction<Optional<BookDepth>> depthSupplier
+    ) throws IOException {
+        final SymbolFeed feed = getFeed(companyCode);
+        final FeedSubscriber subscriber = new FeedSubscriber(companyCode, sink, properties.tradeBacklog());
+        feed.getSubscribers().add(subscriber);
+        try {
+            // 주문장이 없으면 이후의 모든 변경은 구독 등록 뒤에 발생하므로 순번 0부터 보낸다.
+            final BookDepth depth = depthSupplier.apply(properties.snapshotLevels())
+                    .orElse(BookDepth.EMPTY);
+            sink.send(
+                    SNAPSHOT_EVENT,
+                    depth.version(),
+                    OrderBookDepthResponse.of(companyCode, depth, properties.snapshotLevels())
+            );
+            subscriber.start(depth.version());
+        } catch (IOException | RuntimeException e) {
+            feed.getSubscribers().remove(subscriber);
+            throw e;
+        }
+    }
+
+    public void unsubscribe(final String companyCode, final FeedSink sink) {
+        final SymbolFeed feed = feeds.get(companyCode);
+        if (feed == null) {
+            return;
+        }
+        feed.getSubscribers().removeIf(subscriber -> subscriber.getSink() == sink);
+    }
+
+    /**
+     * 종목 버퍼를 비워 구독자별 대기열에 합치고, 보낼 것이 있는 구독자마다 전송 작업을 예약한다.
+     * 이전 전송이 끝나지 않은 구독자는 다음 주기에 합쳐진 변경을 받는다.
+     */
+    void publishPending() {
+        try {
+            for (SymbolFeed feed : feeds.values()) {
+                final FeedBatch batch = feed.drain();
+                for (FeedSubscriber subscriber : feed.getSubscribers()) {
+                    if (batch != null) {
+                        subscriber.offer(batch);
+                    }
+                    if (subscriber.isStarted() && subscriber.hasPending() && subscriber.tryAcquireSending()) {
+                        schedule(feed, subscriber);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("호가 변경 전달 중 오류가 발생했습니다.", e);
+        }
+    }
+
+    private void schedule(final SymbolFeed feed, final FeedSubscriber subscriber) {
+        try {
+            senders.execute(() -> send(feed, subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.releaseSending();
+        }
+    }
+
+    private void send(final SymbolFeed feed, final FeedSubscriber subscriber) {
+        try {
+            final DepthUpdateMessage message = subscriber.drain();
+            if (message != null) {
+                subscriber.getSink().send(UPDATE_EVENT, message.sequence(), message);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("호가 스트림 전송에 실패하여 구독을 종료합니다: {}", feed.getCompanyCode(), e);
+            feed.getSubscribers().remove(subscriber);
+            subscriber.close();
+        } finally {
+            subscriber.releaseSending();
+        }
+    }
+
+    private SymbolFeed getFeed(final String companyCode) {
+        return feeds.computeIfAbsent(companyCode, SymbolFeed::new);
+    }
+
+    /**
+     * 전달 스레드를 멈추고 모든 구독을 종료한다.
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        fanOut.shutdownNow();
+        senders.shutdownNow();
+        for (SymbolFeed feed : feeds.values()) {
+            for (FeedSubscriber subscriber : feed.getSubscribers()) {
+                subscriber.close();
+            }
+            feed.getSubscribers().clear();
+        }
+    }
+
+    private static ThreadFactory daemonThreads(final String prefix) {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, prefix + "-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.onseju.matchingservice.feed;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * SSE 연결로 메시지를 보낸다. 이벤트 id에 변경 순번을 넣어 클라이언트가 누락 여부를 확인할 수 있게 한다.
+ */
+public class SseFeedSink implements FeedSink {
+
+    private final SseEmitter emitter;
+
+    public SseFeedSink(final SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(final String eventName, final long sequence, final Object data) throws IOException {
+        emitter.send(SseEmitter.event()
+                .name(eventName)
+                .id(String.valueOf(sequence))
+                .data(data));
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
@@ -0,0 +1,101 @@
+package com.onseju.matchingservice.feed;
+
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+import com.onseju.matchingservice.engine.FillBuffer;
+import com.onseju.matchingservice.engine.LongObjectHashMap;
+import com.onseju.matchingservice.engine.OrderBookListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 한 종목의 주문장 변경을 모아 두는 버퍼. 매칭 스레드는 구독자 수와 관계없이 이 버퍼에 한 번만 기록한다.
+ * 구독자가 없으면 아무것도 기록하지 않는다.
+ */
+final class SymbolFeed implements OrderBookListener {
+
+    private final String companyCode;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<FeedSubscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final LongObjectHashMap<LevelChange> pendingLevels = new LongObjectHashMap<>();
+    private List<TradeChange> pendingTrades = new ArrayList<>();
+
+    SymbolFeed(final String companyCode) {
+        this.companyCode = companyCode;
+    }
+
+    @Override
+    public void onLevelUpdated(
+            final long sequence,
+            final boolean sell,
+            final long price,
+            final long quantity,
+            final int orderCount
+    ) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        final LevelChange change = new LevelChange(sequence, sell, price, quantity, orderCount);
+        lock.lock();
+        try {
+            pendingLevels.put(change.key(), change);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 구독자가 없으면 체결 이벤트로 변환하지 않는다.
+    @Override
+    public void onFills(final long sequence, final FillBuffer fills, final int from) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        OrderBookListener.super.onFills(sequence, fills, from);
+    }
+
+    @Override
+    public void onTrades(final long sequence, final List<TradeHistoryEvent> trades) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (TradeHistoryEvent trade : trades) {
+                pendingTrades.add(new TradeChange(sequence, trade));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 쌓인 변경을 꺼낸다. 변경이 없으면 null을 반환한다.
+     */
+    FeedBatch drain() {
+        lock.lock();
+        try {
+            if (pendingLevels.isEmpty() && pendingTrades.isEmpty()) {
+                return null;
+            }
+            final List<LevelChange> levels = new ArrayList<>(pendingLevels.size());
+            pendingLevels.forEachValue(levels::add);
+            pendingLevels.clear();
+            final List<TradeChange> trades = pendingTrades;
+            pendingTrades = new ArrayList<>();
+            return new FeedBatch(levels, trades);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    String getCompanyCode() {
+        return companyCode;
+    }
+
+    List<FeedSubscriber> getSubscribers() {
+        return subscribers;
+    }
+}
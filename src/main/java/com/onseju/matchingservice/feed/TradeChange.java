@@ -0,0 +1,9 @@
+package com.onseju.matchingservice.feed;
+
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+
+record TradeChange(
+        long sequence,
+        TradeHistoryEvent event
+) {
+}
@@ -0,0 +1,94 @@
+package com.onseju.matchingservice.gateway;
+
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 게이트웨이에 연결된 클라이언트 하나. 수신 버퍼는 수신 스레드만 사용하고,
+ * 송신 버퍼는 매칭이 끝난 스레드가 응답을 기록하고 수신 스레드가 소켓으로 내보내므로 락으로 보호한다.
+ */
+final class GatewayConnection {
+
+    private final SocketChannel channel;
+    private final ByteBuffer inbound;
+    private final ByteBuffer outbound;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private SelectionKey key;
+
+    // 송신 버퍼가 넘쳐 끊어야 하는 연결
+    private volatile boolean overflowed;
+
+    GatewayConnection(final SocketChannel channel, final int receiveBufferSize, final int sendBufferSize) {
+        this.channel = channel;
+        this.inbound = ByteBuffer.allocateDirect(receiveBufferSize).order(GatewayProtocol.BYTE_ORDER);
+        this.outbound = ByteBuffer.allocateDirect(sendBufferSize).order(GatewayProtocol.BYTE_ORDER);
+    }
+
+    /**
+     * 체결과 응답을 송신 버퍼에 기록한다. 남은 공간이 부족하면 기록하지 않고 연결을 끊도록 표시한다.
+     */
+    boolean reply(final long orderId, final byte requestTemplate, final byte result, final List<TradeHistoryEvent> trades) {
+        final int required = GatewayProtocol.ACK_LENGTH + GatewayProtocol.TRADE_LENGTH * trades.size();
+        lock.lock();
+        try {
+            if (overflowed || outbound.remaining() < required) {
+                overflowed = true;
+                return false;
+            }
+            for (TradeHistoryEvent trade : trades) {
+                OrderResponseEncoder.encodeTrade(outbound, trade);
+            }
+            OrderResponseEncoder.encodeAck(outbound, orderId, requestTemplate, result, trades.size());
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 송신 버퍼를 소켓으로 내보내고, 아직 보내지 못한 바이트 수를 반환한다.
+     */
+    int flush() throws IOException {
+        lock.lock();
+        try {
+            outbound.flip();
+            channel.write(outbound);
+            final int remaining = outbound.remaining();
+            outbound.compact();
+            return remaining;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int read() throws IOException {
+        return channel.read(inbound);
+    }
+
+    ByteBuffer getInbound() {
+        return inbound;
+    }
+
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    SelectionKey getKey() {
+        return key;
+    }
+
+    void setKey(final SelectionKey key) {
+        this.key = key;
+    }
+
+    boolean isOverflowed() {
+        return overflowed;
+    }
+}
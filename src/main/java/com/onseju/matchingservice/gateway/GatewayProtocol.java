@@ -0,0 +1,63 @@
+package com.onseju.matchingservice.gateway;
+
+import java.nio.ByteOrder;
+
+/**
+ * 주문 게이트웨이의 고정 길이 바이너리 메시지 형식. 모든 값은 리틀 엔디언이다.
+ * <p>
+ * 헤더: [프레임 길이 short][템플릿 byte][버전 byte] - 프레임 길이는 헤더를 포함한다.
+ * 가격은 Price.SCALE 자리 고정 소수점 long, 종목 코드는 8바이트 ASCII이며 남는 자리는 0으로 채운다.
+ * ID가 없으면 Long.MIN_VALUE를 보낸다.
+ * <ul>
+ *     <li>신규 주문(1): 주문 ID, 계좌 ID, 가격, 수량, 종목 코드, 주문 유형 byte (Type 선언 순서)</li>
+ *     <li>취소(2): 주문 ID, 종목 코드</li>
+ *     <li>정정(3): 주문 ID, 수량, 가격, 종목 코드 - 0이면 바꾸지 않는다</li>
+ *     <li>응답(10): 주문 ID, 요청 템플릿 byte, 결과 byte, 체결 수 int - 앞서 보낸 체결 프레임 수와 항상 같다</li>
+ *     <li>체결(11): 매수 주문 ID, 매수 계좌 ID, 매도 주문 ID, 매도 계좌 ID, 수량, 가격, 체결 시각(초), 종목 코드</li>
+ * </ul>
+ * 요청마다 응답을 하나 보내며, 체결이 있으면 응답 앞에 체결을 먼저 보낸다.
+ */
+final class GatewayProtocol {
+
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    static final byte VERSION = 1;
+
+    static final int HEADER_SIZE = 4;
+    static final int COMPANY_CODE_LENGTH = 8;
+
+    static final long NULL_ID = Long.MIN_VALUE;
+
+    static final byte NEW_ORDER = 1;
+    static final byte CANCEL = 2;
+    static final byte AMEND = 3;
+    static final byte ACK = 10;
+    static final byte TRADE = 11;
+
+    static final int NEW_ORDER_LENGTH = HEADER_SIZE + Long.BYTES * 4 + COMPANY_CODE_LENGTH + 1;
+    static final int CANCEL_LENGTH = HEADER_SIZE + Long.BYTES + COMPANY_CODE_LENGTH;
+    static final int AMEND_LENGTH = HEADER_SIZE + Long.BYTES * 3 + COMPANY_CODE_LENGTH;
+    static final int ACK_LENGTH = HEADER_SIZE + Long.BYTES + 2 + Integer.BYTES;
+    static final int TRADE_LENGTH = HEADER_SIZE + Long.BYTES * 7 + COMPANY_CODE_LENGTH;
+
+    // 응답 결과
+    static final byte ACCEPTED = 0;
+    static final byte NOT_FOUND = 1;
+    static final byte REJECTED = 2;
+    static final byte INVALID = 3;
+
+    private GatewayProtocol() {
+    }
+
+    /**
+     * 요청 템플릿의 프레임 길이, 알 수 없는 템플릿이면 -1
+     */
+    static int requestLength(final byte templateId) {
+        return switch (templateId) {
+            case NEW_ORDER -> NEW_ORDER_LENGTH;
+            case CANCEL -> CANCEL_LENGTH;
+            case AMEND -> AMEND_LENGTH;
+            default -> -1;
+        };
+    }
+}
@@ -0,0 +1,380 @@
+package com.onseju.matchingservice.gateway;
+
+import com.onseju.matchingservice.config.OrderGatewayProperties;
+import com.onseju.matchingservice.domain.OrderStatus;
+import com.onseju.matchingservice.domain.Price;
+import com.onseju.matchingservice.domain.TradeOrder;
+import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.dto.AmendOrderRequest;
+import com.onseju.matchingservice.dto.CancelOrderRequest;
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+import com.onseju.matchingservice.engine.MatchingEngine;
+import com.onseju.matchingservice.engine.TradeEventBacklogException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+import static com.onseju.matchingservice.gateway.GatewayProtocol.ACCEPTED;
+import static com.onseju.matchingservice.gateway.GatewayProtocol.AMEND;
+import static com.onseju.matchingservice.gateway.GatewayProtocol.CANCEL;
+import static com.onseju.matchingservice.gateway.GatewayProtocol.HEADER_SIZE;
+import static com.onseju.matchingservice.gateway.GatewayProtocol.INVALID;
+import static com.onseju.matchingservice.gateway.GatewayProtocol.NEW_ORDER;
+import static com.onseju.matchingservice.gateway.GatewayProtocol.NOT_FOUND;
+import static com.onseju.matchingservice.gateway.GatewayProtocol.NULL_ID;
+import static com.onseju.matchingservice.gateway.GatewayProtocol.REJECTED;
+
+/**
+ * REST와 별도로 고정 길이 바이너리 주문을 받는 논블로킹 TCP 게이트웨이.
+ * 셀렉터 스레드 하나가 모든 연결을 읽고, 수신 버퍼 위의 프레임을 플라이웨이트로 읽어 바로 매칭 엔진을 호출한다.
+ * 잠금 모드에서는 매칭도 셀렉터 스레드에서 끝나고, 단일 스레드 모드에서는 파티션 스레드가 응답을 송신 버퍼에 기록한 뒤 셀렉터를 깨운다.
+ * 메시지 형식은 GatewayProtocol을 따른다.
+ */
+@Slf4j
+@Component
+public class OrderGateway implements AutoCloseable {
+
+    private static final Type[] TYPES = Type.values();
+
+    private final MatchingEngine matchingEngine;
+    private final OrderGatewayProperties properties;
+    private final OrderRequestDecoder decoder = new OrderRequestDecoder();
+
+    // 송신 버퍼에 응답이 기록되어 내보내야 하는 연결
+    private final Queue<GatewayConnection> pendingFlushes = new ConcurrentLinkedQueue<>();
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final Thread thread;
+    private volatile boolean running;
+
+    public OrderGateway(final MatchingEngine matchingEngine, final OrderGatewayProperties properties) {
+        this.matchingEngine = matchingEngine;
+        this.properties = properties;
+        if (!properties.enabled()) {
+            this.selector = null;
+            this.server = null;
+            this.thread = null;
+            return;
+        }
+        if (properties.receiveBufferSize() < GatewayProtocol.NEW_ORDER_LENGTH
+                || properties.sendBufferSize() < GatewayProtocol.TRADE_LENGTH + GatewayProtocol.ACK_LENGTH) {
+            throw new IllegalArgumentException("게이트웨이 버퍼는 프레임 하나보다 커야 합니다.");
+        }
+        try {
+            this.selector = Selector.open();
+            this.server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(properties.port()));
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("주문 게이트웨이를 열 수 없습니다: " + properties.port(), e);
+        }
+        this.running = true;
+        this.thread = new Thread(this::runLoop, "order-gateway");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("주문 게이트웨이 시작: 포트 {}", getLocalPort());
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    public int getLocalPort() {
+        if (server == null) {
+            return -1;
+        }
+        try {
+            return ((InetSocketAddress) server.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                selector.select();
+                final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    final SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+                flushPending();
+            } catch (IOException e) {
+                log.warn("주문 게이트웨이 셀렉터 오류", e);
+            }
+        }
+    }
+
+    private void handle(final SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        final GatewayConnection connection = (GatewayConnection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                read(connection);
+            }
+            if (key.isValid() && key.isWritable()) {
+                flush(connection);
+            }
+        } catch (IOException e) {
+            log.debug("게이트웨이 연결 종료: {}", e.getMessage());
+            close(connection);
+        }
+    }
+
+    private void accept() {
+        try {
+            final SocketChannel channel = server.accept();
+            if (channel == null) {
+                return;
+            }
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            final GatewayConnection connection = new GatewayConnection(
+                    channel, properties.receiveBufferSize(), properties.sendBufferSize()
+            );
+            connection.setKey(channel.register(selector, SelectionKey.OP_READ, connection));
+        } catch (IOException e) {
+            log.warn("게이트웨이 연결 수락 실패", e);
+        }
+    }
+
+    /**
+     * 수신 버퍼의 완성된 프레임을 모두 처리하고, 잘린 프레임은 버퍼 앞으로 옮겨 다음 수신을 기다린다.
+     */
+    private void read(final GatewayConnection connection) throws IOException {
+        if (connection.read() < 0) {
+            close(connection);
+            return;
+        }
+        final ByteBuffer inbound = connection.getInbound();
+        inbound.flip();
+        try {
+            while (inbound.remaining() >= HEADER_SIZE) {
+                final int position = inbound.position();
+                decoder.wrap(inbound, position);
+                final int length = decoder.frameLength();
+                if (length < HEADER_SIZE || length > inbound.capacity()) {
+                    throw new IOException("잘못된 프레임 길이: " + length);
+                }
+                if (inbound.remaining() < length) {
+                    break;
+                }
+                dispatch(connection, length);
+                inbound.position(position + length);
+            }
+        } finally {
+            inbound.compact();
+        }
+    }
+
+    private void dispatch(final GatewayConnection connection, final int length) {
+        final byte templateId = decoder.templateId();
+        if (length != GatewayProtocol.requestLength(templateId) || decoder.version() != GatewayProtocol.VERSION) {
+            final long orderId = length >= HEADER_SIZE + Long.BYTES ? decoder.orderId() : NULL_ID;
+            reply(connection, orderId, templateId, INVALID, List.of());
+            return;
+        }
+        final long orderId = decoder.orderId();
+        try {
+            switch (templateId) {
+                case NEW_ORDER -> newOrder(connection, orderId);
+                case CANCEL -> cancel(connection, orderId);
+                case AMEND -> amend(connection, orderId);
+                default -> reply(connection, orderId, templateId, INVALID, List.of());
+            }
+        } catch (IllegalArgumentException e) {
+            reply(connection, orderId, templateId, INVALID, List.of());
+        }
+    }
+
+    private void newOrder(final GatewayConnection connection, final long orderId) {
+        final TradeOrder order = decodeOrder(orderId);
+        submit(connection, orderId, NEW_ORDER, () -> matchingEngine.processOrder(order)
+                .thenApply(trades -> new Reply(ACCEPTED, trades)));
+    }
+
+    private void cancel(final GatewayConnection connection, final long orderId) {
+        final CancelOrderRequest request = new CancelOrderRequest(decoder.companyCode(), orderId);
+        submit(connection, orderId, CANCEL, () -> matchingEngine.cancelOrder(request)
+                .thenApply(canceled -> new Reply(canceled ? ACCEPTED : NOT_FOUND, List.of())));
+    }
+
+    private void amend(final GatewayConnection connection, final long orderId) {
+        final long quantity = decoder.quantity();
+        final long price = decoder.price();
+        if (quantity < 0 || price < 0) {
+            throw new IllegalArgumentException("정정 수량과 가격은 0 이상이어야 합니다.");
+        }
+        final AmendOrderRequest request = new AmendOrderRequest(
+                decoder.companyCode(),
+                orderId,
+                quantity == 0 ? null : BigDecimal.valueOf(quantity),
+                price == 0 ? null : Price.toDecimal(price)
+        );
+        submit(connection, orderId, AMEND, () -> matchingEngine.amendOrder(request)
+                .thenApply(trades -> trades.map(result -> new Reply(ACCEPTED, result))
+                        .orElseGet(() -> new Reply(NOT_FOUND, List.of()))));
+    }
+
+    // 주문 시각은 받지 않는다. 체결 우선순위는 주문장이 부여하는 도착 순번으로 정한다.
+    private TradeOrder decodeOrder(final long orderId) {
+        final int typeIndex = decoder.orderType();
+        if (typeIndex < 0 || typeIndex >= TYPES.length) {
+            throw new IllegalArgumentException("알 수 없는 주문 유형: " + typeIndex);
+        }
+        final Type type = TYPES[typeIndex];
+        final long quantity = decoder.quantity();
+        final long price = decoder.price();
+        if (quantity <= 0 || (!type.isMarket() && price <= 0)) {
+            throw new IllegalArgumentException("주문 수량과 지정가 주문의 가격은 0보다 커야 합니다.");
+        }
+        final long accountId = decoder.accountId();
+        final BigDecimal total = BigDecimal.valueOf(quantity);
+        return TradeOrder.builder()
+                .id(orderId == NULL_ID ? null : orderId)
+                .companyCode(decoder.companyCode())
+                .type(type)
+                .status(OrderStatus.ACTIVE)
+                .totalQuantity(total)
+                .remainingQuantity(total)
+                .price(type.isMarket() ? BigDecimal.ZERO : Price.toDecimal(price))
+                .accountId(accountId == NULL_ID ? null : accountId)
+                .build();
+    }
+
+    /**
+     * 엔진을 호출하고 완료되면 응답을 기록한다. 엔진이 거절한 요청은 REJECTED로 응답한다.
+     */
+    private void submit(
+            final GatewayConnection connection,
+            final long orderId,
+            final byte templateId,
+            final Supplier<CompletableFuture<Reply>> call
+    ) {
+        CompletableFuture<Reply> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((result, e) -> {
+            if (e == null) {
+                reply(connection, orderId, templateId, result.code(), result.trades());
+                return;
+            }
+            final Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (!(cause instanceof IllegalArgumentException || cause instanceof TradeEventBacklogException)) {
+                log.warn("게이트웨이 요청 처리 실패: 주문 {}", orderId, cause);
+            }
+            reply(connection, orderId, templateId, REJECTED, List.of());
+        });
+    }
+
+    private void reply(
+            final GatewayConnection connection,
+            final long orderId,
+            final byte templateId,
+            final byte code,
+            final List<TradeHistoryEvent> trades
+    ) {
+        if (!connection.reply(orderId, templateId, code, trades)) {
+            log.warn("게이트웨이 송신 버퍼 초과로 연결을 끊습니다: {}", connection.getChannel());
+        }
+        pendingFlushes.add(connection);
+        if (Thread.currentThread() != thread) {
+            selector.wakeup();
+        }
+    }
+
+    private void flushPending() {
+        GatewayConnection connection;
+        while ((connection = pendingFlushes.poll()) != null) {
+            try {
+                flush(connection);
+            } catch (IOException e) {
+                log.debug("게이트웨이 연결 종료: {}", e.getMessage());
+                close(connection);
+            }
+        }
+    }
+
+    // 모두 보내지 못하면 쓰기 가능해질 때 다시 보낸다.
+    private void flush(final GatewayConnection connection) throws IOException {
+        final SelectionKey key = connection.getKey();
+        if (key == null || !key.isValid()) {
+            return;
+        }
+        if (connection.isOverflowed()) {
+            close(connection);
+            return;
+        }
+        final int remaining = connection.flush();
+        key.interestOps(remaining > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    private void close(final GatewayConnection connection) {
+        final SelectionKey key = connection.getKey();
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            connection.getChannel().close();
+        } catch (IOException e) {
+            log.debug("게이트웨이 연결 닫기 실패", e);
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (IOException e) {
+            log.warn("주문 게이트웨이 종료 실패", e);
+        }
+    }
+
+    private record Reply(byte code, List<TradeHistoryEvent> trades) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.onseju.matchingservice.gateway;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static com.onseju.matchingservice.gateway.GatewayProtocol.AMEND;
+import static com.onseju.matchingservice.gateway.GatewayProtocol.CANCEL;
+import static com.onseju.matchingservice.gateway.GatewayProtocol.COMPANY_CODE_LENGTH;
+import static com.onseju.matchingservice.gateway.GatewayProtocol.HEADER_SIZE;
+
+/**
+ * 수신 버퍼 위에 겹쳐 요청 프레임의 필드를 제자리에서 읽는 플라이웨이트. 프레임을 객체로 복사하지 않으며,
+ * 버퍼를 다시 채우기 전까지만 유효하다. 수신 스레드 하나에서만 사용한다.
+ */
+final class OrderRequestDecoder {
+
+    private final byte[] companyCode = new byte[COMPANY_CODE_LENGTH];
+
+    private ByteBuffer buffer;
+    private int offset;
+
+    OrderRequestDecoder wrap(final ByteBuffer buffer, final int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    int frameLength() {
+        return Short.toUnsignedInt(buffer.getShort(offset));
+    }
+
+    byte templateId() {
+        return buffer.get(offset + Short.BYTES);
+    }
+
+    byte version() {
+        return buffer.get(offset + Short.BYTES + 1);
+    }
+
+    long orderId() {
+        return buffer.getLong(offset + HEADER_SIZE);
+    }
+
+    // 신규 주문
+    long accountId() {
+        return buffer.getLong(offset + HEADER_SIZE + Long.BYTES);
+    }
+
+    // 신규 주문, 정정
+    long price() {
+        return buffer.getLong(offset + HEADER_SIZE + Long.BYTES * 2);
+    }
+
+    // 신규 주문, 정정
+    long quantity() {
+        final int field = templateId() == AMEND ? 1 : 3;
+        return buffer.getLong(offset + HEADER_SIZE + Long.BYTES * field);
+    }
+
+    // 신규 주문
+    byte orderType() {
+        return buffer.get(offset + HEADER_SIZE + Long.BYTES * 4 + COMPANY_CODE_LENGTH);
+    }
+
+    String companyCode() {
+        final int fields = switch (templateId()) {
+            case CANCEL -> 1;
+            case AMEND -> 3;
+            default -> 4;
+        };
+        final int start = offset + HEADER_SIZE + Long.BYTES * fields;
+        int length = 0;
+        while (length < COMPANY_CODE_LENGTH) {
+            final byte value = buffer.get(start + length);
+            if (value == 0) {
+                break;
+            }
+            companyCode[length++] = value;
+        }
+        if (length == 0) {
+            throw new IllegalArgumentException("종목 코드가 비어 있습니다.");
+        }
+        return new String(companyCode, 0, length, StandardCharsets.US_ASCII);
+    }
+}
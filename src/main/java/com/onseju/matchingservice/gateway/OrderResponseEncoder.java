@@ -0,0 +1,69 @@
+package com.onseju.matchingservice.gateway;
+
+import com.onseju.matchingservice.domain.Price;
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static com.onseju.matchingservice.gateway.GatewayProtocol.ACK;
+import static com.onseju.matchingservice.gateway.GatewayProtocol.ACK_LENGTH;
+import static com.onseju.matchingservice.gateway.GatewayProtocol.COMPANY_CODE_LENGTH;
+import static com.onseju.matchingservice.gateway.GatewayProtocol.NULL_ID;
+import static com.onseju.matchingservice.gateway.GatewayProtocol.TRADE;
+import static com.onseju.matchingservice.gateway.GatewayProtocol.TRADE_LENGTH;
+import static com.onseju.matchingservice.gateway.GatewayProtocol.VERSION;
+
+/**
+ * 응답과 체결 프레임을 송신 버퍼의 현재 위치에 기록한다. 버퍼의 바이트 순서는 호출한 쪽이 맞춘다.
+ */
+final class OrderResponseEncoder {
+
+    private OrderResponseEncoder() {
+    }
+
+    static void encodeAck(
+            final ByteBuffer buffer,
+            final long orderId,
+            final byte requestTemplate,
+            final byte result,
+            final int tradeCount
+    ) {
+        putHeader(buffer, ACK_LENGTH, ACK);
+        buffer.putLong(orderId);
+        buffer.put(requestTemplate);
+        buffer.put(result);
+        buffer.putInt(tradeCount);
+    }
+
+    static void encodeTrade(final ByteBuffer buffer, final TradeHistoryEvent event) {
+        putHeader(buffer, TRADE_LENGTH, TRADE);
+        buffer.putLong(orNull(event.buyOrderId()));
+        buffer.putLong(orNull(event.buyAccountId()));
+        buffer.putLong(orNull(event.sellOrderId()));
+        buffer.putLong(orNull(event.sellAccountId()));
+        buffer.putLong(event.quantity().longValueExact());
+        buffer.putLong(Price.toScaled(event.price()));
+        buffer.putLong(orNull(event.tradeAt()));
+        putCompanyCode(buffer, event.companyCode());
+    }
+
+    private static void putHeader(final ByteBuffer buffer, final int length, final byte templateId) {
+        buffer.putShort((short) length);
+        buffer.put(templateId);
+        buffer.put(VERSION);
+    }
+
+    private static long orNull(final Long value) {
+        return value == null ? NULL_ID : value;
+    }
+
+    private static void putCompanyCode(final ByteBuffer buffer, final String companyCode) {
+        final byte[] bytes = companyCode.getBytes(StandardCharsets.US_ASCII);
+        final int length = Math.min(bytes.length, COMPANY_CODE_LENGTH);
+        buffer.put(bytes, 0, length);
+        for (int i = length; i < COMPANY_CODE_LENGTH; i++) {
+            buffer.put((byte) 0);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.onseju.matchingservice.journal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 엔진 전체의 주문장 스냅샷.
+ *
+ * @param sequence 모든 주문장에 반영된 저널 시퀀스, 이 값 이하의 세그먼트는 더 이상 필요하지 않다
+ * @param images   주문장별 스냅샷
+ */
+public record EngineSnapshot(
+        long sequence,
+        List<OrderBookImage> images
+) {
+
+    // 파티션별 스냅샷을 합친다. 가장 먼저 멈춘 파티션의 시퀀스가 전체 스냅샷의 시퀀스가 된다.
+    public static EngineSnapshot merge(final List<EngineSnapshot> snapshots) {
+        long sequence = Long.MAX_VALUE;
+        final List<OrderBookImage> images = new ArrayList<>();
+        for (EngineSnapshot snapshot : snapshots) {
+            sequence = Math.min(sequence, snapshot.sequence());
+            images.addAll(snapshot.images());
+        }
+        return new EngineSnapshot(snapshots.isEmpty() ? 0L : sequence, images);
+    }
+
+    // 스냅샷에 반영된 가장 큰 저널 시퀀스
+    public long lastSequence() {
+        long last = sequence;
+        for (OrderBookImage image : images) {
+            last = Math.max(last, image.sequence());
+        }
+        return last;
+    }
+}
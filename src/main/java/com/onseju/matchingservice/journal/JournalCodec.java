@@ -0,0 +1,250 @@
+package com.onseju.matchingservice.journal;
+
+import com.onseju.matchingservice.domain.OrderStatus;
+import com.onseju.matchingservice.domain.TradeOrder;
+import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.dto.AmendOrderRequest;
+import com.onseju.matchingservice.dto.CancelOrderRequest;
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+/**
+ * 저널 레코드의 바이너리 형식
+ * [길이 int][CRC32C int][시퀀스 long][타입 byte][본문] - 길이와 CRC는 시퀀스부터 본문 끝까지를 대상으로 한다.
+ * 길이가 0이거나 CRC가 맞지 않는 레코드에서 세그먼트 읽기를 멈춘다.
+ * 레코드에 담을 수 없는 값(너무 긴 문자열, byte 범위를 벗어난 스케일, long 범위를 벗어난 unscaled 값)은
+ * 기록하기 전에 IllegalArgumentException으로 거절하므로, 잘못된 요청은 저널에 남지 않고 400으로 응답된다.
+ */
+final class JournalCodec {
+
+    static final int HEADER_SIZE = Integer.BYTES * 2;
+    static final int MAX_RECORD_SIZE = 1024;
+
+    // 레코드마다 문자열은 하나이므로 고정 길이 필드와 합쳐도 MAX_RECORD_SIZE를 넘지 않는다.
+    static final int MAX_STRING_BYTES = 256;
+
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final byte NULL_SCALE = Byte.MIN_VALUE;
+
+    private JournalCodec() {
+    }
+
+    /**
+     * 시퀀스 자리를 비워둔 채 레코드를 기록한다. 시퀀스는 저널에 추가할 때 채운다.
+     */
+    static void encodeOrder(final ByteBuffer buffer, final TradeOrder order) {
+        begin(buffer, JournalRecordType.NEW_ORDER);
+        putOrder(buffer, order);
+        end(buffer);
+    }
+
+    /**
+     * 주문의 현재 상태를 기록한다. 스냅샷에서도 같은 형식을 사용한다.
+     */
+    static void putOrder(final ByteBuffer buffer, final TradeOrder order) {
+        putString(buffer, order.getCompanyCode());
+        putNullableLong(buffer, order.getId());
+        putNullableLong(buffer, order.getAccountId());
+        buffer.put((byte) order.getType().ordinal());
+        buffer.put((byte) order.getStatus().ordinal());
+        putDecimal(buffer, order.getTotalQuantity());
+        buffer.putLong(order.getRemaining());
+        putDecimal(buffer, order.getPrice());
+        putDateTime(buffer, order.getCreatedDateTime());
+    }
+
+    static void encodeCancel(final ByteBuffer buffer, final CancelOrderRequest request) {
+        begin(buffer, JournalRecordType.CANCEL);
+        putString(buffer, request.companyCode());
+        putNullableLong(buffer, request.orderId());
+        end(buffer);
+    }
+
+    static void encodeAmend(final ByteBuffer buffer, final AmendOrderRequest request) {
+        begin(buffer, JournalRecordType.AMEND);
+        putString(buffer, request.companyCode());
+        putNullableLong(buffer, request.orderId());
+        putDecimal(buffer, request.quantity());
+        putDecimal(buffer, request.price());
+        end(buffer);
+    }
+
+    static void encodeTrade(final ByteBuffer buffer, final TradeHistoryEvent event) {
+        begin(buffer, JournalRecordType.TRADE);
+        putString(buffer, event.companyCode());
+        putNullableLong(buffer, event.buyOrderId());
+        putNullableLong(buffer, event.buyAccountId());
+        putNullableLong(buffer, event.sellOrderId());
+        putNullableLong(buffer, event.sellAccountId());
+        putDecimal(buffer, event.quantity());
+        putDecimal(buffer, event.price());
+        putNullableLong(buffer, event.tradeAt());
+        end(buffer);
+    }
+
+    /**
+     * 시퀀스와 CRC를 채운다.
+     */
+    static void seal(final ByteBuffer record, final long sequence) {
+        record.putLong(HEADER_SIZE, sequence);
+        final CRC32C crc = new CRC32C();
+        crc.update(record.slice(HEADER_SIZE, record.limit() - HEADER_SIZE));
+        record.putInt(Integer.BYTES, (int) crc.getValue());
+    }
+
+    /**
+     * 버퍼의 현재 위치에서 레코드 하나를 읽어 처리한다. 유효한 레코드가 없으면 false를 반환하고 위치를 바꾸지 않는다.
+     */
+    static boolean decode(final ByteBuffer buffer, final JournalHandler handler) {
+        final int start = buffer.position();
+        if (buffer.remaining() < HEADER_SIZE) {
+            return false;
+        }
+        final int length = buffer.getInt(start);
+        if (length <= 0 || length > MAX_RECORD_SIZE || length > buffer.remaining() - HEADER_SIZE) {
+            return false;
+        }
+        final CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + HEADER_SIZE, length));
+        if ((int) crc.getValue() != buffer.getInt(start + Integer.BYTES)) {
+            return false;
+        }
+        final ByteBuffer record = buffer.slice(start + HEADER_SIZE, length);
+        final long sequence = record.getLong();
+        final JournalRecordType type = JournalRecordType.values()[record.get()];
+        switch (type) {
+            case NEW_ORDER -> handler.onOrder(sequence, getOrder(record));
+            case CANCEL -> handler.onCancel(sequence, new CancelOrderRequest(getString(record), getNullableLong(record)));
+            case AMEND -> handler.onAmend(sequence, new AmendOrderRequest(
+                    getString(record), getNullableLong(record), getDecimal(record), getDecimal(record)
+            ));
+            case TRADE -> handler.onTrade(sequence, new TradeHistoryEvent(
+                    getString(record),
+                    getNullableLong(record),
+                    getNullableLong(record),
+                    getNullableLong(record),
+                    getNullableLong(record),
+                    getDecimal(record),
+                    getDecimal(record),
+                    getNullableLong(record)
+            ));
+        }
+        buffer.position(start + HEADER_SIZE + length);
+        return true;
+    }
+
+    static TradeOrder getOrder(final ByteBuffer record) {
+        final String companyCode = getString(record);
+        final Long id = getNullableLong(record);
+        final Long accountId = getNullableLong(record);
+        final Type type = Type.values()[record.get()];
+        final OrderStatus status = OrderStatus.values()[record.get()];
+        final BigDecimal totalQuantity = getDecimal(record);
+        final long remaining = record.getLong();
+        final BigDecimal price = getDecimal(record);
+        final LocalDateTime createdDateTime = getDateTime(record);
+        return TradeOrder.builder()
+                .id(id)
+                .companyCode(companyCode)
+                .type(type)
+                .status(status)
+                .totalQuantity(totalQuantity)
+                .remainingQuantity(BigDecimal.valueOf(remaining))
+                .price(price)
+                .createdDateTime(createdDateTime)
+                .accountId(accountId)
+                .build();
+    }
+
+    private static void begin(final ByteBuffer buffer, final JournalRecordType type) {
+        buffer.clear();
+        buffer.position(HEADER_SIZE);
+        buffer.putLong(0L);
+        buffer.put((byte) type.ordinal());
+    }
+
+    private static void end(final ByteBuffer buffer) {
+        buffer.putInt(0, buffer.position() - HEADER_SIZE);
+        buffer.flip();
+    }
+
+    private static void putString(final ByteBuffer buffer, final String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException(
+                    "저널에 기록할 수 있는 문자열은 " + MAX_STRING_BYTES + "바이트까지입니다: " + bytes.length + "바이트"
+            );
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(final ByteBuffer buffer) {
+        final short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putNullableLong(final ByteBuffer buffer, final Long value) {
+        buffer.putLong(value == null ? NULL_LONG : value);
+    }
+
+    private static Long getNullableLong(final ByteBuffer buffer) {
+        final long value = buffer.getLong();
+        return value == NULL_LONG ? null : value;
+    }
+
+    // 원래 표현(스케일)을 그대로 복원하기 위해 unscaled 값과 스케일을 함께 기록한다.
+    private static void putDecimal(final ByteBuffer buffer, final BigDecimal value) {
+        if (value == null) {
+            buffer.put(NULL_SCALE);
+            return;
+        }
+        // NULL_SCALE은 null 표시로 쓰므로 스케일은 그보다 커야 한다.
+        if (value.scale() <= NULL_SCALE || value.scale() > Byte.MAX_VALUE || value.unscaledValue().bitLength() >= Long.SIZE) {
+            throw new IllegalArgumentException("저널에 기록할 수 없는 숫자입니다: " + value);
+        }
+        buffer.put((byte) value.scale());
+        buffer.putLong(value.unscaledValue().longValue());
+    }
+
+    private static BigDecimal getDecimal(final ByteBuffer buffer) {
+        final byte scale = buffer.get();
+        if (scale == NULL_SCALE) {
+            return null;
+        }
+        return new BigDecimal(BigInteger.valueOf(buffer.getLong()), scale);
+    }
+
+    private static void putDateTime(final ByteBuffer buffer, final LocalDateTime value) {
+        if (value == null) {
+            buffer.putLong(NULL_LONG);
+            return;
+        }
+        buffer.putLong(value.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(value.getNano());
+    }
+
+    private static LocalDateTime getDateTime(final ByteBuffer buffer) {
+        final long epochSecond = buffer.getLong();
+        if (epochSecond == NULL_LONG) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(epochSecond, buffer.getInt(), ZoneOffset.UTC);
+    }
+}
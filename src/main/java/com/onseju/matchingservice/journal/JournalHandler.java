@@ -0,0 +1,22 @@
+package com.onseju.matchingservice.journal;
+
+import com.onseju.matchingservice.domain.TradeOrder;
+import com.onseju.matchingservice.dto.AmendOrderRequest;
+import com.onseju.matchingservice.dto.CancelOrderRequest;
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+
+/**
+ * 저널을 재생할 때 기록 순서대로 호출된다.
+ */
+public interface JournalHandler {
+
+    void onOrder(long sequence, TradeOrder order);
+
+    void onCancel(long sequence, CancelOrderRequest request);
+
+    void onAmend(long sequence, AmendOrderRequest request);
+
+    // 체결 기록은 주문 재생으로 다시 만들어지므로 기본적으로 무시한다.
+    default void onTrade(long sequence, TradeHistoryEvent event) {
+    }
+}
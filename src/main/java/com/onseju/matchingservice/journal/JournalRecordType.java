@@ -0,0 +1,8 @@
+package com.onseju.matchingservice.journal;
+
+public enum JournalRecordType {
+	NEW_ORDER,
+	CANCEL,
+	AMEND,
+	TRADE
+}
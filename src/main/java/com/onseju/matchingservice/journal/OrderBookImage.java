@@ -0,0 +1,99 @@
+package com.onseju.matchingservice.journal;
+
+import com.onseju.matchingservice.domain.TradeOrder;
+import com.onseju.matchingservice.engine.OrderBook;
+import com.onseju.matchingservice.engine.PriceBand;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 한 종목 주문장의 대기 주문을 가격대별 도착 순서대로 직렬화한 스냅샷.
+ *
+ * @param companyCode 종목 코드
+ * @param sequence    스냅샷에 반영된 마지막 저널 시퀀스, 이 값 이하의 레코드는 재생하지 않는다
+ * @param orderCount  대기 주문 수
+ * @param orders      직렬화한 대기 주문
+ * @param bandLowestPrice 배열 기반 주문장의 호가 범위 최저가 (고정 소수점, 범위가 없으면 NO_BAND)
+ * @param bandLevelCount  배열 기반 주문장의 호가 범위 가격대 수
+ * @param lastPrice       마지막 체결 가격 (고정 소수점, 체결이 없으면 0), 시장가 주문 보호의 기준 가격으로 복원한다
+ */
+public record OrderBookImage(
+        String companyCode,
+        long sequence,
+        int orderCount,
+        byte[] orders,
+        long bandLowestPrice,
+        int bandLevelCount,
+        long lastPrice
+) {
+
+    public static final long NO_BAND = -1L;
+
+    private static final int INITIAL_CAPACITY = 4096;
+
+    /**
+     * 주문장의 현재 대기 주문을 복사한다. 주문장이 변경되지 않는 시점에 호출한다.
+     */
+    public static OrderBookImage capture(final String companyCode, final long sequence, final OrderBook orderBook) {
+        final Encoder encoder = new Encoder();
+        orderBook.forEachRestingOrder(encoder::put);
+        final long lastPrice = orderBook.getTicker().lastPrice();
+        final PriceBand band = orderBook.getPriceBand();
+        if (band == null || !band.isAnchored()) {
+            return new OrderBookImage(companyCode, sequence, encoder.count, encoder.toByteArray(), NO_BAND, 0, lastPrice);
+        }
+        return new OrderBookImage(
+                companyCode, sequence, encoder.count, encoder.toByteArray(),
+                band.getLowestPrice(), band.getLevelCount(), lastPrice
+        );
+    }
+
+    /**
+     * 기록된 호가 범위를 주문장에 설정한다. 대기 주문을 복원하기 전에 호출해야 첫 주문의 가격으로 범위가 바뀌지 않는다.
+     */
+    public void restorePriceBand(final OrderBook orderBook) {
+        final PriceBand band = orderBook.getPriceBand();
+        if (band != null && bandLowestPrice != NO_BAND) {
+            band.restore(bandLowestPrice, bandLevelCount);
+        }
+    }
+
+    /**
+     * 기록된 마지막 체결 가격을 주문장에 설정해, 재생하는 시장가 주문이 원래와 같은 기준 가격으로 보호 한도를 계산하게 한다.
+     */
+    public void restoreLastPrice(final OrderBook orderBook) {
+        if (lastPrice > 0) {
+            orderBook.restoreLastPrice(lastPrice);
+        }
+    }
+
+    public List<TradeOrder> decodeOrders() {
+        final ByteBuffer buffer = ByteBuffer.wrap(orders);
+        final List<TradeOrder> results = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            results.add(JournalCodec.getOrder(buffer));
+        }
+        return results;
+    }
+
+    private static final class Encoder {
+
+        private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+        private int count;
+
+        private void put(final TradeOrder order) {
+            if (buffer.remaining() < JournalCodec.MAX_RECORD_SIZE) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+            }
+            JournalCodec.putOrder(buffer, order);
+            count++;
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer.array(), buffer.position());
+        }
+    }
+}
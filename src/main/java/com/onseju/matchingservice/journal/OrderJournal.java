@@ -0,0 +1,361 @@
+package com.onseju.matchingservice.journal;
+
+import com.onseju.matchingservice.config.JournalProperties;
+import com.onseju.matchingservice.domain.TradeOrder;
+import com.onseju.matchingservice.dto.AmendOrderRequest;
+import com.onseju.matchingservice.dto.CancelOrderRequest;
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 접수한 주문, 취소, 정정과 그 결과 체결을 시퀀스 순서대로 기록하는 선행 기록 저널.
+ * 메모리 맵 세그먼트 파일에 복사만 하고, 디스크 동기화는 백그라운드 스레드가 주기적으로 모아서 한다(그룹 커밋).
+ * 같은 주문장에 대한 기록은 주문장을 점유한 상태에서 추가되므로 주문장별 적용 순서와 시퀀스 순서가 같다.
+ * <p>
+ * 세그먼트는 MappedByteBuffer로 매핑하며 명시적으로 해제하지 않는다. 교체되거나 삭제된 세그먼트의 매핑은 버퍼가 GC될 때 풀린다.
+ * Arena로 매핑을 닫는 Foreign Memory API는 JDK 21 툴체인에서 아직 프리뷰 기능이라 사용하지 않는다.
+ * 매핑된 파일을 지울 수 없는 플랫폼(Windows)에서는 truncateBefore가 삭제에 실패한 세그먼트에서 멈추고, 다음 스냅샷 때 다시 시도한다.
+ */
+@Slf4j
+@Component
+public class OrderJournal implements AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final JournalProperties properties;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ThreadLocal<ByteBuffer> scratch =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(JournalCodec.MAX_RECORD_SIZE));
+
+    private Path directory;
+    private MappedByteBuffer segment;
+    private long sequence;
+
+    // 동기화를 마친 세그먼트 내 위치
+    private int forcedPosition;
+    private volatile boolean opened;
+    private Thread flusher;
+
+    public OrderJournal(final JournalProperties properties) {
+        if (properties.enabled() && properties.segmentSize() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("세그먼트 크기는 2GB를 넘을 수 없습니다: " + properties.segmentSize());
+        }
+        this.properties = properties;
+    }
+
+    public static OrderJournal disabled() {
+        return new OrderJournal(JournalProperties.disabled());
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    public long recover(final JournalHandler handler) {
+        return recover(handler, 0L, 0L);
+    }
+
+    /**
+     * 기존 세그먼트를 순서대로 재생한 뒤, 새 세그먼트를 열어 기록을 시작한다. 기록 전에 한 번만 호출한다.
+     * 레코드가 없는 세그먼트는 삭제한다. 남은 첫 세그먼트가 coveredSequence 다음 레코드보다 뒤에서 시작하면
+     * 그 사이의 레코드를 복구할 수 없으므로 재생하지 않고 실패한다.
+     *
+     * @param coveredSequence 복원한 스냅샷이 모든 주문장에 반영한 시퀀스, 스냅샷이 없으면 0
+     * @param startSequence   스냅샷에 반영된 가장 큰 시퀀스, 남은 저널이 없어도 시퀀스는 이 값부터 이어진다
+     * @return 마지막으로 재생한 레코드의 시퀀스
+     */
+    public long recover(final JournalHandler handler, final long coveredSequence, final long startSequence) {
+        if (!isEnabled()) {
+            return 0L;
+        }
+        try {
+            directory = Path.of(properties.directory());
+            Files.createDirectories(directory);
+            final List<Path> segments = listSegments();
+            if (!segments.isEmpty() && parseFirstSequence(segments.get(0)) > coveredSequence + 1) {
+                throw new IllegalStateException(String.format(
+                        "저널이 시퀀스 %d부터 남아 있어 스냅샷 시퀀스 %d 이후의 기록을 복구할 수 없습니다.",
+                        parseFirstSequence(segments.get(0)), coveredSequence
+                ));
+            }
+            for (Path path : segments) {
+                if (replaySegment(path, handler) == 0) {
+                    Files.delete(path);
+                }
+            }
+            sequence = Math.max(sequence, startSequence);
+            openSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("저널을 복구할 수 없습니다.", e);
+        }
+        opened = true;
+        startFlusher();
+        log.info("저널 복구 완료: 마지막 시퀀스 {}", sequence);
+        return sequence;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> {
+                        final String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    // 세그먼트 파일 이름은 첫 레코드의 시퀀스다.
+    private static long parseFirstSequence(final Path path) {
+        final String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private int replaySegment(final Path path, final JournalHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            final JournalHandler tracking = new SequenceTrackingHandler(handler);
+            int count = 0;
+            while (JournalCodec.decode(buffer, tracking)) {
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private void openSegment() throws IOException {
+        final Path path = directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, sequence + 1, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(
+                path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE
+        )) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, properties.segmentSize());
+        }
+        forcedPosition = 0;
+    }
+
+    public long appendOrder(final TradeOrder order) {
+        if (!opened) {
+            return 0L;
+        }
+        final ByteBuffer record = scratch.get();
+        JournalCodec.encodeOrder(record, order);
+        return append(record);
+    }
+
+    public long appendCancel(final CancelOrderRequest request) {
+        if (!opened) {
+            return 0L;
+        }
+        final ByteBuffer record = scratch.get();
+        JournalCodec.encodeCancel(record, request);
+        return append(record);
+    }
+
+    public long appendAmend(final AmendOrderRequest request) {
+        if (!opened) {
+            return 0L;
+        }
+        final ByteBuffer record = scratch.get();
+        JournalCodec.encodeAmend(record, request);
+        return append(record);
+    }
+
+    public void appendTrades(final List<TradeHistoryEvent> events) {
+        if (!opened || events.isEmpty()) {
+            return;
+        }
+        final ByteBuffer record = scratch.get();
+        for (TradeHistoryEvent event : events) {
+            JournalCodec.encodeTrade(record, event);
+            append(record);
+        }
+    }
+
+    /**
+     * 인코딩된 레코드에 시퀀스를 붙여 세그먼트에 복사한다. 동기화 주기가 0 이하인 경우에만 바로 동기화한다.
+     */
+    private long append(final ByteBuffer record) {
+        appendLock.lock();
+        try {
+            if (segment.remaining() < record.remaining()) {
+                rollSegment();
+            }
+            final long recordSequence = ++sequence;
+            JournalCodec.seal(record, recordSequence);
+            segment.put(record);
+            if (properties.flushIntervalMs() <= 0) {
+                force();
+            }
+            return recordSequence;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void rollSegment() {
+        force();
+        try {
+            openSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("새 저널 세그먼트를 열 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 모든 레코드가 입력한 시퀀스 이하인 세그먼트를 삭제한다. 스냅샷을 저장한 뒤 호출한다.
+     * 앞 세그먼트부터 지우고 삭제에 실패하면 멈추므로, 남은 세그먼트는 항상 시퀀스가 이어진다.
+     */
+    public void truncateBefore(final long snapshotSequence) {
+        if (!opened) {
+            return;
+        }
+        try {
+            final List<Path> segments = listSegments();
+            for (int i = 0; i + 1 < segments.size(); i++) {
+                if (parseFirstSequence(segments.get(i + 1)) - 1 > snapshotSequence) {
+                    break;
+                }
+                Files.delete(segments.get(i));
+            }
+        } catch (IOException e) {
+            log.warn("저널 세그먼트를 정리할 수 없습니다.", e);
+        }
+    }
+
+    public long getSequence() {
+        appendLock.lock();
+        try {
+            return sequence;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // 동기화하지 않은 구간을 디스크에 기록한다. appendLock을 잡은 상태에서 호출한다.
+    private void force() {
+        final int position = segment.position();
+        if (position > forcedPosition) {
+            segment.force(forcedPosition, position - forcedPosition);
+            forcedPosition = position;
+        }
+    }
+
+    private void startFlusher() {
+        if (properties.flushIntervalMs() <= 0) {
+            return;
+        }
+        flusher = new Thread(this::flushLoop, "order-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    private void flushLoop() {
+        while (opened) {
+            try {
+                Thread.sleep(properties.flushIntervalMs());
+            } catch (InterruptedException e) {
+                break;
+            }
+            flush();
+        }
+    }
+
+    /**
+     * 기록한 레코드를 디스크에 동기화한다. 동기화하는 동안에는 락을 잡지 않으므로 기록이 멈추지 않는다.
+     */
+    public void flush() {
+        final MappedByteBuffer target;
+        final int from;
+        final int to;
+        appendLock.lock();
+        try {
+            if (segment == null) {
+                return;
+            }
+            target = segment;
+            from = forcedPosition;
+            to = segment.position();
+        } finally {
+            appendLock.unlock();
+        }
+        if (to <= from) {
+            return;
+        }
+        target.force(from, to - from);
+        appendLock.lock();
+        try {
+            if (segment == target && forcedPosition < to) {
+                forcedPosition = to;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        if (!opened) {
+            return;
+        }
+        opened = false;
+        if (flusher != null) {
+            flusher.interrupt();
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    // 재생하면서 마지막 시퀀스를 기억한다.
+    private final class SequenceTrackingHandler implements JournalHandler {
+
+        private final JournalHandler delegate;
+
+        private SequenceTrackingHandler(final JournalHandler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onOrder(final long recordSequence, final TradeOrder order) {
+            sequence = recordSequence;
+            delegate.onOrder(recordSequence, order);
+        }
+
+        @Override
+        public void onCancel(final long recordSequence, final CancelOrderRequest request) {
+            sequence = recordSequence;
+            delegate.onCancel(recordSequence, request);
+        }
+
+        @Override
+        public void onAmend(final long recordSequence, final AmendOrderRequest request) {
+            sequence = recordSequence;
+            delegate.onAmend(recordSequence, request);
+        }
+
+        @Override
+        public void onTrade(final long recordSequence, final TradeHistoryEvent event) {
+            sequence = recordSequence;
+            delegate.onTrade(recordSequence, event);
+        }
+    }
+}
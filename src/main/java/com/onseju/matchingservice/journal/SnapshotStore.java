@@ -0,0 +1,184 @@
+package com.onseju.matchingservice.journal;
+
+import com.onseju.matchingservice.config.JournalProperties;
+import com.onseju.matchingservice.config.SnapshotProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 주문장 스냅샷 파일을 저장하고 읽는다.
+ * 형식: [MAGIC int][VERSION int][시퀀스 long][주문장 수 int][주문장...][CRC32C int]
+ * 주문장: [종목 코드 UTF][시퀀스 long][주문 수 int][주문 바이트 수 int][주문...][호가 범위 최저가 long][호가 범위 가격대 수 int][마지막 체결가 long]
+ * 호가 범위는 버전 2부터, 마지막 체결가는 버전 3부터 기록하며, 이전 버전 스냅샷은 없는 값을 비워 두고 읽는다.
+ * 임시 파일에 쓰고 동기화한 뒤 이름을 바꾸므로, 저장 도중 종료되어도 이전 스냅샷이 남는다.
+ */
+@Slf4j
+@Component
+public class SnapshotStore {
+
+    private static final int MAGIC = 0x4F534E50;
+    private static final int VERSION = 3;
+    private static final int VERSION_WITHOUT_LAST_PRICE = 2;
+    private static final int VERSION_WITHOUT_BAND = 1;
+    private static final int RETAINED_SNAPSHOTS = 2;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private final boolean enabled;
+    private final Path directory;
+
+    public SnapshotStore(final SnapshotProperties properties, final JournalProperties journalProperties) {
+        this.enabled = properties.enabled() && journalProperties.enabled();
+        this.directory = Path.of(properties.directory());
+    }
+
+    public static SnapshotStore disabled() {
+        return new SnapshotStore(SnapshotProperties.disabled(), JournalProperties.disabled());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 스냅샷을 저장하고 오래된 스냅샷을 삭제한다.
+     * 최신 스냅샷이 손상되면 이전 스냅샷으로 복구하므로, 저널은 반환한 시퀀스까지만 정리해야 한다.
+     *
+     * @return 보관 중인 가장 오래된 스냅샷의 시퀀스
+     */
+    public long write(final EngineSnapshot snapshot) {
+        final long sequence = snapshot.sequence();
+        final List<OrderBookImage> images = snapshot.images();
+        try {
+            Files.createDirectories(directory);
+            final Path target = directory.resolve(String.format("%s%016d%s", PREFIX, sequence, SUFFIX));
+            final Path temp = directory.resolve(target.getFileName() + ".tmp");
+            try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+                final CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file), new CRC32C());
+                final DataOutputStream output = new DataOutputStream(checked);
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeLong(sequence);
+                output.writeInt(images.size());
+                for (OrderBookImage image : images) {
+                    output.writeUTF(image.companyCode());
+                    output.writeLong(image.sequence());
+                    output.writeInt(image.orderCount());
+                    output.writeInt(image.orders().length);
+                    output.write(image.orders());
+                    output.writeLong(image.bandLowestPrice());
+                    output.writeInt(image.bandLevelCount());
+                    output.writeLong(image.lastPrice());
+                }
+                output.flush();
+                output.writeInt((int) checked.getChecksum().getValue());
+                output.flush();
+                file.getChannel().force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return deleteOldSnapshots();
+        } catch (IOException e) {
+            throw new UncheckedIOException("스냅샷을 저장할 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 읽을 수 있는 가장 최근 스냅샷을 반환한다.
+     */
+    public Optional<EngineSnapshot> loadLatest() {
+        if (!enabled || !Files.isDirectory(directory)) {
+            return Optional.empty();
+        }
+        for (Path path : listSnapshots(Comparator.reverseOrder())) {
+            try {
+                return Optional.of(read(path));
+            } catch (IOException | IllegalStateException e) {
+                log.warn("손상된 스냅샷을 건너뜁니다: {}", path, e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private EngineSnapshot read(final Path path) throws IOException {
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(path)), new CRC32C()
+        )) {
+            final DataInputStream input = new DataInputStream(checked);
+            if (input.readInt() != MAGIC) {
+                throw new IllegalStateException("스냅샷 형식이 아닙니다: " + path);
+            }
+            final int version = input.readInt();
+            if (version != VERSION && version != VERSION_WITHOUT_LAST_PRICE && version != VERSION_WITHOUT_BAND) {
+                throw new IllegalStateException("지원하지 않는 스냅샷 버전입니다: " + version);
+            }
+            final long snapshotSequence = input.readLong();
+            final int bookCount = input.readInt();
+            final List<OrderBookImage> images = new ArrayList<>(bookCount);
+            for (int i = 0; i < bookCount; i++) {
+                final String companyCode = input.readUTF();
+                final long sequence = input.readLong();
+                final int orderCount = input.readInt();
+                final byte[] orders = new byte[input.readInt()];
+                input.readFully(orders);
+                final long bandLowestPrice = version >= VERSION_WITHOUT_LAST_PRICE ? input.readLong() : OrderBookImage.NO_BAND;
+                final int bandLevelCount = version >= VERSION_WITHOUT_LAST_PRICE ? input.readInt() : 0;
+                final long lastPrice = version == VERSION ? input.readLong() : 0L;
+                images.add(new OrderBookImage(
+                        companyCode, sequence, orderCount, orders, bandLowestPrice, bandLevelCount, lastPrice
+                ));
+            }
+            final int expected = (int) checked.getChecksum().getValue();
+            if (input.readInt() != expected) {
+                throw new IllegalStateException("스냅샷 체크섬이 맞지 않습니다: " + path);
+            }
+            return new EngineSnapshot(snapshotSequence, images);
+        }
+    }
+
+    // 보관할 스냅샷만 남기고, 남은 것 중 가장 오래된 스냅샷의 시퀀스를 반환한다.
+    private long deleteOldSnapshots() throws IOException {
+        final List<Path> snapshots = listSnapshots(Comparator.reverseOrder());
+        for (int i = RETAINED_SNAPSHOTS; i < snapshots.size(); i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+        return parseSequence(snapshots.get(Math.min(snapshots.size(), RETAINED_SNAPSHOTS) - 1));
+    }
+
+    // 스냅샷 파일 이름은 스냅샷의 시퀀스다.
+    private static long parseSequence(final Path path) {
+        final String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private List<Path> listSnapshots(final Comparator<Path> order) {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> {
+                        final String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted(order)
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("스냅샷 목록을 읽을 수 없습니다.", e);
+        }
+    }
+}
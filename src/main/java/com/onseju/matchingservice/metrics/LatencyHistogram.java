@@ -0,0 +1,112 @@
+package com.onseju.matchingservice.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.HdrHistogram.SingleWriterRecorder;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 기록하는 스레드마다 SingleWriterRecorder를 따로 두어, 기록할 때 다른 스레드와 경합하지 않는다.
+ * 가상 스레드는 요청마다 새로 만들어지므로 스레드별 기록기 대신 여러 스레드가 함께 쓰는 기록기에 기록한다.
+ * 수집 스레드가 주기적으로 각 기록기의 구간 히스토그램을 모아 최근 구간과 누적 히스토그램을 갱신한다.
+ */
+final class LatencyHistogram {
+
+    private final long highestTrackableValue;
+    private final int significantDigits;
+    private final List<ThreadRecorder> recorders = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<ThreadRecorder> localRecorder = ThreadLocal.withInitial(this::register);
+    private final Recorder sharedRecorder;
+
+    // 수집 스레드만 변경한다.
+    private final Histogram total;
+    private final Histogram scratch;
+
+    // 최근 수집 구간의 히스토그램, 조회하는 쪽은 교체된 참조를 읽기만 한다.
+    private volatile Histogram lastInterval;
+    private volatile long totalCount;
+    private volatile double totalNanos;
+
+    LatencyHistogram(final long highestTrackableValue, final int significantDigits) {
+        this.highestTrackableValue = highestTrackableValue;
+        this.significantDigits = significantDigits;
+        this.sharedRecorder = new Recorder(1L, highestTrackableValue, significantDigits);
+        this.total = newHistogram();
+        this.scratch = newHistogram();
+        this.lastInterval = newHistogram();
+    }
+
+    void record(final long nanos) {
+        final long value = Math.min(Math.max(nanos, 1L), highestTrackableValue);
+        if (Thread.currentThread().isVirtual()) {
+            sharedRecorder.recordValue(value);
+            return;
+        }
+        localRecorder.get().recorder.recordValue(value);
+    }
+
+    /**
+     * 모든 스레드의 기록을 모은다. 종료된 스레드의 기록기는 마지막으로 모은 뒤 제거한다.
+     */
+    synchronized void harvest() {
+        final Histogram interval = newHistogram();
+        sharedRecorder.getIntervalHistogramInto(scratch);
+        interval.add(scratch);
+        for (ThreadRecorder threadRecorder : recorders) {
+            threadRecorder.recorder.getIntervalHistogramInto(scratch);
+            interval.add(scratch);
+            if (!threadRecorder.isAlive()) {
+                recorders.remove(threadRecorder);
+            }
+        }
+        total.add(interval);
+        totalCount = total.getTotalCount();
+        totalNanos = total.getMean() * total.getTotalCount();
+        lastInterval = interval;
+    }
+
+    Histogram getLastInterval() {
+        return lastInterval;
+    }
+
+    long getTotalCount() {
+        return totalCount;
+    }
+
+    // 히스토그램의 정밀도 안에서 계산한 누적 시간
+    double getTotalNanos() {
+        return totalNanos;
+    }
+
+    private ThreadRecorder register() {
+        final ThreadRecorder threadRecorder = new ThreadRecorder(
+                Thread.currentThread(),
+                new SingleWriterRecorder(1L, highestTrackableValue, significantDigits)
+        );
+        recorders.add(threadRecorder);
+        return threadRecorder;
+    }
+
+    private Histogram newHistogram() {
+        return new Histogram(1L, highestTrackableValue, significantDigits);
+    }
+
+    private static final class ThreadRecorder {
+
+        private final WeakReference<Thread> owner;
+        private final SingleWriterRecorder recorder;
+
+        private ThreadRecorder(final Thread owner, final SingleWriterRecorder recorder) {
+            this.owner = new WeakReference<>(owner);
+            this.recorder = recorder;
+        }
+
+        private boolean isAlive() {
+            final Thread thread = owner.get();
+            return thread != null && thread.isAlive();
+        }
+    }
+}
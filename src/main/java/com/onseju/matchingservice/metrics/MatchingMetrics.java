@@ -0,0 +1,168 @@
+package com.onseju.matchingservice.metrics;
+
+import com.onseju.matchingservice.config.MatchingMetricsProperties;
+import com.onseju.matchingservice.engine.OrderBook;
+import com.onseju.matchingservice.engine.OrderBookMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 매칭 경로 계측. 종목별 주문, 체결, 락 경합 수는 Micrometer 카운터로,
+ * 구간별 지연 시간은 스레드별 HdrHistogram 기록기로 기록해 수집 주기마다 백분위 게이지로 노출한다.
+ *
+ * <ul>
+ *     <li>matching.latency: 구간별 누적 횟수와 시간 (stage)</li>
+ *     <li>matching.latency.percentile: 최근 수집 구간의 p50, p99, p99.9 (stage, quantile)</li>
+ *     <li>matching.latency.max: 최근 수집 구간의 최대값 (stage)</li>
+ *     <li>matching.orders, matching.trades, matching.lock.contentions: 종목별 카운터 (symbol)</li>
+ *     <li>matching.book.resting.orders: 종목별 대기 주문 수 (symbol)</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class MatchingMetrics implements AutoCloseable {
+
+    private static final double[] PERCENTILES = {50.0, 99.0, 99.9};
+
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final Map<MatchingStage, LatencyHistogram> histograms = new EnumMap<>(MatchingStage.class);
+    private final ScheduledExecutorService harvester;
+
+    public MatchingMetrics(final MeterRegistry registry, final MatchingMetricsProperties properties) {
+        if (properties.harvestIntervalMs() < 1 || properties.highestTrackableMs() < 1) {
+            throw new IllegalArgumentException("수집 주기와 최대 지연 시간은 1 이상이어야 합니다.");
+        }
+        this.registry = registry;
+        this.enabled = properties.enabled();
+        if (!enabled) {
+            this.harvester = null;
+            return;
+        }
+        final long highestTrackableValue = TimeUnit.MILLISECONDS.toNanos(properties.highestTrackableMs());
+        for (MatchingStage stage : MatchingStage.values()) {
+            final LatencyHistogram histogram = new LatencyHistogram(highestTrackableValue, properties.significantDigits());
+            histograms.put(stage, histogram);
+            registerLatency(stage, histogram);
+        }
+        this.harvester = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "matching-metrics-harvester");
+            thread.setDaemon(true);
+            return thread;
+        });
+        harvester.scheduleWithFixedDelay(
+                this::harvest,
+                properties.harvestIntervalMs(),
+                properties.harvestIntervalMs(),
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    public static MatchingMetrics disabled() {
+        return new MatchingMetrics(null, new MatchingMetricsProperties(false, 1L, 1L, 3));
+    }
+
+    private void registerLatency(final MatchingStage stage, final LatencyHistogram histogram) {
+        FunctionTimer.builder(
+                        "matching.latency",
+                        histogram,
+                        LatencyHistogram::getTotalCount,
+                        LatencyHistogram::getTotalNanos,
+                        TimeUnit.NANOSECONDS
+                )
+                .tag("stage", stage.getTag())
+                .register(registry);
+        for (double percentile : PERCENTILES) {
+            Gauge.builder("matching.latency.percentile", histogram,
+                            target -> toSeconds(target.getLastInterval().getValueAtPercentile(percentile)))
+                    .tag("stage", stage.getTag())
+                    .tag("quantile", String.valueOf(percentile / 100))
+                    .baseUnit("seconds")
+                    .strongReference(true)
+                    .register(registry);
+        }
+        Gauge.builder("matching.latency.max", histogram, target -> toSeconds(target.getLastInterval().getMaxValue()))
+                .tag("stage", stage.getTag())
+                .baseUnit("seconds")
+                .strongReference(true)
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 엔진에 주문을 넘긴 시점부터 매칭이 끝날 때까지의 시간을 기록한다.
+     */
+    public void recordEngineLatency(final long nanos) {
+        if (enabled) {
+            histograms.get(MatchingStage.ENGINE).record(nanos);
+        }
+    }
+
+    /**
+     * 종목의 카운터를 등록하고 주문장에 연결할 계측을 반환한다.
+     */
+    public OrderBookMetrics forOrderBook(final String companyCode) {
+        if (!enabled) {
+            return OrderBookMetrics.NO_OP;
+        }
+        return new SymbolMetrics(
+                Counter.builder("matching.orders").tag("symbol", companyCode).register(registry),
+                Counter.builder("matching.trades").tag("symbol", companyCode).register(registry),
+                Counter.builder("matching.lock.contentions").tag("symbol", companyCode).register(registry),
+                histograms.get(MatchingStage.ORDER_BOOK),
+                histograms.get(MatchingStage.LEVEL_MATCH),
+                histograms.get(MatchingStage.LOCK_WAIT)
+        );
+    }
+
+    /**
+     * 종목의 대기 주문 수 게이지를 등록한다. 주문장은 약한 참조로 보관한다.
+     */
+    public void registerOrderBook(final String companyCode, final OrderBook orderBook) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("matching.book.resting.orders", orderBook, OrderBook::getRestingOrderCount)
+                .tag("symbol", companyCode)
+                .register(registry);
+    }
+
+    /**
+     * 스레드별 기록을 모아 백분위 게이지가 읽는 최근 구간 히스토그램을 교체한다.
+     */
+    void harvest() {
+        try {
+            for (LatencyHistogram histogram : histograms.values()) {
+                histogram.harvest();
+            }
+        } catch (RuntimeException e) {
+            log.error("지연 시간 히스토그램 수집 중 오류가 발생했습니다.", e);
+        }
+    }
+
+    private static double toSeconds(final long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        if (harvester != null) {
+            harvester.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.onseju.matchingservice.metrics;
+
+/**
+ * 지연 시간을 측정하는 구간, stage 태그 값으로 사용한다.
+ */
+public enum MatchingStage {
+
+    // 엔진에 주문을 넘긴 시점부터 매칭이 끝나 future가 완료될 때까지, 파티션 큐 대기 시간을 포함한다.
+    ENGINE("engine"),
+    // 주문장 락 대기와 매칭을 포함한 주문 하나의 처리 시간
+    ORDER_BOOK("order_book"),
+    // 한 가격대의 대기 주문과 매칭한 시간
+    LEVEL_MATCH("level_match"),
+    // 주문장 락 경합 시 대기한 시간
+    LOCK_WAIT("lock_wait");
+
+    private final String tag;
+
+    MatchingStage(final String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -0,0 +1,56 @@
+package com.onseju.matchingservice.metrics;
+
+import com.onseju.matchingservice.engine.OrderBookMetrics;
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * 종목별 카운터와 공용 지연 시간 히스토그램에 기록한다. 카운터는 생성할 때 한 번만 찾아 둔다.
+ */
+final class SymbolMetrics implements OrderBookMetrics {
+
+    private final Counter orders;
+    private final Counter trades;
+    private final Counter lockContentions;
+    private final LatencyHistogram orderBookLatency;
+    private final LatencyHistogram levelMatchLatency;
+    private final LatencyHistogram lockWaitLatency;
+
+    SymbolMetrics(
+            final Counter orders,
+            final Counter trades,
+            final Counter lockContentions,
+            final LatencyHistogram orderBookLatency,
+            final LatencyHistogram levelMatchLatency,
+            final LatencyHistogram lockWaitLatency
+    ) {
+        this.orders = orders;
+        this.trades = trades;
+        this.lockContentions = lockContentions;
+        this.orderBookLatency = orderBookLatency;
+        this.levelMatchLatency = levelMatchLatency;
+        this.lockWaitLatency = lockWaitLatency;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void lockWaited(final long nanos) {
+        lockContentions.increment();
+        lockWaitLatency.record(nanos);
+    }
+
+    @Override
+    public void orderReceived(final long nanos) {
+        orders.increment();
+        orderBookLatency.record(nanos);
+    }
+
+    @Override
+    public void levelMatched(final long nanos, final int tradeCount) {
+        trades.increment(tradeCount);
+        levelMatchLatency.record(nanos);
+    }
+}
@@ -0,0 +1,131 @@
+package com.onseju.matchingservice;
+
+import com.onseju.matchingservice.config.IngressProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class OrderAdmissionTest {
+
+    @Test
+    @DisplayName("허가를 모두 사용 중이면 대기 시간이 지난 뒤 요청을 거절한다.")
+    void rejectWhenPermitsExhausted() {
+        // given
+        OrderAdmission admission = new OrderAdmission(new IngressProperties(1, 10, 0, 1));
+        CompletableFuture<Boolean> pending = new CompletableFuture<>();
+        admission.submit(() -> pending);
+
+        // when, then
+        assertThat(admission.availablePermits()).isEqualTo(0);
+        assertThatExceptionOfType(ResponseStatusException.class)
+                .isThrownBy(() -> admission.submit(() -> CompletableFuture.completedFuture(true)));
+    }
+
+    @Test
+    @DisplayName("작업이 끝나거나 제출 중 예외가 발생하면 허가를 돌려준다.")
+    void releasePermitOnCompletionOrFailure() throws Exception {
+        // given
+        OrderAdmission admission = new OrderAdmission(new IngressProperties(1, 10, 0, 1));
+        CompletableFuture<Boolean> pending = new CompletableFuture<>();
+        CompletableFuture<Boolean> result = admission.submit(() -> pending);
+
+        // when: 작업 완료
+        pending.complete(true);
+
+        // then
+        assertThat(result.get()).isTrue();
+        assertThat(admission.availablePermits()).isEqualTo(1);
+
+        // when: 제출 중 예외
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> admission.submit(() -> {
+                    throw new IllegalStateException();
+                }));
+
+        // then
+        assertThat(admission.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("종목별 대기 한도를 넘으면 기다리지 않고 Retry-After와 함께 거절하고, 다른 종목은 계속 받는다.")
+    void rejectWithRetryAfterWhenSymbolQueueIsFull() throws Exception {
+        // given
+        OrderAdmission admission = new OrderAdmission(new IngressProperties(0, 10, 2, 3));
+        CompletableFuture<Boolean> first = new CompletableFuture<>();
+        CompletableFuture<Boolean> second = new CompletableFuture<>();
+        admission.submit("005930", () -> first);
+        admission.submit("005930", () -> second);
+
+        // when
+        RetryLaterException rejected = null;
+        try {
+            admission.submit("005930", () -> CompletableFuture.completedFuture(true));
+        } catch (RetryLaterException e) {
+            rejected = e;
+        }
+        CompletableFuture<Boolean> other = admission.submit("000660", () -> CompletableFuture.completedFuture(true));
+
+        // then
+        assertThat(rejected).isNotNull();
+        assertThat(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        assertThat(admission.pendingCount("005930")).isEqualTo(2);
+        assertThat(other.get()).isTrue();
+
+        // when: 대기 중인 요청 하나가 끝나면 다시 받는다
+        first.complete(true);
+
+        // then
+        assertThat(admission.pendingCount("005930")).isEqualTo(1);
+        assertThat(admission.submit("005930", () -> CompletableFuture.completedFuture(true)).get()).isTrue();
+    }
+
+    @Test
+    @DisplayName("종목의 처리 중인 요청이 모두 끝나거나 거절되면 종목별 대기 수에서 지운다.")
+    void removeSymbolWhenNoRequestIsPending() {
+        // given
+        OrderAdmission admission = new OrderAdmission(new IngressProperties(0, 10, 1, 1));
+        CompletableFuture<Boolean> first = new CompletableFuture<>();
+        admission.submit("005930", () -> first);
+        assertThatExceptionOfType(RetryLaterException.class)
+                .isThrownBy(() -> admission.submit("005930", () -> CompletableFuture.completedFuture(true)));
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> admission.submit("000660", () -> {
+                    throw new IllegalStateException();
+                }));
+        admission.submit("035420", () -> CompletableFuture.completedFuture(true));
+
+        // when
+        first.complete(true);
+
+        // then
+        assertThat(admission.pendingCount("005930")).isEqualTo(0);
+        assertThat(admission.pendingSymbolCount()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("종목 코드가 없거나 비어 있으면 대기 수를 세기 전에 400으로 거절한다.")
+    void rejectMissingCompanyCode() {
+        // given
+        OrderAdmission admission = new OrderAdmission(new IngressProperties(0, 10, 2, 1));
+
+        // when, then
+        for (String companyCode : new String[]{null, "", " "}) {
+            ResponseStatusException rejected = null;
+            try {
+                admission.submit(companyCode, () -> CompletableFuture.completedFuture(true));
+            } catch (ResponseStatusException e) {
+                rejected = e;
+            }
+            assertThat(rejected).isNotNull();
+            assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+        assertThat(admission.pendingSymbolCount()).isEqualTo(0);
+    }
+}
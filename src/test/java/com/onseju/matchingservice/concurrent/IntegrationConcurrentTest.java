@@ -18,7 +18,6 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -118,7 +117,7 @@ class IntegrationConcurrentTest {
                 .companyCode("005930")
                 .status(OrderStatus.ACTIVE)
                 .totalQuantity(quantity)
-                .remainingQuantity(new AtomicReference<>(quantity))
+                .remainingQuantity(quantity)
                 .createdDateTime(LocalDateTime.of(2025, 03, 01, 0, 0, 0))
                 .build();
     }
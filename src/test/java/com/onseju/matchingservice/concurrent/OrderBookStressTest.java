@@ -0,0 +1,152 @@
+package com.onseju.matchingservice.concurrent;
+
+import com.onseju.matchingservice.domain.OrderStatus;
+import com.onseju.matchingservice.domain.Price;
+import com.onseju.matchingservice.domain.TradeOrder;
+import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+import com.onseju.matchingservice.engine.CompanyOrderBook;
+import com.onseju.matchingservice.engine.OrderBook;
+import com.onseju.matchingservice.engine.PriceBand;
+import com.onseju.matchingservice.engine.PriceLadderOrderBookSide;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 여러 스레드가 한 주문장에 지정가, 시장가, 취소 주문을 섞어 보낸 뒤 수량 보존을 확인한다.
+ * 가격 범위를 좁게 잡아 같은 가격대에서 반대 방향 주문이 자주 겹치게 한다.
+ */
+class OrderBookStressTest {
+
+    private static final int THREAD_COUNT = 8;
+    private static final int ORDERS_PER_THREAD = 5_000;
+    private static final long LOWEST_PRICE = 1_000L;
+    private static final int PRICE_LEVELS = 3;
+
+    @Test
+    @DisplayName("스킵 리스트 주문장: 동시에 처리해도 체결 수량과 남은 수량의 합이 주문 수량과 같다.")
+    void conserveQuantityOnSkipListOrderBook() throws Exception {
+        runAndVerify(new CompanyOrderBook());
+    }
+
+    @Test
+    @DisplayName("배열 기반 주문장: 동시에 처리해도 체결 수량과 남은 수량의 합이 주문 수량과 같다.")
+    void conserveQuantityOnPriceLadderOrderBook() throws Exception {
+        PriceBand band = new PriceBand(Price.toScaled(BigDecimal.ONE), 3_000L);
+        runAndVerify(new CompanyOrderBook(PriceLadderOrderBookSide.asks(band), PriceLadderOrderBookSide.bids(band)));
+    }
+
+    private void runAndVerify(OrderBook orderBook) throws Exception {
+        // given
+        Map<Long, TradeOrder> orders = new ConcurrentHashMap<>();
+        List<TradeHistoryEvent> trades = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<TradeHistoryEvent>>> futures = new ArrayList<>();
+
+        // when
+        for (int thread = 0; thread < THREAD_COUNT; thread++) {
+            final int threadIndex = thread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return submitRandomOrders(orderBook, orders, threadIndex);
+            }));
+        }
+        start.countDown();
+        for (Future<List<TradeHistoryEvent>> future : futures) {
+            trades.addAll(future.get(60, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // then
+        Map<Long, Long> filled = new HashMap<>();
+        for (TradeHistoryEvent trade : trades) {
+            filled.merge(trade.buyOrderId(), trade.quantity().longValueExact(), Long::sum);
+            filled.merge(trade.sellOrderId(), trade.quantity().longValueExact(), Long::sum);
+        }
+        for (TradeOrder order : orders.values()) {
+            long expected = order.getTotalQuantity().longValueExact() - order.getRemaining();
+            assertThat(filled.getOrDefault(order.getId(), 0L)).as("주문 %d의 체결 수량", order.getId()).isEqualTo(expected);
+        }
+
+        Set<Long> resting = new HashSet<>();
+        Set<Long> sellPrices = new HashSet<>();
+        Set<Long> buyPrices = new HashSet<>();
+        orderBook.forEachRestingOrder(order -> {
+            assertThat(resting.add(order.getId())).as("주문 %d가 두 번 대기", order.getId()).isTrue();
+            assertThat(order.getRemaining()).isPositive();
+            (order.isSellType() ? sellPrices : buyPrices).add(order.getScaledPrice());
+        });
+        for (TradeOrder order : orders.values()) {
+            boolean shouldRest = !order.isMarketOrder()
+                    && order.getStatus() != OrderStatus.CANCEL
+                    && order.hasRemainingQuantity();
+            assertThat(resting.contains(order.getId())).as("주문 %d의 대기 여부", order.getId()).isEqualTo(shouldRest);
+        }
+        // 매수 최우선 호가가 매도 최우선 호가 이상이면 교차한 주문끼리 매칭을 놓친 것이다.
+        if (!sellPrices.isEmpty() && !buyPrices.isEmpty()) {
+            assertThat(Collections.max(buyPrices)).as("매수 최우선 호가").isLessThan(Collections.min(sellPrices));
+        }
+        assertThat(orderBook.getRestingOrderCount()).isEqualTo(resting.size());
+    }
+
+    private List<TradeHistoryEvent> submitRandomOrders(OrderBook orderBook, Map<Long, TradeOrder> orders, int threadIndex) {
+        Random random = new Random(threadIndex);
+        List<TradeHistoryEvent> trades = new ArrayList<>();
+        List<Long> submitted = new ArrayList<>();
+        for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+            int action = random.nextInt(10);
+            if (action == 0 && !submitted.isEmpty()) {
+                orderBook.cancel(submitted.get(random.nextInt(submitted.size())));
+                continue;
+            }
+            long id = (long) threadIndex * ORDERS_PER_THREAD + i + 1;
+            Type type = switch (action) {
+                case 1 -> Type.MARKET_BUY;
+                case 2 -> Type.MARKET_SELL;
+                default -> action % 2 == 0 ? Type.LIMIT_BUY : Type.LIMIT_SELL;
+            };
+            BigDecimal price = type.isMarket()
+                    ? BigDecimal.ZERO
+                    : BigDecimal.valueOf(LOWEST_PRICE + random.nextInt(PRICE_LEVELS));
+            TradeOrder order = createOrder(id, type, price, BigDecimal.valueOf(1 + random.nextInt(10)));
+            orders.put(id, order);
+            submitted.add(id);
+            trades.addAll(orderBook.received(order));
+        }
+        return trades;
+    }
+
+    private TradeOrder createOrder(Long id, Type type, BigDecimal price, BigDecimal quantity) {
+        return TradeOrder.builder()
+                .id(id)
+                .type(type)
+                .price(price)
+                .accountId(id)
+                .companyCode("005930")
+                .status(OrderStatus.ACTIVE)
+                .totalQuantity(quantity)
+                .remainingQuantity(quantity)
+                .createdDateTime(LocalDateTime.of(2025, 3, 1, 0, 0, 0))
+                .build();
+    }
+}
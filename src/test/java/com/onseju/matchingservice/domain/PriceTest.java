@@ -0,0 +1,43 @@
+package com.onseju.matchingservice.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PriceTest {
+
+    @Test
+    @DisplayName("정수 가격은 지수 표기 없이 소수점 없는 값으로 변환한다.")
+    void toDecimalWithoutExponent() {
+        // when
+        BigDecimal price = Price.toDecimal(1_000_000L);
+
+        // then
+        assertThat(price).isEqualTo(new BigDecimal("10000"));
+        assertThat(price.toString()).isEqualTo("10000");
+        assertThat(Price.toDecimal(0L)).isEqualTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    @DisplayName("소수 가격은 뒤쪽의 0만 지운다.")
+    void toDecimalStripsTrailingZeros() {
+        // then
+        assertThat(Price.toDecimal(1_000_050L)).isEqualTo(new BigDecimal("10000.5"));
+        assertThat(Price.toDecimal(1_000_001L)).isEqualTo(new BigDecimal("10000.01"));
+        assertThat(Price.toScaled(Price.toDecimal(1_000_050L))).isEqualTo(1_000_050L);
+    }
+
+    @Test
+    @DisplayName("소수점 두 자리를 넘는 가격은 IllegalArgumentException으로 거절한다.")
+    void rejectTooManyDecimals() {
+        // then
+        assertThatThrownBy(() -> Price.toScaled(new BigDecimal("10000.001")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("10000.001");
+        assertThat(Price.toScaled(new BigDecimal("10000.010"))).isEqualTo(1_000_001L);
+    }
+}
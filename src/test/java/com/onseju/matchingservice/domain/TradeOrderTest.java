@@ -0,0 +1,70 @@
+package com.onseju.matchingservice.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TradeOrderTest {
+
+    @Test
+    @DisplayName("가격 없이 들어온 시장가 주문은 고정 소수점 가격을 0으로 둔다.")
+    void marketOrderWithoutPrice() {
+        // when
+        TradeOrder order = createOrder(Type.MARKET_BUY, null);
+
+        // then
+        assertThat(order.getScaledPrice()).isEqualTo(0L);
+        assertThat(order.getPrice()).isNull();
+    }
+
+    @Test
+    @DisplayName("가격 없는 지정가 주문과 소수점 두 자리를 넘는 가격은 IllegalArgumentException으로 거절한다.")
+    void rejectInvalidPrice() {
+        // then
+        assertThatThrownBy(() -> createOrder(Type.LIMIT_BUY, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> createOrder(Type.LIMIT_SELL, new BigDecimal("10000.123")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("비어 있거나, 0 이하이거나, 소수인 수량은 입력값을 담은 IllegalArgumentException으로 거절한다.")
+    void rejectInvalidQuantity() {
+        // then
+        assertThatThrownBy(() -> createOrder(Type.LIMIT_BUY, new BigDecimal("10000"), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> createOrder(Type.LIMIT_BUY, new BigDecimal("10000"), BigDecimal.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> createOrder(Type.LIMIT_SELL, new BigDecimal("10000"), new BigDecimal("-3")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("-3");
+        assertThatThrownBy(() -> createOrder(Type.LIMIT_SELL, new BigDecimal("10000"), new BigDecimal("1.5")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("1.5");
+        assertThatThrownBy(() -> createOrder(Type.MARKET_BUY, null, new BigDecimal("1E+20")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private TradeOrder createOrder(Type type, BigDecimal price) {
+        return createOrder(type, price, BigDecimal.ONE);
+    }
+
+    private TradeOrder createOrder(Type type, BigDecimal price, BigDecimal quantity) {
+        return TradeOrder.builder()
+                .id(1L)
+                .type(type)
+                .price(price)
+                .accountId(1L)
+                .companyCode("005930")
+                .status(OrderStatus.ACTIVE)
+                .totalQuantity(quantity)
+                .remainingQuantity(quantity)
+                .createdDateTime(LocalDateTime.of(2025, 3, 1, 0, 0, 0))
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FillBufferTest {
+
+    @Test
+    @DisplayName("용량을 넘으면 늘어나고 기록한 순서대로 읽는다.")
+    void growAndKeepOrder() {
+        // given
+        FillBuffer fills = new FillBuffer(2);
+
+        // when
+        for (long i = 1; i <= 5; i++) {
+            fills.add("005930", i, 10L, 100L + i, 20L, i, new BigDecimal("50000"), 1L);
+        }
+
+        // then
+        assertThat(fills.size()).isEqualTo(5);
+        assertThat(fills.capacity()).isGreaterThanOrEqualTo(5);
+        assertThat(fills.buyOrderIdAt(4)).isEqualTo(5L);
+        assertThat(fills.sellOrderIdAt(4)).isEqualTo(105L);
+        assertThat(fills.quantityAt(2)).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("지정한 위치부터 체결 이벤트로 변환한다.")
+    void convertFromIndex() {
+        // given
+        FillBuffer fills = new FillBuffer();
+        fills.add("005930", 1L, 10L, 2L, 20L, 3L, new BigDecimal("50000"), 7L);
+        fills.add("005930", 3L, 10L, 4L, 20L, 5L, new BigDecimal("50100"), 8L);
+
+        // when
+        List<TradeHistoryEvent> events = fills.toEvents(1);
+
+        // then
+        assertThat(events).hasSize(1);
+        TradeHistoryEvent event = events.get(0);
+        assertThat(event.buyOrderId()).isEqualTo(3L);
+        assertThat(event.sellOrderId()).isEqualTo(4L);
+        assertThat(event.quantity()).isEqualTo(BigDecimal.valueOf(5L));
+        assertThat(event.price()).isEqualTo(new BigDecimal("50100"));
+        assertThat(event.tradeAt()).isEqualTo(8L);
+        assertThat(fills.toEvents(2)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("잘라낸 뒤 다시 기록하면 잘라낸 위치부터 채운다.")
+    void truncateAndReuse() {
+        // given
+        FillBuffer fills = new FillBuffer();
+        fills.add("005930", 1L, 10L, 2L, 20L, 3L, new BigDecimal("50000"), 7L);
+        fills.add("005930", 3L, 10L, 4L, 20L, 5L, new BigDecimal("50100"), 8L);
+
+        // when
+        fills.truncate(1);
+        fills.add("005930", 5L, 10L, 6L, 20L, 1L, new BigDecimal("49900"), 9L);
+
+        // then
+        assertThat(fills.size()).isEqualTo(2);
+        assertThat(fills.buyOrderIdAt(1)).isEqualTo(5L);
+        assertThatThrownBy(() -> fills.truncate(3)).isInstanceOf(IndexOutOfBoundsException.class);
+        fills.clear();
+        assertThat(fills.isEmpty()).isTrue();
+        assertThatThrownBy(() -> fills.buyOrderIdAt(0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
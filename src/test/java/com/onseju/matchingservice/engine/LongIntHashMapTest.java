@@ -0,0 +1,42 @@
+package com.onseju.matchingservice.engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongIntHashMapTest {
+
+    @Test
+    @DisplayName("추가, 조회, 삭제를 반복해도 HashMap과 같은 결과를 반환한다.")
+    void behaveLikeHashMap() {
+        // given
+        LongIntHashMap map = new LongIntHashMap(4, -1);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // when
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(orMissing(expected.remove(key)));
+            } else {
+                assertThat(map.put(key, i)).isEqualTo(orMissing(expected.put(key, i)));
+            }
+        }
+
+        // then
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long key = 0; key < 2_000; key++) {
+            assertThat(map.get(key)).isEqualTo(orMissing(expected.get(key)));
+        }
+    }
+
+    private int orMissing(Integer value) {
+        return value == null ? -1 : value;
+    }
+}
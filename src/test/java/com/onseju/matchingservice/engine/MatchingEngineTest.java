@@ -1,9 +1,22 @@
 package com.onseju.matchingservice.engine;
 
+import com.onseju.matchingservice.config.JournalProperties;
+import com.onseju.matchingservice.config.MatchingEngineProperties;
+import com.onseju.matchingservice.config.OrderBookProperties;
+import com.onseju.matchingservice.config.SnapshotProperties;
+import com.onseju.matchingservice.config.TradeAuditProperties;
+import com.onseju.matchingservice.config.TradeEventPublisherProperties;
 import com.onseju.matchingservice.domain.OrderStatus;
 import com.onseju.matchingservice.domain.TradeOrder;
 import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.dto.CancelOrderRequest;
+import com.onseju.matchingservice.dto.OrderResult;
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
 import com.onseju.matchingservice.factory.OrderBookFactory;
+import com.onseju.matchingservice.journal.EngineSnapshot;
+import com.onseju.matchingservice.journal.OrderJournal;
+import com.onseju.matchingservice.journal.SnapshotStore;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,11 +27,24 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class MatchingEngineTest {
@@ -26,14 +52,32 @@ class MatchingEngineTest {
     @InjectMocks
     private MatchingEngine matchingEngine;
 
-    private OrderBookFactory orderBookFactory = new OrderBookFactory();
+    private OrderBookFactory orderBookFactory = new OrderBookFactory(OrderBookProperties.defaults());
 
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
+    private TradeEventPublisher tradeEventPublisher;
+
     @BeforeEach
     void setUp() {
-        matchingEngine = new MatchingEngine(orderBookFactory, eventPublisher);
+        tradeEventPublisher = new TradeEventPublisher(
+                eventPublisher,
+                new TradeAuditLog(TradeAuditProperties.disabled()),
+                TradeEventPublisherProperties.defaults()
+        );
+        matchingEngine = new MatchingEngine(
+                orderBookFactory,
+                tradeEventPublisher,
+                OrderJournal.disabled(),
+                SnapshotStore.disabled(),
+                MatchingEngineProperties.defaults()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        tradeEventPublisher.close();
     }
 
     @Test
@@ -87,16 +131,507 @@ class MatchingEngineTest {
         assertThat(order3.getType()).isEqualTo(Type.MARKET_BUY);
     }
 
+    @Test
+    @DisplayName("단일 스레드 모드에서 동시에 들어온 주문을 중복 없이 매칭한다")
+    void processOrderInSingleWriterMode() throws Exception {
+        // given
+        MatchingEngine singleWriterEngine = new MatchingEngine(
+                orderBookFactory,
+                tradeEventPublisher,
+                OrderJournal.disabled(),
+                SnapshotStore.disabled(),
+                new MatchingEngineProperties(ExecutionMode.SINGLE_WRITER, 64, 4)
+        );
+        ExecutorService executorService = Executors.newFixedThreadPool(50);
+        List<CompletableFuture<List<TradeHistoryEvent>>> futures = new ArrayList<>();
+
+        // when
+        for (long i = 1; i <= 200; i++) {
+            Type type = i % 2 == 0 ? Type.LIMIT_BUY : Type.LIMIT_SELL;
+            TradeOrder order = createOrder(i, type, new BigDecimal(10000), BigDecimal.ONE, i);
+            futures.add(CompletableFuture.supplyAsync(() -> singleWriterEngine.processOrder(order), executorService)
+                    .thenCompose(future -> future));
+        }
+        List<TradeHistoryEvent> results = new ArrayList<>();
+        for (CompletableFuture<List<TradeHistoryEvent>> future : futures) {
+            results.addAll(future.get(5, TimeUnit.SECONDS));
+        }
+        executorService.shutdown();
+        singleWriterEngine.shutdown();
+
+        // then
+        assertThat(results).isNotEmpty();
+        assertThat(results.stream().map(TradeHistoryEvent::sellOrderId).distinct().count()).isEqualTo((long) results.size());
+        assertThat(results.stream().map(TradeHistoryEvent::buyOrderId).distinct().count()).isEqualTo((long) results.size());
+    }
+
+    @Test
+    @DisplayName("단일 스레드 모드에서는 파티션의 체결 버퍼에 체결을 모아 발행하고, 매칭이 끝나면 버퍼를 비운다")
+    void collectFillsIntoPartitionBuffer() throws Exception {
+        // given
+        MatchingEngine singleWriterEngine = new MatchingEngine(
+                orderBookFactory,
+                tradeEventPublisher,
+                OrderJournal.disabled(),
+                SnapshotStore.disabled(),
+                new MatchingEngineProperties(ExecutionMode.SINGLE_WRITER, 64, 1)
+        );
+        singleWriterEngine.processOrder(createOrder(1L, Type.LIMIT_SELL, new BigDecimal(10000), new BigDecimal(3), 1L))
+                .get(5, TimeUnit.SECONDS);
+
+        // when
+        List<TradeHistoryEvent> results = singleWriterEngine.processOrder(
+                createOrder(2L, Type.LIMIT_BUY, new BigDecimal(10000), new BigDecimal(2), 2L)
+        ).get(5, TimeUnit.SECONDS);
+        singleWriterEngine.shutdown();
+        tradeEventPublisher.close();
+
+        // then
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).quantity()).isEqualTo(new BigDecimal("2"));
+        verify(eventPublisher).publishEvent(results.get(0));
+        assertThat(singleWriterEngine.getPartitions()).allMatch(partition -> partition.getFills().isEmpty());
+    }
+
+    @Test
+    @DisplayName("단일 스레드 모드에서 한 종목의 주문은 모두 같은 파티션의 주문장으로 전달된다")
+    void routeSymbolToSinglePartition() throws Exception {
+        // given
+        MatchingEngine singleWriterEngine = new MatchingEngine(
+                orderBookFactory,
+                tradeEventPublisher,
+                OrderJournal.disabled(),
+                SnapshotStore.disabled(),
+                new MatchingEngineProperties(ExecutionMode.SINGLE_WRITER, 64, 4)
+        );
+        List<String> companyCodes = List.of("005930", "000660", "035420", "035720", "051910", "068270");
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<List<TradeHistoryEvent>>> futures = new ArrayList<>();
+
+        // when: 체결되지 않도록 모두 매도 주문으로 접수
+        for (long i = 1; i <= 120; i++) {
+            TradeOrder order = createOrder(i, companyCodes.get((int) (i % companyCodes.size())), Type.LIMIT_SELL,
+                    new BigDecimal(10000), BigDecimal.ONE, i);
+            futures.add(CompletableFuture.supplyAsync(() -> singleWriterEngine.processOrder(order), executorService)
+                    .thenCompose(future -> future));
+        }
+        for (CompletableFuture<List<TradeHistoryEvent>> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+        singleWriterEngine.shutdown();
+
+        // then
+        for (String companyCode : companyCodes) {
+            List<EnginePartition> owners = singleWriterEngine.getPartitions().stream()
+                    .filter(partition -> partition.getOrderBook(companyCode) != null)
+                    .toList();
+            assertThat(owners).hasSize(1);
+            assertThat(owners.get(0)).isSameAs(singleWriterEngine.getPartition(companyCode));
+            assertThat(owners.get(0).getOrderBook(companyCode).getRestingOrderCount()).isEqualTo(20);
+        }
+    }
+
+    @Test
+    @DisplayName("단일 스레드 모드는 설정한 수만큼, 0이면 CPU 코어 수만큼 파티션을 만들고 잠금 모드는 하나만 사용한다")
+    void createConfiguredPartitionCount() {
+        // given
+        MatchingEngine configured = new MatchingEngine(
+                orderBookFactory, tradeEventPublisher, OrderJournal.disabled(), SnapshotStore.disabled(),
+                new MatchingEngineProperties(ExecutionMode.SINGLE_WRITER, 64, 3)
+        );
+        MatchingEngine byProcessors = new MatchingEngine(
+                orderBookFactory, tradeEventPublisher, OrderJournal.disabled(), SnapshotStore.disabled(),
+                new MatchingEngineProperties(ExecutionMode.SINGLE_WRITER, 64, 0)
+        );
+
+        // when
+        int configuredCount = configured.getPartitions().size();
+        int processorCount = byProcessors.getPartitions().size();
+        configured.shutdown();
+        byProcessors.shutdown();
+
+        // then
+        assertThat(configuredCount).isEqualTo(3);
+        assertThat(processorCount).isEqualTo(Runtime.getRuntime().availableProcessors());
+        assertThat(matchingEngine.getPartitions()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("잠금 모드에서 여러 스레드가 한 종목의 주문을 체결해도 체결 순서대로 이벤트를 발행한다")
+    void publishTradesInFillOrderUnderLocking() throws Exception {
+        // given: 같은 가격에 1주씩 대기 중인 매도 주문은 주문 ID 순서대로 체결된다.
+        int orderCount = 2_000;
+        List<TradeHistoryEvent> published = Collections.synchronizedList(new ArrayList<>());
+        TradeEventPublisher publisher = new TradeEventPublisher(
+                event -> published.add((TradeHistoryEvent) event),
+                new TradeAuditLog(TradeAuditProperties.disabled()),
+                new TradeEventPublisherProperties(1, orderCount * 2, 64)
+        );
+        MatchingEngine engine = new MatchingEngine(
+                orderBookFactory, publisher, OrderJournal.disabled(), SnapshotStore.disabled(), MatchingEngineProperties.defaults()
+        );
+        for (long i = 1; i <= orderCount; i++) {
+            engine.processOrder(createOrder(i, Type.LIMIT_SELL, new BigDecimal(10000), BigDecimal.ONE, 1L));
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+
+        // when
+        for (long i = 1; i <= orderCount; i++) {
+            TradeOrder order = createOrder(orderCount + i, Type.LIMIT_BUY, new BigDecimal(10000), BigDecimal.ONE, 2L);
+            futures.add(CompletableFuture.supplyAsync(() -> engine.processOrder(order), executorService)
+                    .thenCompose(future -> future));
+        }
+        for (CompletableFuture<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+        publisher.close();
+
+        // then
+        List<Long> sellOrderIds;
+        synchronized (published) {
+            sellOrderIds = published.stream().map(TradeHistoryEvent::sellOrderId).toList();
+        }
+        assertThat(sellOrderIds).hasSize(orderCount).isSorted();
+    }
+
+    @Test
+    @DisplayName("여러 종목의 주문을 한 번에 처리하고 입력 순서대로 결과를 반환한다")
+    void processOrdersInBatch() throws Exception {
+        // given
+        MatchingEngine singleWriterEngine = new MatchingEngine(
+                orderBookFactory,
+                tradeEventPublisher,
+                OrderJournal.disabled(),
+                SnapshotStore.disabled(),
+                new MatchingEngineProperties(ExecutionMode.SINGLE_WRITER, 64, 2)
+        );
+        List<TradeOrder> orders = List.of(
+                createOrder(1L, Type.LIMIT_SELL, new BigDecimal(10000), new BigDecimal(5), 1L),
+                createOrder(2L, "000660", Type.LIMIT_SELL, new BigDecimal(20000), new BigDecimal(3), 1L),
+                createOrder(3L, Type.LIMIT_BUY, new BigDecimal(10000), new BigDecimal(2), 2L),
+                createOrder(4L, "000660", Type.LIMIT_BUY, new BigDecimal(20000), new BigDecimal(3), 2L)
+        );
+
+        // when
+        List<OrderResult> results = singleWriterEngine.processOrders(orders).get(5, TimeUnit.SECONDS);
+        singleWriterEngine.shutdown();
+
+        // then
+        assertThat(results).hasSize(4);
+        assertThat(results.stream().map(OrderResult::orderId).toList()).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(results.get(0).trades()).isEmpty();
+        assertThat(results.get(2).trades()).hasSize(1);
+        assertThat(results.get(2).trades().get(0).sellOrderId()).isEqualTo(1L);
+        assertThat(results.get(3).trades()).hasSize(1);
+        assertThat(results.get(3).trades().get(0).companyCode()).isEqualTo("000660");
+    }
+
+    @Test
+    @DisplayName("묶음 중간의 주문이 거절되어도 나머지 주문을 처리하고 거절 사유를 해당 결과에 담는다")
+    void processOrdersWithRejectedOrder() throws Exception {
+        // given
+        MatchingEngine ladderEngine = new MatchingEngine(
+                new OrderBookFactory(ladderProperties()),
+                tradeEventPublisher,
+                OrderJournal.disabled(),
+                SnapshotStore.disabled(),
+                MatchingEngineProperties.defaults()
+        );
+        List<TradeOrder> orders = List.of(
+                createOrder(1L, Type.LIMIT_SELL, new BigDecimal(10000), new BigDecimal(5), 1L),
+                // 호가 단위(1원)에 맞지 않는 가격
+                createOrder(2L, Type.LIMIT_SELL, new BigDecimal("10000.5"), new BigDecimal(5), 1L),
+                createOrder(3L, Type.LIMIT_BUY, new BigDecimal(10000), new BigDecimal(2), 2L),
+                createOrder(4L, "000660", Type.LIMIT_SELL, new BigDecimal(20000), new BigDecimal(3), 1L)
+        );
+
+        // when
+        List<OrderResult> results = ladderEngine.processOrders(orders).get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(results.stream().map(OrderResult::orderId).toList()).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(results.get(0).isRejected()).isFalse();
+        assertThat(results.get(1).isRejected()).isTrue();
+        assertThat(results.get(1).error()).contains("10000.5");
+        assertThat(results.get(1).trades()).isEmpty();
+        assertThat(results.get(2).trades()).hasSize(1);
+        assertThat(results.get(2).trades().get(0).sellOrderId()).isEqualTo(1L);
+        assertThat(results.get(3).isRejected()).isFalse();
+        assertThat(ladderEngine.getDepth("000660").isPresent()).isTrue();
+    }
+
+    @Test
+    @DisplayName("묶음 안에 종목 코드가 없는 주문이 있으면 그 주문만 거절하고 나머지 주문을 처리한다")
+    void processOrdersWithMissingCompanyCode() throws Exception {
+        // given
+        MatchingEngine singleWriterEngine = new MatchingEngine(
+                orderBookFactory,
+                tradeEventPublisher,
+                OrderJournal.disabled(),
+                SnapshotStore.disabled(),
+                new MatchingEngineProperties(ExecutionMode.SINGLE_WRITER, 64, 4)
+        );
+        List<TradeOrder> orders = List.of(
+                createOrder(1L, Type.LIMIT_SELL, new BigDecimal(10000), new BigDecimal(5), 1L),
+                createOrder(2L, null, Type.LIMIT_SELL, new BigDecimal(10000), new BigDecimal(5), 1L),
+                createOrder(3L, " ", Type.LIMIT_SELL, new BigDecimal(10000), new BigDecimal(5), 1L),
+                createOrder(4L, Type.LIMIT_BUY, new BigDecimal(10000), new BigDecimal(2), 2L)
+        );
+
+        // when
+        List<OrderResult> results = singleWriterEngine.processOrders(orders).get(5, TimeUnit.SECONDS);
+        singleWriterEngine.shutdown();
+
+        // then
+        assertThat(results.stream().map(OrderResult::orderId).toList()).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(results.get(1).isRejected()).isTrue();
+        assertThat(results.get(2).isRejected()).isTrue();
+        assertThat(results.get(3).trades()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("체결 이벤트 발행이 밀린 종목의 주문은 매칭하기 전에 거절한다")
+    void rejectOrdersWhilePublisherBacklogged() throws Exception {
+        // given: 발행 큐 한도가 1이고, 소비 스레드는 첫 체결 이벤트를 꺼낸 채 멈춰 있다.
+        CountDownLatch delivering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TradeEventPublisher slowPublisher = new TradeEventPublisher(
+                event -> {
+                    delivering.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                },
+                new TradeAuditLog(TradeAuditProperties.disabled()),
+                new TradeEventPublisherProperties(1, 1, 1)
+        );
+        MatchingEngine engine = new MatchingEngine(
+                orderBookFactory, slowPublisher, OrderJournal.disabled(), SnapshotStore.disabled(), MatchingEngineProperties.defaults()
+        );
+        engine.processOrder(createOrder(1L, Type.LIMIT_SELL, new BigDecimal(10000), new BigDecimal(2), 1L));
+        engine.processOrder(createOrder(2L, Type.LIMIT_BUY, new BigDecimal(10000), new BigDecimal(1), 2L));
+        delivering.await(5, TimeUnit.SECONDS);
+        List<TradeOrder> orders = List.of(
+                createOrder(3L, Type.LIMIT_BUY, new BigDecimal(10000), new BigDecimal(1), 2L),
+                createOrder(4L, Type.LIMIT_SELL, new BigDecimal(10100), new BigDecimal(1), 1L)
+        );
+
+        // when
+        List<OrderResult> results = engine.processOrders(orders).get(5, TimeUnit.SECONDS);
+        int restingOrders = engine.getPartition("005930").getOrderBook("005930").getRestingOrderCount();
+        release.countDown();
+        slowPublisher.close();
+
+        // then: 3번 주문의 체결 이벤트가 큐에 쌓인 뒤 들어온 4번 주문은 주문장에 적용되지 않는다.
+        assertThat(results.get(0).trades()).hasSize(1);
+        assertThat(results.get(1).isRejected()).isTrue();
+        assertThat(results.get(1).trades()).isEmpty();
+        assertThat(restingOrders).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("저널을 재생해 재시작 전의 대기 주문을 복구한다")
+    void recoverOrderBooksFromJournal() throws Exception {
+        // given
+        JournalProperties journalProperties = new JournalProperties(
+                true, Files.createTempDirectory("matching-journal").toString(), 1024 * 1024, 5L
+        );
+        OrderJournal journal = new OrderJournal(journalProperties);
+        MatchingEngine engine = new MatchingEngine(
+                orderBookFactory, tradeEventPublisher, journal, SnapshotStore.disabled(), MatchingEngineProperties.defaults()
+        );
+        engine.processOrder(createOrder(1L, Type.LIMIT_SELL, new BigDecimal(10000), new BigDecimal(5), 1L));
+        engine.processOrder(createOrder(2L, Type.LIMIT_SELL, new BigDecimal(10000), new BigDecimal(5), 1L));
+        engine.cancelOrder(new CancelOrderRequest("005930", 1L));
+        engine.processOrder(createOrder(3L, Type.LIMIT_BUY, new BigDecimal(10000), new BigDecimal(2), 2L));
+        engine.shutdown();
+        journal.close();
+
+        // when
+        OrderJournal recoveredJournal = new OrderJournal(journalProperties);
+        MatchingEngine recovered = new MatchingEngine(
+                orderBookFactory, tradeEventPublisher, recoveredJournal, SnapshotStore.disabled(), MatchingEngineProperties.defaults()
+        );
+        List<TradeHistoryEvent> results = recovered.processOrder(
+                createOrder(4L, Type.LIMIT_BUY, new BigDecimal(10000), new BigDecimal(10), 2L)
+        ).get(5, TimeUnit.SECONDS);
+        recoveredJournal.close();
+
+        // then
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).sellOrderId()).isEqualTo(2L);
+        assertThat(results.get(0).quantity()).isEqualTo(new BigDecimal("3"));
+    }
+
+    @Test
+    @DisplayName("스냅샷으로 주문장을 복원한 뒤 스냅샷 이후의 저널만 재생한다")
+    void recoverFromSnapshotAndJournalTail() throws Exception {
+        // given
+        JournalProperties journalProperties = new JournalProperties(
+                true, Files.createTempDirectory("matching-journal").toString(), 1024 * 1024, 5L
+        );
+        SnapshotProperties snapshotProperties = new SnapshotProperties(
+                true, Files.createTempDirectory("matching-snapshot").toString(), 300L, 1_000_000L
+        );
+        MatchingEngineProperties engineProperties = new MatchingEngineProperties(ExecutionMode.SINGLE_WRITER, 64, 2);
+        OrderJournal journal = new OrderJournal(journalProperties);
+        SnapshotStore snapshotStore = new SnapshotStore(snapshotProperties, journalProperties);
+        MatchingEngine engine = new MatchingEngine(
+                orderBookFactory, tradeEventPublisher, journal, snapshotStore, engineProperties
+        );
+        engine.processOrder(createOrder(1L, Type.LIMIT_SELL, new BigDecimal(10000), new BigDecimal(5), 1L));
+        engine.processOrder(createOrder(2L, Type.LIMIT_SELL, new BigDecimal(10100), new BigDecimal(5), 1L));
+        engine.processOrder(createOrder(3L, "000660", Type.LIMIT_BUY, new BigDecimal(20000), new BigDecimal(5), 3L));
+        engine.processOrder(createOrder(4L, Type.LIMIT_BUY, new BigDecimal(10000), new BigDecimal(2), 2L))
+                .get(5, TimeUnit.SECONDS);
+        SnapshotScheduler scheduler = new SnapshotScheduler(engine, journal, snapshotStore, snapshotProperties);
+        EngineSnapshot snapshot = scheduler.takeSnapshot();
+        engine.cancelOrder(new CancelOrderRequest("005930", 2L)).get(5, TimeUnit.SECONDS);
+        engine.shutdown();
+        journal.close();
+
+        // when
+        OrderJournal recoveredJournal = new OrderJournal(journalProperties);
+        MatchingEngine recovered = new MatchingEngine(
+                orderBookFactory, tradeEventPublisher, recoveredJournal, snapshotStore, engineProperties
+        );
+        List<TradeHistoryEvent> results = recovered.processOrder(
+                createOrder(5L, Type.LIMIT_BUY, new BigDecimal(10000), new BigDecimal(10), 2L)
+        ).get(5, TimeUnit.SECONDS);
+        List<TradeHistoryEvent> canceledResults = recovered.processOrder(
+                createOrder(7L, Type.LIMIT_SELL, new BigDecimal(10100), new BigDecimal(1), 5L)
+        ).thenCompose(ignored -> recovered.processOrder(
+                createOrder(8L, Type.LIMIT_BUY, new BigDecimal(10100), new BigDecimal(1), 2L)
+        )).get(5, TimeUnit.SECONDS);
+        List<TradeHistoryEvent> otherResults = recovered.processOrder(
+                createOrder(6L, "000660", Type.LIMIT_SELL, new BigDecimal(20000), new BigDecimal(5), 4L)
+        ).get(5, TimeUnit.SECONDS);
+        recovered.shutdown();
+        recoveredJournal.close();
+
+        // then
+        assertThat(snapshot.images()).hasSize(2);
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).sellOrderId()).isEqualTo(1L);
+        assertThat(results.get(0).quantity()).isEqualTo(new BigDecimal("3"));
+        assertThat(canceledResults).hasSize(1);
+        assertThat(canceledResults.get(0).sellOrderId()).isEqualTo(7L);
+        assertThat(otherResults).hasSize(1);
+        assertThat(otherResults.get(0).buyOrderId()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("배열 기반 주문장은 스냅샷의 호가 범위로 복원하므로, 첫 복원 주문이 기준가가 아니어도 모든 대기 주문을 복원한다")
+    void recoverPriceLadderWithOriginalBand() throws Exception {
+        // given: 50,000원으로 정한 범위는 [35,000, 65,000]이고, 60,000원 매도와 40,000원 매수가 대기 중이다.
+        JournalProperties journalProperties = new JournalProperties(
+                true, Files.createTempDirectory("matching-journal").toString(), 1024 * 1024, 5L
+        );
+        SnapshotProperties snapshotProperties = new SnapshotProperties(
+                true, Files.createTempDirectory("matching-snapshot").toString(), 300L, 1_000_000L
+        );
+        OrderBookFactory ladderFactory = new OrderBookFactory(ladderProperties());
+        OrderJournal journal = new OrderJournal(journalProperties);
+        SnapshotStore snapshotStore = new SnapshotStore(snapshotProperties, journalProperties);
+        MatchingEngine engine = new MatchingEngine(
+                ladderFactory, tradeEventPublisher, journal, snapshotStore, MatchingEngineProperties.defaults()
+        );
+        engine.processOrder(createOrder(1L, Type.LIMIT_SELL, new BigDecimal(50000), new BigDecimal(1), 1L));
+        engine.processOrder(createOrder(2L, Type.LIMIT_BUY, new BigDecimal(50000), new BigDecimal(1), 2L));
+        engine.processOrder(createOrder(3L, Type.LIMIT_SELL, new BigDecimal(60000), new BigDecimal(1), 1L));
+        engine.processOrder(createOrder(4L, Type.LIMIT_BUY, new BigDecimal(40000), new BigDecimal(1), 2L));
+        new SnapshotScheduler(engine, journal, snapshotStore, snapshotProperties).takeSnapshot();
+        engine.shutdown();
+        journal.close();
+
+        // when: 매도 60,000원이 먼저 복원되어도 범위를 [42,000, 78,000]으로 다시 정하지 않는다.
+        OrderJournal recoveredJournal = new OrderJournal(journalProperties);
+        MatchingEngine recovered = new MatchingEngine(
+                new OrderBookFactory(ladderProperties()), tradeEventPublisher, recoveredJournal, snapshotStore,
+                MatchingEngineProperties.defaults()
+        );
+        BookDepth depth = recovered.captureDepth("005930", 10).orElseThrow();
+        PriceBand band = recovered.getPartition("005930").getOrderBook("005930").getPriceBand();
+        recoveredJournal.close();
+
+        // then
+        assertThat(depth.asks().priceAt(0)).isEqualTo(6_000_000L);
+        assertThat(depth.bids().priceAt(0)).isEqualTo(4_000_000L);
+        assertThat(band.getLowestPrice()).isEqualTo(3_500_000L);
+        assertThat(band.getLevelCount()).isEqualTo(30_001);
+    }
+
+    @Test
+    @DisplayName("최신 스냅샷이 손상되면 이전 스냅샷과 그 이후의 저널로 복구하고, 마지막 체결가도 복원한다")
+    void recoverFromOlderSnapshotWhenLatestIsCorrupted() throws Exception {
+        // given: 세그먼트를 작게 잡아 스냅샷마다 저널 세그먼트가 정리될 수 있게 한다.
+        JournalProperties journalProperties = new JournalProperties(
+                true, Files.createTempDirectory("matching-journal").toString(), 256, 5L
+        );
+        Path snapshotDirectory = Files.createTempDirectory("matching-snapshot");
+        SnapshotProperties snapshotProperties = new SnapshotProperties(
+                true, snapshotDirectory.toString(), 300L, 1_000_000L
+        );
+        OrderJournal journal = new OrderJournal(journalProperties);
+        SnapshotStore snapshotStore = new SnapshotStore(snapshotProperties, journalProperties);
+        MatchingEngine engine = new MatchingEngine(
+                orderBookFactory, tradeEventPublisher, journal, snapshotStore, MatchingEngineProperties.defaults()
+        );
+        SnapshotScheduler scheduler = new SnapshotScheduler(engine, journal, snapshotStore, snapshotProperties);
+        engine.processOrder(createOrder(1L, Type.LIMIT_SELL, new BigDecimal(10000), new BigDecimal(5), 1L));
+        engine.processOrder(createOrder(2L, Type.LIMIT_BUY, new BigDecimal(10000), new BigDecimal(1), 2L));
+        scheduler.takeSnapshot();
+        for (long id = 3L; id <= 10L; id++) {
+            engine.processOrder(createOrder(id, Type.LIMIT_SELL, new BigDecimal(10100), new BigDecimal(1), 1L));
+        }
+        scheduler.takeSnapshot();
+        engine.shutdown();
+        journal.close();
+        try (Stream<Path> snapshots = Files.list(snapshotDirectory)) {
+            Path latest = snapshots.max(Comparator.naturalOrder()).orElseThrow();
+            Files.write(latest, new byte[]{0}, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        // when
+        OrderJournal recoveredJournal = new OrderJournal(journalProperties);
+        MatchingEngine recovered = new MatchingEngine(
+                orderBookFactory, tradeEventPublisher, recoveredJournal, snapshotStore, MatchingEngineProperties.defaults()
+        );
+        int restingOrders = recovered.getPartition("005930").getOrderBook("005930").getRestingOrderCount();
+        TickerSnapshot ticker = recovered.getTicker("005930").orElseThrow();
+        recovered.shutdown();
+        recoveredJournal.close();
+
+        // then
+        assertThat(restingOrders).isEqualTo(9);
+        assertThat(ticker.lastPrice()).isEqualTo(1_000_000L);
+    }
+
+    private OrderBookProperties ladderProperties() {
+        return new OrderBookProperties(
+                OrderBookType.PRICE_LADDER, BigDecimal.ONE, new BigDecimal("0.30"), 10, 0, BigDecimal.ZERO, 1024, SelfTradePrevention.SKIP
+        );
+    }
+
     private TradeOrder createOrder(Long id, Type type, BigDecimal price, BigDecimal quantity, Long accountId) {
+        return createOrder(id, "005930", type, price, quantity, accountId);
+    }
+
+    private TradeOrder createOrder(Long id, String companyCode, Type type, BigDecimal price, BigDecimal quantity, Long accountId) {
         return TradeOrder.builder()
                 .id(id)
                 .type(type)
                 .price(price)
                 .accountId(accountId)
-                .companyCode("005930")
+                .companyCode(companyCode)
                 .status(OrderStatus.ACTIVE)
                 .totalQuantity(quantity)
-                .remainingQuantity(new AtomicReference<>(quantity))
+                .remainingQuantity(quantity)
                 .createdDateTime(LocalDateTime.of(2025, 03, 01, 0, 0, 0))
                 .build();
     }
@@ -0,0 +1,225 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.domain.OrderStatus;
+import com.onseju.matchingservice.domain.TradeOrder;
+import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.dto.AmendOrderRequest;
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapOrderBookTest {
+
+    private final OffHeapOrderBook orderBook = new OffHeapOrderBook(
+            "005930",
+            10,
+            OrderBookListener.NO_OP,
+            OrderBookMetrics.NO_OP,
+            MarketOrderProtection.NONE,
+            SelfTradePrevention.SKIP,
+            4
+    );
+
+    @Test
+    @DisplayName("같은 가격대의 대기 주문과 도착 순서대로 체결하고, 남은 수량을 대기시킨다.")
+    void matchInArrivalOrderAndRestRemainder() {
+        // given
+        orderBook.received(createOrder(1L, Type.LIMIT_SELL, "50000", 3L, 1L));
+        orderBook.received(createOrder(2L, Type.LIMIT_SELL, "50000", 4L, 2L));
+
+        // when
+        TradeOrder buyOrder = createOrder(3L, Type.LIMIT_BUY, "50000", 10L, 3L);
+        List<TradeHistoryEvent> results = orderBook.received(buyOrder);
+
+        // then
+        assertThat(results.stream().map(TradeHistoryEvent::sellOrderId).toList()).containsExactly(1L, 2L);
+        assertThat(results.get(0).sellAccountId()).isEqualTo(1L);
+        assertThat(results.get(1).quantity()).isEqualByComparingTo(new BigDecimal("4"));
+        assertThat(buyOrder.getRemaining()).isEqualTo(3L);
+        assertThat(orderBook.getRestingOrderCount()).isEqualTo(1);
+        assertThat(orderBook.getRecordCount()).isEqualTo(1);
+        BookDepth depth = orderBook.getDepth();
+        assertThat(depth.asks().isEmpty()).isTrue();
+        assertThat(depth.bids().quantityAt(0)).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("시장가 주문은 최우선 호가부터 여러 가격대를 체결하고, 비워진 가격대를 제거한다.")
+    void sweepLevelsWithMarketOrder() {
+        // given
+        orderBook.received(createOrder(1L, Type.LIMIT_SELL, "50100", 5L, 1L));
+        orderBook.received(createOrder(2L, Type.LIMIT_SELL, "50000", 2L, 1L));
+
+        // when
+        List<TradeHistoryEvent> results = orderBook.received(createOrder(3L, Type.MARKET_BUY, "0", 4L, 2L));
+
+        // then
+        assertThat(results.stream().map(TradeHistoryEvent::sellOrderId).toList()).containsExactly(2L, 1L);
+        assertThat(results.get(0).price()).isEqualByComparingTo(new BigDecimal("50000"));
+        assertThat(results.get(1).price()).isEqualByComparingTo(new BigDecimal("50100"));
+        BookDepth depth = orderBook.captureDepth(10);
+        assertThat(depth.asks().size()).isEqualTo(1);
+        assertThat(depth.asks().quantityAt(0)).isEqualTo(3L);
+        assertThat(orderBook.getTicker().volume()).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("취소와 정정은 레코드로 대기 주문을 찾아 처리하고, 수량 감소 정정은 대기 순서를 유지한다.")
+    void cancelAndAmend() {
+        // given
+        orderBook.received(createOrder(1L, Type.LIMIT_SELL, "50000", 5L, 1L));
+        orderBook.received(createOrder(2L, Type.LIMIT_SELL, "50000", 5L, 2L));
+        orderBook.received(createOrder(3L, Type.LIMIT_SELL, "50000", 5L, 3L));
+
+        // when
+        boolean canceled = orderBook.cancel(2L);
+        Optional<List<TradeHistoryEvent>> reduced = orderBook.amend(new AmendOrderRequest("005930", 1L, new BigDecimal("2"), null));
+        Optional<List<TradeHistoryEvent>> missing = orderBook.amend(new AmendOrderRequest("005930", 99L, BigDecimal.ONE, null));
+        List<TradeHistoryEvent> results = orderBook.received(createOrder(4L, Type.LIMIT_BUY, "50000", 4L, 4L));
+
+        // then
+        assertThat(canceled).isTrue();
+        assertThat(orderBook.cancel(2L)).isFalse();
+        assertThat(reduced.isPresent()).isTrue();
+        assertThat(missing.isPresent()).isFalse();
+        assertThat(results.stream().map(TradeHistoryEvent::sellOrderId).toList()).containsExactly(1L, 3L);
+        assertThat(results.get(0).quantity()).isEqualByComparingTo(new BigDecimal("2"));
+        assertThat(orderBook.getRestingOrderCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("가격 정정은 기존 레코드를 해제하고 새 가격으로 다시 접수해 체결한다.")
+    void amendPriceResubmitsOrder() {
+        // given
+        orderBook.received(createOrder(1L, Type.LIMIT_SELL, "50100", 5L, 1L));
+        orderBook.received(createOrder(2L, Type.LIMIT_BUY, "50000", 3L, 2L));
+
+        // when
+        Optional<List<TradeHistoryEvent>> results = orderBook.amend(
+                new AmendOrderRequest("005930", 1L, null, new BigDecimal("50000"))
+        );
+
+        // then
+        assertThat(results.isPresent()).isTrue();
+        assertThat(results.get()).hasSize(1);
+        assertThat(results.get().get(0).companyCode()).isEqualTo("005930");
+        assertThat(results.get().get(0).buyOrderId()).isEqualTo(2L);
+        assertThat(orderBook.getDepth().asks().priceAt(0)).isEqualTo(5_000_000L);
+        assertThat(orderBook.getDepth().asks().quantityAt(0)).isEqualTo(2L);
+        assertThat(orderBook.getRecordCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("스냅샷으로 읽은 대기 주문을 다른 주문장에 복원하면 같은 가격대와 순서로 체결된다.")
+    void restoreFromRestingOrders() {
+        // given
+        LocalDateTime createdDateTime = LocalDateTime.of(2025, 3, 1, 9, 0, 0, 123_456_789);
+        orderBook.received(createOrder(1L, Type.LIMIT_SELL, "50000", 5L, 1L, createdDateTime));
+        orderBook.received(createOrder(2L, Type.LIMIT_SELL, "50000", 5L, 2L, createdDateTime));
+        orderBook.received(createOrder(3L, Type.LIMIT_BUY, "49900", 7L, 3L, createdDateTime));
+        List<TradeOrder> restingOrders = new ArrayList<>();
+        orderBook.forEachRestingOrder(restingOrders::add);
+
+        // when
+        OffHeapOrderBook restored = new OffHeapOrderBook("005930");
+        restingOrders.forEach(restored::restore);
+        List<TradeHistoryEvent> results = restored.received(createOrder(4L, Type.LIMIT_BUY, "50000", 6L, 4L));
+
+        // then
+        assertThat(restingOrders.stream().map(TradeOrder::getId).toList()).containsExactly(1L, 2L, 3L);
+        assertThat(restingOrders.get(0).getCreatedDateTime()).isEqualTo(createdDateTime);
+        assertThat(restingOrders.get(2).getType()).isEqualTo(Type.LIMIT_BUY);
+        assertThat(restingOrders.get(2).getStatus()).isEqualTo(OrderStatus.ACTIVE);
+        assertThat(results.stream().map(TradeHistoryEvent::sellOrderId).toList()).containsExactly(1L, 2L);
+        assertThat(restored.getRestingOrderCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("체결이나 취소로 해제된 레코드를 다음 대기 주문에 다시 사용한다.")
+    void reuseFreedRecords() {
+        // given: 청크 크기(4)보다 많은 주문을 대기시킨 뒤 모두 체결
+        for (long id = 1; id <= 6; id++) {
+            orderBook.received(createOrder(id, Type.LIMIT_SELL, "50000", 1L, id));
+        }
+        orderBook.received(createOrder(7L, Type.LIMIT_BUY, "50000", 6L, 99L));
+
+        // when
+        for (long id = 8; id <= 13; id++) {
+            orderBook.received(createOrder(id, Type.LIMIT_SELL, "50000", 1L, id));
+        }
+
+        // then
+        assertThat(orderBook.getRecordCount()).isEqualTo(6);
+        assertThat(orderBook.getDepth().asks().orderCountAt(0)).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("CANCEL_OLDEST: 같은 계정의 대기 레코드를 취소하고 다음 주문과 체결한다.")
+    void cancelOldestOwnRecord() {
+        // given
+        OffHeapOrderBook book = new OffHeapOrderBook(
+                "005930", 10, OrderBookListener.NO_OP, OrderBookMetrics.NO_OP,
+                MarketOrderProtection.NONE, SelfTradePrevention.CANCEL_OLDEST, 4
+        );
+        book.received(createOrder(1L, Type.LIMIT_SELL, "50000", 5L, 1L));
+        book.received(createOrder(2L, Type.LIMIT_SELL, "50000", 5L, 2L));
+
+        // when
+        List<TradeHistoryEvent> results = book.received(createOrder(3L, Type.LIMIT_BUY, "50000", 5L, 1L));
+
+        // then
+        assertThat(results.stream().map(TradeHistoryEvent::sellOrderId).toList()).containsExactly(2L);
+        assertThat(book.cancel(1L)).isFalse();
+        assertThat(book.getRecordCount()).isEqualTo(0);
+        assertThat(book.getDepth().asks().isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("SKIP: 같은 계정의 대기 주문은 건너뛰고, 가격대에 자기 주문만 남으면 체결하지 않는다.")
+    void skipOwnRecordsByAccountCount() {
+        // given
+        orderBook.received(createOrder(1L, Type.LIMIT_SELL, "50000", 2L, 1L));
+        orderBook.received(createOrder(2L, Type.LIMIT_SELL, "50000", 2L, 2L));
+        orderBook.received(createOrder(3L, Type.LIMIT_SELL, "50000", 2L, 1L));
+
+        // when
+        TradeOrder buyOrder = createOrder(4L, Type.LIMIT_BUY, "50000", 5L, 1L);
+        List<TradeHistoryEvent> results = orderBook.received(buyOrder);
+        List<TradeHistoryEvent> ownOnly = orderBook.received(createOrder(5L, Type.MARKET_BUY, "0", 1L, 1L));
+
+        // then
+        assertThat(results.stream().map(TradeHistoryEvent::sellOrderId).toList()).containsExactly(2L);
+        assertThat(ownOnly.isEmpty()).isTrue();
+        assertThat(orderBook.cancel(4L)).isTrue();
+        assertThat(orderBook.cancel(1L)).isTrue();
+        List<TradeHistoryEvent> afterCancel = orderBook.received(createOrder(6L, Type.LIMIT_BUY, "50000", 2L, 2L));
+        assertThat(afterCancel.stream().map(TradeHistoryEvent::sellOrderId).toList()).containsExactly(3L);
+        assertThat(orderBook.getRestingOrderCount()).isEqualTo(0);
+    }
+
+    private TradeOrder createOrder(Long id, Type type, String price, long quantity, Long accountId) {
+        return createOrder(id, type, price, quantity, accountId, LocalDateTime.of(2025, 3, 1, 0, 0, 0));
+    }
+
+    private TradeOrder createOrder(Long id, Type type, String price, long quantity, Long accountId, LocalDateTime createdDateTime) {
+        return TradeOrder.builder()
+                .id(id)
+                .type(type)
+                .price(new BigDecimal(price))
+                .accountId(accountId)
+                .companyCode("005930")
+                .status(OrderStatus.ACTIVE)
+                .totalQuantity(BigDecimal.valueOf(quantity))
+                .remainingQuantity(BigDecimal.valueOf(quantity))
+                .createdDateTime(createdDateTime)
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.onseju.matchingservice.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class OrderSequencerTest {
+
+    private final OrderSequencer sequencer = new OrderSequencer("test-sequencer", 8);
+
+    @AfterEach
+    void tearDown() {
+        sequencer.close();
+    }
+
+    @Test
+    @DisplayName("전달된 작업을 시퀀스 순서대로 실행한다.")
+    void executeTasksInSubmissionOrder() throws Exception {
+        // given
+        List<Integer> executed = new ArrayList<>();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+        // when: 버퍼 크기보다 많은 작업 전달
+        for (int i = 0; i < 100; i++) {
+            final int value = i;
+            futures.add(sequencer.submit(() -> {
+                executed.add(value);
+                return value;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        // then
+        for (int i = 0; i < 100; i++) {
+            assertThat(futures.get(i).get()).isEqualTo(i);
+            assertThat(executed.get(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    @DisplayName("여러 스레드에서 전달된 작업을 하나의 스레드에서 모두 실행한다.")
+    void executeConcurrentSubmissionsOnSingleThread() throws Exception {
+        // given
+        int taskCount = 1000;
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        CountDownLatch latch = new CountDownLatch(taskCount);
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < taskCount; i++) {
+            executorService.execute(() -> {
+                CompletableFuture<String> future = sequencer.submit(() -> Thread.currentThread().getName());
+                synchronized (futures) {
+                    futures.add(future);
+                }
+                latch.countDown();
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+
+        // then
+        assertThat(futures).hasSize(taskCount);
+        for (CompletableFuture<String> future : futures) {
+            assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("test-sequencer");
+        }
+    }
+
+    @Test
+    @DisplayName("작업 중 발생한 예외는 future로 전달된다.")
+    void completeExceptionallyWhenTaskFails() {
+        // when
+        CompletableFuture<Object> future = sequencer.submit(() -> {
+            throw new IllegalStateException("failure");
+        });
+
+        // then
+        assertThatExceptionOfType(ExecutionException.class)
+                .isThrownBy(() -> future.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("종료와 동시에 전달된 작업도 실행되거나 실패로 완료된다.")
+    void completeEverySubmissionRacingWithClose() throws Exception {
+        // given
+        OrderSequencer racing = new OrderSequencer("racing-sequencer", 2);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        CountDownLatch started = new CountDownLatch(8);
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 8; i++) {
+            executorService.execute(() -> {
+                started.countDown();
+                for (int j = 0; j < 1000; j++) {
+                    CompletableFuture<Integer> future = racing.submit(() -> 1);
+                    synchronized (futures) {
+                        futures.add(future);
+                    }
+                }
+            });
+        }
+        started.await();
+        racing.close();
+        executorService.shutdown();
+        assertThat(executorService.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        // then
+        assertThat(CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .handle((ignored, e) -> true)
+                .get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(futures).allMatch(CompletableFuture::isDone);
+    }
+}
@@ -0,0 +1,231 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.domain.OrderStatus;
+import com.onseju.matchingservice.domain.TradeOrder;
+import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStorageTest {
+
+    private final OrderStorage orderStorage = new OrderStorage();
+
+    @Test
+    @DisplayName("주문 추가와 체결에 따라 잔량 합계와 주문 수를 유지한다.")
+    void maintainAggregatesOnAddAndMatch() {
+        // given
+        orderStorage.add(createOrder(1L, Type.LIMIT_SELL, 5L, 1L));
+        orderStorage.add(createOrder(2L, Type.LIMIT_SELL, 7L, 1L));
+
+        // when
+        List<TradeHistoryEvent> results = orderStorage.match(createOrder(3L, Type.LIMIT_BUY, 8L, 2L));
+
+        // then
+        assertThat(results).hasSize(2);
+        assertThat(orderStorage.getTotalQuantity()).isEqualTo(4L);
+        assertThat(orderStorage.getOrderCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("핸들로 큐 중간의 주문을 제거해도 도착 순서가 유지된다.")
+    void removeByHandleKeepsArrivalOrder() {
+        // given
+        TradeOrder first = createOrder(1L, Type.LIMIT_SELL, 5L, 1L);
+        TradeOrder second = createOrder(2L, Type.LIMIT_SELL, 5L, 1L);
+        TradeOrder third = createOrder(3L, Type.LIMIT_SELL, 5L, 1L);
+        orderStorage.add(first);
+        RestingOrder handle = orderStorage.add(second);
+        orderStorage.add(third);
+
+        // when
+        boolean removed = orderStorage.remove(handle);
+        List<TradeHistoryEvent> results = orderStorage.match(createOrder(4L, Type.LIMIT_BUY, 10L, 2L));
+
+        // then
+        assertThat(removed).isTrue();
+        assertThat(orderStorage.remove(handle)).isFalse();
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).sellOrderId()).isEqualTo(first.getId());
+        assertThat(results.get(1).sellOrderId()).isEqualTo(third.getId());
+        assertThat(orderStorage.isEmpty()).isTrue();
+        assertThat(orderStorage.getTotalQuantity()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("체결 결과를 버퍼의 끝에 이어서 기록하고 기록한 체결 수를 반환한다.")
+    void appendFillsToBuffer() {
+        // given
+        FillBuffer fills = new FillBuffer(1);
+        orderStorage.add(createOrder(1L, Type.LIMIT_SELL, 5L, 1L));
+        orderStorage.add(createOrder(2L, Type.LIMIT_SELL, 7L, 1L));
+        orderStorage.match(createOrder(3L, Type.LIMIT_BUY, 1L, 2L), fills);
+
+        // when
+        int count = orderStorage.match(createOrder(4L, Type.LIMIT_BUY, 8L, 2L), fills);
+
+        // then
+        assertThat(count).isEqualTo(2);
+        assertThat(fills.size()).isEqualTo(3);
+        assertThat(fills.buyOrderIdAt(1)).isEqualTo(4L);
+        assertThat(fills.sellOrderIdAt(1)).isEqualTo(1L);
+        assertThat(fills.quantityAt(1)).isEqualTo(4L);
+        assertThat(fills.sellOrderIdAt(2)).isEqualTo(2L);
+        assertThat(fills.quantityAt(2)).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("풀에 돌려준 핸들을 다음 주문에 다시 사용한다.")
+    void reuseReleasedHandle() {
+        // given
+        RestingOrderPool pool = new RestingOrderPool(1);
+        TradeOrder first = createOrder(1L, Type.LIMIT_SELL, 5L, 1L);
+        TradeOrder second = createOrder(2L, Type.LIMIT_SELL, 5L, 1L);
+        RestingOrder handle = orderStorage.add(first, pool);
+        orderStorage.remove(handle);
+        pool.release(handle);
+
+        // when
+        RestingOrder reused = orderStorage.add(second, pool);
+
+        // then
+        assertThat(reused).isSameAs(handle);
+        assertThat(reused.holds(second)).isTrue();
+        assertThat(reused.holds(first)).isFalse();
+        assertThat(pool.size()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("도착 순번이 앞선 주문이 늦게 추가되어도 순번에 맞는 위치에서 먼저 체결된다.")
+    void insertByArrivalSequence() {
+        // given
+        TradeOrder early = createOrder(1L, Type.LIMIT_SELL, 5L, 1L);
+        TradeOrder middle = createOrder(2L, Type.LIMIT_SELL, 5L, 1L);
+        TradeOrder late = createOrder(3L, Type.LIMIT_SELL, 5L, 1L);
+        early.arrive(1L, 0L);
+        middle.arrive(2L, 0L);
+        late.arrive(3L, 0L);
+        orderStorage.add(late);
+        orderStorage.add(early);
+        orderStorage.add(middle);
+
+        // when
+        List<TradeHistoryEvent> results = orderStorage.match(createOrder(4L, Type.LIMIT_BUY, 15L, 2L));
+
+        // then
+        assertThat(results.stream().map(TradeHistoryEvent::sellOrderId).toList()).containsExactly(1L, 2L, 3L);
+        assertThat(orderStorage.isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("같은 계정의 주문만 남은 가격대는 건너뛰고, 다른 계정의 주문과는 체결한다.")
+    void skipOwnOrders() {
+        // given
+        orderStorage.add(createOrder(1L, Type.LIMIT_SELL, 5L, 1L));
+        orderStorage.add(createOrder(2L, Type.LIMIT_SELL, 5L, 2L));
+        orderStorage.add(createOrder(3L, Type.LIMIT_SELL, 5L, 1L));
+
+        // when
+        List<TradeHistoryEvent> results = orderStorage.match(createOrder(4L, Type.LIMIT_BUY, 10L, 1L));
+        List<TradeHistoryEvent> secondResults = orderStorage.match(createOrder(5L, Type.LIMIT_BUY, 10L, 1L));
+
+        // then
+        assertThat(results.stream().map(TradeHistoryEvent::sellOrderId).toList()).containsExactly(2L);
+        assertThat(secondResults).isEmpty();
+        assertThat(orderStorage.getAccountOrderCount(1L)).isEqualTo(2);
+        assertThat(orderStorage.getAccountOrderCount(2L)).isEqualTo(0);
+        assertThat(orderStorage.getTotalQuantity()).isEqualTo(10L);
+    }
+
+    @Test
+    @DisplayName("CANCEL_OLDEST: 같은 계정의 대기 주문을 취소하고 다음 주문과 계속 체결한다.")
+    void cancelOldestOwnOrder() {
+        // given
+        TradeOrder own = createOrder(1L, Type.LIMIT_SELL, 5L, 1L);
+        orderStorage.add(own);
+        orderStorage.add(createOrder(2L, Type.LIMIT_SELL, 5L, 2L));
+        List<RestingOrder> canceled = new ArrayList<>();
+
+        // when
+        FillBuffer fills = new FillBuffer();
+        int count = orderStorage.match(createOrder(3L, Type.LIMIT_BUY, 5L, 1L), fills, SelfTradePrevention.CANCEL_OLDEST, canceled::add);
+
+        // then
+        assertThat(count).isEqualTo(1);
+        assertThat(fills.sellOrderIdAt(0)).isEqualTo(2L);
+        assertThat(canceled).hasSize(1);
+        assertThat(canceled.get(0).getOrder()).isSameAs(own);
+        assertThat(own.getStatus()).isEqualTo(OrderStatus.CANCEL);
+        assertThat(orderStorage.isEmpty()).isTrue();
+        assertThat(orderStorage.getTotalQuantity()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("CANCEL_NEWEST: 같은 계정의 대기 주문을 만나면 입력 주문의 남은 수량을 취소하고, 그 전의 체결은 유지한다.")
+    void cancelNewestIncomingOrder() {
+        // given
+        orderStorage.add(createOrder(1L, Type.LIMIT_SELL, 3L, 2L));
+        orderStorage.add(createOrder(2L, Type.LIMIT_SELL, 5L, 1L));
+        orderStorage.add(createOrder(3L, Type.LIMIT_SELL, 5L, 3L));
+        TradeOrder incoming = createOrder(4L, Type.LIMIT_BUY, 10L, 1L);
+
+        // when
+        FillBuffer fills = new FillBuffer();
+        int count = orderStorage.match(incoming, fills, SelfTradePrevention.CANCEL_NEWEST, node -> {
+        });
+
+        // then
+        assertThat(count).isEqualTo(1);
+        assertThat(fills.sellOrderIdAt(0)).isEqualTo(1L);
+        assertThat(incoming.hasRemainingQuantity()).isFalse();
+        assertThat(incoming.getStatus()).isEqualTo(OrderStatus.CANCEL);
+        assertThat(orderStorage.getOrderCount()).isEqualTo(2);
+        assertThat(orderStorage.getTotalQuantity()).isEqualTo(10L);
+    }
+
+    @Test
+    @DisplayName("DECREMENT_BOTH: 두 주문을 체결 없이 작은 수량만큼 줄이고, 수량이 모두 줄어든 대기 주문을 취소한다.")
+    void decrementBothOrders() {
+        // given
+        TradeOrder own = createOrder(1L, Type.LIMIT_SELL, 3L, 1L);
+        orderStorage.add(own);
+        orderStorage.add(createOrder(2L, Type.LIMIT_SELL, 5L, 2L));
+        TradeOrder incoming = createOrder(3L, Type.LIMIT_BUY, 5L, 1L);
+        List<RestingOrder> canceled = new ArrayList<>();
+
+        // when
+        FillBuffer fills = new FillBuffer();
+        int count = orderStorage.match(incoming, fills, SelfTradePrevention.DECREMENT_BOTH, canceled::add);
+
+        // then
+        assertThat(count).isEqualTo(1);
+        assertThat(fills.sellOrderIdAt(0)).isEqualTo(2L);
+        assertThat(fills.quantityAt(0)).isEqualTo(2L);
+        assertThat(own.getStatus()).isEqualTo(OrderStatus.CANCEL);
+        assertThat(canceled).hasSize(1);
+        assertThat(incoming.getStatus()).isEqualTo(OrderStatus.COMPLETE);
+        assertThat(orderStorage.getOrderCount()).isEqualTo(1);
+        assertThat(orderStorage.getTotalQuantity()).isEqualTo(3L);
+    }
+
+    private TradeOrder createOrder(Long id, Type type, long quantity, Long accountId) {
+        return TradeOrder.builder()
+                .id(id)
+                .type(type)
+                .price(new BigDecimal("50000"))
+                .accountId(accountId)
+                .companyCode("005930")
+                .status(OrderStatus.ACTIVE)
+                .totalQuantity(BigDecimal.valueOf(quantity))
+                .remainingQuantity(BigDecimal.valueOf(quantity))
+                .createdDateTime(LocalDateTime.of(2025, 3, 1, 0, 0, 0))
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.domain.OrderStatus;
+import com.onseju.matchingservice.domain.Price;
+import com.onseju.matchingservice.domain.TradeOrder;
+import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class PriceLadderOrderBookTest {
+
+    private PriceLadderOrderBookSide sellOrders;
+    private PriceLadderOrderBookSide buyOrders;
+    private CompanyOrderBook orderBook;
+
+    @BeforeEach
+    void setUp() {
+        // 호가 단위 10원, 가격 제한폭 30%
+        PriceBand band = new PriceBand(Price.toScaled(BigDecimal.TEN), 3_000L);
+        sellOrders = PriceLadderOrderBookSide.asks(band);
+        buyOrders = PriceLadderOrderBookSide.bids(band);
+        orderBook = new CompanyOrderBook(sellOrders, buyOrders);
+    }
+
+    @Test
+    @DisplayName("가격대가 추가되고 소진될 때마다 최우선 호가를 갱신한다.")
+    void updateBestPriceWhenLevelsChange() {
+        // given
+        orderBook.received(createOrder(1L, Type.LIMIT_SELL, "50000", "5", 1L));
+        orderBook.received(createOrder(2L, Type.LIMIT_SELL, "51000", "5", 1L));
+        orderBook.received(createOrder(3L, Type.LIMIT_BUY, "49000", "5", 1L));
+        assertThat(sellOrders.bestPrice()).isEqualTo(new Price(new BigDecimal("50000")));
+        assertThat(buyOrders.bestPrice()).isEqualTo(new Price(new BigDecimal("49000")));
+
+        // when: 최우선 매도 호가 소진
+        orderBook.received(createOrder(4L, Type.LIMIT_BUY, "50000", "5", 2L));
+
+        // then
+        assertThat(sellOrders.bestPrice()).isEqualTo(new Price(new BigDecimal("51000")));
+        assertThat(buyOrders.bestPrice()).isEqualTo(new Price(new BigDecimal("49000")));
+    }
+
+    @Test
+    @DisplayName("시장가 매수 주문은 낮은 가격대부터 순서대로 체결된다.")
+    void sweepAsksFromLowestPrice() {
+        // given: 비트맵의 여러 워드에 걸친 가격대
+        TradeOrder sellOrder1 = createOrder(1L, Type.LIMIT_SELL, "50000", "5", 1L);
+        TradeOrder sellOrder2 = createOrder(2L, Type.LIMIT_SELL, "55000", "5", 1L);
+        TradeOrder sellOrder3 = createOrder(3L, Type.LIMIT_SELL, "50010", "5", 1L);
+        orderBook.received(sellOrder1);
+        orderBook.received(sellOrder2);
+        orderBook.received(sellOrder3);
+
+        // when
+        List<TradeHistoryEvent> responses = orderBook.received(createOrder(4L, Type.MARKET_BUY, "0", "15", 2L));
+
+        // then
+        assertThat(responses).hasSize(3);
+        assertThat(responses.get(0).sellOrderId()).isEqualTo(sellOrder1.getId());
+        assertThat(responses.get(1).sellOrderId()).isEqualTo(sellOrder3.getId());
+        assertThat(responses.get(2).sellOrderId()).isEqualTo(sellOrder2.getId());
+        assertThat(sellOrders.isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("시장가 매도 주문은 높은 가격대부터 순서대로 체결된다.")
+    void sweepBidsFromHighestPrice() {
+        // given
+        TradeOrder buyOrder1 = createOrder(1L, Type.LIMIT_BUY, "45000", "5", 1L);
+        TradeOrder buyOrder2 = createOrder(2L, Type.LIMIT_BUY, "49990", "5", 1L);
+        orderBook.received(buyOrder1);
+        orderBook.received(buyOrder2);
+
+        // when
+        List<TradeHistoryEvent> responses = orderBook.received(createOrder(3L, Type.MARKET_SELL, "0", "10", 2L));
+
+        // then
+        assertThat(responses).hasSize(2);
+        assertThat(responses.get(0).buyOrderId()).isEqualTo(buyOrder2.getId());
+        assertThat(responses.get(1).buyOrderId()).isEqualTo(buyOrder1.getId());
+        assertThat(buyOrder1.getStatus()).isEqualTo(OrderStatus.COMPLETE);
+        assertThat(buyOrders.bestPrice()).isNull();
+    }
+
+    @Test
+    @DisplayName("가격 제한폭을 벗어나거나 호가 단위에 맞지 않는 지정가 주문은 거부한다.")
+    void rejectOrdersOutsideBand() {
+        // given: 기준가 50,000원
+        orderBook.received(createOrder(1L, Type.LIMIT_SELL, "50000", "5", 1L));
+
+        // when, then
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> orderBook.received(createOrder(2L, Type.LIMIT_SELL, "70000", "5", 1L)));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> orderBook.received(createOrder(3L, Type.LIMIT_BUY, "49995", "5", 1L)));
+    }
+
+    private TradeOrder createOrder(Long id, Type type, String price, String quantity, Long accountId) {
+        return TradeOrder.builder()
+                .id(id)
+                .type(type)
+                .price(new BigDecimal(price))
+                .accountId(accountId)
+                .companyCode("005930")
+                .status(OrderStatus.ACTIVE)
+                .totalQuantity(new BigDecimal(quantity))
+                .remainingQuantity(new BigDecimal(quantity))
+                .createdDateTime(LocalDateTime.of(2025, 3, 1, 0, 0, 0))
+                .build();
+    }
+}
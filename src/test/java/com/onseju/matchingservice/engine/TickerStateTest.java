@@ -0,0 +1,67 @@
+package com.onseju.matchingservice.engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TickerStateTest {
+
+    @Test
+    @DisplayName("기록 중에도 읽는 쪽은 한 번의 기록이 모두 반영된 값만 읽는다.")
+    void readConsistentSnapshotWhileRecording() throws InterruptedException {
+        // given
+        TickerState ticker = new TickerState();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<TickerSnapshot> torn = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                TickerSnapshot snapshot = ticker.read();
+                // i번째 기록의 가격과 수량이 모두 i이므로 거래량은 1부터 현재가까지의 합이다.
+                long expectedVolume = snapshot.lastPrice() * (snapshot.lastPrice() + 1) / 2;
+                if (snapshot.volume() != expectedVolume || snapshot.tradeCount() != snapshot.lastPrice()) {
+                    torn.compareAndSet(null, snapshot);
+                }
+            }
+        });
+        reader.start();
+
+        // when
+        for (long i = 1; i <= 200_000; i++) {
+            ticker.record(i, i, 1, 0L);
+        }
+        running.set(false);
+        reader.join();
+
+        // then
+        assertThat(torn.get()).isNull();
+        assertThat(ticker.read().high()).isEqualTo(200_000L);
+        assertThat(ticker.read().low()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("초봉은 구간별로 나누어 집계하고, 보관 기간이 지난 봉은 반환하지 않는다.")
+    void rollSecondCandles() {
+        // given
+        TickerState ticker = new TickerState();
+        ticker.record(100L, 1L, 1, 1_000L);
+        ticker.record(120L, 2L, 1, 1_500L);
+        ticker.record(90L, 3L, 2, 1_900L);
+        ticker.record(110L, 4L, 1, 2_100L);
+
+        // when
+        List<Candle> candles = ticker.readCandles(CandleInterval.SECOND, 2_500L);
+        List<Candle> expired = ticker.readCandles(CandleInterval.SECOND, 61_500L);
+
+        // then
+        assertThat(candles).containsExactly(
+                new Candle(1_000L, 100L, 120L, 90L, 90L, 6L, 100L + 240L + 270L, 4L),
+                new Candle(2_000L, 110L, 110L, 110L, 110L, 4L, 440L, 1L)
+        );
+        assertThat(expired).containsExactly(new Candle(2_000L, 110L, 110L, 110L, 110L, 4L, 440L, 1L));
+    }
+}
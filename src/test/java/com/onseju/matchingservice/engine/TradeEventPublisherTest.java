@@ -0,0 +1,138 @@
+package com.onseju.matchingservice.engine;
+
+import com.onseju.matchingservice.config.TradeAuditProperties;
+import com.onseju.matchingservice.config.TradeEventPublisherProperties;
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TradeEventPublisherTest {
+
+    @Test
+    @DisplayName("같은 종목의 체결 이벤트는 큐에 넣은 순서대로 발행한다.")
+    void publishInOrderPerCompany() throws InterruptedException {
+        // given
+        int eventCount = 1_000;
+        List<TradeHistoryEvent> published = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(eventCount * 2);
+        TradeEventPublisher publisher = new TradeEventPublisher(
+                event -> {
+                    published.add((TradeHistoryEvent) event);
+                    latch.countDown();
+                },
+                new TradeAuditLog(TradeAuditProperties.disabled()),
+                new TradeEventPublisherProperties(2, 16, 8)
+        );
+
+        // when
+        for (long i = 1; i <= eventCount; i++) {
+            publisher.publish(List.of(createEvent("005930", i), createEvent("000660", i)));
+        }
+        boolean completed = latch.await(5, TimeUnit.SECONDS);
+        publisher.close();
+
+        // then
+        assertThat(completed).isTrue();
+        assertThat(sellOrderIds(published, "005930")).isSorted().hasSize(eventCount);
+        assertThat(sellOrderIds(published, "000660")).isSorted().hasSize(eventCount);
+    }
+
+    @Test
+    @DisplayName("종료 시 큐에 남은 이벤트를 모두 발행한다.")
+    void publishRemainingEventsOnClose() {
+        // given
+        List<TradeHistoryEvent> published = Collections.synchronizedList(new ArrayList<>());
+        TradeEventPublisher publisher = new TradeEventPublisher(
+                event -> published.add((TradeHistoryEvent) event),
+                new TradeAuditLog(TradeAuditProperties.disabled()),
+                new TradeEventPublisherProperties(1, 1024, 16)
+        );
+        for (long i = 1; i <= 100; i++) {
+            publisher.publish(List.of(createEvent("005930", i)));
+        }
+
+        // when
+        publisher.close();
+
+        // then
+        assertThat(published).hasSize(100);
+    }
+
+    @Test
+    @DisplayName("소비가 밀려 큐가 한도를 넘어도 대기하지 않고 넣으며, 한도에 이르렀음을 알린다.")
+    void enqueueWithoutBlockingWhenBacklogged() throws InterruptedException {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        List<TradeHistoryEvent> published = Collections.synchronizedList(new ArrayList<>());
+        TradeEventPublisher publisher = new TradeEventPublisher(
+                event -> {
+                    awaitQuietly(release);
+                    published.add((TradeHistoryEvent) event);
+                },
+                new TradeAuditLog(TradeAuditProperties.disabled()),
+                new TradeEventPublisherProperties(1, 4, 1)
+        );
+
+        // when
+        for (long i = 1; i <= 10; i++) {
+            publisher.publish(List.of(createEvent("005930", i)));
+        }
+        boolean backlogged = publisher.isBacklogged("005930");
+        release.countDown();
+        publisher.close();
+
+        // then
+        assertThat(backlogged).isTrue();
+        assertThat(publisher.isBacklogged("005930")).isFalse();
+        assertThat(sellOrderIds(published, "005930")).isSorted().hasSize(10);
+    }
+
+    @Test
+    @DisplayName("종료한 뒤 넣은 이벤트도 발행한다.")
+    void publishEventsAfterClose() {
+        // given
+        List<TradeHistoryEvent> published = Collections.synchronizedList(new ArrayList<>());
+        TradeEventPublisher publisher = new TradeEventPublisher(
+                event -> published.add((TradeHistoryEvent) event),
+                new TradeAuditLog(TradeAuditProperties.disabled()),
+                new TradeEventPublisherProperties(1, 16, 4)
+        );
+        publisher.close();
+
+        // when
+        publisher.publish(List.of(createEvent("005930", 1L), createEvent("005930", 2L)));
+
+        // then
+        assertThat(sellOrderIds(published, "005930")).containsExactly(1L, 2L);
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<Long> sellOrderIds(List<TradeHistoryEvent> events, String companyCode) {
+        synchronized (events) {
+            return events.stream()
+                    .filter(event -> event.companyCode().equals(companyCode))
+                    .map(TradeHistoryEvent::sellOrderId)
+                    .toList();
+        }
+    }
+
+    private TradeHistoryEvent createEvent(String companyCode, Long sellOrderId) {
+        return new TradeHistoryEvent(companyCode, 0L, 2L, sellOrderId, 1L, BigDecimal.ONE, new BigDecimal(1000), 0L);
+    }
+}
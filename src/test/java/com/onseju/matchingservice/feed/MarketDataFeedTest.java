@@ -0,0 +1,161 @@
+package com.onseju.matchingservice.feed;
+
+import com.onseju.matchingservice.config.MarketDataFeedProperties;
+import com.onseju.matchingservice.domain.OrderStatus;
+import com.onseju.matchingservice.domain.TradeOrder;
+import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.dto.DepthUpdateMessage;
+import com.onseju.matchingservice.dto.LevelUpdate;
+import com.onseju.matchingservice.dto.OrderBookDepthResponse;
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+import com.onseju.matchingservice.engine.CompanyOrderBook;
+import com.onseju.matchingservice.engine.OrderBookListener;
+import com.onseju.matchingservice.engine.SkipListOrderBookSide;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MarketDataFeedTest {
+
+    private static final String COMPANY_CODE = "005930";
+
+    private MarketDataFeed feed;
+    private CompanyOrderBook orderBook;
+
+    @BeforeEach
+    void setUp() {
+        // 주기 전달은 테스트에서 직접 호출한다.
+        feed = new MarketDataFeed(new MarketDataFeedProperties(60_000L, 10, 1, 2));
+        orderBook = new CompanyOrderBook(
+                SkipListOrderBookSide.asks(),
+                SkipListOrderBookSide.bids(),
+                CompanyOrderBook.DEFAULT_DEPTH_LEVELS,
+                feed.create(COMPANY_CODE)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.close();
+    }
+
+    @Test
+    @DisplayName("구독을 시작하면 스냅샷을 먼저 보내고, 이후에는 스냅샷 이후의 변경만 가격대별로 합쳐 보낸다.")
+    void snapshotThenConflatedUpdates() throws Exception {
+        // given
+        orderBook.received(createOrder(1L, Type.LIMIT_SELL, new BigDecimal(1000), new BigDecimal(10)));
+        RecordingSink sink = new RecordingSink(2);
+        feed.subscribe(COMPANY_CODE, sink, levels -> Optional.of(orderBook.captureDepth(levels)));
+
+        // when
+        orderBook.received(createOrder(2L, Type.LIMIT_SELL, new BigDecimal(1000), new BigDecimal(5)));
+        orderBook.received(createOrder(3L, Type.LIMIT_SELL, new BigDecimal(1000), new BigDecimal(7)));
+        orderBook.received(createOrder(4L, Type.LIMIT_BUY, new BigDecimal(900), new BigDecimal(3)));
+        feed.publishPending();
+
+        // then
+        assertThat(sink.await()).isTrue();
+        assertThat(sink.names).containsExactly(MarketDataFeed.SNAPSHOT_EVENT, MarketDataFeed.UPDATE_EVENT);
+
+        OrderBookDepthResponse snapshot = (OrderBookDepthResponse) sink.messages.get(0);
+        assertThat(snapshot.asks()).hasSize(1);
+        assertThat(snapshot.asks().get(0).quantity()).isEqualByComparingTo(new BigDecimal(10));
+
+        DepthUpdateMessage update = (DepthUpdateMessage) sink.messages.get(1);
+        assertThat(update.levels()).hasSize(2);
+        LevelUpdate ask = update.levels().stream().filter(level -> level.side().equals("ASK")).findFirst().orElseThrow();
+        assertThat(ask.quantity()).isEqualByComparingTo(new BigDecimal(22));
+        assertThat(ask.orderCount()).isEqualTo(3);
+        assertThat(ask.sequence()).isGreaterThan(snapshot.version());
+        assertThat(update.sequence()).isEqualTo(sink.sequences.get(1));
+    }
+
+    @Test
+    @DisplayName("체결은 구독자별로 최근 체결만 보관한다.")
+    void keepRecentTradesForSlowSubscriber() throws Exception {
+        // given
+        RecordingSink sink = new RecordingSink(2);
+        feed.subscribe(COMPANY_CODE, sink, levels -> Optional.of(orderBook.captureDepth(levels)));
+        orderBook.received(createOrder(1L, Type.LIMIT_SELL, new BigDecimal(1000), new BigDecimal(10)));
+
+        // when
+        for (long id = 2; id <= 5; id++) {
+            orderBook.received(createOrder(id, Type.LIMIT_BUY, new BigDecimal(1000), new BigDecimal(1)));
+        }
+        feed.publishPending();
+
+        // then
+        assertThat(sink.await()).isTrue();
+        DepthUpdateMessage update = (DepthUpdateMessage) sink.messages.get(1);
+        assertThat(update.trades().stream().map(TradeHistoryEvent::buyOrderId).toList()).containsExactly(4L, 5L);
+        assertThat(update.levels()).hasSize(1);
+        assertThat(update.levels().get(0).quantity()).isEqualByComparingTo(new BigDecimal(6));
+    }
+
+    @Test
+    @DisplayName("구독자가 없으면 변경을 쌓지 않는다.")
+    void ignoreChangesWithoutSubscribers() {
+        // given
+        SymbolFeed symbolFeed = new SymbolFeed(COMPANY_CODE);
+        OrderBookListener listener = symbolFeed;
+
+        // when
+        listener.onLevelUpdated(1L, true, 100_000L, 10L, 1);
+
+        // then
+        assertThat(symbolFeed.drain()).isNull();
+    }
+
+    private TradeOrder createOrder(Long id, Type type, BigDecimal price, BigDecimal quantity) {
+        return TradeOrder.builder()
+                .id(id)
+                .type(type)
+                .price(price)
+                .accountId(id)
+                .companyCode(COMPANY_CODE)
+                .status(OrderStatus.ACTIVE)
+                .totalQuantity(quantity)
+                .remainingQuantity(quantity)
+                .createdDateTime(LocalDateTime.of(2025, 3, 1, 0, 0, 0))
+                .build();
+    }
+
+    private static class RecordingSink implements FeedSink {
+
+        private final List<String> names = new ArrayList<>();
+        private final List<Long> sequences = new ArrayList<>();
+        private final List<Object> messages = new ArrayList<>();
+        private final CountDownLatch latch;
+
+        RecordingSink(int expectedMessages) {
+            this.latch = new CountDownLatch(expectedMessages);
+        }
+
+        @Override
+        public synchronized void send(String eventName, long sequence, Object data) {
+            names.add(eventName);
+            sequences.add(sequence);
+            messages.add(data);
+            latch.countDown();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        boolean await() throws InterruptedException {
+            return latch.await(5, TimeUnit.SECONDS);
+        }
+    }
+}
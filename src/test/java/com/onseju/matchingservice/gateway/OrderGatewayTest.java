@@ -0,0 +1,226 @@
+package com.onseju.matchingservice.gateway;
+
+import com.onseju.matchingservice.config.MatchingEngineProperties;
+import com.onseju.matchingservice.config.OrderBookProperties;
+import com.onseju.matchingservice.config.OrderGatewayProperties;
+import com.onseju.matchingservice.config.TradeAuditProperties;
+import com.onseju.matchingservice.config.TradeEventPublisherProperties;
+import com.onseju.matchingservice.domain.Price;
+import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.engine.MatchingEngine;
+import com.onseju.matchingservice.engine.OrderBookType;
+import com.onseju.matchingservice.engine.SelfTradePrevention;
+import com.onseju.matchingservice.engine.TradeAuditLog;
+import com.onseju.matchingservice.engine.TradeEventPublisher;
+import com.onseju.matchingservice.factory.OrderBookFactory;
+import com.onseju.matchingservice.journal.OrderJournal;
+import com.onseju.matchingservice.journal.SnapshotStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderGatewayTest {
+
+    private static final String COMPANY_CODE = "005930";
+
+    private TradeEventPublisher tradeEventPublisher;
+    private OrderGateway gateway;
+    private SocketChannel client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tradeEventPublisher = new TradeEventPublisher(
+                event -> {
+                },
+                new TradeAuditLog(TradeAuditProperties.disabled()),
+                TradeEventPublisherProperties.defaults()
+        );
+        MatchingEngine matchingEngine = new MatchingEngine(
+                // 호가 단위에 맞지 않는 가격을 엔진이 거절하도록 배열 기반 주문장을 사용한다.
+                new OrderBookFactory(new OrderBookProperties(
+                        OrderBookType.PRICE_LADDER, BigDecimal.ONE, new BigDecimal("0.30"), 10, 0, BigDecimal.ZERO, 1024, SelfTradePrevention.SKIP
+                )),
+                tradeEventPublisher,
+                OrderJournal.disabled(),
+                SnapshotStore.disabled(),
+                MatchingEngineProperties.defaults()
+        );
+        gateway = new OrderGateway(matchingEngine, new OrderGatewayProperties(true, 0, 4096, 4096));
+        client = SocketChannel.open(new InetSocketAddress("localhost", gateway.getLocalPort()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        gateway.close();
+        tradeEventPublisher.close();
+    }
+
+    @Test
+    @DisplayName("바이너리 주문을 매칭하고 체결과 응답을 같은 연결로 돌려준다.")
+    void matchBinaryOrders() throws IOException {
+        // given
+        send(newOrder(1L, 10L, Type.LIMIT_SELL, 50000, 5));
+        ByteBuffer sellAck = receive(GatewayProtocol.ACK_LENGTH);
+
+        // when
+        // 두 프레임을 한 번에 보내도 각각 처리한다.
+        ByteBuffer frames = ByteBuffer.allocate(GatewayProtocol.NEW_ORDER_LENGTH * 2).order(GatewayProtocol.BYTE_ORDER);
+        frames.put(newOrder(2L, 20L, Type.LIMIT_BUY, 50000, 3).flip());
+        frames.put(newOrder(3L, 20L, Type.LIMIT_BUY, 49000, 1).flip());
+        send(frames);
+        ByteBuffer trade = receive(GatewayProtocol.TRADE_LENGTH);
+        ByteBuffer buyAck = receive(GatewayProtocol.ACK_LENGTH);
+        ByteBuffer restingAck = receive(GatewayProtocol.ACK_LENGTH);
+
+        // then
+        assertAck(sellAck, 1L, GatewayProtocol.NEW_ORDER, GatewayProtocol.ACCEPTED, 0);
+        assertThat((int) trade.get(2)).isEqualTo((int) GatewayProtocol.TRADE);
+        assertThat(trade.getLong(4)).isEqualTo(2L);
+        assertThat(trade.getLong(12)).isEqualTo(20L);
+        assertThat(trade.getLong(20)).isEqualTo(1L);
+        assertThat(trade.getLong(28)).isEqualTo(10L);
+        assertThat(trade.getLong(36)).isEqualTo(3L);
+        assertThat(trade.getLong(44)).isEqualTo(Price.toScaled(new BigDecimal("50000")));
+        assertAck(buyAck, 2L, GatewayProtocol.NEW_ORDER, GatewayProtocol.ACCEPTED, 1);
+        assertAck(restingAck, 3L, GatewayProtocol.NEW_ORDER, GatewayProtocol.ACCEPTED, 0);
+    }
+
+    @Test
+    @DisplayName("취소와 정정은 대상 주문이 없으면 NOT_FOUND로 응답한다.")
+    void cancelAndAmend() throws IOException {
+        // given
+        send(newOrder(1L, 10L, Type.LIMIT_SELL, 50000, 5));
+        receive(GatewayProtocol.ACK_LENGTH);
+
+        // when
+        send(amend(1L, 2, 0));
+        ByteBuffer amendAck = receive(GatewayProtocol.ACK_LENGTH);
+        send(cancel(1L));
+        ByteBuffer cancelAck = receive(GatewayProtocol.ACK_LENGTH);
+        send(cancel(1L));
+        ByteBuffer missingAck = receive(GatewayProtocol.ACK_LENGTH);
+
+        // then
+        assertAck(amendAck, 1L, GatewayProtocol.AMEND, GatewayProtocol.ACCEPTED, 0);
+        assertAck(cancelAck, 1L, GatewayProtocol.CANCEL, GatewayProtocol.ACCEPTED, 0);
+        assertAck(missingAck, 1L, GatewayProtocol.CANCEL, GatewayProtocol.NOT_FOUND, 0);
+    }
+
+    @Test
+    @DisplayName("형식이 맞지 않는 요청은 INVALID, 엔진이 거절한 요청은 REJECTED로 응답한다.")
+    void rejectInvalidRequests() throws IOException {
+        // given
+        ByteBuffer zeroQuantity = newOrder(1L, 10L, Type.LIMIT_SELL, 50000, 0);
+        ByteBuffer unknownTemplate = header(GatewayProtocol.HEADER_SIZE + Long.BYTES, (byte) 99).putLong(2L);
+        ByteBuffer badTick = newOrder(3L, 10L, Type.LIMIT_SELL, 50000, 1);
+        badTick.putLong(GatewayProtocol.HEADER_SIZE + Long.BYTES * 2, 5000001L);
+        send(newOrder(4L, 10L, Type.LIMIT_SELL, 50000, 1));
+        receive(GatewayProtocol.ACK_LENGTH);
+
+        // when
+        send(zeroQuantity);
+        ByteBuffer invalidAck = receive(GatewayProtocol.ACK_LENGTH);
+        send(unknownTemplate);
+        ByteBuffer unknownAck = receive(GatewayProtocol.ACK_LENGTH);
+        send(badTick);
+        ByteBuffer rejectedAck = receive(GatewayProtocol.ACK_LENGTH);
+
+        // then
+        assertAck(invalidAck, 1L, GatewayProtocol.NEW_ORDER, GatewayProtocol.INVALID, 0);
+        assertAck(unknownAck, 2L, (byte) 99, GatewayProtocol.INVALID, 0);
+        assertAck(rejectedAck, 3L, GatewayProtocol.NEW_ORDER, GatewayProtocol.REJECTED, 0);
+    }
+
+    @Test
+    @DisplayName("응답의 체결 수는 short 범위를 넘어도 잘리지 않고 보낸 체결 프레임 수와 같다.")
+    void encodeTradeCountBeyondShortRange() {
+        // given
+        ByteBuffer ack = ByteBuffer.allocate(GatewayProtocol.ACK_LENGTH).order(GatewayProtocol.BYTE_ORDER);
+
+        // when
+        OrderResponseEncoder.encodeAck(ack, 1L, GatewayProtocol.NEW_ORDER, GatewayProtocol.ACCEPTED, Short.MAX_VALUE + 1);
+
+        // then
+        assertThat(ack.hasRemaining()).isFalse();
+        assertAck(ack, 1L, GatewayProtocol.NEW_ORDER, GatewayProtocol.ACCEPTED, Short.MAX_VALUE + 1);
+    }
+
+    private void assertAck(ByteBuffer ack,long orderId, byte requestTemplate, byte result, int tradeCount) {
+        assertThat((int) ack.get(2)).isEqualTo((int) GatewayProtocol.ACK);
+        assertThat(ack.getLong(4)).isEqualTo(orderId);
+        assertThat((int) ack.get(12)).isEqualTo((int) requestTemplate);
+        assertThat((int) ack.get(13)).isEqualTo((int) result);
+        assertThat(ack.getInt(14)).isEqualTo(tradeCount);
+    }
+
+    private ByteBuffer newOrder(long orderId, long accountId, Type type, long price, long quantity) {
+        ByteBuffer buffer = header(GatewayProtocol.NEW_ORDER_LENGTH, GatewayProtocol.NEW_ORDER);
+        buffer.putLong(orderId);
+        buffer.putLong(accountId);
+        buffer.putLong(Price.toScaled(BigDecimal.valueOf(price)));
+        buffer.putLong(quantity);
+        putCompanyCode(buffer);
+        buffer.put((byte) type.ordinal());
+        return buffer;
+    }
+
+    private ByteBuffer cancel(long orderId) {
+        ByteBuffer buffer = header(GatewayProtocol.CANCEL_LENGTH, GatewayProtocol.CANCEL);
+        buffer.putLong(orderId);
+        putCompanyCode(buffer);
+        return buffer;
+    }
+
+    private ByteBuffer amend(long orderId, long quantity, long price) {
+        ByteBuffer buffer = header(GatewayProtocol.AMEND_LENGTH, GatewayProtocol.AMEND);
+        buffer.putLong(orderId);
+        buffer.putLong(quantity);
+        buffer.putLong(price);
+        putCompanyCode(buffer);
+        return buffer;
+    }
+
+    private ByteBuffer header(int length, byte templateId) {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(GatewayProtocol.BYTE_ORDER);
+        buffer.putShort((short) length);
+        buffer.put(templateId);
+        buffer.put(GatewayProtocol.VERSION);
+        return buffer;
+    }
+
+    private void putCompanyCode(ByteBuffer buffer) {
+        byte[] code = COMPANY_CODE.getBytes(StandardCharsets.US_ASCII);
+        buffer.put(code);
+        buffer.put(new byte[GatewayProtocol.COMPANY_CODE_LENGTH - code.length]);
+    }
+
+    private void send(ByteBuffer buffer) throws IOException {
+        if (buffer.position() != 0) {
+            buffer.flip();
+        }
+        while (buffer.hasRemaining()) {
+            client.write(buffer);
+        }
+    }
+
+    private ByteBuffer receive(int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(GatewayProtocol.BYTE_ORDER);
+        while (buffer.hasRemaining()) {
+            if (client.read(buffer) < 0) {
+                throw new IOException("연결이 끊어졌습니다.");
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,206 @@
+package com.onseju.matchingservice.journal;
+
+import com.onseju.matchingservice.config.JournalProperties;
+import com.onseju.matchingservice.domain.OrderStatus;
+import com.onseju.matchingservice.domain.TradeOrder;
+import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.dto.AmendOrderRequest;
+import com.onseju.matchingservice.dto.CancelOrderRequest;
+import com.onseju.matchingservice.dto.TradeHistoryEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderJournalTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("order-journal");
+    }
+
+    @Test
+    @DisplayName("기록한 주문, 취소, 정정, 체결을 시퀀스 순서대로 재생한다.")
+    void replayRecordsInOrder() {
+        // given
+        OrderJournal journal = createJournal(1024 * 1024);
+        journal.recover(new RecordingHandler());
+        TradeOrder order = createOrder(1L, Type.LIMIT_SELL, new BigDecimal("50000.50"), new BigDecimal("10"));
+        journal.appendOrder(order);
+        journal.appendCancel(new CancelOrderRequest("005930", 1L));
+        journal.appendAmend(new AmendOrderRequest("005930", 2L, new BigDecimal("3"), null));
+        journal.appendTrades(List.of(
+                new TradeHistoryEvent("005930", 2L, 2L, 1L, 1L, new BigDecimal("5"), new BigDecimal("50000.50"), 100L)
+        ));
+        journal.close();
+
+        // when
+        RecordingHandler handler = new RecordingHandler();
+        OrderJournal recovered = createJournal(1024 * 1024);
+        long lastSequence = recovered.recover(handler);
+        recovered.close();
+
+        // then
+        assertThat(lastSequence).isEqualTo(4L);
+        assertThat(handler.sequences).containsExactly(1L, 2L, 3L, 4L);
+        TradeOrder replayed = handler.orders.get(0);
+        assertThat(replayed.getId()).isEqualTo(1L);
+        assertThat(replayed.getType()).isEqualTo(Type.LIMIT_SELL);
+        assertThat(replayed.getPrice()).isEqualTo(new BigDecimal("50000.50"));
+        assertThat(replayed.getRemainingQuantity()).isEqualTo(new BigDecimal("10"));
+        assertThat(replayed.getCreatedDateTime()).isEqualTo(order.getCreatedDateTime());
+        assertThat(handler.cancels.get(0)).isEqualTo(new CancelOrderRequest("005930", 1L));
+        assertThat(handler.amends.get(0)).isEqualTo(new AmendOrderRequest("005930", 2L, new BigDecimal("3"), null));
+        assertThat(handler.trades.get(0).price()).isEqualTo(new BigDecimal("50000.50"));
+    }
+
+    @Test
+    @DisplayName("레코드에 담을 수 없는 문자열과 숫자는 기록하지 않고 입력값을 담은 IllegalArgumentException으로 거절한다.")
+    void rejectUnencodableValues() {
+        // given
+        OrderJournal journal = createJournal(1024 * 1024);
+        journal.recover(new RecordingHandler());
+        String longCode = "0".repeat(JournalCodec.MAX_STRING_BYTES + 1);
+        String hugeQuantity = "1" + "0".repeat(30);
+
+        // when, then
+        assertThatThrownBy(() -> journal.appendCancel(new CancelOrderRequest(longCode, 1L)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> journal.appendAmend(new AmendOrderRequest("005930", 1L, new BigDecimal(hugeQuantity), null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(hugeQuantity);
+        assertThatThrownBy(() -> journal.appendAmend(new AmendOrderRequest("005930", 1L, null, new BigDecimal("1E-200"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("1E-200");
+        assertThat(journal.getSequence()).isEqualTo(0L);
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("세그먼트가 가득 차면 새 세그먼트로 넘어가고, 재시작 후에도 시퀀스가 이어진다.")
+    void rollSegmentAndContinueSequence() {
+        // given
+        OrderJournal journal = createJournal(256);
+        journal.recover(new RecordingHandler());
+        for (long i = 1; i <= 20; i++) {
+            journal.appendOrder(createOrder(i, Type.LIMIT_BUY, new BigDecimal("1000"), BigDecimal.ONE));
+        }
+        journal.close();
+
+        // when
+        OrderJournal restarted = createJournal(256);
+        restarted.recover(new RecordingHandler());
+        long sequence = restarted.appendCancel(new CancelOrderRequest("005930", 1L));
+        restarted.close();
+        RecordingHandler handler = new RecordingHandler();
+        createJournal(256).recover(handler);
+
+        // then
+        assertThat(sequence).isEqualTo(21L);
+        assertThat(handler.orders).hasSize(20);
+        assertThat(handler.cancels).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("손상된 레코드 이후의 기록은 재생하지 않는다.")
+    void stopAtCorruptedRecord() throws IOException {
+        // given
+        OrderJournal journal = createJournal(1024 * 1024);
+        journal.recover(new RecordingHandler());
+        journal.appendOrder(createOrder(1L, Type.LIMIT_BUY, new BigDecimal("1000"), BigDecimal.ONE));
+        journal.appendOrder(createOrder(2L, Type.LIMIT_BUY, new BigDecimal("1000"), BigDecimal.ONE));
+        journal.close();
+        corruptLastByteOfSecondRecord();
+
+        // when
+        RecordingHandler handler = new RecordingHandler();
+        createJournal(1024 * 1024).recover(handler);
+
+        // then
+        assertThat(handler.orders).hasSize(1);
+        assertThat(handler.orders.get(0).getId()).isEqualTo(1L);
+    }
+
+    private void corruptLastByteOfSecondRecord() throws IOException {
+        Path segment;
+        try (Stream<Path> paths = Files.list(directory)) {
+            segment = paths.sorted().findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(header, 0);
+            int firstRecordSize = JournalCodec.HEADER_SIZE + header.flip().getInt();
+            header.clear();
+            channel.read(header, firstRecordSize);
+            int secondRecordEnd = firstRecordSize + JournalCodec.HEADER_SIZE + header.flip().getInt();
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), secondRecordEnd - 1);
+        }
+    }
+
+    private OrderJournal createJournal(long segmentSize) {
+        return new OrderJournal(new JournalProperties(true, directory.toString(), segmentSize, 5L));
+    }
+
+    private TradeOrder createOrder(Long id, Type type, BigDecimal price, BigDecimal quantity) {
+        return TradeOrder.builder()
+                .id(id)
+                .type(type)
+                .price(price)
+                .accountId(id)
+                .companyCode("005930")
+                .status(OrderStatus.ACTIVE)
+                .totalQuantity(quantity)
+                .remainingQuantity(quantity)
+                .createdDateTime(LocalDateTime.of(2025, 3, 1, 9, 0, 0, 123_000_000))
+                .build();
+    }
+
+    private static class RecordingHandler implements JournalHandler {
+
+        private final List<Long> sequences = new ArrayList<>();
+        private final List<TradeOrder> orders = new ArrayList<>();
+        private final List<CancelOrderRequest> cancels = new ArrayList<>();
+        private final List<AmendOrderRequest> amends = new ArrayList<>();
+        private final List<TradeHistoryEvent> trades = new ArrayList<>();
+
+        @Override
+        public void onOrder(long sequence, TradeOrder order) {
+            sequences.add(sequence);
+            orders.add(order);
+        }
+
+        @Override
+        public void onCancel(long sequence, CancelOrderRequest request) {
+            sequences.add(sequence);
+            cancels.add(request);
+        }
+
+        @Override
+        public void onAmend(long sequence, AmendOrderRequest request) {
+            sequences.add(sequence);
+            amends.add(request);
+        }
+
+        @Override
+        public void onTrade(long sequence, TradeHistoryEvent event) {
+            sequences.add(sequence);
+            trades.add(event);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.onseju.matchingservice.metrics;
+
+import com.onseju.matchingservice.config.MatchingMetricsProperties;
+import com.onseju.matchingservice.config.OrderBookProperties;
+import com.onseju.matchingservice.domain.OrderStatus;
+import com.onseju.matchingservice.domain.TradeOrder;
+import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.engine.OrderBook;
+import com.onseju.matchingservice.engine.OrderBookListenerFactory;
+import com.onseju.matchingservice.factory.OrderBookFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchingMetricsTest {
+
+    private MeterRegistry registry;
+    private MatchingMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        // 수집은 테스트에서 직접 호출한다.
+        metrics = new MatchingMetrics(registry, new MatchingMetricsProperties(true, 60_000L, 10_000L, 3));
+    }
+
+    @AfterEach
+    void tearDown() {
+        metrics.close();
+    }
+
+    @Test
+    @DisplayName("주문장 처리 시 종목별 주문, 체결 수와 구간별 지연 시간을 기록한다.")
+    void recordOrderBookMetrics() {
+        // given
+        OrderBookFactory factory = new OrderBookFactory(
+                OrderBookProperties.defaults(),
+                OrderBookListenerFactory.NO_OP,
+                metrics
+        );
+        OrderBook orderBook = factory.createOrderBook("005930");
+
+        // when
+        orderBook.received(createOrder(1L, Type.LIMIT_SELL, new BigDecimal("10")));
+        orderBook.received(createOrder(2L, Type.LIMIT_SELL, new BigDecimal("10")));
+        orderBook.received(createOrder(3L, Type.LIMIT_BUY, new BigDecimal("15")));
+        metrics.harvest();
+
+        // then
+        assertThat(registry.find("matching.orders").tag("symbol", "005930").counter().count()).isEqualTo(3.0);
+        assertThat(registry.find("matching.trades").tag("symbol", "005930").counter().count()).isEqualTo(2.0);
+        assertThat(registry.find("matching.book.resting.orders").tag("symbol", "005930").gauge().value()).isEqualTo(1.0);
+        assertThat(registry.find("matching.latency").tag("stage", "order_book").functionTimer().count()).isEqualTo(3.0);
+        assertThat(registry.find("matching.latency").tag("stage", "level_match").functionTimer().count()).isEqualTo(1.0);
+        assertThat(registry.find("matching.latency.percentile")
+                .tag("stage", "order_book")
+                .tag("quantile", "0.99")
+                .gauge()
+                .value()).isGreaterThan(0.0);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 각자의 기록기에 기록한 값을 수집 시 모두 합친다.")
+    void mergeRecordersOfAllThreads() throws InterruptedException {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram(1_000_000L, 3);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread(() -> {
+                for (long value = 1; value <= 1_000; value++) {
+                    histogram.record(value);
+                }
+            }));
+        }
+
+        // when
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        histogram.harvest();
+        histogram.harvest();
+
+        // then
+        assertThat(histogram.getTotalCount()).isEqualTo(4_000L);
+        assertThat(histogram.getLastInterval().getTotalCount()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("계측을 끄면 주문장에 빈 계측을 연결하고 미터를 등록하지 않는다.")
+    void disabledMetrics() {
+        // given
+        MatchingMetrics disabled = MatchingMetrics.disabled();
+
+        // when
+        boolean enabled = disabled.forOrderBook("005930").isEnabled();
+
+        // then
+        assertThat(enabled).isFalse();
+        assertThat(disabled.isEnabled()).isFalse();
+    }
+
+    private TradeOrder createOrder(Long id, Type type, BigDecimal quantity) {
+        return TradeOrder.builder()
+                .id(id)
+                .type(type)
+                .price(new BigDecimal("1000"))
+                .accountId(id)
+                .companyCode("005930")
+                .status(OrderStatus.ACTIVE)
+                .totalQuantity(quantity)
+                .remainingQuantity(quantity)
+                .createdDateTime(LocalDateTime.of(2025, 3, 1, 0, 0, 0))
+                .build();
+    }
+}
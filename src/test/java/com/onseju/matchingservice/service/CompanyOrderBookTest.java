@@ -1,10 +1,23 @@
 package com.onseju.matchingservice.service;
 
 import com.onseju.matchingservice.domain.OrderStatus;
+import com.onseju.matchingservice.domain.Price;
 import com.onseju.matchingservice.domain.TradeOrder;
 import com.onseju.matchingservice.domain.Type;
+import com.onseju.matchingservice.dto.AmendOrderRequest;
+import com.onseju.matchingservice.dto.CandleResponse;
+import com.onseju.matchingservice.dto.TickerResponse;
 import com.onseju.matchingservice.dto.TradeHistoryEvent;
+import com.onseju.matchingservice.engine.BookDepth;
+import com.onseju.matchingservice.engine.CandleInterval;
 import com.onseju.matchingservice.engine.CompanyOrderBook;
+import com.onseju.matchingservice.engine.FillBuffer;
+import com.onseju.matchingservice.engine.MarketOrderProtection;
+import com.onseju.matchingservice.engine.OrderBookListener;
+import com.onseju.matchingservice.engine.OrderBookMetrics;
+import com.onseju.matchingservice.engine.SelfTradePrevention;
+import com.onseju.matchingservice.engine.SkipListOrderBookSide;
+import com.onseju.matchingservice.engine.TickerSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -15,7 +28,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatNoException;
@@ -76,7 +89,7 @@ public class CompanyOrderBookTest {
         void matchBuyOrderWithSamePriceSellOrder() {
             // given
             TradeOrder sellOrder1 = createOrder(1L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("5"), 1L);
-            TradeOrder sellOrder2 = createOrder(2L, Type.LIMIT_SELL, new BigDecimal("49000"), new BigDecimal("5"), 1L);
+            TradeOrder sellOrder2 = createOrder(2L, Type.LIMIT_SELL, new BigDecimal("51000"), new BigDecimal("5"), 1L);
             TradeOrder buyOrder = createOrder(3L, Type.LIMIT_BUY, new BigDecimal("50000"), new BigDecimal("5"), 2L);
 
             // when
@@ -119,6 +132,32 @@ public class CompanyOrderBookTest {
             });
         }
 
+        @Test
+        @DisplayName("지정가 매수 주문 시, 주문 가격 이하의 매도 주문과 낮은 가격부터 대기 주문의 가격으로 체결하고 남은 수량을 대기시킨다.")
+        void matchBuyOrderWithBetterPricedSellOrders() {
+            // given
+            TradeOrder sellOrder1 = createOrder(1L, Type.LIMIT_SELL, new BigDecimal("49000"), new BigDecimal("3"), 1L);
+            TradeOrder sellOrder2 = createOrder(2L, Type.LIMIT_SELL, new BigDecimal("49500"), new BigDecimal("3"), 1L);
+            TradeOrder sellOrder3 = createOrder(3L, Type.LIMIT_SELL, new BigDecimal("51000"), new BigDecimal("3"), 1L);
+            TradeOrder buyOrder = createOrder(4L, Type.LIMIT_BUY, new BigDecimal("50000"), new BigDecimal("10"), 2L);
+
+            // when
+            orderBook.received(sellOrder1);
+            orderBook.received(sellOrder2);
+            orderBook.received(sellOrder3);
+            List<TradeHistoryEvent> responses = orderBook.received(buyOrder);
+
+            // then
+            assertThat(responses).hasSize(2);
+            assertThat(responses.get(0).sellOrderId()).isEqualTo(sellOrder1.getId());
+            assertThat(responses.get(0).price()).isEqualTo(sellOrder1.getPrice());
+            assertThat(responses.get(1).sellOrderId()).isEqualTo(sellOrder2.getId());
+            assertThat(responses.get(1).price()).isEqualTo(sellOrder2.getPrice());
+            assertThat(buyOrder.getRemainingQuantity()).isEqualTo(new BigDecimal("4"));
+            assertThat(orderBook.getDepth().bids().priceAt(0)).isEqualTo(Price.toScaled(new BigDecimal("50000")));
+            assertThat(orderBook.getDepth().asks().priceAt(0)).isEqualTo(Price.toScaled(new BigDecimal("51000")));
+        }
+
         @Test
         @DisplayName("지정가 매수 주문 시, 일치하는 가격의 매도 주문과 부분 체결될 수 있다.")
         void matchPartialSellOrderWithSamePriceSellOrder() {
@@ -132,14 +171,14 @@ public class CompanyOrderBookTest {
 
             // then
             assertThat(responses).hasSize(1);
-            assertThat(buyOrder.getRemainingQuantity().get()).isEqualTo(new BigDecimal("5"));
+            assertThat(buyOrder.getRemainingQuantity()).isEqualTo(new BigDecimal("5"));
             responses.forEach(result -> {
                 assertThat(result.sellOrderId()).isEqualTo(sellOrder.getId());
                 assertThat(result.sellAccountId()).isEqualTo(sellOrder.getAccountId());
                 assertThat(result.buyOrderId()).isEqualTo(buyOrder.getId());
                 assertThat(result.buyAccountId()).isEqualTo(buyOrder.getAccountId());
                 assertThat(result.price()).isEqualTo(buyOrder.getPrice());
-                assertThat(result.quantity()).isEqualTo(buyOrder.getTotalQuantity().subtract(buyOrder.getRemainingQuantity().get()));
+                assertThat(result.quantity()).isEqualTo(buyOrder.getTotalQuantity().subtract(buyOrder.getRemainingQuantity()));
             });
         }
 
@@ -157,12 +196,12 @@ public class CompanyOrderBookTest {
 
             // then
             assertThat(responses).hasSize(1);
-            assertThat(sellOrder.getRemainingQuantity().get()).isEqualTo(new BigDecimal("5"));
+            assertThat(sellOrder.getRemainingQuantity()).isEqualTo(new BigDecimal("5"));
             responses.forEach(result -> {
                 assertThat(result.sellOrderId()).isEqualTo(sellOrder.getId());
                 assertThat(result.buyOrderId()).isEqualTo(buyOrder.getId());
                 assertThat(result.price()).isEqualTo(buyOrder.getPrice());
-                assertThat(result.quantity()).isEqualTo(buyOrder.getTotalQuantity().subtract(buyOrder.getRemainingQuantity().get()));
+                assertThat(result.quantity()).isEqualTo(buyOrder.getTotalQuantity().subtract(buyOrder.getRemainingQuantity()));
             });
         }
 
@@ -311,6 +350,116 @@ public class CompanyOrderBookTest {
             assertThat(sellOrderEvent1.buyOrderId()).isEqualTo(buyOrder1.getId());
             assertThat(sellOrderEvent1.price()).isEqualTo(buyOrder1.getPrice());
         }
+
+        @Test
+        @DisplayName("시장가 주문은 수량을 모두 채우면 다음 가격대로 넘어가지 않고, 비워진 가격대는 제거된다.")
+        void stopSweepWhenFilledAndEvictEmptyLevels() {
+            // given
+            SkipListOrderBookSide asks = SkipListOrderBookSide.asks();
+            CompanyOrderBook book = new CompanyOrderBook(asks, SkipListOrderBookSide.bids(), 10);
+            book.received(createOrder(1L, Type.LIMIT_SELL, new BigDecimal("49000"), new BigDecimal("5"), 1L));
+            book.received(createOrder(2L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("5"), 1L));
+
+            // when
+            List<TradeHistoryEvent> responses = book.received(
+                    createOrder(3L, Type.MARKET_BUY, BigDecimal.ZERO, new BigDecimal("5"), 2L)
+            );
+
+            // then
+            assertThat(responses).hasSize(1);
+            assertThat(asks.get(new Price(new BigDecimal("49000")))).isNull();
+            assertThat(asks.bestPrice()).isEqualTo(new Price(new BigDecimal("50000")));
+        }
+
+        @Test
+        @DisplayName("모든 가격대를 소진하면 주문장 한쪽이 비어 있다.")
+        void evictAllLevelsWhenSwept() {
+            // given
+            SkipListOrderBookSide asks = SkipListOrderBookSide.asks();
+            CompanyOrderBook book = new CompanyOrderBook(asks, SkipListOrderBookSide.bids(), 10);
+            book.received(createOrder(1L, Type.LIMIT_SELL, new BigDecimal("49000"), new BigDecimal("5"), 1L));
+            book.received(createOrder(2L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("5"), 1L));
+
+            // when
+            book.received(createOrder(3L, Type.MARKET_BUY, BigDecimal.ZERO, new BigDecimal("20"), 2L));
+
+            // then
+            assertThat(asks.isEmpty()).isTrue();
+            assertThat(asks.prices()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("최대 가격대 수를 넘는 가격대와는 체결하지 않는다.")
+        void limitSweptLevels() {
+            // given
+            CompanyOrderBook book = protectedOrderBook(new MarketOrderProtection(2, 0L));
+            book.received(createOrder(1L, Type.LIMIT_SELL, new BigDecimal("49000"), new BigDecimal("1"), 1L));
+            book.received(createOrder(2L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("1"), 1L));
+            book.received(createOrder(3L, Type.LIMIT_SELL, new BigDecimal("51000"), new BigDecimal("1"), 1L));
+
+            // when
+            List<TradeHistoryEvent> responses = book.received(
+                    createOrder(4L, Type.MARKET_BUY, BigDecimal.ZERO, new BigDecimal("3"), 2L)
+            );
+
+            // then
+            assertThat(responses.stream().map(TradeHistoryEvent::sellOrderId).toList()).containsExactly(1L, 2L);
+            assertThat(book.getDepth().asks().size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("기준 가격 대비 최대 괴리를 벗어난 가격대와는 체결하지 않는다.")
+        void limitPriceDeviation() {
+            // given
+            // 체결 이력이 없으므로 최우선 매수 호가 50000원이 기준 가격, 1% 괴리까지 49500원
+            CompanyOrderBook book = protectedOrderBook(new MarketOrderProtection(0, 100L));
+            book.received(createOrder(1L, Type.LIMIT_BUY, new BigDecimal("50000"), new BigDecimal("1"), 1L));
+            book.received(createOrder(2L, Type.LIMIT_BUY, new BigDecimal("49500"), new BigDecimal("1"), 1L));
+            book.received(createOrder(3L, Type.LIMIT_BUY, new BigDecimal("49000"), new BigDecimal("1"), 1L));
+
+            // when
+            List<TradeHistoryEvent> responses = book.received(
+                    createOrder(4L, Type.MARKET_SELL, BigDecimal.ZERO, new BigDecimal("3"), 2L)
+            );
+
+            // then
+            assertThat(responses.stream().map(TradeHistoryEvent::buyOrderId).toList()).containsExactly(1L, 2L);
+            assertThat(book.getDepth().bids().priceAt(0)).isEqualTo(Price.toScaled(new BigDecimal("49000")));
+        }
+
+        @Test
+        @DisplayName("체결 버퍼를 넘기면 이벤트 목록 대신 버퍼의 끝에 체결을 기록한다.")
+        void receiveIntoFillBuffer() {
+            // given
+            FillBuffer fills = new FillBuffer(1);
+            orderBook.received(createOrder(1L, Type.LIMIT_SELL, new BigDecimal("49000"), new BigDecimal("5"), 1L));
+            orderBook.received(createOrder(2L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("5"), 1L));
+            orderBook.received(createOrder(3L, Type.LIMIT_SELL, new BigDecimal("51000"), new BigDecimal("5"), 1L));
+            orderBook.received(createOrder(4L, Type.MARKET_BUY, BigDecimal.ZERO, new BigDecimal("3"), 2L), fills);
+
+            // when
+            int count = orderBook.received(createOrder(5L, Type.MARKET_BUY, BigDecimal.ZERO, new BigDecimal("7"), 2L), fills);
+
+            // then
+            assertThat(count).isEqualTo(2);
+            assertThat(fills.size()).isEqualTo(3);
+            assertThat(fills.sellOrderIdAt(1)).isEqualTo(1L);
+            assertThat(fills.quantityAt(1)).isEqualTo(2L);
+            assertThat(fills.sellOrderIdAt(2)).isEqualTo(2L);
+            assertThat(fills.quantityAt(2)).isEqualTo(5L);
+            assertThat(orderBook.getRestingOrderCount()).isEqualTo(1);
+        }
+
+        private CompanyOrderBook protectedOrderBook(MarketOrderProtection protection) {
+            return new CompanyOrderBook(
+                    SkipListOrderBookSide.asks(),
+                    SkipListOrderBookSide.bids(),
+                    10,
+                    OrderBookListener.NO_OP,
+                    OrderBookMetrics.NO_OP,
+                    protection
+            );
+        }
     }
 
     @Nested
@@ -329,9 +478,9 @@ public class CompanyOrderBookTest {
             orderBook.received(buyOrder1);
             orderBook.received(sellOrder);
 
-            assertThat(buyOrder2.getRemainingQuantity().get()).isEqualTo(BigDecimal.ZERO);
-            assertThat(buyOrder1.getRemainingQuantity().get()).isEqualTo(new BigDecimal("5"));
-            assertThat(sellOrder.getRemainingQuantity().get()).isEqualTo(BigDecimal.ZERO);
+            assertThat(buyOrder2.getRemainingQuantity()).isEqualTo(BigDecimal.ZERO);
+            assertThat(buyOrder1.getRemainingQuantity()).isEqualTo(new BigDecimal("5"));
+            assertThat(sellOrder.getRemainingQuantity()).isEqualTo(BigDecimal.ZERO);
         }
 
         @Test
@@ -346,14 +495,14 @@ public class CompanyOrderBookTest {
             orderBook.received(sellOrder2);
             orderBook.received(buyOrder);
 
-            assertThat(sellOrder1.getRemainingQuantity().get()).isEqualTo(BigDecimal.ZERO);
-            assertThat(sellOrder2.getRemainingQuantity().get()).isEqualTo(new BigDecimal("5"));
-            assertThat(buyOrder.getRemainingQuantity().get()).isEqualTo(BigDecimal.ZERO);
+            assertThat(sellOrder1.getRemainingQuantity()).isEqualTo(BigDecimal.ZERO);
+            assertThat(sellOrder2.getRemainingQuantity()).isEqualTo(new BigDecimal("5"));
+            assertThat(buyOrder.getRemainingQuantity()).isEqualTo(BigDecimal.ZERO);
         }
 
         @Test
-        @DisplayName("매수 주문시, 모든 조건이 일치할 경우 수량이 많은 주문부터 체결한다.")
-        void buyOrderQuantityPriorityMatching() {
+        @DisplayName("매수 주문시, 같은 가격일 경우 수량과 관계없이 먼저 도착한 주문부터 체결한다.")
+        void buyOrderArrivalPriorityMatching() {
             LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 0, 0);
             TradeOrder buyOrder1 = createOrder(1L, Type.LIMIT_BUY, new BigDecimal("50000"), new BigDecimal("5"), 1L, createdAt);
             TradeOrder buyOrder2 = createOrder(2L, Type.LIMIT_BUY, new BigDecimal("50000"), new BigDecimal("10"), 1L, createdAt);
@@ -363,16 +512,16 @@ public class CompanyOrderBookTest {
             orderBook.received(buyOrder2);
             List<TradeHistoryEvent> results = orderBook.received(sellOrder);
 
-            assertThat(results.get(0).buyAccountId()).isEqualTo(buyOrder2.getAccountId());
+            assertThat(results.get(0).buyOrderId()).isEqualTo(buyOrder1.getId());
             assertThat(results.get(0).sellAccountId()).isEqualTo(sellOrder.getAccountId());
-            assertThat(buyOrder1.getRemainingQuantity().get()).isEqualTo(new BigDecimal(5));
-            assertThat(buyOrder2.getRemainingQuantity().get()).isEqualTo(new BigDecimal(5));
-            assertThat(sellOrder.getRemainingQuantity().get()).isEqualTo(BigDecimal.ZERO);
+            assertThat(buyOrder1.getRemainingQuantity()).isEqualTo(BigDecimal.ZERO);
+            assertThat(buyOrder2.getRemainingQuantity()).isEqualTo(new BigDecimal(10));
+            assertThat(sellOrder.getRemainingQuantity()).isEqualTo(BigDecimal.ZERO);
         }
 
         @Test
-        @DisplayName("매도 주문시, 모든 조건이 일치할 경우 수량이 많은 주문부터 체결한다.")
-        void sellOrderQuantityPriorityMatching() {
+        @DisplayName("매도 주문시, 같은 가격일 경우 수량과 관계없이 먼저 도착한 주문부터 체결한다.")
+        void sellOrderArrivalPriorityMatching() {
             LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 0, 0);
             TradeOrder sellOrder1 = createOrder(1L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("10"), 1L, createdAt);
             TradeOrder sellOrder2 = createOrder(2L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("5"), 1L, createdAt);
@@ -382,9 +531,72 @@ public class CompanyOrderBookTest {
             orderBook.received(sellOrder1);
             orderBook.received(buyOrder);
 
-            assertThat(sellOrder1.getRemainingQuantity().get()).isEqualTo(new BigDecimal(5));
-            assertThat(sellOrder2.getRemainingQuantity().get()).isEqualTo(new BigDecimal(5));
-            assertThat(buyOrder.getRemainingQuantity().get()).isEqualTo(BigDecimal.ZERO);
+            assertThat(sellOrder1.getRemainingQuantity()).isEqualTo(new BigDecimal(10));
+            assertThat(sellOrder2.getRemainingQuantity()).isEqualTo(BigDecimal.ZERO);
+            assertThat(buyOrder.getRemainingQuantity()).isEqualTo(BigDecimal.ZERO);
+        }
+
+        @Test
+        @DisplayName("접수한 순서대로 증가하는 도착 순번과 접수 시각을 부여한다.")
+        void stampArrivalSequence() {
+            // given
+            TradeOrder first = createOrder(1L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("5"), 1L);
+            TradeOrder second = createOrder(2L, Type.LIMIT_BUY, new BigDecimal("49000"), new BigDecimal("5"), 2L);
+
+            // when
+            orderBook.received(first);
+            orderBook.received(second);
+
+            // then
+            assertThat(first.getArrivalSequence()).isGreaterThan(0L);
+            assertThat(second.getArrivalSequence()).isGreaterThan(first.getArrivalSequence());
+            assertThat(second.getReceivedNanos() - first.getReceivedNanos()).isGreaterThanOrEqualTo(0L);
+        }
+
+        @Test
+        @DisplayName("가격을 정정한 주문은 새 도착 순번을 받아 같은 가격대의 기존 주문 뒤에 선다.")
+        void amendedOrderLosesPriority() {
+            // given
+            TradeOrder amended = createOrder(1L, Type.LIMIT_SELL, new BigDecimal("50100"), new BigDecimal("5"), 1L);
+            TradeOrder waiting = createOrder(2L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("5"), 1L);
+            orderBook.received(amended);
+            orderBook.received(waiting);
+
+            // when
+            orderBook.amend(new AmendOrderRequest("005930", 1L, null, new BigDecimal("50000")));
+            List<TradeHistoryEvent> results = orderBook.received(
+                    createOrder(3L, Type.LIMIT_BUY, new BigDecimal("50000"), new BigDecimal("5"), 2L)
+            );
+
+            // then
+            assertThat(amended.getArrivalSequence()).isGreaterThan(waiting.getArrivalSequence());
+            assertThat(results).hasSize(1);
+            assertThat(results.get(0).sellOrderId()).isEqualTo(waiting.getId());
+        }
+
+        @Test
+        @DisplayName("체결 전달을 요청하면 주문장을 점유한 동안 체결을 넘기고, 이미 점유한 상태에서도 한 번만 넘긴다.")
+        void deliverTradesWhileHoldingBook() {
+            // given
+            orderBook.received(createOrder(1L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("2"), 1L));
+            List<TradeHistoryEvent> delivered = new ArrayList<>();
+
+            // when
+            List<TradeHistoryEvent> results = orderBook.received(
+                    createOrder(2L, Type.LIMIT_BUY, new BigDecimal("50000"), new BigDecimal("1"), 2L), delivered::addAll
+            );
+            List<TradeHistoryEvent> batchResults = orderBook.batch(() -> orderBook.received(
+                    createOrder(3L, Type.LIMIT_BUY, new BigDecimal("50000"), new BigDecimal("1"), 2L), delivered::addAll
+            ));
+            List<TradeHistoryEvent> restingResults = orderBook.received(
+                    createOrder(4L, Type.LIMIT_BUY, new BigDecimal("49000"), new BigDecimal("1"), 2L), delivered::addAll
+            );
+
+            // then
+            assertThat(results).hasSize(1);
+            assertThat(batchResults).hasSize(1);
+            assertThat(restingResults).isEmpty();
+            assertThat(delivered.stream().map(TradeHistoryEvent::buyOrderId).toList()).containsExactly(2L, 3L);
         }
     }
 
@@ -478,6 +690,284 @@ public class CompanyOrderBookTest {
         }
     }
 
+    @Nested
+    @DisplayName("자기 매매 방지 테스트")
+    class SelfTradePreventionTests {
+
+        @Test
+        @DisplayName("CANCEL_OLDEST로 취소된 대기 주문은 주문장에서 빠져 다시 취소하거나 정정할 수 없다.")
+        void canceledOwnOrderLeavesBook() {
+            // given
+            CompanyOrderBook book = preventingOrderBook(SelfTradePrevention.CANCEL_OLDEST);
+            TradeOrder own = createOrder(1L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("5"), 1L);
+            book.received(own);
+            book.received(createOrder(2L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("5"), 2L));
+
+            // when
+            List<TradeHistoryEvent> responses = book.received(
+                    createOrder(3L, Type.LIMIT_BUY, new BigDecimal("50000"), new BigDecimal("8"), 1L)
+            );
+
+            // then
+            assertThat(responses).hasSize(1);
+            assertThat(responses.get(0).sellOrderId()).isEqualTo(2L);
+            assertThat(own.getStatus()).isEqualTo(OrderStatus.CANCEL);
+            assertThat(book.cancel(own.getId())).isFalse();
+            assertThat(book.amend(new AmendOrderRequest("005930", own.getId(), new BigDecimal("1"), null)).isPresent()).isFalse();
+            // 남은 매수 3주만 대기
+            assertThat(book.getRestingOrderCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("CANCEL_NEWEST로 취소된 입력 주문은 대기 주문으로 남지 않는다.")
+        void canceledIncomingOrderDoesNotRest() {
+            // given
+            CompanyOrderBook book = preventingOrderBook(SelfTradePrevention.CANCEL_NEWEST);
+            book.received(createOrder(1L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("5"), 1L));
+            TradeOrder incoming = createOrder(2L, Type.LIMIT_BUY, new BigDecimal("50000"), new BigDecimal("5"), 1L);
+
+            // when
+            List<TradeHistoryEvent> responses = book.received(incoming);
+
+            // then
+            assertThat(responses).isEmpty();
+            assertThat(incoming.getStatus()).isEqualTo(OrderStatus.CANCEL);
+            assertThat(book.getRestingOrderCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("자기 매매 방지로 줄어든 수량은 거래량에 포함하지 않는다.")
+        void preventedQuantityIsNotCountedAsVolume() {
+            // given
+            CompanyOrderBook book = preventingOrderBook(SelfTradePrevention.DECREMENT_BOTH);
+            book.received(createOrder(1L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("2"), 2L));
+            book.received(createOrder(2L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("5"), 1L));
+
+            // when
+            book.received(createOrder(3L, Type.LIMIT_BUY, new BigDecimal("50000"), new BigDecimal("6"), 1L));
+            TickerSnapshot ticker = book.getTicker();
+
+            // then
+            assertThat(ticker.volume()).isEqualTo(2L);
+            assertThat(ticker.tradeCount()).isEqualTo(1L);
+        }
+
+        private CompanyOrderBook preventingOrderBook(SelfTradePrevention selfTradePrevention) {
+            return new CompanyOrderBook(
+                    SkipListOrderBookSide.asks(),
+                    SkipListOrderBookSide.bids(),
+                    10,
+                    OrderBookListener.NO_OP,
+                    OrderBookMetrics.NO_OP,
+                    MarketOrderProtection.NONE,
+                    CompanyOrderBook.DEFAULT_RESTING_ORDER_POOL_SIZE,
+                    selfTradePrevention
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("주문 취소 및 정정 테스트")
+    class CancelAndAmendTests {
+
+        @Test
+        @DisplayName("취소된 주문은 체결되지 않는다.")
+        void canceledOrderIsNotMatched() {
+            // given
+            TradeOrder sellOrder = createOrder(1L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("5"), 1L);
+            orderBook.received(sellOrder);
+
+            // when
+            boolean canceled = orderBook.cancel(sellOrder.getId());
+            List<TradeHistoryEvent> responses = orderBook.received(
+                    createOrder(2L, Type.LIMIT_BUY, new BigDecimal("50000"), new BigDecimal("5"), 2L)
+            );
+
+            // then
+            assertThat(canceled).isTrue();
+            assertThat(sellOrder.getStatus()).isEqualTo(OrderStatus.CANCEL);
+            assertThat(responses).isEmpty();
+        }
+
+        @Test
+        @DisplayName("존재하지 않거나 이미 체결된 주문은 취소할 수 없다.")
+        void cannotCancelMissingOrCompletedOrder() {
+            // given
+            TradeOrder sellOrder = createOrder(1L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("5"), 1L);
+            orderBook.received(sellOrder);
+            orderBook.received(createOrder(2L, Type.LIMIT_BUY, new BigDecimal("50000"), new BigDecimal("5"), 2L));
+
+            // when, then
+            assertThat(orderBook.cancel(sellOrder.getId())).isFalse();
+            assertThat(orderBook.cancel(99L)).isFalse();
+        }
+
+        @Test
+        @DisplayName("수량 감소 정정은 대기 순서를 유지한다.")
+        void reduceQuantityKeepsPriority() {
+            // given
+            TradeOrder sellOrder1 = createOrder(1L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("5"), 1L);
+            TradeOrder sellOrder2 = createOrder(2L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("5"), 1L);
+            orderBook.received(sellOrder1);
+            orderBook.received(sellOrder2);
+
+            // when
+            orderBook.amend(new AmendOrderRequest("005930", sellOrder1.getId(), new BigDecimal("2"), null));
+            List<TradeHistoryEvent> responses = orderBook.received(
+                    createOrder(3L, Type.LIMIT_BUY, new BigDecimal("50000"), new BigDecimal("4"), 2L)
+            );
+
+            // then
+            assertThat(responses).hasSize(2);
+            assertThat(responses.get(0).sellOrderId()).isEqualTo(sellOrder1.getId());
+            assertThat(responses.get(0).quantity()).isEqualTo(new BigDecimal("2"));
+            assertThat(sellOrder2.getRemainingQuantity()).isEqualTo(new BigDecimal("3"));
+        }
+
+        @Test
+        @DisplayName("가격 정정은 기존 주문을 취소하고 새 가격으로 다시 접수한다.")
+        void changePriceReplacesOrder() {
+            // given
+            TradeOrder sellOrder = createOrder(1L, Type.LIMIT_SELL, new BigDecimal("51000"), new BigDecimal("5"), 1L);
+            TradeOrder buyOrder = createOrder(2L, Type.LIMIT_BUY, new BigDecimal("50000"), new BigDecimal("5"), 2L);
+            orderBook.received(sellOrder);
+            orderBook.received(buyOrder);
+
+            // when
+            Optional<List<TradeHistoryEvent>> responses = orderBook.amend(
+                    new AmendOrderRequest("005930", sellOrder.getId(), null, new BigDecimal("50000"))
+            );
+
+            // then
+            assertThat(responses.isPresent()).isTrue();
+            assertThat(responses.get()).hasSize(1);
+            assertThat(sellOrder.getStatus()).isEqualTo(OrderStatus.COMPLETE);
+            assertThat(buyOrder.getStatus()).isEqualTo(OrderStatus.COMPLETE);
+            assertThat(orderBook.amend(new AmendOrderRequest("005930", 99L, BigDecimal.ONE, null)).isPresent()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("호가 스냅샷 테스트")
+    class DepthTests {
+
+        @Test
+        @DisplayName("가격대별 잔량 합계와 주문 수를 최우선 호가부터 반환한다.")
+        void aggregateLevels() {
+            // given
+            orderBook.received(createOrder(1L, Type.LIMIT_SELL, new BigDecimal("50100"), new BigDecimal("3"), 1L));
+            orderBook.received(createOrder(2L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("2"), 1L));
+            orderBook.received(createOrder(3L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("4"), 1L));
+            orderBook.received(createOrder(4L, Type.LIMIT_BUY, new BigDecimal("49000"), new BigDecimal("1"), 2L));
+
+            // when
+            BookDepth depth = orderBook.getDepth();
+
+            // then
+            assertThat(depth.asks().size()).isEqualTo(2);
+            assertThat(depth.asks().priceAt(0)).isEqualTo(Price.toScaled(new BigDecimal("50000")));
+            assertThat(depth.asks().quantityAt(0)).isEqualTo(6L);
+            assertThat(depth.asks().orderCountAt(0)).isEqualTo(2);
+            assertThat(depth.asks().priceAt(1)).isEqualTo(Price.toScaled(new BigDecimal("50100")));
+            assertThat(depth.bids().size()).isEqualTo(1);
+            assertThat(depth.bids().quantityAt(0)).isEqualTo(1L);
+        }
+
+        @Test
+        @DisplayName("체결과 취소 후 새 스냅샷으로 교체한다.")
+        void replaceSnapshotAfterTradeAndCancel() {
+            // given
+            orderBook.received(createOrder(1L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("5"), 1L));
+            orderBook.received(createOrder(2L, Type.LIMIT_SELL, new BigDecimal("50100"), new BigDecimal("5"), 1L));
+            BookDepth before = orderBook.getDepth();
+
+            // when
+            orderBook.received(createOrder(3L, Type.LIMIT_BUY, new BigDecimal("50000"), new BigDecimal("5"), 2L));
+            orderBook.cancel(2L);
+            BookDepth after = orderBook.getDepth();
+
+            // then
+            assertThat(before.asks().size()).isEqualTo(2);
+            assertThat(after.version()).isGreaterThan(before.version());
+            assertThat(after.asks().isEmpty()).isTrue();
+        }
+
+        @Test
+        @DisplayName("상위 호가 범위 밖의 가격대 변경은 스냅샷을 다시 만들지 않는다.")
+        void ignoreChangesOutsideDepth() {
+            // given
+            CompanyOrderBook shallowBook = new CompanyOrderBook(
+                    SkipListOrderBookSide.asks(), SkipListOrderBookSide.bids(), 2
+            );
+            shallowBook.received(createOrder(1L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("1"), 1L));
+            shallowBook.received(createOrder(2L, Type.LIMIT_SELL, new BigDecimal("50100"), new BigDecimal("1"), 1L));
+            BookDepth before = shallowBook.getDepth();
+
+            // when
+            shallowBook.received(createOrder(3L, Type.LIMIT_SELL, new BigDecimal("50200"), new BigDecimal("1"), 1L));
+
+            // then
+            assertThat(shallowBook.getDepth()).isSameAs(before);
+            assertThat(before.asks().size()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("시세 테스트")
+    class TickerTests {
+
+        @Test
+        @DisplayName("체결마다 현재가, 시가, 고가, 저가, 누적 거래량과 거래대금을 갱신한다.")
+        void aggregateTrades() {
+            // given
+            orderBook.received(createOrder(1L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("3"), 1L));
+            orderBook.received(createOrder(2L, Type.LIMIT_SELL, new BigDecimal("50100"), new BigDecimal("5"), 1L));
+
+            // when
+            orderBook.received(createOrder(3L, Type.MARKET_BUY, BigDecimal.ZERO, new BigDecimal("6"), 2L));
+            TickerSnapshot ticker = orderBook.getTicker();
+
+            // then
+            assertThat(ticker.lastPrice()).isEqualTo(Price.toScaled(new BigDecimal("50100")));
+            assertThat(ticker.open()).isEqualTo(Price.toScaled(new BigDecimal("50000")));
+            assertThat(ticker.high()).isEqualTo(Price.toScaled(new BigDecimal("50100")));
+            assertThat(ticker.low()).isEqualTo(Price.toScaled(new BigDecimal("50000")));
+            assertThat(ticker.volume()).isEqualTo(6L);
+            assertThat(ticker.tradeCount()).isEqualTo(2L);
+            assertThat(TickerResponse.of("005930", ticker).vwap()).isEqualByComparingTo(new BigDecimal("50050"));
+        }
+
+        @Test
+        @DisplayName("정수 VWAP은 시세와 봉 모두 지수 표기 없이 반환한다.")
+        void wholeNumberVwapWithoutExponent() {
+            // given
+            orderBook.received(createOrder(1L, Type.LIMIT_SELL, new BigDecimal("10000"), new BigDecimal("2"), 1L));
+
+            // when
+            orderBook.received(createOrder(2L, Type.LIMIT_BUY, new BigDecimal("10000"), new BigDecimal("2"), 2L));
+            BigDecimal tickerVwap = TickerResponse.of("005930", orderBook.getTicker()).vwap();
+            BigDecimal candleVwap = CandleResponse.of(orderBook.getCandles(CandleInterval.SECOND).get(0)).vwap();
+
+            // then
+            assertThat(tickerVwap.toString()).isEqualTo("10000");
+            assertThat(candleVwap.toString()).isEqualTo("10000");
+        }
+
+        @Test
+        @DisplayName("체결이 없으면 빈 시세와 빈 봉을 반환한다.")
+        void emptyWithoutTrades() {
+            // given
+            orderBook.received(createOrder(1L, Type.LIMIT_SELL, new BigDecimal("50000"), new BigDecimal("3"), 1L));
+
+            // when
+            TickerSnapshot ticker = orderBook.getTicker();
+
+            // then
+            assertThat(ticker.hasTraded()).isFalse();
+            assertThat(orderBook.getCandles(CandleInterval.SECOND)).isEmpty();
+        }
+    }
+
     private TradeOrder createOrder(Long id, Type type, BigDecimal price, BigDecimal quantity, Long accountId) {
         return TradeOrder.builder()
                 .id(id)
@@ -487,7 +977,7 @@ public class CompanyOrderBookTest {
                 .companyCode("005930")
                 .status(OrderStatus.ACTIVE)
                 .totalQuantity(quantity)
-                .remainingQuantity(new AtomicReference<>(quantity))
+                .remainingQuantity(quantity)
                 .createdDateTime(LocalDateTime.of(2025, 03, 01, 0, 0, 0))
                 .build();
     }
@@ -501,7 +991,7 @@ public class CompanyOrderBookTest {
                 .companyCode("005930")
                 .status(OrderStatus.ACTIVE)
                 .totalQuantity(quantity)
-                .remainingQuantity(new AtomicReference<>(quantity))
+                .remainingQuantity(quantity)
                 .createdDateTime(createdDateTime)
                 .build();
     }